@@ -0,0 +1,206 @@
+package br.unisul.ia.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.unisul.ia.velha.DifusorDePartidas;
+import br.unisul.ia.velha.EspectadorPartida;
+import br.unisul.ia.velha.GerenciadorDePartidas;
+import br.unisul.ia.velha.HistogramaDeLatencia;
+import br.unisul.ia.velha.InstantaneoDaPartida;
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.SorteioVelha;
+
+/**
+ * Benchmark do {@link DifusorDePartidas} com milhares de espectadores.
+ *
+ * Cria as partidas pelo {@link GerenciadorDePartidas} com o difusor, inscreve os
+ * espectadores (metade na partida mais assistida, o resto espalhado pelas outras), e uma
+ * thread joga uma jogada em cada partida a cada rodada, reiniciando as que acabam. Um
+ * espectador em cada {@value #UM_LENTO_A_CADA} demora {@value #DEMORA_DO_LENTO} ms para
+ * tratar cada estado, para mostrar a coalescência.
+ *
+ * Mostra as publicações, as entregas, os estados coalescidos, a latência das entregas e a
+ * memória de cada espectador inscrito. Verifica que nenhum espectador recebeu uma versão
+ * anterior à que já tinha recebido e que, no fim, todos os espectadores de cada partida têm
+ * a última versão. Termina com código de saída 1 se alguma verificação falhou.
+ *
+ * Uso: DifusorBenchmark [espectadores] [partidas] [segundos] [periodo]
+ */
+public class DifusorBenchmark {
+
+	/**
+	 * Um espectador lento a cada tantos espectadores.
+	 */
+	private static final int UM_LENTO_A_CADA = 1000;
+
+	/**
+	 * Tempo que o espectador lento demora para tratar cada estado, em milisegundos.
+	 */
+	private static final long DEMORA_DO_LENTO = 5;
+
+	/**
+	 * Intervalo entre as rodadas de jogadas, em milisegundos.
+	 */
+	private static final long INTERVALO_DAS_RODADAS = 5;
+
+	private static final LongAdder VIOLACOES = new LongAdder();
+
+	/**
+	 * Espectador que confere a ordem das versões recebidas.
+	 */
+	private static final class Espectador implements EspectadorPartida {
+
+		private final boolean lento;
+		private long versao;
+		private long recebidos;
+
+		private Espectador(final boolean lento) {
+			this.lento = lento;
+		}
+
+		@Override
+		public void onAtualizacao(final InstantaneoDaPartida instantaneo) {
+			if (instantaneo.getVersao() <= versao) {
+				VIOLACOES.increment();
+			}
+			versao = instantaneo.getVersao();
+			recebidos++;
+			if (lento) {
+				try {
+					Thread.sleep(DEMORA_DO_LENTO);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Método que executa uma jogada na partida, ou a reinicia se ela acabou.
+	 */
+	private static void jogar(final PartidaVelha partida, final SorteioVelha sorteio) {
+		if (partida.isFimDeJogo()) {
+			partida.iniciar(partida.getDificudade(), sorteio.nextLong());
+		} else if (partida.isVezDaMaquina()) {
+			partida.jogarMaquina();
+		} else {
+			final int sorteada = sorteio.nextInt(9);
+			for (int posicao = 0; posicao < 9 && !partida.jogarJogador((sorteada + posicao) % 9); posicao++) {
+				// Procura a próxima posição livre.
+			}
+		}
+		partida.verificarSituacao();
+	}
+
+	/**
+	 * Método que retorna a memória usada, depois de uma coleta de lixo.
+	 */
+	private static long getMemoriaUsada() throws InterruptedException {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int coleta = 0; coleta < 3; coleta++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Método que inicia o benchmark.
+	 */
+	public static void main(final String[] args) throws InterruptedException {
+		final int quantidadeDeEspectadores = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		final int quantidadeDePartidas = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final long segundos = args.length > 2 ? Long.parseLong(args[2]) : 10;
+		final long periodo = args.length > 3 ? Long.parseLong(args[3]) : DifusorDePartidas.PERIODO_PADRAO;
+
+		final ExecutorService entregador = Executors.newFixedThreadPool(
+				Math.max(2, Runtime.getRuntime().availableProcessors()));
+		final DifusorDePartidas difusor = new DifusorDePartidas(periodo, entregador);
+		final GerenciadorDePartidas gerenciador = new GerenciadorDePartidas(null, difusor);
+		final SorteioVelha sorteio = new SorteioVelha(1);
+
+		final PartidaVelha[] partidas = new PartidaVelha[quantidadeDePartidas];
+		for (int indice = 0; indice < partidas.length; indice++) {
+			partidas[indice] = gerenciador.criar(sorteio.nextInt(3), sorteio.nextLong());
+		}
+
+		final long memoriaAntes = getMemoriaUsada();
+		final Espectador[] espectadores = new Espectador[quantidadeDeEspectadores];
+		final int[] partidaDoEspectador = new int[quantidadeDeEspectadores];
+		for (int indice = 0; indice < espectadores.length; indice++) {
+			espectadores[indice] = new Espectador(indice % UM_LENTO_A_CADA == UM_LENTO_A_CADA - 1);
+			partidaDoEspectador[indice] = indice % 2 == 0 || partidas.length == 1 ? 0
+					: 1 + sorteio.nextInt(partidas.length - 1);
+			difusor.inscrever(partidas[partidaDoEspectador[indice]].getId(), espectadores[indice]);
+		}
+		final long memoriaDepois = getMemoriaUsada();
+
+		// Descarta as entregas dos estados iniciais.
+		Thread.sleep(5 * periodo);
+		difusor.getLatencia().zerar();
+		final long publicacoesAntes = difusor.getPublicacoes();
+		final long entregasAntes = difusor.getEntregas();
+		final long coalescidasAntes = difusor.getCoalescidas();
+		final long lotesAntes = difusor.getLotes();
+
+		final long inicio = System.nanoTime();
+		final long fim = inicio + TimeUnit.SECONDS.toNanos(segundos);
+		long rodadas = 0;
+		while (System.nanoTime() < fim) {
+			for (final PartidaVelha partida : partidas) {
+				jogar(partida, sorteio);
+			}
+			rodadas++;
+			Thread.sleep(INTERVALO_DAS_RODADAS);
+		}
+		final long nanos = System.nanoTime() - inicio;
+
+		// Espera os espectadores lentos receberem o último estado.
+		Thread.sleep(10 * periodo + 20 * DEMORA_DO_LENTO);
+		difusor.close();
+		entregador.shutdown();
+		entregador.awaitTermination(10, TimeUnit.SECONDS);
+
+		final long[] ultimaVersao = new long[partidas.length];
+		for (int indice = 0; indice < espectadores.length; indice++) {
+			final int partida = partidaDoEspectador[indice];
+			ultimaVersao[partida] = Math.max(ultimaVersao[partida], espectadores[indice].versao);
+		}
+		long atrasados = 0;
+		long recebidosPelosLentos = 0;
+		long lentos = 0;
+		for (int indice = 0; indice < espectadores.length; indice++) {
+			if (espectadores[indice].versao != ultimaVersao[partidaDoEspectador[indice]]) {
+				atrasados++;
+			}
+			if (espectadores[indice].lento) {
+				recebidosPelosLentos += espectadores[indice].recebidos;
+				lentos++;
+			}
+		}
+
+		final long publicacoes = difusor.getPublicacoes() - publicacoesAntes;
+		final long entregas = difusor.getEntregas() - entregasAntes;
+		final HistogramaDeLatencia latencia = difusor.getLatencia();
+		System.out.printf("%,d espectadores (%d lentos), %d partidas, periodo de %d ms, %d ms%n",
+				quantidadeDeEspectadores, lentos, quantidadeDePartidas, periodo, nanos / 1_000_000);
+		System.out.printf("%,d rodadas, %,d publicações (%,.0f/s), %,d entregas (%,.0f/s), %,d lotes%n", rodadas,
+				publicacoes, publicacoes * 1e9 / nanos, entregas, entregas * 1e9 / nanos,
+				difusor.getLotes() - lotesAntes);
+		System.out.printf("%,d estados coalescidos; os espectadores lentos receberam %,.1f estados cada%n",
+				difusor.getCoalescidas() - coalescidasAntes, lentos == 0 ? 0.0 : (double) recebidosPelosLentos / lentos);
+		System.out.printf("latência das entregas: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, máximo %.2f ms%n",
+				latencia.getPercentil(50) / 1e6, latencia.getPercentil(90) / 1e6, latencia.getPercentil(99) / 1e6,
+				latencia.getMaximo() / 1e6);
+		System.out.printf("memória: %,d bytes por espectador inscrito%n",
+				(memoriaDepois - memoriaAntes) / Math.max(1, quantidadeDeEspectadores));
+		System.out.printf("%d violações de ordem, %d espectadores sem a última versão, %d falhas%n",
+				VIOLACOES.sum(), atrasados, difusor.getFalhas());
+		if (VIOLACOES.sum() > 0 || atrasados > 0 || difusor.getFalhas() > 0) {
+			System.exit(1);
+		}
+	}
+}
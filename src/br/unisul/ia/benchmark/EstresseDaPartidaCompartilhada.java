@@ -0,0 +1,203 @@
+package br.unisul.ia.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.unisul.ia.velha.PartidaCompartilhada;
+import br.unisul.ia.velha.SorteioVelha;
+import br.unisul.ia.velha.TabuleiroBits;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Teste de estresse da {@link PartidaCompartilhada}: várias threads jogadoras enviam jogadas
+ * sorteadas para a mesma partida ao mesmo tempo, pelos dois jogadores, e reiniciam a partida
+ * quando ela acaba, enquanto threads espectadoras leem o estado sem parar.
+ *
+ * Verifica que:
+ * <ul>
+ * <li>todo estado lido, por jogadores e espectadores, é consistente: as jogadas em ordem
+ * reproduzem o tabuleiro, a vez e a situação, sem posição repetida e sem jogada depois do fim;</li>
+ * <li>um espectador nunca vê a partida voltar atrás dentro da mesma geração;</li>
+ * <li>a soma das jogadas aceitas é igual à soma das jogadas das partidas, ou seja, entre as
+ * jogadas simultâneas para a mesma vez só uma foi aceita.</li>
+ * </ul>
+ * Termina com código de saída 1 se alguma verificação falhou.
+ *
+ * Uso: EstresseDaPartidaCompartilhada [partidas] [jogadores] [espectadores]
+ */
+public class EstresseDaPartidaCompartilhada {
+
+	private final PartidaCompartilhada partida = new PartidaCompartilhada();
+
+	private final LongAdder aceitas = new LongAdder();
+	private final LongAdder recusadas = new LongAdder();
+	private final LongAdder finalizadas = new LongAdder();
+	private final LongAdder jogadasDasFinalizadas = new LongAdder();
+	private final LongAdder leituras = new LongAdder();
+	private final LongAdder violacoes = new LongAdder();
+
+	/**
+	 * Quantidade de partidas a jogar.
+	 */
+	private final long partidas;
+
+	private EstresseDaPartidaCompartilhada(final long partidas) {
+		this.partidas = partidas;
+	}
+
+	/**
+	 * Thread jogadora: envia jogadas sorteadas para o jogador da vez, alternando entre a jogada
+	 * incondicional e a jogada condicionada ao estado lido, e reinicia a partida que acabou.
+	 */
+	private void jogar(final long semente) {
+		final SorteioVelha sorteio = new SorteioVelha(semente);
+		while (finalizadas.sum() < partidas) {
+			final long estado = partida.getEstado();
+			verificar(estado);
+
+			if (PartidaCompartilhada.isFimDeJogo(estado)) {
+				if (partida.reiniciar(estado)) {
+					jogadasDasFinalizadas.add(PartidaCompartilhada.getQuantidadeDeJogadas(estado));
+					finalizadas.increment();
+				}
+				continue;
+			}
+
+			final int posicao = sorteio.nextInt(9);
+			final boolean aceita = sorteio.nextBoolean()
+					? partida.jogar(posicao, PartidaCompartilhada.getJogadorDaVez(estado))
+					: partida.jogar(estado, posicao);
+			if (aceita) {
+				aceitas.increment();
+			} else {
+				recusadas.increment();
+			}
+		}
+	}
+
+	/**
+	 * Thread espectadora: lê o estado sem parar e verifica que ele só avança dentro da geração.
+	 */
+	private void assistir() {
+		long anterior = partida.getEstado();
+		while (finalizadas.sum() < partidas) {
+			final long estado = partida.getEstado();
+			verificar(estado);
+			leituras.increment();
+
+			if (PartidaCompartilhada.getGeracao(estado) == PartidaCompartilhada.getGeracao(anterior)) {
+				final int quantidadeAnterior = PartidaCompartilhada.getQuantidadeDeJogadas(anterior);
+				final long mascara = (1L << (4 * quantidadeAnterior)) - 1;
+				if (PartidaCompartilhada.getQuantidadeDeJogadas(estado) < quantidadeAnterior
+						|| (PartidaCompartilhada.getJogadas(estado) & mascara) != PartidaCompartilhada
+								.getJogadas(anterior)) {
+					violar("partida voltou atrás", estado);
+				}
+			}
+			anterior = estado;
+		}
+	}
+
+	/**
+	 * Método que reproduz as jogadas do estado e compara o tabuleiro, a vez e a situação.
+	 */
+	private void verificar(final long estado) {
+		final int quantidade = PartidaCompartilhada.getQuantidadeDeJogadas(estado);
+		int bitsX = 0;
+		int bitsO = 0;
+		int situacao = PartidaCompartilhada.EM_ANDAMENTO;
+
+		for (int indice = 0; indice < quantidade; indice++) {
+			final int posicao = PartidaCompartilhada.getJogada(estado, indice);
+			if (posicao > 8 || ((bitsX | bitsO) & (1 << posicao)) != 0 || situacao != PartidaCompartilhada.EM_ANDAMENTO) {
+				violar("jogada inválida", estado);
+				return;
+			}
+			if ((indice & 1) == 0) {
+				bitsX |= 1 << posicao;
+				situacao = TabuleiroBits.isLinhaCompleta(bitsX) ? PartidaCompartilhada.VITORIA_X : situacao;
+			} else {
+				bitsO |= 1 << posicao;
+				situacao = TabuleiroBits.isLinhaCompleta(bitsO) ? PartidaCompartilhada.VITORIA_O : situacao;
+			}
+		}
+		if (quantidade == 9 && situacao == PartidaCompartilhada.EM_ANDAMENTO) {
+			situacao = PartidaCompartilhada.EMPATE;
+		}
+
+		final char vez = (quantidade & 1) == 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+		if (PartidaCompartilhada.getCodigoDoTabuleiro(estado) != (bitsX | bitsO << 9)
+				|| PartidaCompartilhada.getJogadorDaVez(estado) != vez
+				|| PartidaCompartilhada.getSituacao(estado) != situacao
+				|| (PartidaCompartilhada.getJogadas(estado) >>> (4 * quantidade)) != 0) {
+			violar("estado inconsistente", estado);
+		}
+	}
+
+	private void violar(final String motivo, final long estado) {
+		if (violacoes.sum() < 10) {
+			System.out.printf("%s: %016x %s%n", motivo, estado,
+					TabuleiroBits.getTexto(PartidaCompartilhada.getCodigoDoTabuleiro(estado)));
+		}
+		violacoes.increment();
+	}
+
+	/**
+	 * Método que inicia o teste.
+	 */
+	public static void main(final String[] args) throws InterruptedException {
+		final long partidas = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		final int jogadores = args.length > 1 ? Integer.parseInt(args[1])
+				: Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+		final int espectadores = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+		final EstresseDaPartidaCompartilhada estresse = new EstresseDaPartidaCompartilhada(partidas);
+		final CountDownLatch largada = new CountDownLatch(1);
+		final Thread[] threads = new Thread[jogadores + espectadores];
+		for (int indice = 0; indice < threads.length; indice++) {
+			final boolean jogador = indice < jogadores;
+			final long semente = indice;
+			threads[indice] = new Thread(() -> {
+				try {
+					largada.await();
+				} catch (final InterruptedException e) {
+					return;
+				}
+				if (jogador) {
+					estresse.jogar(semente);
+				} else {
+					estresse.assistir();
+				}
+			}, (jogador ? "jogador-" : "espectador-") + indice);
+			threads[indice].start();
+		}
+
+		final long inicio = System.nanoTime();
+		largada.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		final long nanos = System.nanoTime() - inicio;
+
+		/**
+		 * As jogadas aceitas da partida em andamento ainda não foram somadas.
+		 */
+		final long estadoFinal = estresse.partida.getEstado();
+		final long jogadasDasPartidas = estresse.jogadasDasFinalizadas.sum()
+				+ PartidaCompartilhada.getQuantidadeDeJogadas(estadoFinal);
+		if (jogadasDasPartidas != estresse.aceitas.sum()) {
+			estresse.violar("jogadas aceitas (" + estresse.aceitas.sum() + ") diferentes das jogadas das partidas ("
+					+ jogadasDasPartidas + ")", estadoFinal);
+		}
+
+		System.out.printf("%d jogadores, %d espectadores, %d ms%n", jogadores, espectadores, nanos / 1_000_000);
+		System.out.printf("%,d partidas, %,d jogadas aceitas (%,.0f/s), %,d recusadas, %,d conflitos de CAS%n",
+				estresse.finalizadas.sum(), estresse.aceitas.sum(), estresse.aceitas.sum() * 1e9 / nanos,
+				estresse.recusadas.sum(), estresse.partida.getConflitos());
+		System.out.printf("%,d leituras dos espectadores, %d violações%n", estresse.leituras.sum(),
+				estresse.violacoes.sum());
+		if (estresse.violacoes.sum() > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package br.unisul.ia.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import br.unisul.ia.registro.GravadorDeRegistros;
+import br.unisul.ia.registro.LeitorDeRegistros;
+import br.unisul.ia.registro.RegistroDePartida;
+import br.unisul.ia.velha.GerenciadorDePartidas;
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.SorteioVelha;
+
+/**
+ * Benchmark da gravação e da leitura dos registros de partidas.
+ *
+ * Mede a gravação de registros prontos, a gravação de partidas jogadas pelo
+ * {@link GerenciadorDePartidas} com o gravador como ouvinte, e a leitura de todos os registros.
+ *
+ * Uso: RegistroBenchmark [arquivo] [registros] [partidas]
+ */
+public class RegistroBenchmark {
+
+	/**
+	 * Método que inicia o benchmark.
+	 */
+	public static void main(final String[] args) throws IOException {
+		final Path arquivo = Paths.get(args.length > 0 ? args[0] : "partidas.reg");
+		final long registros = args.length > 1 ? Long.parseLong(args[1]) : 20_000_000L;
+		final int partidas = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+		final SorteioVelha sorteio = new SorteioVelha(1);
+		Files.deleteIfExists(arquivo);
+
+		long inicio = System.nanoTime();
+		try (GravadorDeRegistros gravador = new GravadorDeRegistros(arquivo)) {
+			for (long registro = 0; registro < registros; registro++) {
+				gravador.gravar(registro, RegistroDePartida.getDados(sorteio.nextLong(), 9, 5,
+						RegistroDePartida.EMPATE));
+			}
+		}
+		mostrar("gravar registro", registros, System.nanoTime() - inicio);
+
+		inicio = System.nanoTime();
+		try (GravadorDeRegistros gravador = new GravadorDeRegistros(arquivo)) {
+			final GerenciadorDePartidas gerenciador = new GerenciadorDePartidas(gravador);
+			for (int partida = 0; partida < partidas; partida++) {
+				final PartidaVelha partidaVelha = gerenciador.criar(partida % 3, sorteio.nextLong());
+				while (!partidaVelha.isFimDeJogo()) {
+					int posicao;
+					do {
+						posicao = sorteio.nextInt(9);
+					} while (!partidaVelha.jogarJogador(posicao));
+					partidaVelha.jogarMaquina();
+					partidaVelha.verificarSituacao();
+				}
+				gerenciador.descartar(partidaVelha.getId());
+			}
+		}
+		mostrar("jogar e gravar partida", partidas, System.nanoTime() - inicio);
+
+		inicio = System.nanoTime();
+		long lidos = 0;
+		long jogadas = 0;
+		try (LeitorDeRegistros leitor = new LeitorDeRegistros(arquivo)) {
+			while (leitor.proximo()) {
+				jogadas += leitor.getQuantidadeDeJogadas();
+				lidos++;
+			}
+		}
+		mostrar("ler registro", lidos, System.nanoTime() - inicio);
+		System.out.println(lidos + " registros, " + jogadas + " jogadas, " + Files.size(arquivo) + " bytes");
+	}
+
+	private static void mostrar(final String nome, final long quantidade, final long nanos) {
+		System.out.printf("%-24s %,14d em %,8d ms: %,.0f/s%n", nome, quantidade, nanos / 1_000_000,
+				quantidade * 1e9 / nanos);
+	}
+}
@@ -0,0 +1,89 @@
+package br.unisul.ia.benchmark;
+
+import br.unisul.ia.velha.SorteioVelha;
+import br.unisul.ia.velha.SuperVelha;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Benchmark da busca do {@link SuperVelha}: joga partidas da maquina contra jogadas
+ * aleatórias e contra ela mesma, com o tempo limite por jogada, e mostra o tempo de cada
+ * jogada, a profundidade alcançada e as posições visitadas por segundo.
+ *
+ * Uso: SuperVelhaBenchmark [partidas] [tempo limite em ms] [semente]
+ */
+public class SuperVelhaBenchmark {
+
+	/**
+	 * Método que inicia o benchmark.
+	 */
+	public static void main(final String[] args) {
+		final int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		final long tempoLimite = args.length > 1 ? Long.parseLong(args[1]) : 100;
+		final long semente = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		jogar("x aleatorio", partidas, tempoLimite, true, new SorteioVelha(semente));
+		jogar("x maquina", partidas, tempoLimite, false, new SorteioVelha(semente));
+	}
+
+	/**
+	 * Método que joga as partidas de um confronto e mostra o resultado e as medidas da busca.
+	 * Metade das partidas começa com a maquina avaliada.
+	 */
+	private static void jogar(final String nome, final int partidas, final long tempoLimite,
+			final boolean contraAleatorio, final SorteioVelha sorteio) {
+		final SuperVelha maquina = new SuperVelha();
+		final SuperVelha adversario = new SuperVelha();
+		maquina.setTempoLimite(tempoLimite);
+		adversario.setTempoLimite(tempoLimite);
+		final int[] jogadasValidas = new int[SuperVelha.POSICOES];
+
+		int vitorias = 0;
+		int empates = 0;
+		long jogadasDaMaquina = 0;
+		long nanosTotais = 0;
+		long nanosMaximos = 0;
+		long profundidades = 0;
+		long nos = 0;
+
+		for (int partida = 0; partida < partidas; partida++) {
+			final char jogadorDaMaquina = partida % 2 == 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+			maquina.limparTabuleiro();
+			adversario.limparTabuleiro();
+
+			/**
+			 * As duas primeiras jogadas são sorteadas, para as partidas não se repetirem.
+			 */
+			while (!maquina.isFimDeJogo()) {
+				final int jogada;
+				if (maquina.getQuantidadeDeJogadas() < 2
+						|| (maquina.getJogadorDaVez() != jogadorDaMaquina && contraAleatorio)) {
+					jogada = jogadasValidas[sorteio.nextInt(maquina.getJogadasValidas(jogadasValidas))];
+				} else if (maquina.getJogadorDaVez() == jogadorDaMaquina) {
+					final long inicio = System.nanoTime();
+					jogada = maquina.getJogada();
+					final long nanos = System.nanoTime() - inicio;
+					jogadasDaMaquina++;
+					nanosTotais += nanos;
+					nanosMaximos = Math.max(nanosMaximos, nanos);
+					profundidades += maquina.getProfundidadeAlcancada();
+					nos += maquina.getNos();
+				} else {
+					jogada = adversario.getJogada();
+				}
+				maquina.jogar(jogada);
+				adversario.jogar(jogada);
+			}
+
+			if (maquina.getGanhador() == jogadorDaMaquina) {
+				vitorias++;
+			} else if (maquina.getGanhador() == VelhaIA.VAZIO) {
+				empates++;
+			}
+		}
+
+		System.out.printf("%s: %d partidas, %d vitorias, %d empates, %d derrotas; "
+				+ "jogada media %.1f ms, maxima %.1f ms, profundidade media %.1f, %.0f nos/s%n", nome, partidas,
+				vitorias, empates, partidas - vitorias - empates, nanosTotais / 1e6 / jogadasDaMaquina,
+				nanosMaximos / 1e6, (double) profundidades / jogadasDaMaquina, nos * 1e9 / nanosTotais);
+	}
+}
@@ -0,0 +1,109 @@
+package br.unisul.ia.registro;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Análise de um arquivo de registros de partidas, dividida entre os processadores.
+ *
+ * O arquivo é dividido em intervalos de registros, e cada intervalo é lido por uma tarefa
+ * de um {@link ForkJoinPool}, com o seu próprio {@link LeitorDeRegistros} e as suas próprias
+ * {@link EstatisticasDasPartidas}, somadas no final. A memória usada não depende do
+ * tamanho do arquivo.
+ *
+ * Uso: AnalisadorDeRegistros arquivo [threads]
+ */
+public class AnalisadorDeRegistros {
+
+	/**
+	 * Quantidade de registros lidos por uma tarefa, sem dividir.
+	 */
+	private static final long REGISTROS_POR_TAREFA = 4L * 1024 * 1024;
+
+	/**
+	 * Pool que executa as tarefas.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Construtor da classe com o pool especificado.
+	 */
+	public AnalisadorDeRegistros(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Método que analisa todos os registros do arquivo.
+	 */
+	public EstatisticasDasPartidas analisar(final Path arquivo) throws IOException {
+		try {
+			return pool.invoke(new IntervaloDeRegistros(arquivo, 0, LeitorDeRegistros.contarRegistros(arquivo)));
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Tarefa que analisa um intervalo de registros, dividindo-o enquanto for grande.
+	 */
+	private static final class IntervaloDeRegistros extends RecursiveTask<EstatisticasDasPartidas> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Path arquivo;
+		private final long inicio;
+		private final long fim;
+
+		private IntervaloDeRegistros(final Path arquivo, final long inicio, final long fim) {
+			this.arquivo = arquivo;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected EstatisticasDasPartidas compute() {
+			if (fim - inicio > REGISTROS_POR_TAREFA) {
+				final long meio = (inicio + fim) >>> 1;
+				final IntervaloDeRegistros primeiraMetade = new IntervaloDeRegistros(arquivo, inicio, meio);
+				primeiraMetade.fork();
+				final EstatisticasDasPartidas segundaMetade = new IntervaloDeRegistros(arquivo, meio, fim).compute();
+				return segundaMetade.somar(primeiraMetade.join());
+			}
+
+			final EstatisticasDasPartidas estatisticas = new EstatisticasDasPartidas();
+			try (LeitorDeRegistros leitor = new LeitorDeRegistros(arquivo, inicio, fim - inicio)) {
+				while (leitor.proximo()) {
+					estatisticas.registrar(leitor.getDados());
+				}
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return estatisticas;
+		}
+	}
+
+	/**
+	 * Método que analisa o arquivo e mostra as estatisticas.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Uso: AnalisadorDeRegistros arquivo [threads]");
+			return;
+		}
+		final Path arquivo = Paths.get(args[0]);
+		final int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		final long inicio = System.nanoTime();
+		final EstatisticasDasPartidas estatisticas = new AnalisadorDeRegistros(new ForkJoinPool(threads))
+				.analisar(arquivo);
+		final long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+		System.out.print(estatisticas);
+		System.out.printf("%d registros em %d ms com %d threads%n", estatisticas.getPartidas()
+				+ estatisticas.getInvalidas(), milisegundos, threads);
+	}
+}
@@ -0,0 +1,217 @@
+package br.unisul.ia.registro;
+
+import java.util.Locale;
+
+import br.unisul.ia.velha.TabelaDeJogadas;
+import br.unisul.ia.velha.TabuleiroBits;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Estatisticas de um conjunto de registros de partidas: aberturas, resultados por dificudade,
+ * duração das partidas e erros ("blunders") de cada jogador.
+ *
+ * Um erro é uma jogada que troca uma posição ganha por um empate ou uma derrota, ou uma
+ * posição empatada por uma derrota, com jogo perfeito dos dois lados, segundo a
+ * {@link TabelaDeJogadas}. Registros com jogadas impossíveis são contados como inválidos.
+ *
+ * Cada tarefa da análise tem as suas estatisticas, somadas no final; a memória usada não
+ * depende da quantidade de registros.
+ */
+public class EstatisticasDasPartidas {
+
+	/**
+	 * Quantidade de dificudades possíveis no registro.
+	 */
+	private static final int DIFICUDADES = 256;
+
+	/**
+	 * Tipos de erro.
+	 */
+	private static final int VITORIA_DESPERDICADA = 0;
+	private static final int DERROTA_PERMITIDA = 1;
+
+	private long partidas;
+	private long invalidas;
+	private long jogadas;
+
+	/**
+	 * Quantidade de partidas por primeira jogada, e por primeira e segunda jogada (9 * primeira + segunda).
+	 */
+	private final long[] aberturas = new long[9];
+	private final long[] respostas = new long[81];
+
+	/**
+	 * Quantidade de partidas por dificudade e resultado (4 * dificudade + resultado).
+	 */
+	private final long[] resultados = new long[DIFICUDADES * 4];
+
+	/**
+	 * Quantidade de erros por dificudade, jogador ('X' = 0, 'O' = 1) e tipo de erro
+	 * (4 * dificudade + 2 * jogador + tipo).
+	 */
+	private final long[] erros = new long[DIFICUDADES * 4];
+
+	/**
+	 * Tabuleiro usado para avaliar as jogadas, reaproveitado entre os registros.
+	 */
+	private final TabuleiroBits tabuleiro = new TabuleiroBits();
+
+	/**
+	 * Método que acrescenta os dados de um registro (ver {@link RegistroDePartida}) nas estatisticas.
+	 */
+	public void registrar(final long dados) {
+		final int quantidadeDeJogadas = RegistroDePartida.getQuantidadeDeJogadas(dados);
+		final int dificudade = RegistroDePartida.getDificudade(dados);
+		final int resultado = RegistroDePartida.getResultado(dados);
+		if (quantidadeDeJogadas > 9 || resultado > RegistroDePartida.INCOMPLETA) {
+			invalidas++;
+			return;
+		}
+
+		tabuleiro.limpar();
+		int ocupadas = 0;
+		long errosDaPartida = 0;
+		for (int indice = 0; indice < quantidadeDeJogadas; indice++) {
+			final int posicao = RegistroDePartida.getJogada(dados, indice);
+			if (posicao > 8 || (ocupadas & (1 << posicao)) != 0 || tabuleiro.getLinhaGanhadora() >= 0) {
+				invalidas++;
+				return;
+			}
+
+			final char jogador = (indice & 1) == 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+			final int valorAntes = TabelaDeJogadas.getValor(tabuleiro, jogador);
+			tabuleiro.setPosicao(posicao, jogador);
+			ocupadas |= 1 << posicao;
+			final int valorDepois = -TabelaDeJogadas.getValor(tabuleiro, VelhaIA.getOponente(jogador));
+
+			if (valorDepois < valorAntes) {
+				final int tipo = valorAntes > 0 ? VITORIA_DESPERDICADA : DERROTA_PERMITIDA;
+				errosDaPartida += 1L << (8 * (2 * (indice & 1) + tipo));
+			}
+		}
+
+		partidas++;
+		jogadas += quantidadeDeJogadas;
+		if (quantidadeDeJogadas > 0) {
+			final int primeira = RegistroDePartida.getJogada(dados, 0);
+			aberturas[primeira]++;
+			if (quantidadeDeJogadas > 1) {
+				respostas[9 * primeira + RegistroDePartida.getJogada(dados, 1)]++;
+			}
+		}
+		resultados[4 * dificudade + resultado]++;
+		for (int contador = 0; contador < 4; contador++) {
+			erros[4 * dificudade + contador] += (errosDaPartida >>> (8 * contador)) & 0xFF;
+		}
+	}
+
+	/**
+	 * Método que soma as estatisticas especificadas nestas estatisticas, e retorna estas.
+	 */
+	public EstatisticasDasPartidas somar(final EstatisticasDasPartidas outras) {
+		partidas += outras.partidas;
+		invalidas += outras.invalidas;
+		jogadas += outras.jogadas;
+		somar(aberturas, outras.aberturas);
+		somar(respostas, outras.respostas);
+		somar(resultados, outras.resultados);
+		somar(erros, outras.erros);
+		return this;
+	}
+
+	private static void somar(final long[] destino, final long[] origem) {
+		for (int indice = 0; indice < destino.length; indice++) {
+			destino[indice] += origem[indice];
+		}
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas válidas.
+	 */
+	public long getPartidas() {
+		return partidas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de registros com jogadas impossíveis.
+	 */
+	public long getInvalidas() {
+		return invalidas;
+	}
+
+	/**
+	 * Método que retorna a média de jogadas por partida.
+	 */
+	public double getMediaDeJogadas() {
+		return partidas == 0 ? 0 : (double) jogadas / partidas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas que começaram na posição.
+	 */
+	public long getAberturas(final int posicao) {
+		return aberturas[posicao];
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas com a primeira e a segunda jogada especificadas.
+	 */
+	public long getRespostas(final int primeira, final int segunda) {
+		return respostas[9 * primeira + segunda];
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas da dificudade com o resultado especificado.
+	 */
+	public long getResultados(final int dificudade, final int resultado) {
+		return resultados[4 * dificudade + resultado];
+	}
+
+	/**
+	 * Método que retorna a quantidade de erros do jogador nas partidas da dificudade:
+	 * vitórias desperdiçadas somadas com derrotas permitidas.
+	 */
+	public long getErros(final int dificudade, final char jogador) {
+		final int indice = 4 * dificudade + (jogador == VelhaIA.JOGADOR_X ? 0 : 2);
+		return erros[indice + VITORIA_DESPERDICADA] + erros[indice + DERROTA_PERMITIDA];
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder texto = new StringBuilder();
+		texto.append(String.format(Locale.ROOT, "partidas=%d invalidas=%d jogadas/partida=%.2f%n", partidas,
+				invalidas, getMediaDeJogadas()));
+
+		texto.append("aberturas:");
+		for (int posicao = 0; posicao < 9; posicao++) {
+			texto.append(String.format(Locale.ROOT, " %d=%.2f%%", posicao, getPercentual(aberturas[posicao], partidas)));
+		}
+		texto.append(String.format("%n"));
+
+		for (int dificudade = 0; dificudade < DIFICUDADES; dificudade++) {
+			long partidasDaDificudade = 0;
+			for (int resultado = 0; resultado < 4; resultado++) {
+				partidasDaDificudade += resultados[4 * dificudade + resultado];
+			}
+			if (partidasDaDificudade == 0) {
+				continue;
+			}
+			final int indice = 4 * dificudade;
+			texto.append(String.format(Locale.ROOT,
+					"dificudade %d: partidas=%d empates=%.2f%% X=%.2f%% O=%.2f%% incompletas=%.2f%%"
+							+ " erros X=%d (vitorias desperdiçadas=%d) erros O=%d (vitorias desperdiçadas=%d)%n",
+					dificudade, partidasDaDificudade,
+					getPercentual(resultados[indice + RegistroDePartida.EMPATE], partidasDaDificudade),
+					getPercentual(resultados[indice + RegistroDePartida.GANHOU_X], partidasDaDificudade),
+					getPercentual(resultados[indice + RegistroDePartida.GANHOU_O], partidasDaDificudade),
+					getPercentual(resultados[indice + RegistroDePartida.INCOMPLETA], partidasDaDificudade),
+					getErros(dificudade, VelhaIA.JOGADOR_X), erros[indice + VITORIA_DESPERDICADA],
+					getErros(dificudade, VelhaIA.JOGADOR_O), erros[indice + 2 + VITORIA_DESPERDICADA]));
+		}
+		return texto.toString();
+	}
+
+	private static double getPercentual(final long valor, final long total) {
+		return total == 0 ? 0 : 100.0 * valor / total;
+	}
+}
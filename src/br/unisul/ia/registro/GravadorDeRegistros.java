@@ -0,0 +1,148 @@
+package br.unisul.ia.registro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import br.unisul.ia.velha.OuvintePartida;
+import br.unisul.ia.velha.PartidaVelha;
+
+/**
+ * Gravador que acrescenta registros de partidas ({@link RegistroDePartida}) no fim de um arquivo.
+ *
+ * Os registros são escritos direto em um trecho do arquivo mapeado na memória; quando o trecho
+ * enche, o próximo trecho é mapeado e o arquivo cresce. Ao fechar, o arquivo é cortado no fim
+ * do último registro. Se o processo parar antes, o resto do trecho fica zerado, e a leitura
+ * para no primeiro registro sem a marca.
+ *
+ * Pode ser usado como {@link OuvintePartida}, para gravar cada partida que termina.
+ * Os métodos são sincronizados.
+ */
+public class GravadorDeRegistros implements OuvintePartida, Closeable {
+
+	/**
+	 * Tamanho padrão de cada trecho mapeado, em bytes.
+	 */
+	public static final int TAMANHO_DO_TRECHO = 64 * 1024 * 1024;
+
+	private final FileChannel canal;
+	private final int tamanhoDoTrecho;
+
+	/**
+	 * Trecho mapeado atual e a sua posição no arquivo.
+	 */
+	private MappedByteBuffer trecho;
+	private long inicioDoTrecho;
+
+	/**
+	 * Posição do próximo registro no trecho.
+	 */
+	private int posicao;
+
+	/**
+	 * Quantidade de registros do arquivo.
+	 */
+	private long quantidade;
+
+	/**
+	 * Construtor da classe, com trechos do tamanho padrão.
+	 */
+	public GravadorDeRegistros(final Path arquivo) throws IOException {
+		this(arquivo, TAMANHO_DO_TRECHO);
+	}
+
+	/**
+	 * Construtor da classe. Os registros são acrescentados depois dos registros já gravados no arquivo.
+	 */
+	public GravadorDeRegistros(final Path arquivo, final int tamanhoDoTrecho) throws IOException {
+		this.tamanhoDoTrecho = Math.max(1, tamanhoDoTrecho / RegistroDePartida.TAMANHO) * RegistroDePartida.TAMANHO;
+		this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.quantidade = LeitorDeRegistros.contarRegistros(canal);
+		mapear(quantidade * RegistroDePartida.TAMANHO);
+	}
+
+	/**
+	 * Método que mapeia o trecho que começa na posição do arquivo.
+	 */
+	private void mapear(final long inicio) throws IOException {
+		trecho = canal.map(FileChannel.MapMode.READ_WRITE, inicio, tamanhoDoTrecho);
+		trecho.order(RegistroDePartida.ORDEM);
+		inicioDoTrecho = inicio;
+		posicao = 0;
+	}
+
+	/**
+	 * Método que acrescenta um registro.
+	 */
+	public synchronized void gravar(final long semente, final long dados) throws IOException {
+		if (trecho == null) {
+			throw new IOException("Gravador fechado");
+		}
+		if (posicao == tamanhoDoTrecho) {
+			mapear(inicioDoTrecho + tamanhoDoTrecho);
+		}
+		RegistroDePartida.escrever(trecho, posicao, semente, dados);
+		posicao += RegistroDePartida.TAMANHO;
+		quantidade++;
+	}
+
+	/**
+	 * Método que acrescenta o registro da partida.
+	 */
+	public void gravar(final PartidaVelha partida) throws IOException {
+		final long semente;
+		final long dados;
+		synchronized (partida) {
+			semente = partida.getSemente();
+			dados = RegistroDePartida.getDados(partida);
+		}
+		gravar(semente, dados);
+	}
+
+	/**
+	 * Grava a partida que terminou.
+	 */
+	@Override
+	public void onFimDePartida(final PartidaVelha partida) {
+		try {
+			gravar(partida);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Método que retorna a quantidade de registros do arquivo.
+	 */
+	public synchronized long getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Método que força a escrita dos registros no disco.
+	 */
+	public synchronized void sincronizar() {
+		if (trecho != null) {
+			trecho.force();
+		}
+	}
+
+	/**
+	 * Método que grava os registros no disco, corta o arquivo no último registro e o fecha.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (trecho == null) {
+			return;
+		}
+		trecho.force();
+		trecho = null;
+		canal.truncate(inicioDoTrecho + posicao);
+		canal.close();
+	}
+}
@@ -0,0 +1,179 @@
+package br.unisul.ia.registro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitor dos registros de partidas ({@link RegistroDePartida}) de um arquivo mapeado na memória.
+ *
+ * Os registros são lidos direto do trecho mapeado, sem cópias e sem criar objetos:
+ * {@link #proximo()} avança para o próximo registro e os métodos 'get' leem os seus campos.
+ * Os arquivos grandes são mapeados em trechos de até 1 GB. A leitura para no fim do intervalo
+ * ou no primeiro registro sem a marca.
+ */
+public class LeitorDeRegistros implements Closeable {
+
+	/**
+	 * Tamanho máximo de cada trecho mapeado, múltiplo do tamanho do registro.
+	 */
+	private static final long TAMANHO_DO_TRECHO = 1L << 30;
+
+	private final FileChannel canal;
+
+	/**
+	 * Fim do intervalo lido, em bytes.
+	 */
+	private final long fim;
+
+	private MappedByteBuffer trecho;
+	private long inicioDoTrecho;
+
+	/**
+	 * Posição do registro atual no trecho, negativa antes do primeiro.
+	 */
+	private int posicao = -RegistroDePartida.TAMANHO;
+
+	/**
+	 * Campos do registro atual.
+	 */
+	private long semente;
+	private long dados;
+
+	/**
+	 * Construtor da classe, que lê todos os registros do arquivo.
+	 */
+	public LeitorDeRegistros(final Path arquivo) throws IOException {
+		this(arquivo, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Construtor da classe, que lê a quantidade de registros a partir do registro especificado.
+	 */
+	public LeitorDeRegistros(final Path arquivo, final long primeiro, final long quantidade) throws IOException {
+		this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+		final long registros = canal.size() / RegistroDePartida.TAMANHO;
+		final long inicio = Math.min(Math.max(0, primeiro), registros);
+		this.fim = Math.min(registros, inicio + Math.min(quantidade, registros)) * RegistroDePartida.TAMANHO;
+		mapear(inicio * RegistroDePartida.TAMANHO);
+	}
+
+	/**
+	 * Método que mapeia o trecho que começa na posição do arquivo.
+	 */
+	private void mapear(final long inicio) throws IOException {
+		trecho = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(TAMANHO_DO_TRECHO, fim - inicio));
+		trecho.order(RegistroDePartida.ORDEM);
+		inicioDoTrecho = inicio;
+		posicao = -RegistroDePartida.TAMANHO;
+	}
+
+	/**
+	 * Método que avança para o próximo registro.
+	 * Retorna 'false' quando não há mais registros.
+	 */
+	public boolean proximo() throws IOException {
+		int proximaPosicao = posicao + RegistroDePartida.TAMANHO;
+		if (proximaPosicao >= trecho.limit()) {
+			if (inicioDoTrecho + proximaPosicao >= fim) {
+				return false;
+			}
+			mapear(inicioDoTrecho + proximaPosicao);
+			proximaPosicao = 0;
+		}
+
+		final long dadosDoRegistro = trecho.getLong(proximaPosicao + 8);
+		if (!RegistroDePartida.isValido(dadosDoRegistro)) {
+			return false;
+		}
+		posicao = proximaPosicao;
+		semente = trecho.getLong(proximaPosicao);
+		dados = dadosDoRegistro;
+		return true;
+	}
+
+	/**
+	 * Método que retorna a semente do registro atual.
+	 */
+	public long getSemente() {
+		return semente;
+	}
+
+	/**
+	 * Método que retorna os dados do registro atual (ver {@link RegistroDePartida}).
+	 */
+	public long getDados() {
+		return dados;
+	}
+
+	/**
+	 * Método que retorna a jogada de indice especificado do registro atual.
+	 */
+	public int getJogada(final int indice) {
+		return RegistroDePartida.getJogada(dados, indice);
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas do registro atual.
+	 */
+	public int getQuantidadeDeJogadas() {
+		return RegistroDePartida.getQuantidadeDeJogadas(dados);
+	}
+
+	/**
+	 * Método que retorna a dificudade do registro atual.
+	 */
+	public int getDificudade() {
+		return RegistroDePartida.getDificudade(dados);
+	}
+
+	/**
+	 * Método que retorna o resultado do registro atual.
+	 */
+	public int getResultado() {
+		return RegistroDePartida.getResultado(dados);
+	}
+
+	@Override
+	public void close() throws IOException {
+		trecho = null;
+		canal.close();
+	}
+
+	/**
+	 * Método que conta os registros gravados do arquivo.
+	 */
+	public static long contarRegistros(final Path arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			return contarRegistros(canal);
+		}
+	}
+
+	/**
+	 * Método que conta os registros gravados do canal. Como os registros gravados ficam sempre
+	 * antes do espaço vazio, a contagem é uma busca binária pela marca dos registros.
+	 */
+	static long contarRegistros(final FileChannel canal) throws IOException {
+		final ByteBuffer dados = ByteBuffer.allocate(8).order(RegistroDePartida.ORDEM);
+		long valido = 0;
+		long invalido = canal.size() / RegistroDePartida.TAMANHO + 1;
+		while (invalido - valido > 1) {
+			final long meio = (valido + invalido) >>> 1;
+			final long posicaoDosDados = (meio - 1) * RegistroDePartida.TAMANHO + 8;
+			dados.clear();
+			while (dados.hasRemaining() && canal.read(dados, posicaoDosDados + dados.position()) > 0) {
+				// Lê os 8 bytes dos dados do registro.
+			}
+			if (!dados.hasRemaining() && RegistroDePartida.isValido(dados.getLong(0))) {
+				valido = meio;
+			} else {
+				invalido = meio;
+			}
+		}
+		return valido;
+	}
+}
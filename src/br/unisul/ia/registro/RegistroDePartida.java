@@ -0,0 +1,138 @@
+package br.unisul.ia.registro;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Formato binário do registro de uma partida, com 16 bytes em "little-endian":
+ * <pre>
+ * bytes 0 a 7   semente dos sorteios da maquina
+ * bytes 8 a 15  dados:
+ *   bits 0 a 35   até 9 jogadas, 4 bits cada (a jogada 'n' nos bits 4n a 4n+3)
+ *   bits 36 a 39  quantidade de jogadas
+ *   bits 40 a 47  dificudade da {@link VelhaIA}
+ *   bits 48 a 55  resultado ({@link #EMPATE}, {@link #GANHOU_X}, {@link #GANHOU_O} ou {@link #INCOMPLETA})
+ *   bits 56 a 63  marca {@link #MARCA}, que distingue um registro gravado de espaço vazio
+ * </pre>
+ * Nas partidas da {@link PartidaVelha} o jogador 'X' é o humano e joga primeiro.
+ */
+public final class RegistroDePartida {
+
+	/**
+	 * Tamanho de um registro, em bytes.
+	 */
+	public static final int TAMANHO = 16;
+
+	/**
+	 * Ordem dos bytes dos registros.
+	 */
+	public static final ByteOrder ORDEM = ByteOrder.LITTLE_ENDIAN;
+
+	/**
+	 * Marca do último byte de cada registro.
+	 */
+	public static final int MARCA = 0xA5;
+
+	/**
+	 * Resultados da partida.
+	 */
+	public static final int EMPATE = 0;
+	public static final int GANHOU_X = 1;
+	public static final int GANHOU_O = 2;
+	public static final int INCOMPLETA = 3;
+
+	private RegistroDePartida() {
+	}
+
+	/**
+	 * Método que monta os dados de um registro.
+	 */
+	public static long getDados(final long jogadas, final int quantidadeDeJogadas, final int dificudade,
+			final int resultado) {
+		return (jogadas & 0xF_FFFF_FFFFL)
+				| ((long) (quantidadeDeJogadas & 0xF) << 36)
+				| ((long) (dificudade & 0xFF) << 40)
+				| ((long) (resultado & 0xFF) << 48)
+				| ((long) MARCA << 56);
+	}
+
+	/**
+	 * Método que monta os dados do registro de uma partida.
+	 */
+	public static long getDados(final PartidaVelha partida) {
+		synchronized (partida) {
+			return getDados(partida.getJogadas(), partida.getQuantidadeDeJogadas(), partida.getDificudade(),
+					getResultado(partida));
+		}
+	}
+
+	/**
+	 * Método que retorna o resultado da partida.
+	 */
+	public static int getResultado(final PartidaVelha partida) {
+		if (!partida.isFimDeJogo()) {
+			return INCOMPLETA;
+		}
+		final char ganhador = partida.getGanhador();
+		if (ganhador == VelhaIA.JOGADOR_X) {
+			return GANHOU_X;
+		}
+		if (ganhador == VelhaIA.JOGADOR_O) {
+			return GANHOU_O;
+		}
+		return EMPATE;
+	}
+
+	/**
+	 * Método que escreve o registro na posição do buffer, que deve estar em {@link #ORDEM}.
+	 */
+	public static void escrever(final ByteBuffer buffer, final int posicao, final long semente, final long dados) {
+		buffer.putLong(posicao, semente);
+		buffer.putLong(posicao + 8, dados);
+	}
+
+	/**
+	 * Método que verifica se os dados são de um registro gravado.
+	 */
+	public static boolean isValido(final long dados) {
+		return (int) (dados >>> 56) == MARCA;
+	}
+
+	/**
+	 * Método que retorna as jogadas dos dados, 4 bits cada.
+	 */
+	public static long getJogadas(final long dados) {
+		return dados & 0xF_FFFF_FFFFL;
+	}
+
+	/**
+	 * Método que retorna a jogada de indice especificado dos dados.
+	 */
+	public static int getJogada(final long dados, final int indice) {
+		return (int) (dados >>> (4 * indice)) & 0xF;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas dos dados.
+	 */
+	public static int getQuantidadeDeJogadas(final long dados) {
+		return (int) (dados >>> 36) & 0xF;
+	}
+
+	/**
+	 * Método que retorna a dificudade dos dados.
+	 */
+	public static int getDificudade(final long dados) {
+		return (int) (dados >>> 40) & 0xFF;
+	}
+
+	/**
+	 * Método que retorna o resultado dos dados.
+	 */
+	public static int getResultado(final long dados) {
+		return (int) (dados >>> 48) & 0xFF;
+	}
+}
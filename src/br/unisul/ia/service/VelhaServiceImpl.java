@@ -1,36 +1,85 @@
 package br.unisul.ia.service;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
 import br.unisul.ia.ui.VelhaTela;
-import br.unisul.ia.velha.VelhaDominio;
+import br.unisul.ia.velha.DifusorDePartidas;
+import br.unisul.ia.velha.PartidaVelha;
 import br.unisul.ia.velha.VelhaIA;
 
 /**
  * Classe que implementa os serviços chamados pela tela.
+ * 
+ * A jogada da maquina é calculada em uma thread separada, e mostrada na thread da tela
+ * depois de um tempo "pensando", contado por um {@link Timer}, sem bloquear a tela.
  */
 public class VelhaServiceImpl implements VelhaService {
 
-	/** 
-	 * Lógica do jogo. 
+	/**
+	 * Tempo minimo, em milisegundos, que a maquina fica "pensando" antes de mostrar a jogada.
 	 */
-	private VelhaIA velhaIA;
+	private static final int TEMPO_PENSANDO = 1000;
 
 	/**
-	 * Objeto Jogo da Velha. 
+	 * Thread que calcula as jogadas da maquina.
 	 */
-	private VelhaDominio velhaDominio;
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(tarefa -> {
+		final Thread thread = new Thread(tarefa, "velha-maquina");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** 
+	 * Partida do jogo. 
+	 */
+	private final PartidaVelha partida;
 
 	/** 
 	 * Tela do Jogo da Velha. 
 	 */
 	private VelhaTela velhaTela;
+
+	/**
+	 * Geração da partida, somada a cada nova partida. Uma jogada calculada para uma
+	 * geração anterior é descartada. Usada somente na thread da tela.
+	 */
+	private long geracao;
+
+	/**
+	 * Mostra se há uma jogada da maquina sendo calculada ou esperando para ser mostrada.
+	 */
+	private boolean jogadaPendente;
+
+	/**
+	 * Cálculo da jogada da maquina em andamento.
+	 */
+	private Future<?> calculoEmAndamento;
+
+	/**
+	 * Temporizador que mostra a jogada da maquina.
+	 */
+	private Timer temporizador;
 	
 	/**
 	 *  Construtor da classe. 
 	 */
 	public VelhaServiceImpl() {
-		velhaIA = new VelhaIA();
-		velhaDominio = new VelhaDominio();
-		velhaTela = new VelhaTela(velhaIA, this);
+		partida = new PartidaVelha();
+		velhaTela = new VelhaTela(partida, this);
+	}
+
+	/**
+	 *  Construtor da classe com o difusor que publica os estados da partida para os
+	 *  espectadores, além da tela.
+	 */
+	public VelhaServiceImpl(final DifusorDePartidas difusor) {
+		this();
+		partida.setDifusor(difusor);
 	}
 
 	/**
@@ -38,8 +87,7 @@ public class VelhaServiceImpl implements VelhaService {
 	 */
 	@Override
 	public void onJogadorFezUmaJogada(final int posicao) {
-		realizaJogada(posicao);
-		velhaDominio.setSituacao(VelhaIA.STATUS_AGUARDE_SUA_VEZ);
+		partida.jogarJogador(posicao);
 		setInformacoesDoJogo();
 	}
 
@@ -48,93 +96,130 @@ public class VelhaServiceImpl implements VelhaService {
 	 */
 	@Override
 	public void onVezDaMaquinaJogar() {
-		final int posicao = velhaIA.getJogada();
-		
-		if (posicao < 0) {
+		if (jogadaPendente) {
 			return;
 		}
 
-		velhaDominio.setSituacao(VelhaIA.STATUS_SUA_VEZ_JOGAR);
-		realizaJogada(posicao);
-		setInformacoesDoJogo();
-	}
+		if (!partida.isVezDaMaquina()) {
+			onVerificaSituacaoDoJogo();
+			return;
+		}
 
-	/**
-	 * Método que inicia a partida.
-	 */
-	@Override
-	public void onIniciarPartida(final int dificudade) {
-		velhaIA.setDificudade(getDificudade(dificudade));
-		limparTela();
-		VelhaTela.JOGO_INICIADO = true;
-		velhaDominio.setSituacao(VelhaIA.STATUS_SUA_VEZ_JOGAR);
-		setInformacoesDoJogo();
+		jogadaPendente = true;
+		final long geracaoDaJogada = geracao;
+		final long inicio = System.nanoTime();
+		calculoEmAndamento = EXECUTOR.submit(() -> {
+			final int posicao;
+			try {
+				posicao = partida.calcularJogadaDaMaquina();
+			} catch (final RuntimeException e) {
+				// O Future guardaria a exceção sem avisar ninguém, e a maquina não jogaria mais.
+				SwingUtilities.invokeLater(() -> mostrarErroDaJogadaDaMaquina(geracaoDaJogada));
+				return;
+			}
+			final long decorrido = (System.nanoTime() - inicio) / 1_000_000;
+			SwingUtilities.invokeLater(() -> mostrarJogadaDaMaquina(geracaoDaJogada, posicao,
+					(int) Math.max(0, TEMPO_PENSANDO - decorrido)));
+		});
 	}
 
 	/**
-	 * Método que retorna a dificudade selecionada na tela.
+	 * Método que libera uma nova jogada da maquina e mostra o erro quando o cálculo falhou.
+	 * Chamado na thread da tela.
 	 */
-	private int getDificudade(final int dificudade) {
-		if (dificudade == 0) {
-			return 10;
-		}
-		
-		if (dificudade == 1) {
-			return 5;
+	private void mostrarErroDaJogadaDaMaquina(final long geracaoDaJogada) {
+		if (geracaoDaJogada != geracao) {
+			return;
 		}
-		
-		return 0;
+		jogadaPendente = false;
+		calculoEmAndamento = null;
+		velhaTela.setSituacaoDoJogo("Não consegui calcular a minha jogada. Inicie uma nova partida...");
 	}
 
 	/**
-	 * Método que realiza a jogada.
+	 * Método que mostra a jogada calculada da maquina depois do tempo de espera.
+	 * Chamado na thread da tela.
 	 */
-	private void realizaJogada(final int posicao) {
-		if ((velhaIA.getPosicao(posicao) != VelhaIA.VAZIO) 
-				|| velhaDominio.getSituacao().equals(VelhaIA.STATUS_AGUARDE_SUA_VEZ)
-				|| (velhaIA.isFimDeJogo())) {
+	private void mostrarJogadaDaMaquina(final long geracaoDaJogada, final int posicao, final int espera) {
+		if (geracaoDaJogada != geracao) {
 			return;
 		}
 
-		/*
-		 * Coloca a jogada na tela do jogo.
-		 */
-		velhaDominio.setId(VelhaIA.JOGADOR_DA_VEZ);
-		velhaIA.setPosicao(posicao, velhaDominio.getId());
+		temporizador = new Timer(espera, evento -> {
+			if (geracaoDaJogada != geracao) {
+				return;
+			}
+			jogadaPendente = false;
+			temporizador = null;
+			if (!partida.jogarMaquina(posicao)) {
+				return;
+			}
+			setInformacoesDoJogo();
+			onVerificaSituacaoDoJogo();
+			velhaTela.redesenhaPosicaoDoJogo(posicao);
+		});
+		temporizador.setRepeats(false);
+		temporizador.start();
+	}
+
+	/**
+	 * Método que inicia a partida.
+	 */
+	@Override
+	public void onIniciarPartida(final int dificudade) {
+		cancelarJogadaDaMaquina();
+		limparTela();
+		partida.iniciar(PartidaVelha.getDificudade(dificudade));
+		setInformacoesDoJogo();
 	}
 
 	/**
 	 * Método que mostra a situação do jogo.
 	 */
 	private void setInformacoesDoJogo() {
+		final String situacaoDaPartida = partida.getSituacao();
 		String situacao = "";
 
-		if (VelhaIA.STATUS_AGUARDE_SUA_VEZ.equals(velhaDominio.getSituacao())) {
+		if (VelhaIA.STATUS_AGUARDE_SUA_VEZ.equals(situacaoDaPartida)) {
 			situacao += "Minha vez de jogar...";
 		}
-		if (VelhaIA.STATUS_SUA_VEZ_JOGAR.equals(velhaDominio.getSituacao())) {
+		if (VelhaIA.STATUS_SUA_VEZ_JOGAR.equals(situacaoDaPartida)) {
 			situacao += "Sua vez de jogar...";
 		}
-		if (VelhaIA.STATUS_VOCE_GANHOU.equals(velhaDominio.getSituacao())) {
+		if (VelhaIA.STATUS_VOCE_GANHOU.equals(situacaoDaPartida)) {
 			situacao += "Parabéns! Você ganhou essa partida!";
 		}
-		if (VelhaIA.STATUS_VOCE_PERDEU.equals(velhaDominio.getSituacao())) {
+		if (VelhaIA.STATUS_VOCE_PERDEU.equals(situacaoDaPartida)) {
 			situacao += "Ganhei! Tente novamente...";
 		}
-		if (VelhaIA.STATUS_EMPATE.equals(velhaDominio.getSituacao())) {
+		if (VelhaIA.STATUS_EMPATE.equals(situacaoDaPartida)) {
 			situacao += "Empatamos! Vamos jogar novamente...";
 		}
 
 		velhaTela.setSituacaoDoJogo(situacao);
 	}
 
+	/**
+	 * Método que descarta a jogada da maquina em andamento, calculada ou esperando para ser mostrada.
+	 */
+	private void cancelarJogadaDaMaquina() {
+		geracao++;
+		jogadaPendente = false;
+		if (calculoEmAndamento != null) {
+			calculoEmAndamento.cancel(true);
+			calculoEmAndamento = null;
+		}
+		if (temporizador != null) {
+			temporizador.stop();
+			temporizador = null;
+		}
+	}
+
 	/** 
 	 * Limpa a tela do jogo. 
 	 */
 	private void limparTela() {
 		velhaTela.setSituacaoDoJogo("Pronto para iniciar a partida..");
-		velhaIA.limparTabuleiro();
-		velhaDominio.limpar();
 		velhaTela.redesenhaPainelDoJogo();
 	}
 
@@ -143,31 +228,13 @@ public class VelhaServiceImpl implements VelhaService {
 	 */
 	@Override
 	public void onVerificaSituacaoDoJogo() {
-		/**
-		 * Verifica se houve um empate.
-		 */
-		if (velhaIA.isEmpate()) {
-			velhaDominio.setSituacao(VelhaIA.STATUS_EMPATE);
-			setInformacoesDoJogo();
-			return;
-		} 
+		partida.verificarSituacao();
 
 		/**
-		 * Verifica se o jogador humano ganhou.
+		 * Mostra o resultado quando houve empate, ou algum jogador ganhou.
 		 */
-		if (velhaIA.isGanhador(VelhaIA.JOGADOR_X)) {
-			velhaDominio.setSituacao(VelhaIA.STATUS_VOCE_GANHOU);
+		if (partida.isFimDeJogo()) {
 			setInformacoesDoJogo();
-			return;
-		} 
-		
-		/**
-		 * Verifica se o jogador humano perdeu.
-		 */
-		if (velhaIA.isGanhador(VelhaIA.JOGADOR_O)) {
-			velhaDominio.setSituacao(VelhaIA.STATUS_VOCE_PERDEU);
-			setInformacoesDoJogo();
-			return;
 		}
 	}
 }
@@ -0,0 +1,84 @@
+package br.unisul.ia.service;
+
+import br.unisul.ia.velha.PartidaVelha;
+
+/**
+ * Implementação do serviço sem tela, usada pelos clientes remotos.
+ * Cada instancia controla uma partida e guarda o resultado do último evento,
+ * para ser enviado ao cliente.
+ */
+public class VelhaServiceSemTela implements VelhaService {
+
+	/**
+	 * Partida controlada por este serviço.
+	 */
+	private final PartidaVelha partida;
+
+	/**
+	 * Mostra se a última jogada do jogador foi aceita.
+	 */
+	private boolean jogadaAceita;
+
+	/**
+	 * Última posição jogada pela maquina, ou -1 se ela não jogou.
+	 */
+	private int jogadaDaMaquina = -1;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public VelhaServiceSemTela() {
+		this(new PartidaVelha());
+	}
+
+	/**
+	 * Construtor da classe com a partida controlada pelo serviço.
+	 */
+	public VelhaServiceSemTela(final PartidaVelha partida) {
+		this.partida = partida;
+	}
+
+	@Override
+	public void onJogadorFezUmaJogada(final int posicao) {
+		jogadaDaMaquina = -1;
+		jogadaAceita = partida.jogarJogador(posicao);
+	}
+
+	@Override
+	public void onVezDaMaquinaJogar() {
+		jogadaDaMaquina = partida.jogarMaquina();
+	}
+
+	@Override
+	public void onIniciarPartida(final int dificudade) {
+		partida.iniciar(PartidaVelha.getDificudade(dificudade));
+		jogadaAceita = true;
+		jogadaDaMaquina = -1;
+	}
+
+	@Override
+	public void onVerificaSituacaoDoJogo() {
+		partida.verificarSituacao();
+	}
+
+	/**
+	 * Método que retorna a partida controlada pelo serviço.
+	 */
+	public PartidaVelha getPartida() {
+		return partida;
+	}
+
+	/**
+	 * Método que mostra se a última jogada do jogador foi aceita.
+	 */
+	public boolean isJogadaAceita() {
+		return jogadaAceita;
+	}
+
+	/**
+	 * Método que retorna a última posição jogada pela maquina, ou -1 se ela não jogou.
+	 */
+	public int getJogadaDaMaquina() {
+		return jogadaDaMaquina;
+	}
+}
@@ -0,0 +1,127 @@
+package br.unisul.ia.servidor;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import br.unisul.ia.velha.SorteioVelha;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Gerador de carga do {@link ServidorHttpVelha}, para dimensionar os servidores.
+ *
+ * Cada thread envia pedidos POST /jogada com tabuleiros sorteados, um de cada vez,
+ * pela mesma conexão HTTP/1.1 (keep-alive), e mede o tempo de ida e volta de cada pedido.
+ * Sem url, inicia um servidor no mesmo processo.
+ *
+ * Uso: ClienteHttpVelha [pedidos] [threads] [url]
+ */
+public class ClienteHttpVelha {
+
+	/**
+	 * Método que envia os pedidos de uma thread e retorna os tempos, em nanossegundos.
+	 */
+	private static long[] enviar(final HttpClient cliente, final URI uri, final int pedidos,
+			final SorteioVelha sorteio) throws Exception {
+		final long[] tempos = new long[pedidos];
+		for (int pedido = 0; pedido < pedidos; pedido++) {
+			final String corpo = "{\"tabuleiro\":\"" + sortearTabuleiro(sorteio) + "\",\"nivel\":"
+					+ sorteio.nextInt(3) + "}";
+			final HttpRequest requisicao = HttpRequest.newBuilder(uri)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(corpo))
+					.build();
+
+			final long inicio = System.nanoTime();
+			final HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+			tempos[pedido] = System.nanoTime() - inicio;
+
+			if (resposta.statusCode() != 200) {
+				throw new IllegalStateException("Resposta " + resposta.statusCode() + " para " + corpo + ": "
+						+ resposta.body());
+			}
+		}
+		return tempos;
+	}
+
+	/**
+	 * Método que sorteia um tabuleiro de meio de jogo, ainda sem ganhador.
+	 */
+	private static String sortearTabuleiro(final SorteioVelha sorteio) {
+		final VelhaIA velhaIA = new VelhaIA();
+		final int jogadas = sorteio.nextInt(6);
+		for (int jogada = 0; jogada < jogadas && !velhaIA.isFimDeJogo(); jogada++) {
+			int posicao;
+			do {
+				posicao = sorteio.nextInt(9);
+			} while (velhaIA.getPosicao(posicao) != VelhaIA.VAZIO);
+			velhaIA.setPosicao(posicao, velhaIA.getJogadorDaVez());
+		}
+		if (velhaIA.isFimDeJogo()) {
+			velhaIA.limparTabuleiro();
+		}
+		return ServidorHttpVelha.getTabuleiro(velhaIA.getCodigoDoTabuleiro());
+	}
+
+	/**
+	 * Método que envia os pedidos e mostra a vazão e a latência.
+	 */
+	public static void main(final String[] args) throws Exception {
+		final int quantidadeDePedidos = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		final int quantidadeDeThreads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+		ServidorHttpVelha servidor = null;
+		final URI uri;
+		if (args.length > 2) {
+			uri = URI.create(args[2]);
+		} else {
+			servidor = new ServidorHttpVelha(new InetSocketAddress("127.0.0.1", 0));
+			servidor.iniciar();
+			uri = URI.create("http://127.0.0.1:" + servidor.getPorta() + "/jogada");
+		}
+
+		final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		final long[][] tempos = new long[quantidadeDeThreads][];
+		final Thread[] threads = new Thread[quantidadeDeThreads];
+		final SorteioVelha sorteio = new SorteioVelha();
+		final long inicio = System.nanoTime();
+		for (int thread = 0; thread < quantidadeDeThreads; thread++) {
+			final int indice = thread;
+			final int pedidos = (quantidadeDePedidos + quantidadeDeThreads - 1 - thread) / quantidadeDeThreads;
+			final SorteioVelha sorteioDaThread = sorteio.dividir();
+			threads[thread] = new Thread(() -> {
+				try {
+					tempos[indice] = enviar(cliente, uri, pedidos, sorteioDaThread);
+				} catch (final Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			threads[thread].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		final long duracao = System.nanoTime() - inicio;
+
+		final long[] todos = new long[quantidadeDePedidos];
+		int posicao = 0;
+		for (final long[] temposDaThread : tempos) {
+			System.arraycopy(temposDaThread, 0, todos, posicao, temposDaThread.length);
+			posicao += temposDaThread.length;
+		}
+		Arrays.sort(todos);
+
+		System.out.printf("%d pedidos em %d ms com %d threads: %.0f pedidos/s%n", quantidadeDePedidos,
+				duracao / 1_000_000, quantidadeDeThreads, quantidadeDePedidos * 1e9 / duracao);
+		System.out.printf("latência: p50 %.1f us, p99 %.1f us, máxima %.1f us%n",
+				todos[quantidadeDePedidos / 2] / 1e3, todos[(int) (quantidadeDePedidos * 0.99)] / 1e3,
+				todos[quantidadeDePedidos - 1] / 1e3);
+
+		if (servidor != null) {
+			servidor.parar();
+		}
+	}
+}
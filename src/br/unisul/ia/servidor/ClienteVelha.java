@@ -0,0 +1,167 @@
+package br.unisul.ia.servidor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import br.unisul.ia.velha.SorteioVelha;
+
+/**
+ * Cliente de carga do {@link ServidorVelha}, para medir a latência das jogadas pela rede local.
+ *
+ * Abre todas as conexões antes de começar e as divide entre algumas threads. Cada thread
+ * joga partidas completas em cada uma das suas conexões, com jogadas sorteadas, e mede
+ * o tempo de ida e volta de cada pedido. Sem endereço, inicia um servidor no mesmo processo.
+ *
+ * Uso: ClienteVelha [conexões] [partidas por conexão] [threads] [endereço] [porta]
+ */
+public class ClienteVelha {
+
+	/**
+	 * Método que joga as partidas em cada conexão e retorna os tempos dos pedidos, em nanossegundos.
+	 */
+	private static long[] jogar(final SocketChannel[] canais, final int partidas, final SorteioVelha sorteio)
+			throws IOException {
+		final long[] tempos = new long[canais.length * partidas * 6];
+		final ByteBuffer pedido = ByteBuffer.allocate(ProtocoloVelha.TAMANHO_DO_PEDIDO);
+		final ByteBuffer resposta = ByteBuffer.allocate(ProtocoloVelha.TAMANHO_DA_RESPOSTA);
+		int quantidade = 0;
+
+		for (int partida = 0; partida < partidas; partida++) {
+			for (final SocketChannel canal : canais) {
+				byte operacao = ProtocoloVelha.NOVA_PARTIDA;
+				byte argumento = 2;
+
+				while (true) {
+					final long inicio = System.nanoTime();
+					enviar(canal, pedido, operacao, argumento);
+					receber(canal, resposta);
+					tempos[quantidade++] = System.nanoTime() - inicio;
+
+					final byte situacao = resposta.get(0);
+					if (situacao != ProtocoloVelha.SUA_VEZ_JOGAR) {
+						if (situacao == ProtocoloVelha.JOGADA_INVALIDA || situacao == ProtocoloVelha.OPERACAO_INVALIDA) {
+							throw new IOException("Resposta inesperada do servidor: " + situacao);
+						}
+						break;
+					}
+
+					operacao = ProtocoloVelha.JOGAR;
+					argumento = (byte) getPosicaoLivre(ProtocoloVelha.getCodigoDoTabuleiro(resposta, 0), sorteio);
+				}
+			}
+		}
+		return Arrays.copyOf(tempos, quantidade);
+	}
+
+	/**
+	 * Método que sorteia uma posição livre do tabuleiro compactado.
+	 */
+	private static int getPosicaoLivre(final int codigo, final SorteioVelha sorteio) {
+		final int ocupadas = (codigo | (codigo >>> 9)) & 0x1FF;
+		int posicao;
+		do {
+			posicao = sorteio.nextInt(9);
+		} while ((ocupadas & (1 << posicao)) != 0);
+		return posicao;
+	}
+
+	private static void enviar(final SocketChannel canal, final ByteBuffer pedido, final byte operacao,
+			final byte argumento) throws IOException {
+		pedido.clear();
+		pedido.put(operacao).put(argumento).flip();
+		while (pedido.hasRemaining()) {
+			canal.write(pedido);
+		}
+	}
+
+	private static void receber(final SocketChannel canal, final ByteBuffer resposta) throws IOException {
+		resposta.clear();
+		while (resposta.hasRemaining()) {
+			if (canal.read(resposta) < 0) {
+				throw new IOException("Conexão fechada pelo servidor");
+			}
+		}
+	}
+
+	/**
+	 * Método que abre as conexões, joga as partidas e mostra a vazão e a latência dos pedidos.
+	 */
+	public static void main(final String[] args) throws Exception {
+		final int quantidadeDeConexoes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+		final int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		final int quantidadeDeThreads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+		ServidorVelha servidor = null;
+		final InetSocketAddress endereco;
+		if (args.length > 3) {
+			endereco = new InetSocketAddress(args[3], args.length > 4 ? Integer.parseInt(args[4])
+					: ServidorVelha.PORTA_PADRAO);
+		} else {
+			servidor = new ServidorVelha(new InetSocketAddress("127.0.0.1", 0), 2);
+			servidor.iniciar();
+			endereco = new InetSocketAddress("127.0.0.1", servidor.getPorta());
+		}
+
+		final SocketChannel[][] canais = new SocketChannel[quantidadeDeThreads][];
+		for (int thread = 0; thread < quantidadeDeThreads; thread++) {
+			canais[thread] = new SocketChannel[(quantidadeDeConexoes + quantidadeDeThreads - 1 - thread)
+					/ quantidadeDeThreads];
+			for (int indice = 0; indice < canais[thread].length; indice++) {
+				canais[thread][indice] = SocketChannel.open(endereco);
+				canais[thread][indice].setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+			}
+		}
+		System.out.println(quantidadeDeConexoes + " conexões abertas em " + endereco);
+
+		final long[][] tempos = new long[quantidadeDeThreads][];
+		final Thread[] threads = new Thread[quantidadeDeThreads];
+		final SorteioVelha sorteio = new SorteioVelha();
+		final long inicio = System.nanoTime();
+		for (int thread = 0; thread < quantidadeDeThreads; thread++) {
+			final int indice = thread;
+			final SorteioVelha sorteioDaThread = sorteio.dividir();
+			threads[thread] = new Thread(() -> {
+				try {
+					tempos[indice] = jogar(canais[indice], partidas, sorteioDaThread);
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			threads[thread].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		final long duracao = System.nanoTime() - inicio;
+
+		int quantidade = 0;
+		for (final long[] temposDaThread : tempos) {
+			quantidade += temposDaThread.length;
+		}
+		final long[] todos = new long[quantidade];
+		int posicao = 0;
+		for (final long[] temposDaThread : tempos) {
+			System.arraycopy(temposDaThread, 0, todos, posicao, temposDaThread.length);
+			posicao += temposDaThread.length;
+		}
+		Arrays.sort(todos);
+
+		System.out.printf("%d pedidos em %d ms: %.0f pedidos/s%n", quantidade, duracao / 1_000_000,
+				quantidade * 1e9 / duracao);
+		System.out.printf("latência: p50 %.1f us, p99 %.1f us, máxima %.1f us%n",
+				todos[quantidade / 2] / 1e3, todos[(int) (quantidade * 0.99)] / 1e3, todos[quantidade - 1] / 1e3);
+
+		for (final SocketChannel[] canaisDaThread : canais) {
+			for (final SocketChannel canal : canaisDaThread) {
+				canal.close();
+			}
+		}
+		if (servidor != null) {
+			servidor.close();
+		}
+	}
+}
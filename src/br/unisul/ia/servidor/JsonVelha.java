@@ -0,0 +1,66 @@
+package br.unisul.ia.servidor;
+
+/**
+ * Leitura dos campos de objetos JSON simples, sem objetos ou vetores aninhados,
+ * como os corpos dos pedidos do {@link ServidorHttpVelha}.
+ */
+final class JsonVelha {
+
+	private JsonVelha() {
+	}
+
+	/**
+	 * Método que retorna o texto do campo, ou 'null' se o campo não existe ou não é um texto.
+	 * Os escapes do JSON não são interpretados, pois os textos do jogo não os usam.
+	 */
+	static String getTexto(final String json, final String campo) {
+		final int inicio = getInicioDoValor(json, campo);
+		if (inicio < 0 || inicio >= json.length() || json.charAt(inicio) != '"') {
+			return null;
+		}
+		final int fim = json.indexOf('"', inicio + 1);
+		return fim < 0 ? null : json.substring(inicio + 1, fim);
+	}
+
+	/**
+	 * Método que retorna o número inteiro do campo, o padrão se o campo não existe, ou 'null'
+	 * se o valor não é um número inteiro que cabe em um 'long'.
+	 */
+	static Long getNumero(final String json, final String campo, final long padrao) {
+		final int inicio = getInicioDoValor(json, campo);
+		if (inicio < 0) {
+			return Long.valueOf(padrao);
+		}
+		int fim = inicio;
+		if (fim < json.length() && json.charAt(fim) == '-') {
+			fim++;
+		}
+		while (fim < json.length() && Character.isDigit(json.charAt(fim))) {
+			fim++;
+		}
+		try {
+			return Long.valueOf(Long.parseLong(json.substring(inicio, fim)));
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Método que retorna o inicio do valor do campo, ou -1 se o campo não existe.
+	 */
+	private static int getInicioDoValor(final String json, final String campo) {
+		final int posicaoDoCampo = json.indexOf('"' + campo + '"');
+		if (posicaoDoCampo < 0) {
+			return -1;
+		}
+		int posicao = json.indexOf(':', posicaoDoCampo + campo.length() + 2);
+		if (posicao < 0) {
+			return -1;
+		}
+		posicao++;
+		while (posicao < json.length() && Character.isWhitespace(json.charAt(posicao))) {
+			posicao++;
+		}
+		return posicao;
+	}
+}
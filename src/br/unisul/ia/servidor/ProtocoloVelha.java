@@ -0,0 +1,124 @@
+package br.unisul.ia.servidor;
+
+import java.nio.ByteBuffer;
+
+import br.unisul.ia.service.VelhaServiceSemTela;
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Protocolo binário do servidor do Jogo da Velha.
+ *
+ * Cada pedido tem 2 bytes: a operação e o argumento.
+ * <ul>
+ * <li>{@link #NOVA_PARTIDA}: o argumento é o nivel (0 = fácil, 1 = médio, 2 = difícil).</li>
+ * <li>{@link #JOGAR}: o argumento é a posição jogada (0 a 8); a maquina responde na mesma resposta.</li>
+ * </ul>
+ *
+ * Cada resposta tem 5 bytes: a situação da partida, a posição jogada pela maquina
+ * ({@link #SEM_JOGADA} se ela não jogou) e o tabuleiro compactado em 3 bytes
+ * (ver {@link PartidaVelha#getCodigoDoTabuleiro()}).
+ */
+public final class ProtocoloVelha {
+
+	/**
+	 * Tamanho de um pedido, em bytes.
+	 */
+	public static final int TAMANHO_DO_PEDIDO = 2;
+
+	/**
+	 * Tamanho de uma resposta, em bytes.
+	 */
+	public static final int TAMANHO_DA_RESPOSTA = 5;
+
+	/**
+	 * Operações dos pedidos.
+	 */
+	public static final byte NOVA_PARTIDA = 1;
+	public static final byte JOGAR = 2;
+
+	/**
+	 * Situações das respostas.
+	 */
+	public static final byte SUA_VEZ_JOGAR = 0;
+	public static final byte AGUARDE_SUA_VEZ = 1;
+	public static final byte VOCE_GANHOU = 2;
+	public static final byte VOCE_PERDEU = 3;
+	public static final byte EMPATE = 4;
+	public static final byte JOGADA_INVALIDA = 5;
+	public static final byte OPERACAO_INVALIDA = 6;
+
+	/**
+	 * Posição da maquina quando ela não jogou.
+	 */
+	public static final byte SEM_JOGADA = -1;
+
+	private ProtocoloVelha() {
+	}
+
+	/**
+	 * Método que executa o pedido no serviço da conexão e escreve a resposta.
+	 * O ciclo de eventos é o mesmo da tela: o jogador joga, a maquina joga e a situação é verificada.
+	 */
+	public static void executar(final VelhaServiceSemTela servico, final byte operacao, final byte argumento,
+			final ByteBuffer resposta) {
+		byte situacao;
+
+		if (operacao == NOVA_PARTIDA && argumento >= 0 && argumento <= 2) {
+			servico.onIniciarPartida(argumento);
+			situacao = getSituacao(servico.getPartida());
+		} else if (operacao == JOGAR) {
+			servico.onJogadorFezUmaJogada(argumento);
+			if (servico.isJogadaAceita()) {
+				servico.onVezDaMaquinaJogar();
+				servico.onVerificaSituacaoDoJogo();
+				situacao = getSituacao(servico.getPartida());
+			} else {
+				situacao = JOGADA_INVALIDA;
+			}
+		} else {
+			situacao = OPERACAO_INVALIDA;
+		}
+
+		final int codigo = servico.getPartida().getCodigoDoTabuleiro();
+		resposta.put(situacao)
+				.put((byte) servico.getJogadaDaMaquina())
+				.put((byte) (codigo >>> 16))
+				.put((byte) (codigo >>> 8))
+				.put((byte) codigo);
+	}
+
+	/**
+	 * Método que converte a situação da partida para o código do protocolo.
+	 */
+	private static byte getSituacao(final PartidaVelha partida) {
+		final String situacao = partida.getSituacao();
+
+		if (VelhaIA.STATUS_SUA_VEZ_JOGAR.equals(situacao)) {
+			return SUA_VEZ_JOGAR;
+		}
+
+		if (VelhaIA.STATUS_AGUARDE_SUA_VEZ.equals(situacao)) {
+			return AGUARDE_SUA_VEZ;
+		}
+
+		if (VelhaIA.STATUS_VOCE_GANHOU.equals(situacao)) {
+			return VOCE_GANHOU;
+		}
+
+		if (VelhaIA.STATUS_VOCE_PERDEU.equals(situacao)) {
+			return VOCE_PERDEU;
+		}
+
+		return EMPATE;
+	}
+
+	/**
+	 * Método que lê o tabuleiro compactado de uma resposta, a partir da posição especificada.
+	 */
+	public static int getCodigoDoTabuleiro(final ByteBuffer resposta, final int inicio) {
+		return (resposta.get(inicio + 2) & 0xFF) << 16
+				| (resposta.get(inicio + 3) & 0xFF) << 8
+				| (resposta.get(inicio + 4) & 0xFF);
+	}
+}
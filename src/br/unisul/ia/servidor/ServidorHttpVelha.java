@@ -0,0 +1,289 @@
+package br.unisul.ia.servidor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import br.unisul.ia.service.VelhaServiceSemTela;
+import br.unisul.ia.velha.GerenciadorDePartidas;
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.TabuleiroBits;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Servidor HTTP/JSON do Jogo da Velha, com o {@link HttpServer} do JDK.
+ *
+ * Endpoints:
+ * <ul>
+ * <li>POST /jogada {"tabuleiro": "X---O----", "nivel": 2, "semente": 1}: retorna a jogada que
+ * {@link VelhaIA#getJogada()} escolhe para o jogador da vez. A semente é opcional.</li>
+ * <li>POST /partidas {"nivel": 2}: cria uma partida e retorna a sua situação.</li>
+ * <li>POST /partidas/{id} {"posicao": 4}: joga a posição, a maquina responde, e retorna a situação.</li>
+ * <li>GET /partidas/{id}: retorna a situação da partida (os STATUS_* da {@link VelhaIA}).</li>
+ * <li>DELETE /partidas/{id}: descarta a partida.</li>
+ * </ul>
+ *
+ * No tabuleiro, cada posição é 'X', 'O' ou '-' (vazia). Todas as respostas têm o tamanho no
+ * cabeçalho, assim as conexões HTTP/1.1 continuam abertas entre os pedidos (keep-alive).
+ * Cada pedido é atendido por uma thread virtual quando o Java tem threads virtuais,
+ * senão por um pool de threads.
+ *
+ * Uso: ServidorHttpVelha [porta]
+ */
+public class ServidorHttpVelha {
+
+	/**
+	 * Porta padrão do servidor.
+	 */
+	public static final int PORTA_PADRAO = 8080;
+
+	/**
+	 * Prefixo das urls das partidas.
+	 */
+	private static final String PARTIDAS = "/partidas";
+
+	static {
+		// Sem TCP_NODELAY, cada resposta espera o ACK atrasado do cliente (cerca de 40 ms).
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	/**
+	 * Servidor HTTP do JDK.
+	 */
+	private final HttpServer servidor;
+
+	/**
+	 * Executor dos pedidos.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Partidas em andamento.
+	 */
+	private final GerenciadorDePartidas partidas = new GerenciadorDePartidas();
+
+	/**
+	 * Construtor da classe.
+	 */
+	public ServidorHttpVelha(final InetSocketAddress endereco) throws IOException {
+		this.servidor = HttpServer.create(endereco, 4096);
+		this.executor = criarExecutor();
+		servidor.setExecutor(executor);
+		servidor.createContext("/jogada", this::tratarJogada);
+		servidor.createContext(PARTIDAS, this::tratarPartidas);
+	}
+
+	/**
+	 * Método que cria um executor com uma thread virtual por pedido.
+	 * O método é procurado por reflexão, e nas versões do Java sem threads virtuais
+	 * é usado um pool que reaproveita as threads.
+	 */
+	static ExecutorService criarExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (final ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Método que inicia o servidor.
+	 */
+	public void iniciar() {
+		servidor.start();
+	}
+
+	/**
+	 * Método que para o servidor.
+	 */
+	public void parar() {
+		servidor.stop(0);
+		executor.shutdown();
+	}
+
+	/**
+	 * Método que retorna a porta do servidor.
+	 */
+	public int getPorta() {
+		return servidor.getAddress().getPort();
+	}
+
+	/**
+	 * Método que trata o pedido da jogada da maquina para um tabuleiro.
+	 */
+	private void tratarJogada(final HttpExchange troca) throws IOException {
+		if (!"POST".equals(troca.getRequestMethod())) {
+			responder(troca, 405, "{\"erro\":\"metodo-invalido\"}");
+			return;
+		}
+
+		final String corpo = lerCorpo(troca);
+		final String tabuleiro = JsonVelha.getTexto(corpo, "tabuleiro");
+		final Long nivel = JsonVelha.getNumero(corpo, "nivel", 2);
+		final int codigo = getCodigoDoTabuleiro(tabuleiro);
+		if (codigo < 0 || nivel == null || nivel < 0 || nivel > 2) {
+			responder(troca, 400, "{\"erro\":\"pedido-invalido\"}");
+			return;
+		}
+
+		final VelhaIA velhaIA = new VelhaIA();
+		final int pecasX = Integer.bitCount(codigo & 0x1FF);
+		final int pecasO = Integer.bitCount(codigo >>> 9);
+		final char jogador = pecasX > pecasO ? VelhaIA.JOGADOR_O : VelhaIA.JOGADOR_X;
+		velhaIA.setTabuleiro(codigo, jogador);
+		if (velhaIA.isFimDeJogo()) {
+			responder(troca, 409, "{\"erro\":\"fim-de-jogo\"}");
+			return;
+		}
+
+		final Long semente = JsonVelha.getNumero(corpo, "semente", velhaIA.getSorteio().getSemente());
+		if (semente == null) {
+			responder(troca, 400, "{\"erro\":\"pedido-invalido\"}");
+			return;
+		}
+		velhaIA.setDificudade(PartidaVelha.getDificudade(nivel.intValue()));
+		velhaIA.setSemente(semente);
+		final int jogada = velhaIA.getJogada();
+		responder(troca, 200, "{\"jogada\":" + jogada + ",\"jogador\":\"" + jogador + "\",\"semente\":" + semente
+				+ "}");
+	}
+
+	/**
+	 * Método que trata os pedidos das partidas guardadas.
+	 */
+	private void tratarPartidas(final HttpExchange troca) throws IOException {
+		final String caminho = troca.getRequestURI().getPath();
+		final String metodo = troca.getRequestMethod();
+
+		if (caminho.length() <= PARTIDAS.length() + 1) {
+			if (!"POST".equals(metodo)) {
+				responder(troca, 405, "{\"erro\":\"metodo-invalido\"}");
+				return;
+			}
+			final Long nivel = JsonVelha.getNumero(lerCorpo(troca), "nivel", 2);
+			if (nivel == null || nivel < 0 || nivel > 2) {
+				responder(troca, 400, "{\"erro\":\"pedido-invalido\"}");
+				return;
+			}
+			final PartidaVelha partida = partidas.criar(nivel.intValue());
+			responder(troca, 201, getSituacao(partida, -1));
+			return;
+		}
+
+		final long id;
+		try {
+			id = Long.parseLong(caminho.substring(PARTIDAS.length() + 1));
+		} catch (final NumberFormatException e) {
+			responder(troca, 404, "{\"erro\":\"partida-nao-encontrada\"}");
+			return;
+		}
+		final PartidaVelha partida = partidas.buscar(id);
+		if (partida == null) {
+			responder(troca, 404, "{\"erro\":\"partida-nao-encontrada\"}");
+			return;
+		}
+
+		if ("GET".equals(metodo)) {
+			responder(troca, 200, getSituacao(partida, -1));
+		} else if ("DELETE".equals(metodo)) {
+			partidas.descartar(id);
+			responder(troca, 204, null);
+		} else if ("POST".equals(metodo)) {
+			// A posição é conferida antes de virar 'int', para que um valor fora do tabuleiro
+			// não seja truncado para uma posição válida.
+			final Long posicao = JsonVelha.getNumero(lerCorpo(troca), "posicao", -1);
+			if (posicao == null || posicao < 0 || posicao > 8) {
+				responder(troca, 400, "{\"erro\":\"pedido-invalido\"}");
+				return;
+			}
+			final String situacao;
+			synchronized (partida) {
+				final VelhaServiceSemTela servico = new VelhaServiceSemTela(partida);
+				servico.onJogadorFezUmaJogada(posicao.intValue());
+				if (!servico.isJogadaAceita()) {
+					responder(troca, 409, "{\"erro\":\"jogada-invalida\"}");
+					return;
+				}
+				servico.onVezDaMaquinaJogar();
+				servico.onVerificaSituacaoDoJogo();
+				situacao = getSituacao(partida, servico.getJogadaDaMaquina());
+			}
+			responder(troca, 200, situacao);
+		} else {
+			responder(troca, 405, "{\"erro\":\"metodo-invalido\"}");
+		}
+	}
+
+	/**
+	 * Método que monta o JSON com a situação da partida.
+	 */
+	private static String getSituacao(final PartidaVelha partida, final int jogadaDaMaquina) {
+		synchronized (partida) {
+			return "{\"id\":" + partida.getId()
+					+ ",\"situacao\":\"" + partida.getSituacao()
+					+ "\",\"tabuleiro\":\"" + getTabuleiro(partida.getCodigoDoTabuleiro())
+					+ "\",\"jogadaDaMaquina\":" + jogadaDaMaquina
+					+ ",\"fimDeJogo\":" + partida.isFimDeJogo() + "}";
+		}
+	}
+
+	/**
+	 * Método que converte o texto do tabuleiro para o código compactado em 18 bits,
+	 * ou retorna -1 se o texto não é um tabuleiro.
+	 */
+	static int getCodigoDoTabuleiro(final String tabuleiro) {
+		return TabuleiroBits.getCodigo(tabuleiro);
+	}
+
+	/**
+	 * Método que converte o código compactado em 18 bits para o texto do tabuleiro.
+	 */
+	static String getTabuleiro(final int codigo) {
+		return TabuleiroBits.getTexto(codigo);
+	}
+
+	/**
+	 * Método que lê todo o corpo do pedido.
+	 */
+	private static String lerCorpo(final HttpExchange troca) throws IOException {
+		try (InputStream entrada = troca.getRequestBody()) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Método que envia a resposta com o tamanho do corpo no cabeçalho, para manter a conexão aberta.
+	 */
+	private static void responder(final HttpExchange troca, final int codigo, final String json) throws IOException {
+		if (json == null) {
+			troca.sendResponseHeaders(codigo, -1);
+			troca.close();
+			return;
+		}
+		final byte[] corpo = json.getBytes(StandardCharsets.UTF_8);
+		troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		troca.sendResponseHeaders(codigo, corpo.length);
+		try (OutputStream saida = troca.getResponseBody()) {
+			saida.write(corpo);
+		}
+	}
+
+	/**
+	 * Método que inicia o servidor na porta especificada.
+	 */
+	public static void main(final String[] args) throws IOException {
+		final int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+		final ServidorHttpVelha servidor = new ServidorHttpVelha(new InetSocketAddress(porta));
+		servidor.iniciar();
+		System.out.println("Servidor HTTP do Jogo da Velha na porta " + servidor.getPorta());
+	}
+}
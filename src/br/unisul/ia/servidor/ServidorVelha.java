@@ -0,0 +1,315 @@
+package br.unisul.ia.servidor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.unisul.ia.service.VelhaServiceSemTela;
+
+/**
+ * Servidor TCP sem tela do Jogo da Velha, com o {@link ProtocoloVelha}.
+ *
+ * Uma thread aceita as conexões e as distribui entre alguns laços de eventos, cada um com
+ * o seu {@link Selector} e a sua thread. Cada conexão tem o seu {@link VelhaServiceSemTela}
+ * e buffers pequenos, assim o servidor atende muitas conexões com poucas threads.
+ * A jogada da maquina é calculada no próprio laço, pois leva poucos microssegundos.
+ *
+ * Uso: ServidorVelha [porta] [laços de eventos]
+ */
+public class ServidorVelha implements Closeable {
+
+	/**
+	 * Porta padrão do servidor.
+	 */
+	public static final int PORTA_PADRAO = 7007;
+
+	/**
+	 * Tamanho dos buffers de cada conexão, em bytes.
+	 */
+	static final int TAMANHO_DO_BUFFER = 128;
+
+	/**
+	 * Endereço onde o servidor aceita as conexões.
+	 */
+	private final InetSocketAddress endereco;
+
+	/**
+	 * Laços de eventos que atendem as conexões.
+	 */
+	private final LacoDeEventos[] lacos;
+
+	/**
+	 * Quantidade de conexões abertas.
+	 */
+	private final AtomicInteger conexoes = new AtomicInteger();
+
+	private ServerSocketChannel canalDoServidor;
+	private Selector seletorDeConexoes;
+	private Thread threadDeConexoes;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public ServidorVelha(final InetSocketAddress endereco, final int quantidadeDeLacos) {
+		this.endereco = endereco;
+		this.lacos = new LacoDeEventos[Math.max(1, quantidadeDeLacos)];
+	}
+
+	/**
+	 * Método que abre a porta e inicia as threads do servidor.
+	 */
+	public void iniciar() throws IOException {
+		for (int indice = 0; indice < lacos.length; indice++) {
+			lacos[indice] = new LacoDeEventos(Selector.open());
+			final Thread thread = new Thread(lacos[indice], "velha-laco-" + indice);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		canalDoServidor = ServerSocketChannel.open();
+		canalDoServidor.bind(endereco, 4096);
+		canalDoServidor.configureBlocking(false);
+		seletorDeConexoes = Selector.open();
+		canalDoServidor.register(seletorDeConexoes, SelectionKey.OP_ACCEPT);
+
+		threadDeConexoes = new Thread(this::aceitarConexoes, "velha-conexoes");
+		threadDeConexoes.setDaemon(true);
+		threadDeConexoes.start();
+	}
+
+	/**
+	 * Método que aceita as novas conexões e as distribui entre os laços de eventos.
+	 */
+	private void aceitarConexoes() {
+		int proximoLaco = 0;
+		try {
+			while (canalDoServidor.isOpen()) {
+				seletorDeConexoes.select();
+				seletorDeConexoes.selectedKeys().clear();
+
+				SocketChannel canal;
+				while ((canal = canalDoServidor.accept()) != null) {
+					canal.configureBlocking(false);
+					canal.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+					lacos[proximoLaco].adicionar(canal);
+					proximoLaco = (proximoLaco + 1) % lacos.length;
+				}
+			}
+		} catch (final IOException | ClosedSelectorException e) {
+			// O servidor foi fechado.
+		}
+	}
+
+	/**
+	 * Método que retorna a porta onde o servidor aceita as conexões.
+	 */
+	public int getPorta() throws IOException {
+		return ((InetSocketAddress) canalDoServidor.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * Método que retorna a quantidade de conexões abertas.
+	 */
+	public int getConexoes() {
+		return conexoes.get();
+	}
+
+	/**
+	 * Método que fecha a porta e para as threads do servidor.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (canalDoServidor != null) {
+			canalDoServidor.close();
+			seletorDeConexoes.close();
+		}
+		for (final LacoDeEventos laco : lacos) {
+			if (laco != null) {
+				laco.fechar();
+			}
+		}
+	}
+
+	/**
+	 * Estado de uma conexão: os buffers de entrada e saída e o serviço da partida.
+	 */
+	private static final class Conexao {
+
+		private final ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_DO_BUFFER);
+		private final ByteBuffer saida = ByteBuffer.allocate(TAMANHO_DO_BUFFER);
+		private final VelhaServiceSemTela servico = new VelhaServiceSemTela();
+	}
+
+	/**
+	 * Laço de eventos que lê os pedidos, executa e escreve as respostas das suas conexões.
+	 */
+	private final class LacoDeEventos implements Runnable {
+
+		private final Selector seletor;
+
+		/**
+		 * Conexões aceitas que ainda não foram registradas no seletor.
+		 */
+		private final Queue<SocketChannel> novasConexoes = new ConcurrentLinkedQueue<SocketChannel>();
+
+		/**
+		 * Mostra se o laço deve parar.
+		 */
+		private volatile boolean fechado;
+
+		private LacoDeEventos(final Selector seletor) {
+			this.seletor = seletor;
+		}
+
+		/**
+		 * Método que entrega uma nova conexão ao laço.
+		 */
+		private void adicionar(final SocketChannel canal) {
+			novasConexoes.add(canal);
+			seletor.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!fechado) {
+					seletor.select();
+					registrarNovasConexoes();
+
+					final Iterator<SelectionKey> chaves = seletor.selectedKeys().iterator();
+					while (chaves.hasNext()) {
+						final SelectionKey chave = chaves.next();
+						chaves.remove();
+						try {
+							atender(chave);
+						} catch (final IOException e) {
+							fechar(chave);
+						}
+					}
+				}
+			} catch (final IOException e) {
+				// O seletor falhou; as conexões do laço são fechadas.
+			} finally {
+				fecharConexoes();
+			}
+		}
+
+		/**
+		 * Método que registra no seletor as conexões aceitas desde o último evento.
+		 */
+		private void registrarNovasConexoes() throws IOException {
+			SocketChannel canal;
+			while ((canal = novasConexoes.poll()) != null) {
+				canal.register(seletor, SelectionKey.OP_READ, new Conexao());
+				conexoes.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Método que lê os pedidos da conexão, executa os pedidos completos e envia as respostas.
+		 * Os pedidos são executados até o buffer de saída encher; depois de enviar as respostas,
+		 * os pedidos que sobraram no buffer de entrada são executados, até não haver mais pedidos
+		 * completos ou até o envio ficar incompleto. Quando o cliente não lê as respostas, os
+		 * pedidos ficam no buffer de entrada e são executados no próximo evento de escrita.
+		 */
+		private void atender(final SelectionKey chave) throws IOException {
+			final SocketChannel canal = (SocketChannel) chave.channel();
+			final Conexao conexao = (Conexao) chave.attachment();
+
+			if (chave.isReadable() && canal.read(conexao.entrada) < 0) {
+				fechar(chave);
+				return;
+			}
+
+			final ByteBuffer entrada = conexao.entrada;
+			final ByteBuffer saida = conexao.saida;
+			do {
+				entrada.flip();
+				while (entrada.remaining() >= ProtocoloVelha.TAMANHO_DO_PEDIDO
+						&& saida.remaining() >= ProtocoloVelha.TAMANHO_DA_RESPOSTA) {
+					ProtocoloVelha.executar(conexao.servico, entrada.get(), entrada.get(), saida);
+				}
+				entrada.compact();
+
+				saida.flip();
+				canal.write(saida);
+				saida.compact();
+			} while (saida.position() == 0 && entrada.position() >= ProtocoloVelha.TAMANHO_DO_PEDIDO);
+
+			if (saida.position() > 0) {
+				chave.interestOps(SelectionKey.OP_WRITE);
+			} else {
+				chave.interestOps(SelectionKey.OP_READ);
+			}
+		}
+
+		/**
+		 * Método que fecha a conexão da chave.
+		 */
+		private void fechar(final SelectionKey chave) {
+			chave.cancel();
+			try {
+				chave.channel().close();
+			} catch (final IOException e) {
+				// A conexão já estava fechada.
+			}
+			conexoes.decrementAndGet();
+		}
+
+		/**
+		 * Método que pede para o laço parar; as conexões são fechadas pela thread do laço.
+		 */
+		private void fechar() {
+			fechado = true;
+			seletor.wakeup();
+		}
+
+		/**
+		 * Método que fecha todas as conexões e o seletor do laço.
+		 */
+		private void fecharConexoes() {
+			for (final SelectionKey chave : seletor.keys()) {
+				fechar(chave);
+			}
+			SocketChannel canal;
+			while ((canal = novasConexoes.poll()) != null) {
+				try {
+					canal.close();
+				} catch (final IOException e) {
+					// A conexão já estava fechada.
+				}
+			}
+			try {
+				seletor.close();
+			} catch (final IOException e) {
+				// O seletor já estava fechado.
+			}
+		}
+	}
+
+	/**
+	 * Método que inicia o servidor na porta especificada.
+	 */
+	public static void main(final String[] args) throws IOException, InterruptedException {
+		final int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+		final int quantidadeDeLacos = args.length > 1 ? Integer.parseInt(args[1])
+				: Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+		final ServidorVelha servidor = new ServidorVelha(new InetSocketAddress(porta), quantidadeDeLacos);
+		servidor.iniciar();
+		System.out.println("Servidor do Jogo da Velha na porta " + servidor.getPorta() + " com "
+				+ quantidadeDeLacos + " laços de eventos");
+		servidor.threadDeConexoes.join();
+	}
+}
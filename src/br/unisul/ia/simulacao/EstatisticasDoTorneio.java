@@ -0,0 +1,99 @@
+package br.unisul.ia.simulacao;
+
+import java.util.Locale;
+
+/**
+ * Classe que acumula os resultados das partidas de um confronto do torneio,
+ * sempre do ponto de vista da maquina avaliada.
+ */
+public class EstatisticasDoTorneio {
+
+	/**
+	 * Partidas ganhas pela maquina avaliada.
+	 */
+	private long vitorias;
+
+	/**
+	 * Partidas empatadas.
+	 */
+	private long empates;
+
+	/**
+	 * Partidas perdidas pela maquina avaliada.
+	 */
+	private long derrotas;
+
+	/**
+	 * Soma das jogadas de todas as partidas.
+	 */
+	private long jogadas;
+
+	/**
+	 * Método que registra o resultado de uma partida.
+	 * O resultado é 1 para vitória, 0 para empate e -1 para derrota.
+	 */
+	public void registrar(final int resultado, final int jogadasDaPartida) {
+		if (resultado > 0) {
+			vitorias++;
+		} else if (resultado < 0) {
+			derrotas++;
+		} else {
+			empates++;
+		}
+		jogadas += jogadasDaPartida;
+	}
+
+	/**
+	 * Método que soma as estatisticas especificadas nesta.
+	 */
+	public EstatisticasDoTorneio somar(final EstatisticasDoTorneio outras) {
+		vitorias += outras.vitorias;
+		empates += outras.empates;
+		derrotas += outras.derrotas;
+		jogadas += outras.jogadas;
+		return this;
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas.
+	 */
+	public long getPartidas() {
+		return vitorias + empates + derrotas;
+	}
+
+	/**
+	 * Método que retorna as partidas ganhas.
+	 */
+	public long getVitorias() {
+		return vitorias;
+	}
+
+	/**
+	 * Método que retorna as partidas empatadas.
+	 */
+	public long getEmpates() {
+		return empates;
+	}
+
+	/**
+	 * Método que retorna as partidas perdidas.
+	 */
+	public long getDerrotas() {
+		return derrotas;
+	}
+
+	/**
+	 * Método que retorna a média de jogadas por partida.
+	 */
+	public double getMediaDeJogadas() {
+		return getPartidas() == 0 ? 0 : (double) jogadas / getPartidas();
+	}
+
+	@Override
+	public String toString() {
+		final double partidas = Math.max(1, getPartidas());
+		return String.format(Locale.ROOT, "partidas=%d vitorias=%.2f%% empates=%.2f%% derrotas=%.2f%% jogadas/partida=%.2f",
+				getPartidas(), 100 * vitorias / partidas, 100 * empates / partidas, 100 * derrotas / partidas,
+				getMediaDeJogadas());
+	}
+}
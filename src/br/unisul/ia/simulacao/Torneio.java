@@ -0,0 +1,180 @@
+package br.unisul.ia.simulacao;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import br.unisul.ia.velha.PartidaVelha;
+import br.unisul.ia.velha.SorteioVelha;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Torneio sem tela, maquina contra maquina e maquina contra jogadas aleatórias,
+ * para validar as dificudades da {@link VelhaIA}.
+ *
+ * As partidas de cada confronto são divididas entre todos os processadores por um
+ * {@link ForkJoinPool}. Metade das partidas começa com a maquina avaliada.
+ *
+ * O torneio é reproduzível: cada tarefa recebe um {@link SorteioVelha} dividido do gerador
+ * da tarefa que a criou, e cada partida usa uma semente própria, tirada desse gerador.
+ *
+ * Uso: Torneio [partidas por confronto] [semente]
+ */
+public class Torneio {
+
+	/**
+	 * Quantidade de partidas jogadas por uma tarefa, sem dividir.
+	 */
+	private static final int PARTIDAS_POR_TAREFA = 10_000;
+
+	/**
+	 * Adversários da maquina avaliada.
+	 */
+	public enum Adversario {
+
+		/**
+		 * Jogadas sorteadas entre as posições livres.
+		 */
+		ALEATORIO,
+
+		/**
+		 * Maquina na dificudade mais alta.
+		 */
+		MAQUINA_DIFICIL
+	}
+
+	/**
+	 * Pool que executa as partidas.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Construtor da classe, com um pool do tamanho da quantidade de processadores.
+	 */
+	public Torneio() {
+		this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Construtor da classe com o pool especificado.
+	 */
+	public Torneio(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Método que joga as partidas de um confronto e retorna as estatisticas da maquina avaliada.
+	 */
+	public EstatisticasDoTorneio jogar(final int dificudade, final Adversario adversario, final long partidas,
+			final long semente) {
+		return pool.invoke(new PartidasDoTorneio(dificudade, adversario, 0, partidas, new SorteioVelha(semente)));
+	}
+
+	/**
+	 * Tarefa que joga um intervalo de partidas de um confronto, dividindo-o enquanto for grande.
+	 */
+	private static final class PartidasDoTorneio extends RecursiveTask<EstatisticasDoTorneio> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int dificudade;
+		private final Adversario adversario;
+		private final long inicio;
+		private final long fim;
+		private final SorteioVelha sorteio;
+
+		private PartidasDoTorneio(final int dificudade, final Adversario adversario, final long inicio,
+				final long fim, final SorteioVelha sorteio) {
+			this.dificudade = dificudade;
+			this.adversario = adversario;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.sorteio = sorteio;
+		}
+
+		@Override
+		protected EstatisticasDoTorneio compute() {
+			if (fim - inicio > PARTIDAS_POR_TAREFA) {
+				final long meio = (inicio + fim) >>> 1;
+				final PartidasDoTorneio primeiraMetade = new PartidasDoTorneio(dificudade, adversario, inicio, meio,
+						sorteio.dividir());
+				primeiraMetade.fork();
+				final EstatisticasDoTorneio segundaMetade = new PartidasDoTorneio(dificudade, adversario, meio, fim,
+						sorteio).compute();
+				return segundaMetade.somar(primeiraMetade.join());
+			}
+
+			final EstatisticasDoTorneio estatisticas = new EstatisticasDoTorneio();
+			final VelhaIA velhaIA = new VelhaIA();
+			for (long partida = inicio; partida < fim; partida++) {
+				final char maquina = partida % 2 == 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+				velhaIA.setSemente(sorteio.nextLong());
+				final int jogadas = jogarPartida(velhaIA, maquina);
+				final char ganhador = velhaIA.getGanhador();
+				estatisticas.registrar(ganhador == VelhaIA.VAZIO ? 0 : ganhador == maquina ? 1 : -1, jogadas);
+			}
+			return estatisticas;
+		}
+
+		/**
+		 * Método que joga uma partida a partir do tabuleiro vazio e retorna a quantidade de jogadas.
+		 */
+		private int jogarPartida(final VelhaIA velhaIA, final char maquina) {
+			velhaIA.limparTabuleiro();
+			int jogadas = 0;
+
+			while (!velhaIA.isFimDeJogo()) {
+				final char jogador = velhaIA.getJogadorDaVez();
+				final int posicao;
+
+				if (jogador == maquina) {
+					velhaIA.setDificudade(dificudade);
+					posicao = velhaIA.getJogada();
+				} else if (adversario == Adversario.MAQUINA_DIFICIL) {
+					velhaIA.setDificudade(PartidaVelha.getDificudade(2));
+					posicao = velhaIA.getJogada();
+				} else {
+					posicao = getJogadaAleatoria(velhaIA);
+				}
+
+				velhaIA.setPosicao(posicao, jogador);
+				jogadas++;
+			}
+			return jogadas;
+		}
+
+		/**
+		 * Método que sorteia uma das posições livres do tabuleiro.
+		 */
+		private int getJogadaAleatoria(final VelhaIA velhaIA) {
+			int posicao;
+			do {
+				posicao = velhaIA.getSorteio().nextInt(9);
+			} while (velhaIA.getPosicao(posicao) != VelhaIA.VAZIO);
+			return posicao;
+		}
+	}
+
+	/**
+	 * Método que inicia o torneio e mostra as estatisticas de cada dificudade.
+	 */
+	public static void main(final String[] args) {
+		final long partidas = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		final long semente = args.length > 1 ? Long.parseLong(args[1]) : new SorteioVelha().getSemente();
+		final Torneio torneio = new Torneio();
+		final String[] niveis = { "FÁCIL", "MÉDIO", "DIFÍCIL" };
+
+		System.out.println("Semente do torneio: " + semente);
+		for (int nivel = 0; nivel < niveis.length; nivel++) {
+			final int dificudade = PartidaVelha.getDificudade(nivel);
+			for (final Adversario adversario : Adversario.values()) {
+				final long inicio = System.nanoTime();
+				final EstatisticasDoTorneio estatisticas = torneio.jogar(dificudade, adversario, partidas,
+						semente);
+				final long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+				System.out.println(niveis[nivel] + " (dificudade " + dificudade + ") x " + adversario + ": "
+						+ estatisticas + " em " + milisegundos + " ms");
+			}
+		}
+	}
+}
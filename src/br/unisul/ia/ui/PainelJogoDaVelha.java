@@ -4,19 +4,26 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Paint;
-import java.awt.Point;
+import java.awt.Stroke;
+import java.awt.Transparency;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
-import javax.swing.SwingUtilities;
 
 import br.unisul.ia.service.VelhaService;
+import br.unisul.ia.velha.PartidaVelha;
 import br.unisul.ia.velha.VelhaIA;
 
 /**
  * Classe que implementa um painel Swing com o tabuleiro do Jogo da Velha.
+ * 
+ * As linhas do tabuleiro ficam em uma imagem compatível com a tela, e as coordenadas das
+ * posições em vetores, refeitas somente quando o tamanho do painel muda. Depois de uma
+ * jogada, somente a posição jogada é redesenhada.
  */
 public class PainelJogoDaVelha extends JPanel {
 
@@ -45,7 +52,7 @@ public class PainelJogoDaVelha extends JPanel {
 	/**
 	 *  Largura da linha que desenha o tabuleiro, em pixels 
 	 */
-	private static final float LARGURA_DA_LINHA_TABULEIRO = 4.0f;
+	private static final Stroke LINHA_TABULEIRO = new BasicStroke(4.0f);
 
 	/**
 	 *  Cor do tabuleiro 
@@ -55,7 +62,7 @@ public class PainelJogoDaVelha extends JPanel {
 	/**
 	 *  Largura da linha que marca a jogada vencedora. 
 	 */
-	private static final float LARGURA_LINHA_VENCEDORA = 10.0f;
+	private static final Stroke LINHA_VENCEDORA = new BasicStroke(10.0f);
 
 	/**
 	 *  Cor da linha que marca a jogada vencedora.
@@ -65,7 +72,7 @@ public class PainelJogoDaVelha extends JPanel {
 	/**
 	 *  Largura da linha que desenha o X ou O de uma jogada 
 	 */
-	private static final float LARGURA_LINHA_JOGADOR = 8.0f;
+	private static final Stroke LINHA_JOGADOR = new BasicStroke(8.0f);
 
 	/**
 	 *  Cor do jogador X 
@@ -82,6 +89,11 @@ public class PainelJogoDaVelha extends JPanel {
 	 */
 	private static final int ESPACO_JOGADOR = LARGURA / 25;
 
+	/**
+	 *  Margem da imagem do tabuleiro, para as pontas das linhas 
+	 */
+	private static final int MARGEM_DA_IMAGEM = 4;
+
 	/**
 	 *  Coordenada X do inicio do tabuleiro 
 	 */
@@ -103,15 +115,33 @@ public class PainelJogoDaVelha extends JPanel {
 	private int Y_FIM = Y_INICIO + ALTURA;
 
 	/**
-	 * Armazena um conjunto de coordenadas que representam cada posicao no
-	 * tabuleiro.
+	 * Coordenadas iniciais (x, y) e finais (x, y) de cada posicao no tabuleiro.
+	 */
+	private final int[] inicioX = new int[9];
+	private final int[] inicioY = new int[9];
+	private final int[] fimX = new int[9];
+	private final int[] fimY = new int[9];
+
+	/**
+	 * Tamanho do painel usado no último cálculo das coordenadas.
+	 */
+	private int larguraDoPainel = -1;
+	private int alturaDoPainel = -1;
+
+	/**
+	 * Cor de fundo usada na imagem do tabuleiro.
+	 */
+	private Color corDeFundo = null;
+
+	/**
+	 * Imagem com as linhas do tabuleiro, refeita somente quando o tamanho do painel muda.
 	 */
-	private Point posicoesNoTabuleiro[][] = new Point[9][2];
+	private BufferedImage imagemDoTabuleiro = null;
 
 	/** 
-	 * Lógica do jogo. 
+	 * Partida do jogo. 
 	 */
-	private VelhaIA velhaIA = null;
+	private PartidaVelha partida = null;
 
 	/** 
 	 * Serviço do jogo. 
@@ -121,43 +151,31 @@ public class PainelJogoDaVelha extends JPanel {
 	/**
 	 * Construtor da classe.
 	 */
-	public PainelJogoDaVelha(VelhaIA velhaIA, VelhaService service) {
+	public PainelJogoDaVelha(PartidaVelha partida, VelhaService service) {
 
-		this.velhaIA = velhaIA;
+		this.partida = partida;
 		this.velhaService = service;
 
-		calcularCoordenadasDasPosicoes();
-
 		addMouseListener(new MouseAdapter() {
 			
 			/**
 			 * Evento chamada quando é clicado na tela do jogo.
 			 */
 			public void mousePressed(MouseEvent evento) {
-				if (velhaIA.isFimDeJogo() || !VelhaTela.JOGO_INICIADO) {
+				if (partida.isFimDeJogo() || !partida.isIniciada()) {
 					return;
 				}
 				
 				int posicao = getPosicao(evento.getX(), evento.getY());
 				if (posicao >= 0) {
 					velhaService.onJogadorFezUmaJogada(posicao);
-					repaint();
-
-					SwingUtilities.invokeLater(new Runnable() {
-
-						@Override
-						public void run() {
-							try {
-								Thread.sleep(1000);
-							} catch (InterruptedException e) {
-								e.printStackTrace();
-							}
-
-							velhaService.onVezDaMaquinaJogar();
-							repaint();
-							velhaService.onVerificaSituacaoDoJogo();
-						}
-					});
+					redesenharPosicao(posicao);
+
+					/**
+					 * A jogada da maquina é calculada e mostrada pelo serviço, 
+					 * sem bloquear a tela.
+					 */
+					velhaService.onVezDaMaquinaJogar();
 				}
 
 			}
@@ -175,46 +193,79 @@ public class PainelJogoDaVelha extends JPanel {
 
 		calcularCoordenadasDasPosicoes();
 
-		desenharTabuleiro(graphics2D);
+		graphics2D.drawImage(imagemDoTabuleiro, X_INICIO - MARGEM_DA_IMAGEM, Y_INICIO - MARGEM_DA_IMAGEM, null);
 		desenharJogadas(graphics2D);
 		desenharJogadaVencedora(graphics2D);
 	}
 
 	/**
-	 * Calcula as coordenadas das posições do tabuleiro.
+	 * Redesenha somente a posição do tabuleiro, ou o painel inteiro quando o jogo acabou,
+	 * para mostrar a linha da jogada vencedora.
+	 */
+	public void redesenharPosicao(final int posicao) {
+		if (partida.isFimDeJogo() || larguraDoPainel < 0) {
+			repaint();
+			return;
+		}
+		repaint(inicioX[posicao], inicioY[posicao], fimX[posicao] - inicioX[posicao],
+				fimY[posicao] - inicioY[posicao]);
+	}
+
+	/**
+	 * Calcula as coordenadas das posições do tabuleiro e a imagem das linhas,
+	 * se o tamanho do painel mudou desde o último cálculo.
 	 */
 	private void calcularCoordenadasDasPosicoes() {
-		X_INICIO = (getSize().width - LARGURA) / 2;
-		Y_INICIO = (getSize().height - ALTURA) / 2;
+		if (getWidth() == larguraDoPainel && getHeight() == alturaDoPainel && imagemDoTabuleiro != null
+				&& getBackground().equals(corDeFundo)) {
+			return;
+		}
+		larguraDoPainel = getWidth();
+		alturaDoPainel = getHeight();
+		corDeFundo = getBackground();
+
+		X_INICIO = (larguraDoPainel - LARGURA) / 2;
+		Y_INICIO = (alturaDoPainel - ALTURA) / 2;
 		X_FIM = X_INICIO + LARGURA;
 		Y_FIM = Y_INICIO + ALTURA;
 
-		posicoesNoTabuleiro[0][0] = new Point(X_INICIO, Y_INICIO);
-		posicoesNoTabuleiro[0][1] = new Point(X_INICIO + X_3, Y_INICIO + Y_3);
+		final int[] colunasInicio = { X_INICIO, X_INICIO + X_3, X_FIM - X_3 };
+		final int[] colunasFim = { X_INICIO + X_3, X_FIM - X_3, X_FIM };
+		final int[] linhasInicio = { Y_INICIO, Y_INICIO + Y_3, Y_FIM - Y_3 };
+		final int[] linhasFim = { Y_INICIO + Y_3, Y_FIM - Y_3, Y_FIM };
 
-		posicoesNoTabuleiro[1][0] = new Point(X_INICIO + X_3, Y_INICIO);
-		posicoesNoTabuleiro[1][1] = new Point(X_FIM - X_3, Y_INICIO + Y_3);
-
-		posicoesNoTabuleiro[2][0] = new Point(X_FIM - X_3, Y_INICIO);
-		posicoesNoTabuleiro[2][1] = new Point(X_FIM, Y_INICIO + Y_3);
-
-		posicoesNoTabuleiro[3][0] = new Point(X_INICIO, Y_INICIO + Y_3);
-		posicoesNoTabuleiro[3][1] = new Point(X_INICIO + X_3, Y_FIM - Y_3);
-
-		posicoesNoTabuleiro[4][0] = new Point(X_INICIO + X_3, Y_INICIO + Y_3);
-		posicoesNoTabuleiro[4][1] = new Point(X_FIM - X_3, Y_FIM - Y_3);
-
-		posicoesNoTabuleiro[5][0] = new Point(X_FIM - X_3, Y_INICIO + Y_3);
-		posicoesNoTabuleiro[5][1] = new Point(X_FIM, Y_FIM - Y_3);
+		for (int posicao = 0; posicao < 9; posicao++) {
+			inicioX[posicao] = colunasInicio[posicao % 3];
+			fimX[posicao] = colunasFim[posicao % 3];
+			inicioY[posicao] = linhasInicio[posicao / 3];
+			fimY[posicao] = linhasFim[posicao / 3];
+		}
 
-		posicoesNoTabuleiro[6][0] = new Point(X_INICIO, Y_FIM - Y_3);
-		posicoesNoTabuleiro[6][1] = new Point(X_INICIO + X_3, Y_FIM);
+		criarImagemDoTabuleiro();
+	}
 
-		posicoesNoTabuleiro[7][0] = new Point(X_INICIO + X_3, Y_FIM - Y_3);
-		posicoesNoTabuleiro[7][1] = new Point(X_FIM - X_3, Y_FIM);
+	/**
+	 * Cria a imagem com as linhas do tabuleiro, compatível com a tela do painel.
+	 */
+	private void criarImagemDoTabuleiro() {
+		final int largura = LARGURA + 2 * MARGEM_DA_IMAGEM;
+		final int altura = ALTURA + 2 * MARGEM_DA_IMAGEM;
+		final GraphicsConfiguration configuracao = getGraphicsConfiguration();
+		if (configuracao != null) {
+			imagemDoTabuleiro = configuracao.createCompatibleImage(largura, altura, Transparency.OPAQUE);
+		} else {
+			imagemDoTabuleiro = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+		}
 
-		posicoesNoTabuleiro[8][0] = new Point(X_FIM - X_3, Y_FIM - Y_3);
-		posicoesNoTabuleiro[8][1] = new Point(X_FIM, Y_FIM);
+		/**
+		 * A imagem é opaca, com a cor de fundo do painel, para ser copiada sem mistura de cores.
+		 */
+		final Graphics2D graphics2D = imagemDoTabuleiro.createGraphics();
+		graphics2D.setColor(getBackground());
+		graphics2D.fillRect(0, 0, largura, altura);
+		graphics2D.translate(MARGEM_DA_IMAGEM, MARGEM_DA_IMAGEM);
+		desenharTabuleiro(graphics2D);
+		graphics2D.dispose();
 	}
 
 	/**
@@ -222,15 +273,14 @@ public class PainelJogoDaVelha extends JPanel {
 	 */
 	private int getPosicao(final int posicaoX, final int posicaoY) {
 		
-		for (int posicao = 0; posicao < posicoesNoTabuleiro.length; posicao++) {
+		calcularCoordenadasDasPosicoes();
 
-			final Point posicaoInicial = posicoesNoTabuleiro[posicao][0];
-			final Point posicaoFinal = posicoesNoTabuleiro[posicao][1];
+		for (int posicao = 0; posicao < 9; posicao++) {
 
-			if (posicaoX > posicaoInicial.x 
-					&& posicaoX < posicaoFinal.x 
-					&& posicaoY > posicaoInicial.y 
-					&& posicaoY < posicaoFinal.y) {
+			if (posicaoX > inicioX[posicao] 
+					&& posicaoX < fimX[posicao] 
+					&& posicaoY > inicioY[posicao] 
+					&& posicaoY < fimY[posicao]) {
 				return posicao;
 			}
 		}
@@ -239,18 +289,18 @@ public class PainelJogoDaVelha extends JPanel {
 	}
 
 	/**
-	 * Desenha o tabuleiro na tela.
+	 * Desenha as linhas do tabuleiro na imagem, com a origem no inicio do tabuleiro.
 	 */
 	private void desenharTabuleiro(final Graphics2D graphics2D) {
 
-		graphics2D.setStroke(new BasicStroke(LARGURA_DA_LINHA_TABULEIRO));
+		graphics2D.setStroke(LINHA_TABULEIRO);
 		graphics2D.setPaint(COR_TABULEIRO);
 
-		graphics2D.drawLine(X_INICIO, Y_INICIO + Y_3, X_FIM, Y_INICIO + Y_3);
-		graphics2D.drawLine(X_INICIO, Y_FIM - Y_3, X_FIM, Y_FIM - Y_3);
+		graphics2D.drawLine(0, Y_3, LARGURA, Y_3);
+		graphics2D.drawLine(0, ALTURA - Y_3, LARGURA, ALTURA - Y_3);
 
-		graphics2D.drawLine(X_INICIO + X_3, Y_INICIO, X_INICIO + X_3, Y_FIM);
-		graphics2D.drawLine(X_FIM - X_3, Y_INICIO, X_FIM - X_3, Y_FIM);
+		graphics2D.drawLine(X_3, 0, X_3, ALTURA);
+		graphics2D.drawLine(LARGURA - X_3, 0, LARGURA - X_3, ALTURA);
 	}
 
 	/**
@@ -258,19 +308,17 @@ public class PainelJogoDaVelha extends JPanel {
 	 */
 	private void desenharJogadas(final Graphics2D graphics2D) {
 
-		graphics2D.setStroke(new BasicStroke(LARGURA_LINHA_JOGADOR));
+		graphics2D.setStroke(LINHA_JOGADOR);
 
 		for (int posicao = 0; posicao < 9; posicao++) {
 
-			final Point posicaoInicial = posicoesNoTabuleiro[posicao][0];
-			final Point posicaoFinal = posicoesNoTabuleiro[posicao][1];
-
-			final int posicaoX1 = posicaoInicial.x + ESPACO_JOGADOR;
-			final int posicaoX2 = posicaoFinal.x - ESPACO_JOGADOR;
-			final int posicaoY1 = posicaoInicial.y + ESPACO_JOGADOR;
-			final int posicaoY2 = posicaoFinal.y - ESPACO_JOGADOR;
+			final int posicaoX1 = inicioX[posicao] + ESPACO_JOGADOR;
+			final int posicaoX2 = fimX[posicao] - ESPACO_JOGADOR;
+			final int posicaoY1 = inicioY[posicao] + ESPACO_JOGADOR;
+			final int posicaoY2 = fimY[posicao] - ESPACO_JOGADOR;
 
-			if (velhaIA.getPosicao(posicao) == VelhaIA.JOGADOR_X) {
+			final char jogador = partida.getPosicao(posicao);
+			if (jogador == VelhaIA.JOGADOR_X) {
 
 				/**
 				 * Desenha o 'X' na tela.  
@@ -279,7 +327,7 @@ public class PainelJogoDaVelha extends JPanel {
 				graphics2D.drawLine(posicaoX1, posicaoY1, posicaoX2, posicaoY2);
 				graphics2D.drawLine(posicaoX1, posicaoY2, posicaoX2, posicaoY1);
 
-			} else if (velhaIA.getPosicao(posicao) == VelhaIA.JOGADOR_O) {
+			} else if (jogador == VelhaIA.JOGADOR_O) {
 
 				/**
 				 * Desenha o 'O' na tela.  
@@ -296,7 +344,7 @@ public class PainelJogoDaVelha extends JPanel {
 	 */
 	private void desenharJogadaVencedora(final Graphics2D grphics2D) {
 
-		int jogadaVencedora[] = velhaIA.getPosicoesGanhadoras();
+		int jogadaVencedora[] = partida.getPosicoesGanhadoras();
 
 		if (jogadaVencedora == null || jogadaVencedora.length < 3) {
 			return;
@@ -304,12 +352,12 @@ public class PainelJogoDaVelha extends JPanel {
 
 		final int spacing = X_3 / 2;
 
-		final int posicaoX1 = posicoesNoTabuleiro[jogadaVencedora[0]][0].x + spacing;
-		final int posicaoY1 = posicoesNoTabuleiro[jogadaVencedora[0]][0].y + spacing;
-		final int posicaoX2 = posicoesNoTabuleiro[jogadaVencedora[2]][0].x + spacing;
-		final int posicaoY2 = posicoesNoTabuleiro[jogadaVencedora[2]][0].y + spacing;
+		final int posicaoX1 = inicioX[jogadaVencedora[0]] + spacing;
+		final int posicaoY1 = inicioY[jogadaVencedora[0]] + spacing;
+		final int posicaoX2 = inicioX[jogadaVencedora[2]] + spacing;
+		final int posicaoY2 = inicioY[jogadaVencedora[2]] + spacing;
 
-		grphics2D.setStroke(new BasicStroke(LARGURA_LINHA_VENCEDORA));
+		grphics2D.setStroke(LINHA_VENCEDORA);
 		grphics2D.setPaint(COR_LINHA_VENCEDORA);
 
 		grphics2D.drawLine(posicaoX1, posicaoY1, posicaoX2, posicaoY2);
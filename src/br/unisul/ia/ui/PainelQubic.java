@@ -0,0 +1,279 @@
+package br.unisul.ia.ui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Stroke;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import javax.swing.JPanel;
+
+import br.unisul.ia.velha.Qubic;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Classe que implementa um painel Swing com o cubo do Qubic, desenhado como as suas 4 camadas
+ * de 4 x 4 posições, lado a lado em duas fileiras.
+ *
+ * As coordenadas das posições ficam em vetores, refeitos somente quando o tamanho do painel muda,
+ * e as posições da linha ganhadora são pintadas em todas as camadas por onde ela passa.
+ */
+public class PainelQubic extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 *  Largura e altura de uma posição de uma camada.
+	 */
+	private static final int LADO_DA_POSICAO = 42;
+
+	/**
+	 *  Largura e altura de uma camada.
+	 */
+	private static final int LADO_DA_CAMADA = LADO_DA_POSICAO * Qubic.TAMANHO;
+
+	/**
+	 *  Espaço entre as camadas, com o nome da camada.
+	 */
+	private static final int ESPACO_ENTRE_CAMADAS = 30;
+
+	/**
+	 *  Largura da linha que desenha as camadas, em pixels
+	 */
+	private static final Stroke LINHA_TABULEIRO = new BasicStroke(2.0f);
+
+	/**
+	 *  Cor das camadas
+	 */
+	private static final Paint COR_TABULEIRO = Color.BLACK;
+
+	/**
+	 *  Cor das posições da linha ganhadora.
+	 */
+	private static final Paint COR_LINHA_VENCEDORA = Color.YELLOW;
+
+	/**
+	 *  Largura da linha que desenha o X ou O de uma jogada
+	 */
+	private static final Stroke LINHA_JOGADOR = new BasicStroke(4.0f);
+
+	/**
+	 *  Cor do jogador X
+	 */
+	private static final Paint COR_JOGADOR_X = Color.RED;
+
+	/**
+	 *  Cor do jogador O
+	 */
+	private static final Paint COR_JOGADOR_O = Color.BLUE;
+
+	/**
+	 *  Espaços entre a borda da posicao e o X ou O
+	 */
+	private static final int ESPACO_JOGADOR = LADO_DA_POSICAO / 6;
+
+	/**
+	 *  Fonte do nome das camadas
+	 */
+	private static final Font FONTE_DA_CAMADA = new Font(null, Font.BOLD, 12);
+
+	/**
+	 * Coordenadas iniciais (x, y) de cada camada e de cada posicao do cubo.
+	 */
+	private final int[] camadaX = new int[Qubic.TAMANHO];
+	private final int[] camadaY = new int[Qubic.TAMANHO];
+	private final int[] inicioX = new int[Qubic.POSICOES];
+	private final int[] inicioY = new int[Qubic.POSICOES];
+
+	/**
+	 * Tamanho do painel usado no último cálculo das coordenadas.
+	 */
+	private int larguraDoPainel = -1;
+	private int alturaDoPainel = -1;
+
+	/**
+	 * Tabuleiro mostrado no painel, alterado somente na thread da tela.
+	 */
+	private final Qubic qubic;
+
+	/**
+	 * Tela do jogo, avisada das jogadas do jogador.
+	 */
+	private final QubicTela qubicTela;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public PainelQubic(final Qubic qubic, final QubicTela tela) {
+
+		this.qubic = qubic;
+		this.qubicTela = tela;
+
+		addMouseListener(new MouseAdapter() {
+
+			/**
+			 * Evento chamada quando é clicado na tela do jogo.
+			 */
+			public void mousePressed(MouseEvent evento) {
+				final int posicao = getPosicao(evento.getX(), evento.getY());
+				if (posicao >= 0) {
+					qubicTela.onJogadorFezUmaJogada(posicao);
+				}
+			}
+
+		});
+	}
+
+	/**
+	 *  Resenha a tela do jogo
+	 */
+	@Override
+	public void paintComponent(final Graphics graphics) {
+		super.paintComponent(graphics);
+		Graphics2D graphics2D = (Graphics2D) graphics;
+
+		calcularCoordenadasDasPosicoes();
+
+		desenharJogadaVencedora(graphics2D);
+		desenharCamadas(graphics2D);
+		desenharJogadas(graphics2D);
+	}
+
+	/**
+	 * Redesenha somente a posição do cubo, ou o painel inteiro quando o jogo acabou,
+	 * para mostrar a linha ganhadora.
+	 */
+	public void redesenharPosicao(final int posicao) {
+		if (qubic.isFimDeJogo() || larguraDoPainel < 0) {
+			repaint();
+			return;
+		}
+		repaint(inicioX[posicao], inicioY[posicao], LADO_DA_POSICAO, LADO_DA_POSICAO);
+	}
+
+	/**
+	 * Calcula as coordenadas das camadas e das posições, se o tamanho do painel mudou
+	 * desde o último cálculo.
+	 */
+	private void calcularCoordenadasDasPosicoes() {
+		if (getWidth() == larguraDoPainel && getHeight() == alturaDoPainel) {
+			return;
+		}
+		larguraDoPainel = getWidth();
+		alturaDoPainel = getHeight();
+
+		final int lado = 2 * LADO_DA_CAMADA + ESPACO_ENTRE_CAMADAS;
+		final int xInicio = (larguraDoPainel - lado) / 2;
+		final int yInicio = (alturaDoPainel - lado) / 2;
+
+		for (int camada = 0; camada < Qubic.TAMANHO; camada++) {
+			camadaX[camada] = xInicio + (camada % 2) * (LADO_DA_CAMADA + ESPACO_ENTRE_CAMADAS);
+			camadaY[camada] = yInicio + (camada / 2) * (LADO_DA_CAMADA + ESPACO_ENTRE_CAMADAS);
+		}
+
+		for (int posicao = 0; posicao < Qubic.POSICOES; posicao++) {
+			final int camada = posicao / 16;
+			inicioX[posicao] = camadaX[camada] + (posicao % 4) * LADO_DA_POSICAO;
+			inicioY[posicao] = camadaY[camada] + ((posicao / 4) % 4) * LADO_DA_POSICAO;
+		}
+	}
+
+	/**
+	 * Método que retorna uma posicao do cubo, a partir das coordenadas de tela (x,y).
+	 */
+	private int getPosicao(final int posicaoX, final int posicaoY) {
+
+		calcularCoordenadasDasPosicoes();
+
+		for (int posicao = 0; posicao < Qubic.POSICOES; posicao++) {
+
+			if (posicaoX > inicioX[posicao]
+					&& posicaoX < inicioX[posicao] + LADO_DA_POSICAO
+					&& posicaoY > inicioY[posicao]
+					&& posicaoY < inicioY[posicao] + LADO_DA_POSICAO) {
+				return posicao;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Desenha as grades e os nomes das camadas.
+	 */
+	private void desenharCamadas(final Graphics2D graphics2D) {
+
+		graphics2D.setStroke(LINHA_TABULEIRO);
+		graphics2D.setPaint(COR_TABULEIRO);
+		graphics2D.setFont(FONTE_DA_CAMADA);
+
+		for (int camada = 0; camada < Qubic.TAMANHO; camada++) {
+			final int x = camadaX[camada];
+			final int y = camadaY[camada];
+			graphics2D.drawString("Camada " + (camada + 1), x, y - 6);
+
+			for (int linha = 0; linha <= Qubic.TAMANHO; linha++) {
+				graphics2D.drawLine(x, y + linha * LADO_DA_POSICAO, x + LADO_DA_CAMADA, y + linha * LADO_DA_POSICAO);
+				graphics2D.drawLine(x + linha * LADO_DA_POSICAO, y, x + linha * LADO_DA_POSICAO, y + LADO_DA_CAMADA);
+			}
+		}
+	}
+
+	/**
+	 * Desenha as jogadas na tela.
+	 */
+	private void desenharJogadas(final Graphics2D graphics2D) {
+
+		graphics2D.setStroke(LINHA_JOGADOR);
+
+		for (int posicao = 0; posicao < Qubic.POSICOES; posicao++) {
+
+			final int posicaoX1 = inicioX[posicao] + ESPACO_JOGADOR;
+			final int posicaoX2 = inicioX[posicao] + LADO_DA_POSICAO - ESPACO_JOGADOR;
+			final int posicaoY1 = inicioY[posicao] + ESPACO_JOGADOR;
+			final int posicaoY2 = inicioY[posicao] + LADO_DA_POSICAO - ESPACO_JOGADOR;
+
+			final char jogador = qubic.getPosicao(posicao);
+			if (jogador == VelhaIA.JOGADOR_X) {
+
+				/**
+				 * Desenha o 'X' na tela.
+				 */
+				graphics2D.setPaint(COR_JOGADOR_X);
+				graphics2D.drawLine(posicaoX1, posicaoY1, posicaoX2, posicaoY2);
+				graphics2D.drawLine(posicaoX1, posicaoY2, posicaoX2, posicaoY1);
+
+			} else if (jogador == VelhaIA.JOGADOR_O) {
+
+				/**
+				 * Desenha o 'O' na tela.
+				 */
+				graphics2D.setPaint(COR_JOGADOR_O);
+				graphics2D.drawOval(posicaoX1, posicaoY1, posicaoX2 - posicaoX1, posicaoY2 - posicaoY1);
+
+			}
+		}
+	}
+
+	/**
+	 * Método que pinta o fundo das posições da linha ganhadora. A linha pode atravessar as
+	 * camadas, por isso as posições são marcadas em vez de ligadas por uma linha.
+	 */
+	private void desenharJogadaVencedora(final Graphics2D graphics2D) {
+
+		final int[] jogadaVencedora = qubic.getPosicoesGanhadoras();
+		if (jogadaVencedora == null) {
+			return;
+		}
+
+		graphics2D.setPaint(COR_LINHA_VENCEDORA);
+		for (final int posicao : jogadaVencedora) {
+			graphics2D.fillRect(inicioX[posicao], inicioY[posicao], LADO_DA_POSICAO, LADO_DA_POSICAO);
+		}
+	}
+
+}
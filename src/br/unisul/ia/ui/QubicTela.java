@@ -0,0 +1,246 @@
+package br.unisul.ia.ui;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.border.EtchedBorder;
+
+import br.unisul.ia.velha.Qubic;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Classe responsavel por montar a tela do Qubic, o Jogo da Velha 4 x 4 x 4, em que o jogador
+ * joga com o 'X' contra a maquina.
+ *
+ * A jogada da maquina é calculada em uma thread separada, em uma cópia do tabuleiro, e mostrada
+ * na thread da tela, sem bloquear a tela. A dificudade escolhe o tempo da busca da maquina.
+ */
+public class QubicTela implements ActionListener {
+
+	/**
+	 * Tempo da busca da maquina, em milisegundos, para cada dificudade do combo.
+	 */
+	private static final long[] TEMPOS_DA_MAQUINA = { 200, 1000, 3000 };
+
+	/**
+	 * Thread que calcula as jogadas da maquina.
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(tarefa -> {
+		final Thread thread = new Thread(tarefa, "qubic-maquina");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private JFrame tela;
+
+	/**
+	 *  Painel onde ficará o jogo
+	 */
+	private PainelQubic painelQubic;
+
+	/**
+	 *  Painel de Opções do jogo
+	 */
+	private JPanel painelOpcoesDeJogo;
+	private JButton botaoIniciarPartida;
+	private JComboBox<String> comboDificudades;
+
+	/**
+	 *  Painel que mostra a situação do jogo
+	 */
+	private JPanel painelDeInformacao;
+	private JLabel situacaoDoJogo;
+
+	/**
+	 * Tabuleiro mostrado na tela, alterado somente na thread da tela.
+	 */
+	private final Qubic qubic = new Qubic();
+
+	/**
+	 * Tabuleiro da busca da maquina, com as mesmas jogadas, alterado somente na thread da maquina.
+	 */
+	private final Qubic maquina = new Qubic();
+
+	/**
+	 * Mostra se a partida foi iniciada.
+	 */
+	private boolean iniciada;
+
+	/**
+	 * Geração da partida, somada a cada nova partida. Uma jogada calculada para uma
+	 * geração anterior é descartada. Usada somente na thread da tela.
+	 */
+	private long geracao;
+
+	/**
+	 * Cálculo da jogada da maquina em andamento, ou 'null' se é a vez do jogador.
+	 */
+	private Future<?> calculoEmAndamento;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public QubicTela() {
+
+		tela = new JFrame("Qubic IA Unisul");
+		tela.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		tela.setLayout(new BorderLayout(10, 10));
+		tela.setResizable(false);
+
+		criaPainelDeOpcoes();
+		criaPainelDeInformacoes();
+
+		painelQubic = new PainelQubic(qubic, this);
+
+		tela.add(painelOpcoesDeJogo, BorderLayout.NORTH);
+		tela.add(painelQubic, BorderLayout.CENTER);
+		tela.add(painelDeInformacao, BorderLayout.SOUTH);
+
+		tela.setSize(650, 550);
+		tela.setLocationByPlatform(true);
+		tela.setVisible(true);
+		tela.setLocationRelativeTo(null);
+	}
+
+	/**
+	 *  Método chamada quando um botão é chamado
+	 */
+	@Override
+	public void actionPerformed(ActionEvent evento) {
+
+		if (evento.getSource() == botaoIniciarPartida) {
+			iniciarPartida();
+		}
+	}
+
+	/**
+	 * Método que inicia a partida, descartando a jogada da maquina em andamento.
+	 */
+	private void iniciarPartida() {
+		geracao++;
+		if (calculoEmAndamento != null) {
+			calculoEmAndamento.cancel(true);
+			calculoEmAndamento = null;
+		}
+
+		final long tempoDaMaquina = TEMPOS_DA_MAQUINA[comboDificudades.getSelectedIndex()];
+		qubic.limparTabuleiro();
+		EXECUTOR.execute(() -> {
+			maquina.limparTabuleiro();
+			maquina.setTempoLimite(tempoDaMaquina);
+		});
+		iniciada = true;
+
+		situacaoDoJogo.setText("Sua vez de jogar...");
+		painelQubic.repaint();
+	}
+
+	/**
+	 * Método chamado pelo painel quando o jogador clica em uma posição.
+	 */
+	public void onJogadorFezUmaJogada(final int posicao) {
+		if (!iniciada || calculoEmAndamento != null || qubic.isFimDeJogo()
+				|| qubic.getPosicao(posicao) != VelhaIA.VAZIO) {
+			return;
+		}
+
+		qubic.setPosicao(posicao, VelhaIA.JOGADOR_X);
+		painelQubic.redesenharPosicao(posicao);
+		if (verificarFimDeJogo()) {
+			EXECUTOR.execute(() -> maquina.setPosicao(posicao, VelhaIA.JOGADOR_X));
+			return;
+		}
+
+		situacaoDoJogo.setText("Minha vez de jogar...");
+		final long geracaoDaJogada = geracao;
+		calculoEmAndamento = EXECUTOR.submit(() -> {
+			maquina.setPosicao(posicao, VelhaIA.JOGADOR_X);
+			final int jogada = maquina.getJogada();
+			maquina.setPosicao(jogada, VelhaIA.JOGADOR_O);
+			SwingUtilities.invokeLater(() -> mostrarJogadaDaMaquina(geracaoDaJogada, jogada));
+		});
+	}
+
+	/**
+	 * Método que mostra a jogada calculada da maquina. Chamado na thread da tela.
+	 */
+	private void mostrarJogadaDaMaquina(final long geracaoDaJogada, final int posicao) {
+		if (geracaoDaJogada != geracao) {
+			return;
+		}
+		calculoEmAndamento = null;
+
+		qubic.setPosicao(posicao, VelhaIA.JOGADOR_O);
+		painelQubic.redesenharPosicao(posicao);
+		if (!verificarFimDeJogo()) {
+			situacaoDoJogo.setText("Sua vez de jogar...");
+		}
+	}
+
+	/**
+	 * Método que verifica se a partida acabou e mostra o resultado.
+	 */
+	private boolean verificarFimDeJogo() {
+		final char ganhador = qubic.getGanhador();
+		if (ganhador == VelhaIA.JOGADOR_X) {
+			situacaoDoJogo.setText("Parabéns! Você ganhou essa partida!");
+		} else if (ganhador == VelhaIA.JOGADOR_O) {
+			situacaoDoJogo.setText("Ganhei! Tente novamente...");
+		} else if (qubic.isCheio()) {
+			situacaoDoJogo.setText("Empatamos! Vamos jogar novamente...");
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Cria o painel de opções do jogo.
+	 */
+	private void criaPainelDeOpcoes() {
+
+		painelOpcoesDeJogo = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+		painelOpcoesDeJogo.setBorder(new EtchedBorder());
+
+		botaoIniciarPartida = new JButton("Iniciar partida");
+		botaoIniciarPartida.addActionListener(this);
+		painelOpcoesDeJogo.add(botaoIniciarPartida);
+
+		final String[] dificudades = {"FÁCIL", "MÉDIO", "DIFÍCIL"};
+		comboDificudades = new JComboBox<String>(dificudades);
+		comboDificudades.setSelectedIndex(0);
+		painelOpcoesDeJogo.add(comboDificudades);
+
+	}
+
+	/**
+	 * Cria o painel de infomações do jogo.
+	 */
+	private void criaPainelDeInformacoes() {
+
+		painelDeInformacao = new JPanel(new FlowLayout());
+		painelDeInformacao.setBorder(new EtchedBorder());
+		situacaoDoJogo = new JLabel("Pronto para iniciar a partida..");
+		situacaoDoJogo.setFont(new Font(null, Font.BOLD, 14));
+		painelDeInformacao.add(situacaoDoJogo);
+	}
+
+	/**
+	 * Método que inicia a aplicação.
+	 */
+	public static void main(String[] args) {
+		SwingUtilities.invokeLater(QubicTela::new);
+	}
+}
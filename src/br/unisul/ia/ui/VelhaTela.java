@@ -15,7 +15,7 @@ import javax.swing.border.EtchedBorder;
 
 import br.unisul.ia.service.VelhaService;
 import br.unisul.ia.service.VelhaServiceImpl;
-import br.unisul.ia.velha.VelhaIA;
+import br.unisul.ia.velha.PartidaVelha;
 
 /**
  * Classe responsavel por montar a tela do jogo.
@@ -47,15 +47,10 @@ public class VelhaTela implements ActionListener {
 	 */
 	private VelhaService velhaService;
 	
-	/**
-	 * Mostra se o jogo está iniciado ou não.
-	 */
-	public static boolean JOGO_INICIADO;
-	
 	/**
 	 * Construtor da classe.
 	 */
-	public VelhaTela(VelhaIA velharIA, VelhaService service) {
+	public VelhaTela(PartidaVelha partida, VelhaService service) {
 
 		velhaService = service;
 
@@ -67,7 +62,7 @@ public class VelhaTela implements ActionListener {
 		criaPainelDeOpcoes();
 		criaPainelDeInformacoes();
 
-		painelJogoDaVelha = new PainelJogoDaVelha(velharIA, service);
+		painelJogoDaVelha = new PainelJogoDaVelha(partida, service);
 
 		tela.add(painelOpcoesDeJogo, BorderLayout.NORTH);
 		tela.add(painelJogoDaVelha, BorderLayout.CENTER);
@@ -86,6 +81,13 @@ public class VelhaTela implements ActionListener {
 		painelJogoDaVelha.repaint();
 	}
 
+	/** 
+	 * Redesenha somente a posição jogada no painel do jogo. 
+	 */
+	public void redesenhaPosicaoDoJogo(final int posicao) {
+		painelJogoDaVelha.redesenharPosicao(posicao);
+	}
+
 	/**
 	 * Mostra a situação do jogo.
 	 */
@@ -0,0 +1,293 @@
+package br.unisul.ia.velha;
+
+/**
+ * Árvore de uma {@link BuscaMonteCarlo}, buscada por uma única thread.
+ *
+ * Os nós ficam em vetores de tipos primitivos, indexados pelo número do nó, e são
+ * reaproveitados entre as buscas; os filhos de um nó são criados juntos, em sequência,
+ * na primeira vez que o nó é visitado de novo depois de criado. O tabuleiro da busca e
+ * dos playouts é um par de 'long', um bit por posição para cada jogador.
+ */
+final class ArvoreMonteCarlo {
+
+	/**
+	 * Constante de exploração do UCT (raiz de 2).
+	 */
+	private static final double EXPLORACAO = 1.4142135623730951;
+
+	/**
+	 * Resultado de um nó ainda em aberto.
+	 */
+	private static final byte EM_ABERTO = 0;
+
+	/**
+	 * Resultado de um nó em que o jogador que fez a jogada do nó ganhou.
+	 */
+	private static final byte VITORIA = 1;
+
+	/**
+	 * Resultado de um nó com o tabuleiro cheio, sem ganhador.
+	 */
+	private static final byte EMPATE = 2;
+
+	/**
+	 * Busca dona da árvore, com as linhas ganhadoras do tabuleiro.
+	 */
+	private final BuscaMonteCarlo busca;
+
+	/**
+	 * Primeiro filho de cada nó; os filhos seguem em sequência.
+	 */
+	private int[] primeiroFilho = new int[0];
+
+	/**
+	 * Quantidade de filhos de cada nó, ou 0 se o nó ainda não foi expandido.
+	 */
+	private byte[] quantidadeDeFilhos = new byte[0];
+
+	/**
+	 * Posição jogada para chegar a cada nó.
+	 */
+	private byte[] jogada = new byte[0];
+
+	/**
+	 * Resultado de cada nó: {@link #EM_ABERTO}, {@link #VITORIA} ou {@link #EMPATE}.
+	 */
+	private byte[] resultado = new byte[0];
+
+	/**
+	 * Quantidade de playouts que passaram por cada nó.
+	 */
+	private int[] visitas = new int[0];
+
+	/**
+	 * Pontos do jogador que fez a jogada de cada nó: 2 por vitória e 1 por empate.
+	 */
+	private int[] pontos = new int[0];
+
+	/**
+	 * Quantidade de nós em uso e capacidade da árvore nesta busca.
+	 */
+	private int nos;
+	private int capacidade;
+
+	/**
+	 * Nós do caminho da raiz até o nó do playout atual.
+	 */
+	private final int[] caminho;
+
+	/**
+	 * Gerador dos sorteios desta árvore.
+	 */
+	private SorteioVelha sorteio;
+
+	/**
+	 * Construtor da classe.
+	 */
+	ArvoreMonteCarlo(final BuscaMonteCarlo busca) {
+		this.busca = busca;
+		this.caminho = new int[busca.getPosicoes() + 1];
+	}
+
+	/**
+	 * Método que prepara a árvore para uma nova busca com a capacidade especificada.
+	 * Os vetores só são alocados de novo quando a capacidade aumenta.
+	 */
+	void preparar(final int capacidade, final SorteioVelha sorteio) {
+		if (visitas.length < capacidade) {
+			primeiroFilho = new int[capacidade];
+			quantidadeDeFilhos = new byte[capacidade];
+			jogada = new byte[capacidade];
+			resultado = new byte[capacidade];
+			visitas = new int[capacidade];
+			pontos = new int[capacidade];
+		}
+		this.capacidade = capacidade;
+		this.sorteio = sorteio;
+		this.nos = 1;
+		quantidadeDeFilhos[0] = 0;
+		resultado[0] = EM_ABERTO;
+		visitas[0] = 0;
+		pontos[0] = 0;
+	}
+
+	/**
+	 * Método que faz até 'playouts' playouts a partir do tabuleiro, ou até o prazo em
+	 * nanosegundos (0 = sem prazo), e retorna a quantidade de playouts feitos.
+	 */
+	int buscar(final long bitsX, final long bitsO, final boolean vezDoX, final int playouts, final long prazo) {
+		int feitos = 0;
+		while (feitos < playouts) {
+			if (prazo != 0 && (feitos & 63) == 0 && feitos > 0 && System.nanoTime() > prazo) {
+				break;
+			}
+			buscar(bitsX, bitsO, vezDoX);
+			feitos++;
+		}
+		return feitos;
+	}
+
+	/**
+	 * Método que faz um playout: desce pela árvore escolhendo os filhos pelo UCT, expande o
+	 * nó alcançado, termina a partida com jogadas sorteadas e soma o resultado no caminho.
+	 */
+	private void buscar(long bitsX, long bitsO, final boolean vezDoX) {
+		boolean vezDoXNoNo = vezDoX;
+		int no = 0;
+		int profundidade = 0;
+		caminho[0] = 0;
+
+		while (resultado[no] == EM_ABERTO && quantidadeDeFilhos[no] > 0) {
+			no = selecionar(no);
+			if (vezDoXNoNo) {
+				bitsX |= 1L << jogada[no];
+			} else {
+				bitsO |= 1L << jogada[no];
+			}
+			vezDoXNoNo = !vezDoXNoNo;
+			caminho[++profundidade] = no;
+		}
+
+		/**
+		 * Ganhador do playout: 1 = X, -1 = O, 0 = empate.
+		 */
+		int ganhador;
+		if (resultado[no] == EM_ABERTO && (no == 0 || visitas[no] > 0) && expandir(no, bitsX, bitsO, vezDoXNoNo)) {
+			no = primeiroFilho[no] + sorteio.nextInt(quantidadeDeFilhos[no]);
+			if (vezDoXNoNo) {
+				bitsX |= 1L << jogada[no];
+			} else {
+				bitsO |= 1L << jogada[no];
+			}
+			vezDoXNoNo = !vezDoXNoNo;
+			caminho[++profundidade] = no;
+		}
+
+		if (resultado[no] == VITORIA) {
+			ganhador = vezDoXNoNo ? -1 : 1;
+		} else if (resultado[no] == EMPATE) {
+			ganhador = 0;
+		} else {
+			ganhador = jogarAleatoriamente(bitsX, bitsO, vezDoXNoNo);
+		}
+
+		/**
+		 * O nó da profundidade 'n' tem a jogada do jogador da vez na raiz quando 'n' é ímpar.
+		 */
+		final int pontosDoX = ganhador + 1;
+		visitas[0]++;
+		for (int nivel = 1; nivel <= profundidade; nivel++) {
+			final int noDoNivel = caminho[nivel];
+			final boolean jogadaDoX = ((nivel & 1) == 1) == vezDoX;
+			visitas[noDoNivel]++;
+			pontos[noDoNivel] += jogadaDoX ? pontosDoX : 2 - pontosDoX;
+		}
+	}
+
+	/**
+	 * Método que escolhe o filho com o maior valor UCT. Os filhos ainda não visitados
+	 * são escolhidos primeiro, na ordem sorteada na expansão.
+	 */
+	private int selecionar(final int no) {
+		final int primeiro = primeiroFilho[no];
+		final int ultimo = primeiro + quantidadeDeFilhos[no];
+		final double logaritmo = Math.log(visitas[no]);
+		int melhor = primeiro;
+		double melhorValor = -1;
+
+		for (int filho = primeiro; filho < ultimo; filho++) {
+			final int visitasDoFilho = visitas[filho];
+			if (visitasDoFilho == 0) {
+				return filho;
+			}
+			final double valor = pontos[filho] / (2.0 * visitasDoFilho)
+					+ EXPLORACAO * Math.sqrt(logaritmo / visitasDoFilho);
+			if (valor > melhorValor) {
+				melhorValor = valor;
+				melhor = filho;
+			}
+		}
+		return melhor;
+	}
+
+	/**
+	 * Método que cria os filhos do nó, um para cada posição livre, em ordem sorteada.
+	 * Retorna 'false' se não há espaço na árvore ou posições livres.
+	 */
+	private boolean expandir(final int no, final long bitsX, final long bitsO, final boolean vezDoX) {
+		final long livres = busca.getTabuleiroCheio() & ~(bitsX | bitsO);
+		final int quantidade = Long.bitCount(livres);
+		if (quantidade == 0 || nos + quantidade > capacidade) {
+			return false;
+		}
+
+		final int primeiro = nos;
+		final long bitsDoJogador = vezDoX ? bitsX : bitsO;
+		int filho = primeiro;
+		for (long restantes = livres; restantes != 0; restantes &= restantes - 1) {
+			final int posicao = Long.numberOfTrailingZeros(restantes);
+
+			/**
+			 * Embaralhamento de Fisher-Yates enquanto os filhos são criados.
+			 */
+			final int troca = primeiro + sorteio.nextInt(filho - primeiro + 1);
+			jogada[filho] = jogada[troca];
+			resultado[filho] = resultado[troca];
+			jogada[troca] = (byte) posicao;
+			resultado[troca] = busca.isLinhaCompleta(bitsDoJogador | (1L << posicao), posicao) ? VITORIA
+					: quantidade == 1 ? EMPATE : EM_ABERTO;
+			filho++;
+		}
+
+		for (filho = primeiro; filho < primeiro + quantidade; filho++) {
+			quantidadeDeFilhos[filho] = 0;
+			visitas[filho] = 0;
+			pontos[filho] = 0;
+		}
+		primeiroFilho[no] = primeiro;
+		quantidadeDeFilhos[no] = (byte) quantidade;
+		nos += quantidade;
+		return true;
+	}
+
+	/**
+	 * Método que termina a partida com jogadas sorteadas entre as posições livres e retorna
+	 * o ganhador: 1 = X, -1 = O, 0 = empate.
+	 */
+	private int jogarAleatoriamente(long bitsX, long bitsO, boolean vezDoX) {
+		long livres = busca.getTabuleiroCheio() & ~(bitsX | bitsO);
+		while (livres != 0) {
+			long restantes = livres;
+			for (int sorteada = sorteio.nextInt(Long.bitCount(livres)); sorteada > 0; sorteada--) {
+				restantes &= restantes - 1;
+			}
+			final int posicao = Long.numberOfTrailingZeros(restantes);
+			final long bit = 1L << posicao;
+			livres &= ~bit;
+
+			if (vezDoX) {
+				bitsX |= bit;
+				if (busca.isLinhaCompleta(bitsX, posicao)) {
+					return 1;
+				}
+			} else {
+				bitsO |= bit;
+				if (busca.isLinhaCompleta(bitsO, posicao)) {
+					return -1;
+				}
+			}
+			vezDoX = !vezDoX;
+		}
+		return 0;
+	}
+
+	/**
+	 * Método que soma as visitas de cada filho da raiz no vetor, pela posição jogada.
+	 */
+	void somarVisitasDaRaiz(final int[] visitasPorPosicao) {
+		final int primeiro = primeiroFilho[0];
+		for (int filho = primeiro; filho < primeiro + quantidadeDeFilhos[0]; filho++) {
+			visitasPorPosicao[jogada[filho]] += visitas[filho];
+		}
+	}
+}
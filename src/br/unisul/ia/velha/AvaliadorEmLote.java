@@ -0,0 +1,146 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe que calcula as jogadas da maquina para muitos tabuleiros em uma única chamada.
+ *
+ * Os tabuleiros são recebidos compactados em 18 bits (ver {@link TabuleiroBits#getCodigo()}).
+ * Cada trecho do lote usa uma única {@link VelhaIA}: o tabuleiro é preenchido de uma vez e o
+ * sorteio volta para a semente antes de cada tabuleiro, sem criar objetos por tabuleiro.
+ * Assim a jogada de cada tabuleiro é a mesma que {@link VelhaIA#getJogada()} retorna para uma
+ * {@link VelhaIA} nova com a mesma semente e a mesma dificudade.
+ *
+ * Lotes grandes podem ser divididos entre os processadores por um {@link ForkJoinPool}.
+ */
+public class AvaliadorEmLote {
+
+	/**
+	 * Quantidade de tabuleiros calculados por uma tarefa, sem dividir.
+	 */
+	private static final int TABULEIROS_POR_TAREFA = 8_192;
+
+	/**
+	 * Pool que divide os lotes grandes, ou 'null' para calcular na thread que chamou.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Modo usado pela maquina para escolher as jogadas.
+	 */
+	private ModoDeJogada modoDeJogada = ModoDeJogada.REGRAS;
+
+	/**
+	 * Construtor da classe, que calcula os lotes na thread que chamou.
+	 */
+	public AvaliadorEmLote() {
+		this(null);
+	}
+
+	/**
+	 * Construtor da classe com o pool que divide os lotes grandes.
+	 */
+	public AvaliadorEmLote(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Método que calcula a jogada do jogador da vez em cada tabuleiro e a guarda na mesma
+	 * posição do vetor de jogadas.
+	 */
+	public void avaliar(final int[] codigos, final char jogadorDaVez, final int dificudade, final long semente,
+			final int[] jogadas) {
+		avaliar(codigos, 0, codigos.length, jogadorDaVez, dificudade, semente, jogadas);
+	}
+
+	/**
+	 * Método que calcula a jogada do jogador da vez nos tabuleiros do intervalo [inicio, fim)
+	 * e a guarda na mesma posição do vetor de jogadas.
+	 */
+	public void avaliar(final int[] codigos, final int inicio, final int fim, final char jogadorDaVez,
+			final int dificudade, final long semente, final int[] jogadas) {
+		if (inicio < 0 || fim > codigos.length || fim > jogadas.length || inicio > fim) {
+			throw new IndexOutOfBoundsException("Intervalo inválido: [" + inicio + ", " + fim + ")");
+		}
+
+		if (pool == null || fim - inicio <= TABULEIROS_POR_TAREFA) {
+			avaliarTrecho(codigos, inicio, fim, jogadorDaVez, dificudade, semente, jogadas, modoDeJogada);
+		} else {
+			pool.invoke(new TrechoDoLote(codigos, inicio, fim, jogadorDaVez, dificudade, semente, jogadas,
+					modoDeJogada));
+		}
+	}
+
+	/**
+	 * Método que calcula as jogadas de um trecho do lote com uma única {@link VelhaIA}.
+	 */
+	private static void avaliarTrecho(final int[] codigos, final int inicio, final int fim, final char jogadorDaVez,
+			final int dificudade, final long semente, final int[] jogadas, final ModoDeJogada modoDeJogada) {
+		final VelhaIA velhaIA = new VelhaIA();
+		velhaIA.setDificudade(dificudade);
+		velhaIA.setModoDeJogada(modoDeJogada);
+
+		for (int indice = inicio; indice < fim; indice++) {
+			velhaIA.setTabuleiro(codigos[indice], jogadorDaVez);
+			velhaIA.setSemente(semente);
+			jogadas[indice] = velhaIA.getJogada();
+		}
+	}
+
+	/**
+	 * Tarefa que calcula um trecho do lote, dividindo-o enquanto for grande.
+	 */
+	private static final class TrechoDoLote extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] codigos;
+		private final int inicio;
+		private final int fim;
+		private final char jogadorDaVez;
+		private final int dificudade;
+		private final long semente;
+		private final int[] jogadas;
+		private final ModoDeJogada modoDeJogada;
+
+		private TrechoDoLote(final int[] codigos, final int inicio, final int fim, final char jogadorDaVez,
+				final int dificudade, final long semente, final int[] jogadas, final ModoDeJogada modoDeJogada) {
+			this.codigos = codigos;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.jogadorDaVez = jogadorDaVez;
+			this.dificudade = dificudade;
+			this.semente = semente;
+			this.jogadas = jogadas;
+			this.modoDeJogada = modoDeJogada;
+		}
+
+		@Override
+		protected void compute() {
+			if (fim - inicio > TABULEIROS_POR_TAREFA) {
+				final int meio = (inicio + fim) >>> 1;
+				invokeAll(new TrechoDoLote(codigos, inicio, meio, jogadorDaVez, dificudade, semente, jogadas,
+						modoDeJogada),
+						new TrechoDoLote(codigos, meio, fim, jogadorDaVez, dificudade, semente, jogadas,
+								modoDeJogada));
+			} else {
+				avaliarTrecho(codigos, inicio, fim, jogadorDaVez, dificudade, semente, jogadas, modoDeJogada);
+			}
+		}
+	}
+
+	/**
+	 * Método que retorna o modo usado pela maquina para escolher as jogadas.
+	 */
+	public ModoDeJogada getModoDeJogada() {
+		return modoDeJogada;
+	}
+
+	/**
+	 * Método que preenche o modo usado pela maquina para escolher as jogadas.
+	 */
+	public void setModoDeJogada(final ModoDeJogada modoDeJogada) {
+		this.modoDeJogada = modoDeJogada;
+	}
+}
@@ -0,0 +1,290 @@
+package br.unisul.ia.velha;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Busca em árvore de Monte Carlo (MCTS, com a seleção UCT) para o Jogo da Velha generalizado
+ * de até 64 posições: tabuleiro de 'linhas' x 'colunas', ganha quem completar 'sequencia'
+ * peças em linha (ver {@link VelhaMNK}).
+ *
+ * A busca não usa nenhuma regra do jogo além das linhas ganhadoras: a força vem apenas da
+ * quantidade de playouts, assim a dificudade é convertida em uma quantidade de playouts
+ * (ver {@link #getPlayouts(int)}). A busca também pode ser limitada por tempo.
+ *
+ * Os processadores são usados com paralelismo na raiz: cada thread busca a sua própria
+ * {@link ArvoreMonteCarlo}, com um gerador de sorteios dividido do gerador da busca, e no
+ * final as visitas dos filhos da raiz de todas as árvores são somadas. É escolhida a jogada
+ * mais visitada. Sem limite de tempo, a mesma semente e a mesma quantidade de árvores
+ * repetem a mesma jogada, qualquer que seja o paralelismo do pool, e a busca faz exatamente
+ * a quantidade de playouts pedida.
+ *
+ * Uma instancia pode ser usada por uma thread de cada vez.
+ */
+public class BuscaMonteCarlo {
+
+	/**
+	 * Quantidade de playouts da dificudade mais alta (0).
+	 * Cada ponto de dificudade divide os playouts por 2.
+	 */
+	public static final int PLAYOUTS_MAXIMOS = 1 << 13;
+
+	/**
+	 * Quantidade máxima de nós de cada árvore.
+	 */
+	private static final int CAPACIDADE_MAXIMA = 1 << 20;
+
+	/**
+	 * Quantidade de posições do tabuleiro.
+	 */
+	private final int posicoes;
+
+	/**
+	 * Mascara com todas as posições do tabuleiro.
+	 */
+	private final long tabuleiroCheio;
+
+	/**
+	 * Mascaras das linhas ganhadoras que passam por cada posição.
+	 */
+	private final long[][] linhasDaPosicao;
+
+	/**
+	 * Pool que executa as árvores além da primeira, que é buscada pela thread que chamou.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Árvores da busca, uma por thread.
+	 */
+	private final ArvoreMonteCarlo[] arvores;
+
+	/**
+	 * Visitas de cada posição na raiz, somadas entre as árvores.
+	 */
+	private final int[] visitasPorPosicao;
+
+	/**
+	 * Tempo máximo da busca, em milisegundos, ou 0 para buscar todos os playouts.
+	 */
+	private long tempoLimite;
+
+	/**
+	 * Playouts feitos na última busca, somados entre as árvores.
+	 */
+	private long playoutsFeitos;
+
+	/**
+	 * Construtor da classe, com uma árvore por processador, buscadas no pool comum.
+	 */
+	public BuscaMonteCarlo(final int linhas, final int colunas, final int sequencia) {
+		this(linhas, colunas, sequencia, Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Construtor da classe com a quantidade de árvores e o pool que as busca.
+	 */
+	public BuscaMonteCarlo(final int linhas, final int colunas, final int sequencia, final int quantidadeDeArvores,
+			final ForkJoinPool pool) {
+		if (linhas * colunas > 64) {
+			throw new IllegalArgumentException("Tabuleiro com mais de 64 posições: " + linhas + "x" + colunas);
+		}
+
+		this.posicoes = linhas * colunas;
+		this.tabuleiroCheio = posicoes == 64 ? -1L : (1L << posicoes) - 1;
+		this.linhasDaPosicao = gerarLinhasDaPosicao(VelhaMNK.gerarLinhas(linhas, colunas, sequencia), posicoes);
+		this.pool = pool;
+		this.arvores = new ArvoreMonteCarlo[Math.max(1, quantidadeDeArvores)];
+		for (int arvore = 0; arvore < arvores.length; arvore++) {
+			arvores[arvore] = new ArvoreMonteCarlo(this);
+		}
+		this.visitasPorPosicao = new int[posicoes];
+	}
+
+	/**
+	 * Método que converte as linhas ganhadoras em mascaras, agrupadas por posição.
+	 */
+	private static long[][] gerarLinhasDaPosicao(final int[][] linhasGanhadoras, final int posicoes) {
+		final int[] quantidades = new int[posicoes];
+		for (final int[] linha : linhasGanhadoras) {
+			for (final int posicao : linha) {
+				quantidades[posicao]++;
+			}
+		}
+
+		final long[][] linhasDaPosicao = new long[posicoes][];
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			linhasDaPosicao[posicao] = new long[quantidades[posicao]];
+			quantidades[posicao] = 0;
+		}
+		for (final int[] linha : linhasGanhadoras) {
+			long mascara = 0;
+			for (final int posicao : linha) {
+				mascara |= 1L << posicao;
+			}
+			for (final int posicao : linha) {
+				linhasDaPosicao[posicao][quantidades[posicao]++] = mascara;
+			}
+		}
+		return linhasDaPosicao;
+	}
+
+	/**
+	 * Método que converte a dificudade da {@link VelhaIA} (0 = difícil, 10 = fácil)
+	 * na quantidade de playouts da busca.
+	 */
+	public static int getPlayouts(final int dificudade) {
+		return PLAYOUTS_MAXIMOS >> Math.max(0, Math.min(10, dificudade));
+	}
+
+	/**
+	 * Método que busca a jogada do jogador da vez no tabuleiro, com as peças de cada jogador
+	 * em uma mascara (o bit 'n' corresponde a posição 'n'), e retorna a posição escolhida,
+	 * ou -1 se o jogo já acabou.
+	 */
+	public int buscar(final long bitsX, final long bitsO, final char jogadorDaVez, final int playouts,
+			final SorteioVelha sorteio) {
+		final long livres = tabuleiroCheio & ~(bitsX | bitsO);
+		if (livres == 0 || isGanhador(bitsX) || isGanhador(bitsO)) {
+			return -1;
+		}
+
+		final long prazo = tempoLimite > 0 ? System.nanoTime() + tempoLimite * 1_000_000L : 0;
+		final boolean vezDoX = jogadorDaVez == VelhaIA.JOGADOR_X;
+
+		/**
+		 * Os playouts são divididos entre as árvores sem arredondar para cima, assim a busca
+		 * faz exatamente a quantidade pedida; com menos playouts que árvores, só são usadas
+		 * as primeiras árvores.
+		 */
+		final int total = Math.max(1, playouts);
+		final BuscaDaArvore[] buscas = new BuscaDaArvore[Math.min(arvores.length, total)];
+		for (int arvore = 0; arvore < buscas.length; arvore++) {
+			final int playoutsDaArvore = total / buscas.length + (arvore < total % buscas.length ? 1 : 0);
+			final int capacidade = (int) Math.min(CAPACIDADE_MAXIMA,
+					(long) playoutsDaArvore * Long.bitCount(livres) + 1);
+			arvores[arvore].preparar(capacidade, arvore == 0 ? sorteio : sorteio.dividir());
+			buscas[arvore] = new BuscaDaArvore(arvores[arvore], bitsX, bitsO, vezDoX, playoutsDaArvore, prazo);
+		}
+
+		for (int arvore = 1; arvore < buscas.length; arvore++) {
+			pool.execute(buscas[arvore]);
+		}
+		buscas[0].invoke();
+
+		playoutsFeitos = 0;
+		Arrays.fill(visitasPorPosicao, 0);
+		for (int arvore = 0; arvore < buscas.length; arvore++) {
+			buscas[arvore].join();
+			playoutsFeitos += buscas[arvore].feitos;
+			arvores[arvore].somarVisitasDaRaiz(visitasPorPosicao);
+		}
+
+		int melhorJogada = Long.numberOfTrailingZeros(livres);
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			if (visitasPorPosicao[posicao] > visitasPorPosicao[melhorJogada]) {
+				melhorJogada = posicao;
+			}
+		}
+		return melhorJogada;
+	}
+
+	/**
+	 * Tarefa que busca uma árvore.
+	 */
+	private static final class BuscaDaArvore extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ArvoreMonteCarlo arvore;
+		private final long bitsX;
+		private final long bitsO;
+		private final boolean vezDoX;
+		private final int playouts;
+		private final long prazo;
+		private int feitos;
+
+		private BuscaDaArvore(final ArvoreMonteCarlo arvore, final long bitsX, final long bitsO, final boolean vezDoX,
+				final int playouts, final long prazo) {
+			this.arvore = arvore;
+			this.bitsX = bitsX;
+			this.bitsO = bitsO;
+			this.vezDoX = vezDoX;
+			this.playouts = playouts;
+			this.prazo = prazo;
+		}
+
+		@Override
+		protected void compute() {
+			feitos = arvore.buscar(bitsX, bitsO, vezDoX, playouts, prazo);
+		}
+	}
+
+	/**
+	 * Método que verifica se a mascara de peças de um jogador completa alguma linha.
+	 */
+	private boolean isGanhador(final long bits) {
+		for (long restantes = bits; restantes != 0; restantes &= restantes - 1) {
+			if (isLinhaCompleta(bits, Long.numberOfTrailingZeros(restantes))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Método que verifica se a mascara de peças de um jogador completa uma das linhas da posição.
+	 */
+	boolean isLinhaCompleta(final long bits, final int posicao) {
+		for (final long linha : linhasDaPosicao[posicao]) {
+			if ((bits & linha) == linha) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Método que retorna a quantidade de posições do tabuleiro.
+	 */
+	int getPosicoes() {
+		return posicoes;
+	}
+
+	/**
+	 * Método que retorna a mascara com todas as posições do tabuleiro.
+	 */
+	long getTabuleiroCheio() {
+		return tabuleiroCheio;
+	}
+
+	/**
+	 * Método que retorna as visitas da posição na raiz da última busca, somadas entre as árvores.
+	 */
+	public int getVisitas(final int posicao) {
+		return visitasPorPosicao[posicao];
+	}
+
+	/**
+	 * Método que retorna a quantidade de playouts feitos na última busca.
+	 */
+	public long getPlayoutsFeitos() {
+		return playoutsFeitos;
+	}
+
+	/**
+	 * Método que retorna o tempo máximo da busca, em milisegundos (0 = sem limite).
+	 */
+	public long getTempoLimite() {
+		return tempoLimite;
+	}
+
+	/**
+	 * Método que preenche o tempo máximo da busca, em milisegundos (0 = sem limite).
+	 * Com limite de tempo, a quantidade de playouts da busca passa a ser um máximo.
+	 */
+	public void setTempoLimite(final long tempoLimite) {
+		this.tempoLimite = tempoLimite;
+	}
+}
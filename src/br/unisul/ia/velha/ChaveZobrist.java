@@ -0,0 +1,173 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que mantém a chave Zobrist de um tabuleiro, atualizada a cada jogada, para cada
+ * simetria do tabuleiro: as 8 rotações e reflexões de um tabuleiro quadrado, ou as 4
+ * reflexões de um tabuleiro retangular.
+ *
+ * A chave canônica é a menor das chaves das simetrias, assim posições que diferem apenas
+ * por rotação ou reflexão têm a mesma chave. As chaves aleatórias são geradas com uma
+ * semente fixa, e são as mesmas para todas as instancias com o mesmo tamanho de tabuleiro.
+ */
+public class ChaveZobrist {
+
+	/**
+	 * Semente das chaves aleatórias.
+	 */
+	private static final long SEMENTE = 0x5EED_7E1A_0F0E_1A5AL;
+
+	/**
+	 * Chave do jogador O na vez de jogar.
+	 */
+	private final long chaveVezDoO;
+
+	/**
+	 * Chaves aleatórias do jogador X, por posição.
+	 */
+	private final long[] chavesX;
+
+	/**
+	 * Chaves aleatórias do jogador O, por posição.
+	 */
+	private final long[] chavesO;
+
+	/**
+	 * Posição correspondente em cada simetria: simetrias[simetria][posicao].
+	 */
+	private final int[][] simetrias;
+
+	/**
+	 * Posição original de cada posição de cada simetria: inversas[simetria][posicao].
+	 */
+	private final int[][] inversas;
+
+	/**
+	 * Chave atual do tabuleiro em cada simetria.
+	 */
+	private final long[] chaves;
+
+	/**
+	 * Simetria da última chave canônica calculada.
+	 */
+	private int simetriaCanonica;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public ChaveZobrist(final int linhas, final int colunas) {
+		final int posicoes = linhas * colunas;
+		final SorteioVelha sorteio = new SorteioVelha(SEMENTE ^ ((long) linhas << 32 | colunas));
+
+		chavesX = new long[posicoes];
+		chavesO = new long[posicoes];
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			chavesX[posicao] = sorteio.nextLong();
+			chavesO[posicao] = sorteio.nextLong();
+		}
+		chaveVezDoO = sorteio.nextLong();
+
+		simetrias = gerarSimetrias(linhas, colunas);
+		inversas = new int[simetrias.length][posicoes];
+		for (int simetria = 0; simetria < simetrias.length; simetria++) {
+			for (int posicao = 0; posicao < posicoes; posicao++) {
+				inversas[simetria][simetrias[simetria][posicao]] = posicao;
+			}
+		}
+		chaves = new long[simetrias.length];
+	}
+
+	/**
+	 * Método que gera o mapeamento das posições para cada simetria do tabuleiro.
+	 * A primeira simetria é sempre a identidade.
+	 */
+	private static int[][] gerarSimetrias(final int linhas, final int colunas) {
+		final int quantidade = linhas == colunas ? 8 : 4;
+		final int[][] simetrias = new int[quantidade][linhas * colunas];
+
+		for (int linha = 0; linha < linhas; linha++) {
+			for (int coluna = 0; coluna < colunas; coluna++) {
+				final int posicao = linha * colunas + coluna;
+				final int linhaInvertida = linhas - 1 - linha;
+				final int colunaInvertida = colunas - 1 - coluna;
+
+				simetrias[0][posicao] = posicao;
+				simetrias[1][posicao] = linha * colunas + colunaInvertida;
+				simetrias[2][posicao] = linhaInvertida * colunas + coluna;
+				simetrias[3][posicao] = linhaInvertida * colunas + colunaInvertida;
+
+				if (quantidade == 8) {
+					simetrias[4][posicao] = coluna * colunas + linha;
+					simetrias[5][posicao] = coluna * colunas + linhaInvertida;
+					simetrias[6][posicao] = colunaInvertida * colunas + linha;
+					simetrias[7][posicao] = colunaInvertida * colunas + linhaInvertida;
+				}
+			}
+		}
+		return simetrias;
+	}
+
+	/**
+	 * Método que coloca ou remove a peça do jogador na posição.
+	 * Como a chave é feita por "ou exclusivo", colocar e remover são a mesma operação.
+	 */
+	public void alternar(final int posicao, final char jogador) {
+		final long[] chavesDoJogador = jogador == VelhaIA.JOGADOR_X ? chavesX : chavesO;
+		for (int simetria = 0; simetria < simetrias.length; simetria++) {
+			chaves[simetria] ^= chavesDoJogador[simetrias[simetria][posicao]];
+		}
+	}
+
+	/**
+	 * Método que zera as chaves, para o tabuleiro vazio.
+	 */
+	public void limpar() {
+		for (int simetria = 0; simetria < chaves.length; simetria++) {
+			chaves[simetria] = 0;
+		}
+	}
+
+	/**
+	 * Método que retorna a chave do tabuleiro sem considerar as simetrias.
+	 */
+	public long getChave(final char jogadorDaVez) {
+		return jogadorDaVez == VelhaIA.JOGADOR_O ? chaves[0] ^ chaveVezDoO : chaves[0];
+	}
+
+	/**
+	 * Método que retorna a chave canônica: a menor entre as chaves de todas as simetrias.
+	 * A simetria escolhida fica disponível em {@link #getSimetriaCanonica()}.
+	 */
+	public long getChaveCanonica(final char jogadorDaVez) {
+		long menor = chaves[0];
+		int simetriaDaMenor = 0;
+		for (int simetria = 1; simetria < chaves.length; simetria++) {
+			if (chaves[simetria] < menor) {
+				menor = chaves[simetria];
+				simetriaDaMenor = simetria;
+			}
+		}
+		simetriaCanonica = simetriaDaMenor;
+		return jogadorDaVez == VelhaIA.JOGADOR_O ? menor ^ chaveVezDoO : menor;
+	}
+
+	/**
+	 * Método que retorna a simetria da última chave canônica calculada.
+	 */
+	public int getSimetriaCanonica() {
+		return simetriaCanonica;
+	}
+
+	/**
+	 * Método que converte uma posição do tabuleiro para a simetria especificada.
+	 */
+	public int paraSimetria(final int simetria, final int posicao) {
+		return simetrias[simetria][posicao];
+	}
+
+	/**
+	 * Método que converte uma posição da simetria especificada para o tabuleiro.
+	 */
+	public int deSimetria(final int simetria, final int posicao) {
+		return inversas[simetria][posicao];
+	}
+}
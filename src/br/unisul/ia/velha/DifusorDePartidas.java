@@ -0,0 +1,572 @@
+package br.unisul.ia.velha;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Difusor das mudanças de estado das partidas para os espectadores inscritos, como nas
+ * partidas assistidas por milhares de pessoas ao mesmo tempo.
+ *
+ * A publicação não conhece os espectadores: ela monta um único {@link InstantaneoDaPartida},
+ * guarda como o último da partida e marca a partida como alterada, sem travas. A cada
+ * periodo, a thread do difusor percorre só as partidas alteradas e oferece o último estado
+ * de cada uma aos seus espectadores. Várias publicações da mesma partida dentro do periodo
+ * viram uma só, assim o custo da difusão acompanha a quantidade de partidas alteradas, e
+ * não a quantidade de publicações.
+ *
+ * Cada inscrição guarda só o estado pendente mais recente: se o espectador ainda não
+ * recebeu o anterior, o novo toma o lugar dele (a entrega é "coalescida"), assim a memória
+ * de cada espectador é limitada a uma referência, por mais lento que ele seja, e ele sempre
+ * recebe o estado mais novo. As inscrições que têm estado pendente e não estão recebendo
+ * são juntadas em lotes de {@value #INSCRICOES_POR_LOTE} e entregues por um executor, uma
+ * tarefa por lote, e não uma por espectador.
+ *
+ * As latências das entregas, da publicação até a chamada ao espectador, são registradas
+ * em um {@link HistogramaDeLatencia}.
+ */
+public final class DifusorDePartidas implements AutoCloseable {
+
+	/**
+	 * Periodo padrão da difusão, em milissegundos.
+	 */
+	public static final long PERIODO_PADRAO = 20;
+
+	/**
+	 * Quantidade máxima de inscrições entregues por uma tarefa do executor.
+	 */
+	static final int INSCRICOES_POR_LOTE = 256;
+
+	/**
+	 * Lista vazia de inscrições, compartilhada pelas partidas sem espectadores.
+	 */
+	private static final Inscricao[] SEM_INSCRICOES = new Inscricao[0];
+
+	/**
+	 * Acesso atômico à marca de partida alterada.
+	 */
+	private static final VarHandle ALTERADO;
+
+	static {
+		try {
+			ALTERADO = MethodHandles.lookup().findVarHandle(CanalDaPartida.class, "alterado", int.class);
+		} catch (final ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * Estado de cada partida publicada ou assistida, pelo identificador.
+	 */
+	private final ConcurrentMap<Long, CanalDaPartida> canais = new ConcurrentHashMap<Long, CanalDaPartida>();
+
+	/**
+	 * Partidas publicadas desde a última difusão.
+	 */
+	private final Queue<CanalDaPartida> alterados = new ConcurrentLinkedQueue<CanalDaPartida>();
+
+	/**
+	 * Thread da difusão.
+	 */
+	private final ScheduledExecutorService relogio;
+
+	/**
+	 * Executor dos lotes de entregas.
+	 */
+	private final Executor entregador;
+
+	private final LongAdder publicacoes = new LongAdder();
+	private final LongAdder entregas = new LongAdder();
+	private final LongAdder coalescidas = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private final LongAdder lotes = new LongAdder();
+	private final HistogramaDeLatencia latencia = new HistogramaDeLatencia();
+
+	/**
+	 * Número da difusão atual. Só é usado pela thread da difusão.
+	 */
+	private long difusoes;
+
+	/**
+	 * Estado de uma partida no difusor.
+	 */
+	private static final class CanalDaPartida {
+
+		private final long id;
+
+		/**
+		 * Gerador das versões dos estados da partida.
+		 */
+		private final AtomicLong versoes = new AtomicLong();
+
+		/**
+		 * Último estado publicado, ou 'null' se a partida ainda não foi publicada.
+		 */
+		private volatile InstantaneoDaPartida ultimo;
+
+		/**
+		 * Mostra se a partida está na fila das alteradas.
+		 */
+		private volatile int alterado;
+
+		/**
+		 * Número da última difusão que percorreu a partida. Só é usado pela thread da difusão.
+		 */
+		private long difusao;
+
+		/**
+		 * Espectadores da partida. A lista é trocada inteira a cada inscrição ou cancelamento,
+		 * assim a difusão a percorre sem travas.
+		 */
+		private volatile Inscricao[] inscricoes = SEM_INSCRICOES;
+
+		/**
+		 * Mostra se o canal foi retirado do difusor; um canal retirado não aceita inscrições.
+		 */
+		private boolean removido;
+
+		private CanalDaPartida(final long id) {
+			this.id = id;
+		}
+	}
+
+	/**
+	 * Inscrição de um espectador em uma partida.
+	 */
+	public static final class Inscricao {
+
+		private static final VarHandle PENDENTE;
+		private static final VarHandle AGENDADA;
+
+		static {
+			try {
+				final MethodHandles.Lookup lookup = MethodHandles.lookup();
+				PENDENTE = lookup.findVarHandle(Inscricao.class, "pendente", InstantaneoDaPartida.class);
+				AGENDADA = lookup.findVarHandle(Inscricao.class, "agendada", boolean.class);
+			} catch (final ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final DifusorDePartidas difusor;
+		private final CanalDaPartida canal;
+		private final EspectadorPartida espectador;
+
+		/**
+		 * Estado ainda não entregue, ou 'null'. É o único estado guardado para o espectador.
+		 */
+		@SuppressWarnings("unused")
+		private volatile InstantaneoDaPartida pendente;
+
+		/**
+		 * Mostra se a inscrição está em um lote a entregar, para que o mesmo espectador nunca
+		 * seja chamado por duas threads ao mesmo tempo.
+		 */
+		@SuppressWarnings("unused")
+		private volatile boolean agendada;
+
+		/**
+		 * Versão do último estado oferecido. Só é usada pela thread da difusão.
+		 */
+		private long versaoOferecida;
+
+		private volatile boolean cancelada;
+
+		private Inscricao(final DifusorDePartidas difusor, final CanalDaPartida canal,
+				final EspectadorPartida espectador) {
+			this.difusor = difusor;
+			this.canal = canal;
+			this.espectador = espectador;
+		}
+
+		/**
+		 * Método que retorna o identificador da partida assistida.
+		 */
+		public long getIdDaPartida() {
+			return canal.id;
+		}
+
+		/**
+		 * Método que cancela a inscrição. Um estado que já estava sendo entregue ainda chega ao
+		 * espectador, mas nenhum outro.
+		 */
+		public void cancelar() {
+			cancelada = true;
+			difusor.retirar(this);
+		}
+
+		/**
+		 * Método que verifica se a inscrição foi cancelada.
+		 */
+		public boolean isCancelada() {
+			return cancelada;
+		}
+
+		/**
+		 * Método que troca o estado pendente pelo estado oferecido, se ele for mais novo.
+		 * Retorna 'true' se a inscrição deve entrar em um lote.
+		 */
+		private boolean oferecer(final InstantaneoDaPartida instantaneo) {
+			if (instantaneo.getVersao() <= versaoOferecida) {
+				return false;
+			}
+			versaoOferecida = instantaneo.getVersao();
+			if (PENDENTE.getAndSet(this, instantaneo) != null) {
+				difusor.coalescidas.increment();
+			}
+			return AGENDADA.compareAndSet(this, false, true);
+		}
+
+		/**
+		 * Método que entrega o estado pendente ao espectador, e continua enquanto chegarem
+		 * novos estados durante a entrega.
+		 */
+		private void entregar() {
+			while (true) {
+				final InstantaneoDaPartida instantaneo = (InstantaneoDaPartida) PENDENTE.getAndSet(this, null);
+				if (instantaneo != null && !cancelada) {
+					try {
+						espectador.onAtualizacao(instantaneo);
+						difusor.entregas.increment();
+						difusor.latencia.registrar(System.nanoTime() - instantaneo.getInstante());
+					} catch (final RuntimeException e) {
+						// Um espectador com erro é retirado, para não atrasar os outros a cada estado.
+						difusor.falhas.increment();
+						cancelar();
+					}
+				}
+
+				AGENDADA.setVolatile(this, false);
+				if (PENDENTE.getVolatile(this) == null || !AGENDADA.compareAndSet(this, false, true)) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tarefa do executor que entrega um lote de inscrições.
+	 */
+	private static final class Lote implements Runnable {
+
+		private final Inscricao[] inscricoes;
+		private final int quantidade;
+
+		private Lote(final Inscricao[] inscricoes, final int quantidade) {
+			this.inscricoes = inscricoes;
+			this.quantidade = quantidade;
+		}
+
+		@Override
+		public void run() {
+			for (int indice = 0; indice < quantidade; indice++) {
+				inscricoes[indice].entregar();
+			}
+		}
+	}
+
+	/**
+	 * Tarefa periódica da difusão.
+	 */
+	private static final class Difusao implements Runnable {
+
+		private final DifusorDePartidas difusor;
+
+		private Difusao(final DifusorDePartidas difusor) {
+			this.difusor = difusor;
+		}
+
+		@Override
+		public void run() {
+			try {
+				difusor.difundir();
+			} catch (final RuntimeException e) {
+				// Uma exceção cancelaria as próximas difusões do ScheduledExecutorService.
+				difusor.falhas.increment();
+			}
+		}
+	}
+
+	/**
+	 * Cria a thread da difusão, que não impede o fim da aplicação.
+	 */
+	private static final class FabricaDaThread implements ThreadFactory {
+
+		@Override
+		public Thread newThread(final Runnable tarefa) {
+			final Thread thread = new Thread(tarefa, "difusor-partidas");
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Construtor da classe, com o periodo padrão e as entregas no {@link ForkJoinPool#commonPool()}.
+	 */
+	public DifusorDePartidas() {
+		this(PERIODO_PADRAO, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Construtor da classe com o periodo da difusão, em milissegundos, e o executor das entregas.
+	 */
+	public DifusorDePartidas(final long periodo, final Executor entregador) {
+		if (periodo <= 0) {
+			throw new IllegalArgumentException("Periodo inválido: " + periodo);
+		}
+		this.entregador = entregador;
+		final ScheduledThreadPoolExecutor relogio = new ScheduledThreadPoolExecutor(1, new FabricaDaThread());
+		relogio.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		relogio.scheduleWithFixedDelay(new Difusao(this), periodo, periodo, TimeUnit.MILLISECONDS);
+		this.relogio = relogio;
+	}
+
+	/**
+	 * Método que publica o estado da partida. Não chama os espectadores: eles recebem o
+	 * último estado publicado na próxima difusão. As publicações da mesma partida devem vir
+	 * em ordem, como as da {@link PartidaVelha}, feitas com a partida travada.
+	 */
+	public void publicar(final long id, final int codigoDoTabuleiro, final String situacao, final long jogadas,
+			final int quantidadeDeJogadas, final boolean fimDeJogo) {
+		publicacoes.increment();
+		while (true) {
+			final CanalDaPartida canal = getCanal(id);
+			final InstantaneoDaPartida instantaneo = new InstantaneoDaPartida(id, canal.versoes.incrementAndGet(),
+					codigoDoTabuleiro, situacao, jogadas, quantidadeDeJogadas, fimDeJogo, System.nanoTime());
+			canal.ultimo = instantaneo;
+			marcarAlterado(canal);
+			if (canais.get(id) == canal) {
+				return;
+			}
+			// O canal foi retirado durante a publicação: publica de novo em um canal novo.
+		}
+	}
+
+	/**
+	 * Método que inscreve o espectador na partida do identificador. Se a partida já foi
+	 * publicada, o espectador recebe o último estado na próxima difusão.
+	 */
+	public Inscricao inscrever(final long id, final EspectadorPartida espectador) {
+		if (espectador == null) {
+			throw new IllegalArgumentException("Espectador nulo");
+		}
+		while (true) {
+			final CanalDaPartida canal = getCanal(id);
+			synchronized (canal) {
+				if (canal.removido) {
+					continue;
+				}
+				final Inscricao[] atuais = canal.inscricoes;
+				final Inscricao[] novas = Arrays.copyOf(atuais, atuais.length + 1);
+				final Inscricao inscricao = new Inscricao(this, canal, espectador);
+				novas[atuais.length] = inscricao;
+				canal.inscricoes = novas;
+				if (canal.ultimo != null) {
+					marcarAlterado(canal);
+				}
+				return inscricao;
+			}
+		}
+	}
+
+	/**
+	 * Método que retira a partida do difusor e cancela as inscrições dos seus espectadores,
+	 * por exemplo quando a partida é descartada antes do fim. Os espectadores não recebem
+	 * mais nenhum estado. Retorna 'false' se a partida não estava no difusor.
+	 */
+	public boolean remover(final long id) {
+		final CanalDaPartida canal = canais.remove(id);
+		if (canal == null) {
+			return false;
+		}
+
+		final Inscricao[] inscricoes;
+		synchronized (canal) {
+			canal.removido = true;
+			inscricoes = canal.inscricoes;
+			canal.inscricoes = SEM_INSCRICOES;
+			canal.ultimo = null;
+		}
+		for (final Inscricao inscricao : inscricoes) {
+			inscricao.cancelada = true;
+			Inscricao.PENDENTE.setVolatile(inscricao, null);
+		}
+		return true;
+	}
+
+	/**
+	 * Método que retira a inscrição da lista da partida.
+	 */
+	private void retirar(final Inscricao inscricao) {
+		final CanalDaPartida canal = inscricao.canal;
+		synchronized (canal) {
+			final Inscricao[] atuais = canal.inscricoes;
+			for (int indice = 0; indice < atuais.length; indice++) {
+				if (atuais[indice] == inscricao) {
+					final Inscricao[] novas = atuais.length == 1 ? SEM_INSCRICOES : new Inscricao[atuais.length - 1];
+					System.arraycopy(atuais, 0, novas, 0, indice);
+					System.arraycopy(atuais, indice + 1, novas, indice, atuais.length - indice - 1);
+					canal.inscricoes = novas;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Método que retorna o canal da partida, criando-o se ele não existe.
+	 */
+	private CanalDaPartida getCanal(final long id) {
+		final Long chave = id;
+		CanalDaPartida canal = canais.get(chave);
+		if (canal == null) {
+			final CanalDaPartida novo = new CanalDaPartida(id);
+			canal = canais.putIfAbsent(chave, novo);
+			if (canal == null) {
+				canal = novo;
+			}
+		}
+		return canal;
+	}
+
+	/**
+	 * Método que coloca a partida na fila das alteradas, se ela ainda não está.
+	 */
+	private void marcarAlterado(final CanalDaPartida canal) {
+		if (ALTERADO.compareAndSet(canal, 0, 1)) {
+			alterados.offer(canal);
+		}
+	}
+
+	/**
+	 * Método executado a cada periodo: oferece o último estado de cada partida alterada aos
+	 * seus espectadores e envia as inscrições com estado pendente ao executor, em lotes.
+	 * Também retira as partidas terminadas que não têm mais espectadores.
+	 */
+	void difundir() {
+		final long difusao = ++difusoes;
+		Inscricao[] lote = new Inscricao[INSCRICOES_POR_LOTE];
+		int quantidade = 0;
+
+		CanalDaPartida canal;
+		while ((canal = alterados.poll()) != null) {
+			if (canal.difusao == difusao) {
+				// Publicada de novo durante esta difusão: fica para a próxima, para que uma
+				// partida publicada sem parar não prenda a difusão.
+				alterados.offer(canal);
+				break;
+			}
+			canal.difusao = difusao;
+			// Desmarca antes de ler o último estado, para que uma publicação concorrente
+			// coloque a partida de novo na fila em vez de ser perdida.
+			canal.alterado = 0;
+			final InstantaneoDaPartida instantaneo = canal.ultimo;
+			if (instantaneo == null) {
+				continue;
+			}
+
+			final Inscricao[] inscricoes = canal.inscricoes;
+			for (final Inscricao inscricao : inscricoes) {
+				if (!inscricao.cancelada && inscricao.oferecer(instantaneo)) {
+					lote[quantidade++] = inscricao;
+					if (quantidade == INSCRICOES_POR_LOTE) {
+						enviar(lote, quantidade);
+						lote = new Inscricao[INSCRICOES_POR_LOTE];
+						quantidade = 0;
+					}
+				}
+			}
+
+			if (instantaneo.isFimDeJogo() && inscricoes.length == 0) {
+				synchronized (canal) {
+					if (canal.inscricoes.length == 0 && canal.ultimo == instantaneo) {
+						canal.removido = true;
+						canais.remove(canal.id, canal);
+					}
+				}
+			}
+		}
+
+		if (quantidade > 0) {
+			enviar(lote, quantidade);
+		}
+	}
+
+	/**
+	 * Método que envia um lote de inscrições ao executor das entregas.
+	 */
+	private void enviar(final Inscricao[] lote, final int quantidade) {
+		lotes.increment();
+		entregador.execute(new Lote(lote, quantidade));
+	}
+
+	/**
+	 * Método que para a difusão. Os lotes já enviados ao executor ainda são entregues.
+	 */
+	@Override
+	public void close() {
+		relogio.shutdownNow();
+	}
+
+	/**
+	 * Método que retorna a quantidade de estados publicados.
+	 */
+	public long getPublicacoes() {
+		return publicacoes.sum();
+	}
+
+	/**
+	 * Método que retorna a quantidade de estados entregues aos espectadores.
+	 */
+	public long getEntregas() {
+		return entregas.sum();
+	}
+
+	/**
+	 * Método que retorna a quantidade de estados substituídos por um mais novo antes de
+	 * serem entregues a um espectador lento.
+	 */
+	public long getCoalescidas() {
+		return coalescidas.sum();
+	}
+
+	/**
+	 * Método que retorna a quantidade de erros dos espectadores e da difusão.
+	 */
+	public long getFalhas() {
+		return falhas.sum();
+	}
+
+	/**
+	 * Método que retorna a quantidade de lotes enviados ao executor das entregas.
+	 */
+	public long getLotes() {
+		return lotes.sum();
+	}
+
+	/**
+	 * Método que retorna as latências das entregas, da publicação até a chamada ao espectador.
+	 */
+	public HistogramaDeLatencia getLatencia() {
+		return latencia;
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas no difusor.
+	 */
+	public int getQuantidadeDePartidas() {
+		return canais.size();
+	}
+}
@@ -0,0 +1,17 @@
+package br.unisul.ia.velha;
+
+/**
+ * Interface dos espectadores de uma partida, inscritos no {@link DifusorDePartidas}.
+ */
+public interface EspectadorPartida {
+
+	/**
+	 * Método chamado com o estado mais recente da partida. Os estados intermediários que
+	 * chegaram enquanto o espectador ainda tratava o anterior são descartados, assim um
+	 * espectador lento recebe menos estados, mas sempre o último.
+	 * Nunca é chamado ao mesmo tempo para a mesma inscrição, e é chamado em uma thread
+	 * do executor das entregas: o espectador não deve travar a partida.
+	 */
+	void onAtualizacao(InstantaneoDaPartida instantaneo);
+
+}
@@ -0,0 +1,106 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe que cria, localiza e descarta partidas pelo identificador, sem depender da tela.
+ * Pode ser usada por várias threads ao mesmo tempo.
+ */
+public class GerenciadorDePartidas {
+
+	/**
+	 * Partidas em andamento, pelo identificador.
+	 */
+	private final ConcurrentMap<Long, PartidaVelha> partidas = new ConcurrentHashMap<Long, PartidaVelha>();
+
+	/**
+	 * Gerador dos identificadores das partidas.
+	 */
+	private final AtomicLong proximoId = new AtomicLong();
+
+	/**
+	 * Objeto avisado quando cada partida termina, ou 'null'.
+	 */
+	private final OuvintePartida ouvinte;
+
+	/**
+	 * Difusor dos estados das partidas para os espectadores, ou 'null'.
+	 */
+	private final DifusorDePartidas difusor;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public GerenciadorDePartidas() {
+		this(null);
+	}
+
+	/**
+	 * Construtor da classe com o objeto avisado quando cada partida termina,
+	 * por exemplo um gravador das partidas.
+	 */
+	public GerenciadorDePartidas(final OuvintePartida ouvinte) {
+		this(ouvinte, null);
+	}
+
+	/**
+	 * Construtor da classe com o objeto avisado quando cada partida termina e o difusor
+	 * que publica os estados de cada partida para os espectadores.
+	 */
+	public GerenciadorDePartidas(final OuvintePartida ouvinte, final DifusorDePartidas difusor) {
+		this.ouvinte = ouvinte;
+		this.difusor = difusor;
+	}
+
+	/**
+	 * Método que cria e inicia uma nova partida com o nivel selecionado
+	 * (0 = fácil, 1 = médio, 2 = difícil).
+	 */
+	public PartidaVelha criar(final int nivel) {
+		return criar(nivel, new SorteioVelha().getSemente());
+	}
+
+	/**
+	 * Método que cria e inicia uma nova partida com o nivel selecionado e a semente dos
+	 * sorteios da maquina, para reproduzir uma partida registrada.
+	 */
+	public PartidaVelha criar(final int nivel, final long semente) {
+		final PartidaVelha partida = new PartidaVelha(proximoId.incrementAndGet());
+		partida.setOuvinte(ouvinte);
+		partida.setDifusor(difusor);
+		partida.iniciar(PartidaVelha.getDificudade(nivel), semente);
+		partidas.put(partida.getId(), partida);
+		return partida;
+	}
+
+	/**
+	 * Método que retorna a partida do identificador, ou 'null' se ela não existe.
+	 */
+	public PartidaVelha buscar(final long id) {
+		return partidas.get(id);
+	}
+
+	/**
+	 * Método que descarta a partida do identificador, e a retira do difusor, com as
+	 * inscrições dos seus espectadores.
+	 * Retorna a partida descartada, ou 'null' se ela não existia.
+	 */
+	public PartidaVelha descartar(final long id) {
+		final PartidaVelha partida = partidas.remove(id);
+		if (partida != null && difusor != null) {
+			// Desliga a partida do difusor antes, para que uma jogada atrasada não crie o canal de novo.
+			partida.setDifusor(null);
+			difusor.remover(id);
+		}
+		return partida;
+	}
+
+	/**
+	 * Método que retorna a quantidade de partidas em andamento.
+	 */
+	public int getQuantidade() {
+		return partidas.size();
+	}
+}
@@ -0,0 +1,152 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Histograma de latências em nanossegundos, com faixas logarítmicas: cada potência de 2
+ * é dividida em 8 faixas, assim os percentis têm erro de no máximo 12,5%.
+ *
+ * Os contadores são {@link LongAdder}, que espalham as somas de threads diferentes em
+ * células separadas; registrar uma latência não usa travas.
+ */
+public final class HistogramaDeLatencia {
+
+	/**
+	 * Bits de cada potência de 2 usados para escolher a faixa.
+	 */
+	private static final int BITS_DA_FAIXA = 3;
+
+	/**
+	 * Quantidade de faixas de cada potência de 2.
+	 */
+	private static final int FAIXAS_POR_POTENCIA = 1 << BITS_DA_FAIXA;
+
+	/**
+	 * Quantidade de faixas do histograma, suficiente para qualquer 'long' positivo.
+	 */
+	private static final int TOTAL_DE_FAIXAS = (63 - BITS_DA_FAIXA + 1) * FAIXAS_POR_POTENCIA;
+
+	private final LongAdder[] faixas = new LongAdder[TOTAL_DE_FAIXAS];
+	private final LongAdder quantidade = new LongAdder();
+	private final LongAdder soma = new LongAdder();
+	private final LongAccumulator maximo = new LongAccumulator(new Maior(), 0);
+
+	/**
+	 * Operação do acumulador do máximo. É uma classe, e não uma referência a 'Math::max',
+	 * para não inicializar o java.lang.invoke na primeira jogada de um processo de vida curta.
+	 */
+	private static final class Maior implements LongBinaryOperator {
+
+		@Override
+		public long applyAsLong(final long primeiro, final long segundo) {
+			return Math.max(primeiro, segundo);
+		}
+	}
+
+	/**
+	 * Construtor da classe.
+	 */
+	public HistogramaDeLatencia() {
+		for (int faixa = 0; faixa < faixas.length; faixa++) {
+			faixas[faixa] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Método que retorna a faixa da latência.
+	 */
+	private static int getFaixa(final long nanos) {
+		if (nanos < FAIXAS_POR_POTENCIA) {
+			return (int) Math.max(0, nanos);
+		}
+		final int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+		final int subfaixa = (int) (nanos >>> (expoente - BITS_DA_FAIXA)) & (FAIXAS_POR_POTENCIA - 1);
+		return ((expoente - BITS_DA_FAIXA + 1) << BITS_DA_FAIXA) + subfaixa;
+	}
+
+	/**
+	 * Método que retorna o maior valor da faixa.
+	 */
+	private static long getLimiteDaFaixa(final int faixa) {
+		if (faixa < FAIXAS_POR_POTENCIA) {
+			return faixa;
+		}
+		final int expoente = (faixa >>> BITS_DA_FAIXA) + BITS_DA_FAIXA - 1;
+		final long subfaixa = faixa & (FAIXAS_POR_POTENCIA - 1);
+		final long inicio = (FAIXAS_POR_POTENCIA + subfaixa) << (expoente - BITS_DA_FAIXA);
+		return inicio + (1L << (expoente - BITS_DA_FAIXA)) - 1;
+	}
+
+	/**
+	 * Método que registra uma latência.
+	 */
+	public void registrar(final long nanos) {
+		faixas[getFaixa(nanos)].increment();
+		quantidade.increment();
+		soma.add(nanos);
+		maximo.accumulate(nanos);
+	}
+
+	/**
+	 * Método que retorna a quantidade de latências registradas.
+	 */
+	public long getQuantidade() {
+		return quantidade.sum();
+	}
+
+	/**
+	 * Método que retorna a média das latências, em nanossegundos.
+	 */
+	public double getMedia() {
+		final long total = quantidade.sum();
+		return total == 0 ? 0 : (double) soma.sum() / total;
+	}
+
+	/**
+	 * Método que retorna a maior latência registrada, em nanossegundos.
+	 */
+	public long getMaximo() {
+		return maximo.get();
+	}
+
+	/**
+	 * Método que retorna o percentil (entre 0 e 100) das latências, em nanossegundos:
+	 * o maior valor da faixa onde o percentil cai.
+	 */
+	public long getPercentil(final double percentil) {
+		final long[] contagens = new long[faixas.length];
+		long total = 0;
+		for (int faixa = 0; faixa < faixas.length; faixa++) {
+			contagens[faixa] = faixas[faixa].sum();
+			total += contagens[faixa];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		final long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+		long acumulado = 0;
+		for (int faixa = 0; faixa < contagens.length; faixa++) {
+			acumulado += contagens[faixa];
+			if (acumulado >= alvo) {
+				return Math.min(getLimiteDaFaixa(faixa), getMaximo());
+			}
+		}
+		return getMaximo();
+	}
+
+	/**
+	 * Método que zera o histograma.
+	 * Latências registradas durante a chamada podem ficar parcialmente contadas.
+	 */
+	public void zerar() {
+		for (final LongAdder faixa : faixas) {
+			faixa.reset();
+		}
+		quantidade.reset();
+		soma.reset();
+		maximo.reset();
+	}
+}
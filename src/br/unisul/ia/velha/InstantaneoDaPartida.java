@@ -0,0 +1,140 @@
+package br.unisul.ia.velha;
+
+/**
+ * Estado de uma partida em um instante, publicado no {@link DifusorDePartidas}.
+ * É imutável, assim o mesmo objeto é entregue a todos os espectadores da partida.
+ */
+public final class InstantaneoDaPartida {
+
+	/**
+	 * Identificador da partida.
+	 */
+	private final long id;
+
+	/**
+	 * Versão do estado, somada a cada publicação da partida.
+	 */
+	private final long versao;
+
+	/**
+	 * Tabuleiro compactado em 18 bits (ver {@link TabuleiroBits#getTexto(int)}).
+	 */
+	private final int codigoDoTabuleiro;
+
+	/**
+	 * Situação da partida (os STATUS_* da {@link VelhaIA}).
+	 */
+	private final String situacao;
+
+	/**
+	 * Posições jogadas, em ordem, 4 bits por jogada, como em {@link PartidaVelha#getJogadas()}.
+	 */
+	private final long jogadas;
+
+	/**
+	 * Quantidade de jogadas.
+	 */
+	private final int quantidadeDeJogadas;
+
+	/**
+	 * Mostra se a partida acabou.
+	 */
+	private final boolean fimDeJogo;
+
+	/**
+	 * Instante da publicação, em {@link System#nanoTime()}.
+	 */
+	private final long instante;
+
+	/**
+	 * Construtor da classe.
+	 */
+	InstantaneoDaPartida(final long id, final long versao, final int codigoDoTabuleiro, final String situacao,
+			final long jogadas, final int quantidadeDeJogadas, final boolean fimDeJogo, final long instante) {
+		this.id = id;
+		this.versao = versao;
+		this.codigoDoTabuleiro = codigoDoTabuleiro;
+		this.situacao = situacao;
+		this.jogadas = jogadas;
+		this.quantidadeDeJogadas = quantidadeDeJogadas;
+		this.fimDeJogo = fimDeJogo;
+		this.instante = instante;
+	}
+
+	/**
+	 * Método que retorna o identificador da partida.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Método que retorna a versão do estado. Um espectador pode receber versões saltadas,
+	 * mas nunca uma versão anterior à que já recebeu.
+	 */
+	public long getVersao() {
+		return versao;
+	}
+
+	/**
+	 * Método que retorna o tabuleiro compactado em 18 bits:
+	 * as peças do jogador X nos bits 0 a 8 e as do jogador O nos bits 9 a 17.
+	 */
+	public int getCodigoDoTabuleiro() {
+		return codigoDoTabuleiro;
+	}
+
+	/**
+	 * Método que retorna a posição do tabuleiro.
+	 */
+	public char getPosicao(final int posicao) {
+		if ((codigoDoTabuleiro & (1 << posicao)) != 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if ((codigoDoTabuleiro & (1 << (posicao + 9))) != 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna a situação da partida.
+	 */
+	public String getSituacao() {
+		return situacao;
+	}
+
+	/**
+	 * Método que retorna as posições jogadas, em ordem, 4 bits por jogada
+	 * (a jogada 'n' nos bits 4n a 4n+3).
+	 */
+	public long getJogadas() {
+		return jogadas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas.
+	 */
+	public int getQuantidadeDeJogadas() {
+		return quantidadeDeJogadas;
+	}
+
+	/**
+	 * Método que verifica se a partida acabou.
+	 */
+	public boolean isFimDeJogo() {
+		return fimDeJogo;
+	}
+
+	/**
+	 * Método que retorna o instante da publicação, em {@link System#nanoTime()}.
+	 */
+	public long getInstante() {
+		return instante;
+	}
+
+	@Override
+	public String toString() {
+		return "partida " + id + " v" + versao + " " + TabuleiroBits.getTexto(codigoDoTabuleiro) + " " + situacao;
+	}
+}
@@ -0,0 +1,265 @@
+package br.unisul.ia.velha;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Livro de aberturas e de avaliação do Jogo da Velha, consultado pela {@link VelhaIA} antes
+ * das regras da "Jogada Perfeita".
+ *
+ * O livro é um arquivo com um cabeçalho de {@value #TAMANHO_DO_CABECALHO} bytes e uma entrada
+ * de 2 bytes para cada indice na base 3 do tabuleiro (ver {@link TabuleiroBits#getIndice()}).
+ * Cada entrada tem a mascara das jogadas ótimas nos bits 0 a 8, o valor da posição para o
+ * jogador da vez (ver {@link TabelaDeValores}) nos bits 9 e 10, e a quantidade de jogadas até
+ * o fim nos bits 11 a 14. As posições fora do livro têm a entrada 0.
+ *
+ * O arquivo é gerado por {@link #main(String[])} a partir do {@link SolucionadorRetrogrado}, na
+ * construção do projeto (o Maven grava o livro em velha/target/velha.livro), e
+ * mapeado só para leitura: nada é calculado ao abrir o livro, as páginas são carregadas pelo
+ * sistema operacional quando consultadas, e os processos que mapeiam o mesmo arquivo
+ * compartilham as mesmas páginas.
+ *
+ * O livro padrão é o arquivo da propriedade de sistema {@value #PROPRIEDADE_LIVRO}, aberto na
+ * primeira consulta. Sem a propriedade, não há livro padrão.
+ *
+ * Uso: LivroDeAberturas arquivo [profundidade]
+ */
+public final class LivroDeAberturas {
+
+	/**
+	 * Propriedade de sistema com o caminho do livro padrão.
+	 */
+	public static final String PROPRIEDADE_LIVRO = "br.unisul.ia.velha.livro";
+
+	/**
+	 * Marca do inicio do arquivo ("VLIV").
+	 */
+	private static final int MARCA = 0x564C4956;
+
+	/**
+	 * Tamanho do cabeçalho do arquivo: marca, profundidade, quantidade de entradas e uma reserva.
+	 */
+	private static final int TAMANHO_DO_CABECALHO = 16;
+
+	/**
+	 * Mascara das jogadas ótimas de uma entrada.
+	 */
+	private static final int JOGADAS = 0x1FF;
+
+	/**
+	 * Deslocamentos do valor e da distancia em uma entrada.
+	 */
+	private static final int DESLOCAMENTO_DO_VALOR = 9;
+	private static final int DESLOCAMENTO_DA_DISTANCIA = 11;
+
+	/**
+	 * Carrega o livro padrão apenas no primeiro uso.
+	 */
+	private static final class Padrao {
+
+		private static final LivroDeAberturas LIVRO = carregar();
+
+		private static LivroDeAberturas carregar() {
+			final String arquivo = System.getProperty(PROPRIEDADE_LIVRO);
+			if (arquivo == null || arquivo.isEmpty()) {
+				return null;
+			}
+			try {
+				return abrir(Paths.get(arquivo));
+			} catch (final IOException | RuntimeException e) {
+				// Sem livro a maquina continua jogando pelas regras.
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Entradas do livro, sem o cabeçalho.
+	 */
+	private final ByteBuffer entradas;
+
+	/**
+	 * Posições do livro: as que têm menos peças que a profundidade.
+	 */
+	private final int profundidade;
+
+	/**
+	 * Construtor da classe, com as entradas mapeadas.
+	 */
+	private LivroDeAberturas(final ByteBuffer entradas, final int profundidade) {
+		this.entradas = entradas;
+		this.profundidade = profundidade;
+	}
+
+	/**
+	 * Método que retorna o livro padrão, ou 'null' se a propriedade {@value #PROPRIEDADE_LIVRO}
+	 * não existe ou o arquivo não pode ser aberto.
+	 */
+	public static LivroDeAberturas getPadrao() {
+		return Padrao.LIVRO;
+	}
+
+	/**
+	 * Método que mapeia o livro do arquivo.
+	 */
+	public static LivroDeAberturas abrir(final Path arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			final ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_DO_CABECALHO);
+			while (cabecalho.hasRemaining() && canal.read(cabecalho) > 0) {
+				// Lê o cabeçalho inteiro.
+			}
+			cabecalho.flip();
+			if (cabecalho.remaining() < TAMANHO_DO_CABECALHO || cabecalho.getInt() != MARCA) {
+				throw new IOException("Arquivo não é um livro de aberturas: " + arquivo);
+			}
+
+			final int profundidade = cabecalho.getInt();
+			final int quantidade = cabecalho.getInt();
+			if (quantidade != TabuleiroBits.TOTAL_DE_INDICES
+					|| canal.size() < TAMANHO_DO_CABECALHO + 2L * TabuleiroBits.TOTAL_DE_INDICES) {
+				throw new IOException("Livro de aberturas incompleto: " + arquivo);
+			}
+			return new LivroDeAberturas(canal.map(FileChannel.MapMode.READ_ONLY, TAMANHO_DO_CABECALHO,
+					2L * TabuleiroBits.TOTAL_DE_INDICES), profundidade);
+		}
+	}
+
+	/**
+	 * Método que retorna a entrada do tabuleiro, ou 0 se a posição não está no livro.
+	 */
+	private int getEntrada(final TabuleiroBits tabuleiro) {
+		return entradas.getShort(2 * tabuleiro.getIndice()) & 0xFFFF;
+	}
+
+	/**
+	 * Método que verifica se a posição está no livro.
+	 */
+	public boolean isPosicaoConhecida(final TabuleiroBits tabuleiro) {
+		return getEntrada(tabuleiro) != 0;
+	}
+
+	/**
+	 * Método que retorna a mascara de 9 bits com as jogadas ótimas do jogador da vez,
+	 * ou 0 se a posição não está no livro.
+	 */
+	public int getJogadasOtimas(final TabuleiroBits tabuleiro) {
+		return getEntrada(tabuleiro) & JOGADAS;
+	}
+
+	/**
+	 * Método que retorna o valor da posição para o jogador da vez (ver {@link TabelaDeValores}),
+	 * ou {@link TabelaDeValores#NAO_ALCANCAVEL} se a posição não está no livro.
+	 */
+	public int getValor(final TabuleiroBits tabuleiro) {
+		return (getEntrada(tabuleiro) >>> DESLOCAMENTO_DO_VALOR) & 3;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas até o fim com jogo perfeito,
+	 * ou 0 se a posição não está no livro.
+	 */
+	public int getDistancia(final TabuleiroBits tabuleiro) {
+		return getEntrada(tabuleiro) >>> DESLOCAMENTO_DA_DISTANCIA;
+	}
+
+	/**
+	 * Método que retorna a quantidade de peças a partir da qual as posições não estão no livro.
+	 */
+	public int getProfundidade() {
+		return profundidade;
+	}
+
+	/**
+	 * Método que retorna a jogada do livro para o jogador da vez, ou -1 para que a jogada seja
+	 * escolhida pelas regras. A vitória imediata é sempre aproveitada; nas demais jogadas, a
+	 * dificudade define a chance de deixar a escolha para as regras, que têm os seus próprios
+	 * erros sorteados.
+	 */
+	int getJogada(final TabuleiroBits tabuleiro, final char jogadorDaVez, final int dificudade,
+			final SorteioVelha sorteio) {
+		final int pecasX = Integer.bitCount(tabuleiro.getBitsX());
+		final int pecasO = Integer.bitCount(tabuleiro.getBitsO());
+		if (jogadorDaVez != (pecasX > pecasO ? VelhaIA.JOGADOR_O : VelhaIA.JOGADOR_X)) {
+			return -1;
+		}
+
+		final int entrada = getEntrada(tabuleiro);
+		int jogadasOtimas = entrada & JOGADAS;
+		if (jogadasOtimas == 0) {
+			return -1;
+		}
+
+		final boolean vitoriaImediata = (entrada >>> DESLOCAMENTO_DA_DISTANCIA) == 1;
+		if (!vitoriaImediata && sorteio.nextInt(10) < dificudade) {
+			return -1;
+		}
+		for (int sorteada = sorteio.nextInt(Integer.bitCount(jogadasOtimas)); sorteada > 0; sorteada--) {
+			jogadasOtimas &= jogadasOtimas - 1;
+		}
+		return Integer.numberOfTrailingZeros(jogadasOtimas);
+	}
+
+	/**
+	 * Método que gera o livro com as posições de menos de 'profundidade' peças,
+	 * a partir da tabela de valores exatos do Jogo da Velha.
+	 */
+	public static void gerar(final Path arquivo, final int profundidade, final ForkJoinPool pool) throws IOException {
+		final TabelaDeValores tabela = new SolucionadorRetrogrado(3, 3, 3, pool).resolver();
+
+		final ByteBuffer livro = ByteBuffer.allocate(TAMANHO_DO_CABECALHO + 2 * TabuleiroBits.TOTAL_DE_INDICES);
+		livro.putInt(MARCA).putInt(profundidade).putInt(TabuleiroBits.TOTAL_DE_INDICES).putInt(0);
+		for (int bitsX = 0; bitsX <= TabuleiroBits.TABULEIRO_CHEIO; bitsX++) {
+			for (int bitsO = 0; bitsO <= TabuleiroBits.TABULEIRO_CHEIO; bitsO++) {
+				if ((bitsX & bitsO) != 0 || Integer.bitCount(bitsX | bitsO) >= profundidade) {
+					continue;
+				}
+
+				final int indice = TabuleiroBits.getIndice(bitsX, bitsO);
+				final int jogadasOtimas = (int) tabela.getJogadasOtimas(bitsX, bitsO);
+				if (jogadasOtimas != 0) {
+					livro.putShort(TAMANHO_DO_CABECALHO + 2 * indice, (short) (jogadasOtimas
+							| tabela.getValor(indice) << DESLOCAMENTO_DO_VALOR
+							| tabela.getDistancia(indice) << DESLOCAMENTO_DA_DISTANCIA));
+				}
+			}
+		}
+
+		livro.rewind();
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (livro.hasRemaining()) {
+				canal.write(livro);
+			}
+		}
+	}
+
+	/**
+	 * Método que gera o livro no arquivo. Deve ser executado na construção da aplicação,
+	 * para que os processos só precisem mapear o arquivo.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Uso: LivroDeAberturas arquivo [profundidade]");
+			return;
+		}
+		final Path arquivo = Paths.get(args[0]);
+		final int profundidade = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+
+		final long inicio = System.nanoTime();
+		gerar(arquivo, profundidade, ForkJoinPool.commonPool());
+		final LivroDeAberturas livro = abrir(arquivo);
+		int posicoes = 0;
+		for (int indice = 0; indice < TabuleiroBits.TOTAL_DE_INDICES; indice++) {
+			if (livro.entradas.getShort(2 * indice) != 0) {
+				posicoes++;
+			}
+		}
+		System.out.printf("%d posições com menos de %d peças em %d ms, gravadas em %s%n", posicoes, profundidade,
+				(System.nanoTime() - inicio) / 1_000_000, arquivo);
+	}
+}
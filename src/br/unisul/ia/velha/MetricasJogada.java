@@ -0,0 +1,217 @@
+package br.unisul.ia.velha;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas das jogadas escolhidas pela {@link VelhaIA}: quantas vezes cada regra foi usada,
+ * quantos bloqueios a dificudade deixou de fazer e a latência de cada jogada.
+ *
+ * Os contadores são {@link LongAdder} e o registro não usa travas, assim as métricas podem
+ * ficar sempre ligadas. A instancia única é criada e publicada no JMX, com o nome
+ * {@value #NOME_JMX}, na primeira jogada, a não ser que a propriedade de sistema
+ * {@value #PROPRIEDADE_JMX} seja "false".
+ */
+public final class MetricasJogada implements MetricasJogadaMBean {
+
+	/**
+	 * Nome das métricas no JMX.
+	 */
+	public static final String NOME_JMX = "br.unisul.ia.velha:type=MetricasJogada";
+
+	/**
+	 * Propriedade de sistema que desliga a publicação no JMX, que carrega o servidor de
+	 * MBeans da plataforma e atrasa a primeira jogada de um processo de vida curta.
+	 */
+	public static final String PROPRIEDADE_JMX = "br.unisul.ia.velha.jmx";
+
+	/**
+	 * Carrega a instancia única apenas no primeiro uso.
+	 */
+	private static final class Instancia {
+
+		private static final MetricasJogada METRICAS = criar();
+
+		private static MetricasJogada criar() {
+			final MetricasJogada metricas = new MetricasJogada();
+			if ("false".equals(System.getProperty(PROPRIEDADE_JMX))) {
+				return metricas;
+			}
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(metricas, new ObjectName(NOME_JMX));
+			} catch (final JMException | SecurityException e) {
+				// Sem JMX as métricas continuam disponíveis pela instancia.
+			}
+			return metricas;
+		}
+	}
+
+	/**
+	 * Quantidade de jogadas de cada regra, na ordem de {@link RegraDeJogada}.
+	 */
+	private final LongAdder[] jogadasPorRegra = new LongAdder[RegraDeJogada.values().length];
+
+	/**
+	 * Quantidade de vezes em que havia um bloqueio, mas o sorteio da dificudade o ignorou.
+	 */
+	private final LongAdder bloqueiosIgnorados = new LongAdder();
+
+	/**
+	 * Latência de cada jogada.
+	 */
+	private final HistogramaDeLatencia latencia = new HistogramaDeLatencia();
+
+	private MetricasJogada() {
+		for (int regra = 0; regra < jogadasPorRegra.length; regra++) {
+			jogadasPorRegra[regra] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Método que retorna a instancia única das métricas.
+	 */
+	public static MetricasJogada getInstancia() {
+		return Instancia.METRICAS;
+	}
+
+	/**
+	 * Método que registra a regra e a latência de uma jogada.
+	 */
+	void registrar(final RegraDeJogada regra, final long nanos) {
+		jogadasPorRegra[regra.ordinal()].increment();
+		latencia.registrar(nanos);
+	}
+
+	/**
+	 * Método que registra um bloqueio ignorado pelo sorteio da dificudade.
+	 */
+	void registrarBloqueioIgnorado() {
+		bloqueiosIgnorados.increment();
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas da regra.
+	 */
+	public long getJogadas(final RegraDeJogada regra) {
+		return jogadasPorRegra[regra.ordinal()].sum();
+	}
+
+	/**
+	 * Método que retorna o histograma de latência das jogadas.
+	 */
+	public HistogramaDeLatencia getLatencia() {
+		return latencia;
+	}
+
+	@Override
+	public long getJogadas() {
+		return latencia.getQuantidade();
+	}
+
+	@Override
+	public long getJogadasDoLivro() {
+		return getJogadas(RegraDeJogada.LIVRO);
+	}
+
+	@Override
+	public long getJogadasDaTabela() {
+		return getJogadas(RegraDeJogada.TABELA);
+	}
+
+	@Override
+	public long getJogadasDeMonteCarlo() {
+		return getJogadas(RegraDeJogada.MONTE_CARLO);
+	}
+
+	@Override
+	public long getVitorias() {
+		return getJogadas(RegraDeJogada.VITORIA);
+	}
+
+	@Override
+	public long getBloqueios() {
+		return getJogadas(RegraDeJogada.BLOQUEIO);
+	}
+
+	@Override
+	public long getCantosDeAbertura() {
+		return getJogadas(RegraDeJogada.CANTO_DE_ABERTURA);
+	}
+
+	@Override
+	public long getTriangulos() {
+		return getJogadas(RegraDeJogada.TRIANGULO);
+	}
+
+	@Override
+	public long getBloqueiosDeTriangulo() {
+		return getJogadas(RegraDeJogada.BLOQUEIO_DE_TRIANGULO);
+	}
+
+	@Override
+	public long getCentros() {
+		return getJogadas(RegraDeJogada.CENTRO);
+	}
+
+	@Override
+	public long getCantos() {
+		return getJogadas(RegraDeJogada.CANTO);
+	}
+
+	@Override
+	public long getBordas() {
+		return getJogadas(RegraDeJogada.BORDA);
+	}
+
+	@Override
+	public long getSemJogada() {
+		return getJogadas(RegraDeJogada.NENHUMA);
+	}
+
+	@Override
+	public long getBloqueiosIgnorados() {
+		return bloqueiosIgnorados.sum();
+	}
+
+	@Override
+	public double getLatenciaMedia() {
+		return latencia.getMedia();
+	}
+
+	@Override
+	public long getLatenciaP50() {
+		return latencia.getPercentil(50);
+	}
+
+	@Override
+	public long getLatenciaP90() {
+		return latencia.getPercentil(90);
+	}
+
+	@Override
+	public long getLatenciaP99() {
+		return latencia.getPercentil(99);
+	}
+
+	@Override
+	public long getLatenciaP999() {
+		return latencia.getPercentil(99.9);
+	}
+
+	@Override
+	public long getLatenciaMaxima() {
+		return latencia.getMaximo();
+	}
+
+	@Override
+	public void zerar() {
+		for (final LongAdder jogadas : jogadasPorRegra) {
+			jogadas.reset();
+		}
+		bloqueiosIgnorados.reset();
+		latencia.zerar();
+	}
+}
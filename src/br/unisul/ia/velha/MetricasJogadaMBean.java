@@ -0,0 +1,53 @@
+package br.unisul.ia.velha;
+
+/**
+ * Interface JMX das {@link MetricasJogada}.
+ * As latências são em nanossegundos.
+ */
+public interface MetricasJogadaMBean {
+
+	long getJogadas();
+
+	long getJogadasDoLivro();
+
+	long getJogadasDaTabela();
+
+	long getJogadasDeMonteCarlo();
+
+	long getVitorias();
+
+	long getBloqueios();
+
+	long getCantosDeAbertura();
+
+	long getTriangulos();
+
+	long getBloqueiosDeTriangulo();
+
+	long getCentros();
+
+	long getCantos();
+
+	long getBordas();
+
+	long getSemJogada();
+
+	long getBloqueiosIgnorados();
+
+	double getLatenciaMedia();
+
+	long getLatenciaP50();
+
+	long getLatenciaP90();
+
+	long getLatenciaP99();
+
+	long getLatenciaP999();
+
+	long getLatenciaMaxima();
+
+	/**
+	 * Zera todos os contadores e o histograma de latência.
+	 */
+	void zerar();
+}
@@ -0,0 +1,24 @@
+package br.unisul.ia.velha;
+
+/**
+ * Modos que a {@link VelhaIA} pode usar para escolher a proxima jogada.
+ */
+public enum ModoDeJogada {
+
+	/**
+	 * Regras da "Jogada Perfeita", avaliadas a cada jogada.
+	 */
+	REGRAS,
+
+	/**
+	 * Consulta na {@link TabelaDeJogadas}, calculada uma única vez.
+	 */
+	TABELA,
+
+	/**
+	 * Busca em árvore de Monte Carlo ({@link BuscaMonteCarlo}), com a quantidade de playouts
+	 * dada pela dificudade.
+	 */
+	MONTE_CARLO
+
+}
@@ -0,0 +1,260 @@
+package br.unisul.ia.velha;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Motor do Jogo da Velha sem tela, que atende comandos de texto, um por linha, pela entrada
+ * padrão e responde uma linha por comando na saída padrão. Serve para rodar a {@link VelhaIA}
+ * em um processo de vida curta, criado para cada trabalho.
+ *
+ * Esta classe usa apenas as classes deste pacote e do java.base, sem carregar o AWT ou o
+ * Swing, e desliga a publicação das métricas no JMX (ver {@link MetricasJogada#PROPRIEDADE_JMX}),
+ * assim o processo fica pronto em poucas dezenas de milisegundos.
+ *
+ * Comandos (o tabuleiro tem 'X', 'O' ou '-' em cada posição, e o nivel vai de 0 = fácil a 2 = difícil):
+ * <ul>
+ * <li>jogada &lt;tabuleiro&gt; [nivel] [semente]: responde "ok &lt;posicao&gt;" com a jogada que
+ * {@link VelhaIA#getJogada()} escolhe para o jogador da vez.</li>
+ * <li>nova [nivel] [semente]: inicia a partida do motor, humano ('X') contra a maquina ('O'),
+ * e responde "ok &lt;tabuleiro&gt; &lt;situacao&gt;".</li>
+ * <li>jogar &lt;posicao&gt;: joga a posição na partida, a maquina responde, e responde
+ * "ok &lt;jogada da maquina&gt; &lt;tabuleiro&gt; &lt;situacao&gt;" (-1 quando a maquina não jogou).</li>
+ * <li>situacao: responde "ok &lt;tabuleiro&gt; &lt;situacao&gt;".</li>
+ * <li>sair: termina o motor, sem resposta.</li>
+ * </ul>
+ * A situação é um dos STATUS_* da {@link VelhaIA}. Um comando inválido é respondido com
+ * "erro &lt;motivo&gt;". As respostas são enviadas quando não há mais comandos para ler,
+ * assim vários comandos podem ser enviados de uma vez.
+ *
+ * Uso: MotorVelha
+ */
+public class MotorVelha {
+
+	/**
+	 * Comando que termina o motor.
+	 */
+	public static final String SAIR = "sair";
+
+	/**
+	 * Quantidade máxima de campos de um comando.
+	 */
+	private static final int CAMPOS = 4;
+
+	/**
+	 * Lógica do jogo, reaproveitada pelos comandos "jogada".
+	 */
+	private final VelhaIA velhaIA = new VelhaIA();
+
+	/**
+	 * Partida dos comandos "nova" e "jogar".
+	 */
+	private final PartidaVelha partida = new PartidaVelha();
+
+	/**
+	 * Campos do último comando.
+	 */
+	private final String[] campos = new String[CAMPOS];
+
+	/**
+	 * Método que executa um comando e retorna a resposta, ou 'null' para o comando "sair".
+	 */
+	public String executar(final String comando) {
+		final int quantidade = separarCampos(comando);
+		if (quantidade == 0) {
+			return "erro comando-vazio";
+		}
+
+		switch (campos[0]) {
+		case "jogada":
+			return executarJogada(quantidade);
+		case "nova":
+			return executarNova(quantidade);
+		case "jogar":
+			return executarJogar(quantidade);
+		case "situacao":
+			return getSituacao(new StringBuilder("ok ")).toString();
+		case SAIR:
+			return null;
+		default:
+			return "erro comando-desconhecido";
+		}
+	}
+
+	/**
+	 * Método que executa o comando "jogada", sem alterar a partida do motor.
+	 */
+	private String executarJogada(final int quantidade) {
+		final int codigo = quantidade > 1 ? TabuleiroBits.getCodigo(campos[1]) : -1;
+		final int nivel = quantidade > 2 ? getNumero(campos[2]) : 2;
+		final Long semente = quantidade > 3 ? getSemente(campos[3]) : null;
+		if (codigo < 0 || nivel < 0 || nivel > 2 || (quantidade > 3 && semente == null)) {
+			return "erro pedido-invalido";
+		}
+
+		final int pecasX = Integer.bitCount(codigo & TabuleiroBits.TABULEIRO_CHEIO);
+		final int pecasO = Integer.bitCount(codigo >>> 9);
+		velhaIA.setTabuleiro(codigo, pecasX > pecasO ? VelhaIA.JOGADOR_O : VelhaIA.JOGADOR_X);
+		if (velhaIA.isFimDeJogo()) {
+			return "erro fim-de-jogo";
+		}
+
+		velhaIA.setDificudade(PartidaVelha.getDificudade(nivel));
+		if (semente != null) {
+			velhaIA.setSemente(semente);
+		}
+		return new StringBuilder("ok ").append(velhaIA.getJogada()).toString();
+	}
+
+	/**
+	 * Método que executa o comando "nova".
+	 */
+	private String executarNova(final int quantidade) {
+		final int nivel = quantidade > 1 ? getNumero(campos[1]) : 2;
+		final Long semente = quantidade > 2 ? getSemente(campos[2]) : null;
+		if (nivel < 0 || nivel > 2 || (quantidade > 2 && semente == null)) {
+			return "erro pedido-invalido";
+		}
+
+		if (semente != null) {
+			partida.iniciar(PartidaVelha.getDificudade(nivel), semente);
+		} else {
+			partida.iniciar(PartidaVelha.getDificudade(nivel));
+		}
+		return getSituacao(new StringBuilder("ok ")).toString();
+	}
+
+	/**
+	 * Método que executa o comando "jogar".
+	 */
+	private String executarJogar(final int quantidade) {
+		final int posicao = quantidade > 1 ? getNumero(campos[1]) : -1;
+		if (!partida.jogarJogador(posicao)) {
+			return "erro jogada-invalida";
+		}
+		partida.verificarSituacao();
+		final int jogadaDaMaquina = partida.jogarMaquina();
+		partida.verificarSituacao();
+		return getSituacao(new StringBuilder("ok ").append(jogadaDaMaquina).append(' ')).toString();
+	}
+
+	/**
+	 * Método que acrescenta o tabuleiro e a situação da partida do motor na resposta.
+	 * As respostas são montadas com {@link StringBuilder}, porque a primeira concatenação
+	 * com '+' inicializa o java.lang.invoke e atrasa a primeira resposta em dezenas de milisegundos.
+	 */
+	private StringBuilder getSituacao(final StringBuilder resposta) {
+		return resposta.append(TabuleiroBits.getTexto(partida.getCodigoDoTabuleiro())).append(' ')
+				.append(partida.getSituacao());
+	}
+
+	/**
+	 * Método que separa os campos do comando, divididos por espaços, e retorna a quantidade.
+	 * Os campos além de {@value #CAMPOS} são ignorados.
+	 */
+	private int separarCampos(final String comando) {
+		int quantidade = 0;
+		int inicio = 0;
+		final int tamanho = comando.length();
+		while (quantidade < CAMPOS) {
+			while (inicio < tamanho && comando.charAt(inicio) == ' ') {
+				inicio++;
+			}
+			if (inicio == tamanho) {
+				break;
+			}
+			int fim = inicio;
+			while (fim < tamanho && comando.charAt(fim) != ' ') {
+				fim++;
+			}
+			campos[quantidade++] = comando.substring(inicio, fim);
+			inicio = fim;
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que verifica se o campo é um número inteiro.
+	 */
+	private static boolean isNumero(final String campo) {
+		final int inicio = campo.charAt(0) == '-' ? 1 : 0;
+		if (campo.length() == inicio || campo.length() - inicio > 19) {
+			return false;
+		}
+		for (int indice = inicio; indice < campo.length(); indice++) {
+			if (campo.charAt(indice) < '0' || campo.charAt(indice) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Método que converte o campo para um número pequeno, ou retorna -1 se não é um número.
+	 */
+	private static int getNumero(final String campo) {
+		return isNumero(campo) && campo.length() < 10 ? Integer.parseInt(campo) : -1;
+	}
+
+	/**
+	 * Método que converte o campo para a semente, ou retorna 'null' se ele não é um número
+	 * que cabe em um 'long'.
+	 */
+	private static Long getSemente(final String campo) {
+		if (!isNumero(campo)) {
+			return null;
+		}
+		try {
+			return Long.valueOf(Long.parseLong(campo));
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Método que lê os comandos até o fim da entrada ou até o comando "sair", e escreve as respostas.
+	 * Um erro inesperado em um comando é respondido com "erro interno", sem terminar o motor.
+	 */
+	public void atender(final BufferedReader entrada, final Writer saida) throws IOException {
+		String comando;
+		while ((comando = entrada.readLine()) != null) {
+			String resposta;
+			try {
+				resposta = executar(comando);
+			} catch (final RuntimeException e) {
+				resposta = "erro interno";
+			}
+			if (resposta == null) {
+				break;
+			}
+			saida.write(resposta);
+			saida.write('\n');
+			if (!entrada.ready()) {
+				saida.flush();
+			}
+		}
+		saida.flush();
+	}
+
+	/**
+	 * Método que inicia o motor na entrada e na saída padrão.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (System.getProperty(MetricasJogada.PROPRIEDADE_JMX) == null) {
+			System.setProperty(MetricasJogada.PROPRIEDADE_JMX, "false");
+		}
+		final BufferedReader entrada = new BufferedReader(new InputStreamReader(
+				new FileInputStream(FileDescriptor.in), StandardCharsets.US_ASCII));
+		final Writer saida = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII));
+		new MotorVelha().atender(entrada, saida);
+	}
+}
@@ -0,0 +1,14 @@
+package br.unisul.ia.velha;
+
+/**
+ * Interface dos objetos avisados quando uma {@link PartidaVelha} termina.
+ */
+public interface OuvintePartida {
+
+	/**
+	 * Método chamado uma vez, quando a verificação da situação encontra o fim da partida.
+	 * É chamado com a partida travada, na thread que verificou a situação.
+	 */
+	void onFimDePartida(PartidaVelha partida);
+
+}
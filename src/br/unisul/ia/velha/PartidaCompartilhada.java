@@ -0,0 +1,279 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Partida do Jogo da Velha compartilhada entre vários clientes ao mesmo tempo, como no modo
+ * "equipe contra a maquina", em que várias pessoas podem enviar a jogada da equipe no mesmo
+ * instante.
+ *
+ * Todo o estado da partida fica em um único {@link AtomicLong}, e cada jogada troca o estado
+ * inteiro com um compare-and-set, sem travas: entre várias jogadas simultâneas para a mesma
+ * vez, exatamente uma é aceita, e as outras encontram a vez já passada. Os leitores, como os
+ * espectadores, leem o estado inteiro de uma vez ({@link #getEstado()}) e sempre veem um
+ * tabuleiro consistente, sem atrasar as jogadas.
+ *
+ * O estado tem:
+ * <ul>
+ * <li>bits 0 a 35: as posições jogadas, em ordem, 4 bits por jogada;</li>
+ * <li>bits 36 a 39: a quantidade de jogadas;</li>
+ * <li>bits 40 e 41: a situação ({@link #EM_ANDAMENTO}, {@link #VITORIA_X}, {@link #VITORIA_O}
+ * ou {@link #EMPATE});</li>
+ * <li>bits 42 a 63: a geração da partida, somada a cada reinicio, para que uma jogada
+ * calculada para uma partida anterior não seja aceita na nova.</li>
+ * </ul>
+ * O tabuleiro e o jogador da vez não são guardados: eles vêm das jogadas, porque o 'X'
+ * sempre começa. Assim sobram 22 bits para a geração, que só volta a um valor já usado
+ * depois de mais de 4 milhões de reinicios.
+ */
+public class PartidaCompartilhada {
+
+	/**
+	 * Situação da partida em andamento.
+	 */
+	public static final int EM_ANDAMENTO = 0;
+
+	/**
+	 * Situação da partida ganha pelo jogador 'X'.
+	 */
+	public static final int VITORIA_X = 1;
+
+	/**
+	 * Situação da partida ganha pelo jogador 'O'.
+	 */
+	public static final int VITORIA_O = 2;
+
+	/**
+	 * Situação da partida empatada.
+	 */
+	public static final int EMPATE = 3;
+
+	private static final int DESLOCAMENTO_DA_QUANTIDADE = 36;
+	private static final int DESLOCAMENTO_DA_SITUACAO = 40;
+	private static final int DESLOCAMENTO_DA_GERACAO = 42;
+
+	/**
+	 * Mascara das jogadas no estado.
+	 */
+	private static final long JOGADAS = (1L << DESLOCAMENTO_DA_QUANTIDADE) - 1;
+
+	/**
+	 * Mascara da geração, depois do deslocamento.
+	 */
+	private static final long GERACAO = (1L << (64 - DESLOCAMENTO_DA_GERACAO)) - 1;
+
+	/**
+	 * Estado da partida.
+	 */
+	private final AtomicLong estado = new AtomicLong();
+
+	/**
+	 * Quantidade de compare-and-set que falharam porque outra thread mudou o estado antes.
+	 */
+	private final LongAdder conflitos = new LongAdder();
+
+	/**
+	 * Método que retorna o estado atual da partida, lido de uma vez.
+	 * Os métodos estáticos desta classe leem os campos do estado.
+	 */
+	public long getEstado() {
+		return estado.get();
+	}
+
+	/**
+	 * Método que executa a jogada do jogador, se for a vez dele, a posição estiver livre e a
+	 * partida estiver em andamento. Retorna 'false' se a jogada não foi aceita, inclusive
+	 * quando outra jogada para a mesma vez foi aceita antes.
+	 */
+	public boolean jogar(final int posicao, final char jogador) {
+		while (true) {
+			final long atual = estado.get();
+			if (getJogadorDaVez(atual) != jogador || !isJogadaValida(atual, posicao)) {
+				return false;
+			}
+			if (estado.compareAndSet(atual, getEstadoSeguinte(atual, posicao))) {
+				return true;
+			}
+			conflitos.increment();
+		}
+	}
+
+	/**
+	 * Método que executa a jogada do jogador da vez somente se o estado ainda for o esperado,
+	 * por exemplo o estado que o cliente viu ao escolher a jogada. Retorna 'false' se a jogada
+	 * é inválida ou se o estado mudou.
+	 */
+	public boolean jogar(final long estadoEsperado, final int posicao) {
+		if (!isJogadaValida(estadoEsperado, posicao)) {
+			return false;
+		}
+		if (estado.compareAndSet(estadoEsperado, getEstadoSeguinte(estadoEsperado, posicao))) {
+			return true;
+		}
+		conflitos.increment();
+		return false;
+	}
+
+	/**
+	 * Método que calcula e executa a jogada da maquina, se for a vez dela. A jogada é calculada
+	 * sobre uma leitura do estado, e só é aceita se o estado não mudou durante o cálculo.
+	 * A {@link VelhaIA} deve ser usada por uma thread de cada vez.
+	 * Retorna a posição jogada, ou -1 se não era a vez da maquina ou se o estado mudou.
+	 */
+	public int jogarMaquina(final VelhaIA velhaIA, final char maquina) {
+		final long atual = estado.get();
+		if (getJogadorDaVez(atual) != maquina || getSituacao(atual) != EM_ANDAMENTO) {
+			return -1;
+		}
+
+		velhaIA.setTabuleiro(getCodigoDoTabuleiro(atual), maquina);
+		final int posicao = velhaIA.getJogada();
+		return jogar(atual, posicao) ? posicao : -1;
+	}
+
+	/**
+	 * Método que reinicia a partida, com o tabuleiro vazio e a vez do 'X', e retorna o novo estado.
+	 */
+	public long reiniciar() {
+		while (true) {
+			final long atual = estado.get();
+			final long novo = getEstadoInicial(atual);
+			if (estado.compareAndSet(atual, novo)) {
+				return novo;
+			}
+			conflitos.increment();
+		}
+	}
+
+	/**
+	 * Método que reinicia a partida somente se o estado ainda for o esperado, para que entre
+	 * vários clientes que viram o fim da mesma partida só um a reinicie.
+	 */
+	public boolean reiniciar(final long estadoEsperado) {
+		if (estado.compareAndSet(estadoEsperado, getEstadoInicial(estadoEsperado))) {
+			return true;
+		}
+		conflitos.increment();
+		return false;
+	}
+
+	/**
+	 * Método que retorna a quantidade de compare-and-set que falharam por concorrência.
+	 */
+	public long getConflitos() {
+		return conflitos.sum();
+	}
+
+	/**
+	 * Método que retorna o estado da próxima geração, com o tabuleiro vazio.
+	 */
+	private static long getEstadoInicial(final long estado) {
+		return ((getGeracao(estado) + 1) & GERACAO) << DESLOCAMENTO_DA_GERACAO;
+	}
+
+	/**
+	 * Método que verifica se a posição está livre e a partida está em andamento.
+	 */
+	private static boolean isJogadaValida(final long estado, final int posicao) {
+		return posicao >= 0 && posicao < 9 && getSituacao(estado) == EM_ANDAMENTO
+				&& getPosicao(estado, posicao) == VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna o estado depois da jogada do jogador da vez na posição, já validada.
+	 */
+	private static long getEstadoSeguinte(final long estado, final int posicao) {
+		final int quantidade = getQuantidadeDeJogadas(estado);
+		final boolean vezDoO = (quantidade & 1) != 0;
+		final int codigo = getCodigoDoTabuleiro(estado) | 1 << (vezDoO ? posicao + 9 : posicao);
+
+		int situacao = EM_ANDAMENTO;
+		if (TabuleiroBits.isLinhaCompleta(vezDoO ? codigo >>> 9 : codigo & TabuleiroBits.TABULEIRO_CHEIO)) {
+			situacao = vezDoO ? VITORIA_O : VITORIA_X;
+		} else if (quantidade == 8) {
+			situacao = EMPATE;
+		}
+
+		return (estado & ~(0xFL << DESLOCAMENTO_DA_QUANTIDADE | 3L << DESLOCAMENTO_DA_SITUACAO))
+				| (long) posicao << (4 * quantidade)
+				| (long) (quantidade + 1) << DESLOCAMENTO_DA_QUANTIDADE
+				| (long) situacao << DESLOCAMENTO_DA_SITUACAO;
+	}
+
+	/**
+	 * Método que retorna o tabuleiro do estado, compactado em 18 bits
+	 * (ver {@link TabuleiroBits#getTexto(int)}), montado a partir das jogadas.
+	 */
+	public static int getCodigoDoTabuleiro(final long estado) {
+		final int quantidade = getQuantidadeDeJogadas(estado);
+		int codigo = 0;
+		for (int indice = 0; indice < quantidade; indice++) {
+			codigo |= 1 << (getJogada(estado, indice) + ((indice & 1) == 0 ? 0 : 9));
+		}
+		return codigo;
+	}
+
+	/**
+	 * Método que retorna a posição do tabuleiro do estado.
+	 */
+	public static char getPosicao(final long estado, final int posicao) {
+		final int quantidade = getQuantidadeDeJogadas(estado);
+		for (int indice = 0; indice < quantidade; indice++) {
+			if (getJogada(estado, indice) == posicao) {
+				return (indice & 1) == 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+			}
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna o jogador da vez do estado.
+	 */
+	public static char getJogadorDaVez(final long estado) {
+		return (getQuantidadeDeJogadas(estado) & 1) != 0 ? VelhaIA.JOGADOR_O : VelhaIA.JOGADOR_X;
+	}
+
+	/**
+	 * Método que retorna a situação do estado.
+	 */
+	public static int getSituacao(final long estado) {
+		return (int) (estado >>> DESLOCAMENTO_DA_SITUACAO) & 3;
+	}
+
+	/**
+	 * Método que verifica se a partida do estado acabou.
+	 */
+	public static boolean isFimDeJogo(final long estado) {
+		return getSituacao(estado) != EM_ANDAMENTO;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas do estado.
+	 */
+	public static int getQuantidadeDeJogadas(final long estado) {
+		return (int) (estado >>> DESLOCAMENTO_DA_QUANTIDADE) & 0xF;
+	}
+
+	/**
+	 * Método que retorna a posição da jogada de indice especificado do estado.
+	 */
+	public static int getJogada(final long estado, final int indice) {
+		return (int) (estado >>> (4 * indice)) & 0xF;
+	}
+
+	/**
+	 * Método que retorna as posições jogadas do estado, em ordem, 4 bits por jogada
+	 * (a jogada 'n' nos bits 4n a 4n+3), como em {@link PartidaVelha#getJogadas()}.
+	 */
+	public static long getJogadas(final long estado) {
+		return estado & JOGADAS;
+	}
+
+	/**
+	 * Método que retorna a geração do estado, de 0 a 2^22 - 1, somada a cada reinicio da partida.
+	 */
+	public static long getGeracao(final long estado) {
+		return estado >>> DESLOCAMENTO_DA_GERACAO;
+	}
+}
@@ -0,0 +1,397 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que representa uma partida do Jogo da Velha, humano ('X') contra a maquina ('O').
+ * Todo o estado da partida fica nesta instancia, e todos os métodos são sincronizados,
+ * assim várias partidas podem ser jogadas ao mesmo tempo, em threads diferentes.
+ *
+ * A jogada da maquina é calculada fora do monitor da partida, em uma {@link VelhaIA} própria
+ * do cálculo (ver {@link #calcularJogadaDaMaquina()}), assim a thread que mostra a partida
+ * não espera o cálculo para ler o tabuleiro, jogar ou iniciar outra partida.
+ */
+public class PartidaVelha {
+
+	/**
+	 * Identificador da partida.
+	 */
+	private final long id;
+
+	/**
+	 * Lógica do jogo.
+	 */
+	private final VelhaIA velhaIA = new VelhaIA();
+
+	/**
+	 * Lógica do jogo usada somente para calcular a jogada da maquina, fora do monitor da partida.
+	 * O seu próprio monitor faz os cálculos da partida um de cada vez.
+	 */
+	private final VelhaIA velhaIADoCalculo = new VelhaIA();
+
+	/**
+	 * Objeto Jogo da Velha.
+	 */
+	private final VelhaDominio velhaDominio = new VelhaDominio();
+
+	/**
+	 * Mostra se a partida está iniciada ou não.
+	 */
+	private boolean iniciada;
+
+	/**
+	 * Semente dos sorteios da maquina nesta partida.
+	 */
+	private long semente;
+
+	/**
+	 * Posições jogadas na partida, em ordem, 4 bits por jogada (a jogada 'n' nos bits 4n a 4n+3).
+	 */
+	private long jogadas;
+
+	/**
+	 * Quantidade de jogadas da partida.
+	 */
+	private int quantidadeDeJogadas;
+
+	/**
+	 * Versão do estado da partida, somada a cada jogada e a cada nova partida.
+	 * Um cálculo feito para uma versão anterior não altera os sorteios da partida.
+	 */
+	private long versao;
+
+	/**
+	 * Mostra se o fim da partida já foi avisado ao ouvinte.
+	 */
+	private boolean finalizada;
+
+	/**
+	 * Objeto avisado quando a partida termina.
+	 */
+	private OuvintePartida ouvinte;
+
+	/**
+	 * Difusor dos estados da partida para os espectadores, ou 'null'.
+	 */
+	private DifusorDePartidas difusor;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public PartidaVelha() {
+		this(0);
+	}
+
+	/**
+	 * Construtor da classe com o identificador da partida.
+	 */
+	public PartidaVelha(final long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Método que converte o nivel selecionado (0 = fácil, 1 = médio, 2 = difícil)
+	 * na dificudade usada pela {@link VelhaIA}.
+	 */
+	public static int getDificudade(final int nivel) {
+		if (nivel == 0) {
+			return 10;
+		}
+
+		if (nivel == 1) {
+			return 5;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Método que reproduz uma partida registrada: com a mesma dificudade, a mesma semente
+	 * e as mesmas jogadas do jogador, a maquina repete as mesmas jogadas.
+	 */
+	public static PartidaVelha reproduzir(final int dificudade, final long semente, final int... jogadasDoJogador) {
+		final PartidaVelha partida = new PartidaVelha();
+		partida.iniciar(dificudade, semente);
+		for (final int posicao : jogadasDoJogador) {
+			partida.jogarJogador(posicao);
+			partida.jogarMaquina();
+		}
+		partida.verificarSituacao();
+		return partida;
+	}
+
+	/**
+	 * Método que inicia a partida com a dificudade da {@link VelhaIA} e uma semente sorteada.
+	 */
+	public void iniciar(final int dificudade) {
+		iniciar(dificudade, new SorteioVelha().getSemente());
+	}
+
+	/**
+	 * Método que inicia a partida com a dificudade da {@link VelhaIA} e a semente dos sorteios.
+	 */
+	public synchronized void iniciar(final int dificudade, final long semente) {
+		this.semente = semente;
+		velhaIA.setSemente(semente);
+		velhaIA.setDificudade(dificudade);
+		velhaIA.limparTabuleiro();
+		velhaDominio.limpar();
+		velhaDominio.setSituacao(VelhaIA.STATUS_SUA_VEZ_JOGAR);
+		jogadas = 0;
+		quantidadeDeJogadas = 0;
+		finalizada = false;
+		iniciada = true;
+		versao++;
+		publicar();
+	}
+
+	/**
+	 * Método que executa a jogada do jogador.
+	 * Retorna 'false' se a jogada não foi aceita.
+	 */
+	public synchronized boolean jogarJogador(final int posicao) {
+		if (!realizaJogada(posicao, VelhaIA.STATUS_SUA_VEZ_JOGAR)) {
+			return false;
+		}
+		velhaDominio.setSituacao(VelhaIA.STATUS_AGUARDE_SUA_VEZ);
+		publicar();
+		return true;
+	}
+
+	/**
+	 * Método que executa a jogada da maquina.
+	 * Retorna a posição jogada, ou -1 se não era a vez da maquina.
+	 */
+	public int jogarMaquina() {
+		final int posicao = calcularJogadaDaMaquina();
+		if (posicao < 0 || !jogarMaquina(posicao)) {
+			return -1;
+		}
+		return posicao;
+	}
+
+	/**
+	 * Método que calcula a jogada da maquina, sem executá-la, para que o cálculo possa ser
+	 * feito fora da thread que mostra a partida.
+	 * Retorna a posição escolhida, ou -1 se não é a vez da maquina.
+	 *
+	 * O tabuleiro, a dificudade, o modo e o estado dos sorteios são copiados no monitor da
+	 * partida, e a jogada é escolhida fora dele. Se a partida não mudou durante o cálculo, os
+	 * sorteios da partida continuam de onde o cálculo parou, assim a sequência é a mesma de
+	 * uma jogada escolhida pela própria partida, e a partida pode ser reproduzida.
+	 */
+	public int calcularJogadaDaMaquina() {
+		synchronized (velhaIADoCalculo) {
+			final long versaoDoCalculo;
+			synchronized (this) {
+				if (!isVezDaMaquina()) {
+					return -1;
+				}
+				velhaIADoCalculo.setTabuleiro(velhaIA.getCodigoDoTabuleiro(), velhaIA.getJogadorDaVez());
+				velhaIADoCalculo.setDificudade(velhaIA.getDificudade());
+				velhaIADoCalculo.setModoDeJogada(velhaIA.getModoDeJogada());
+				velhaIADoCalculo.getSorteio().setEstado(velhaIA.getSorteio().getSemente(),
+						velhaIA.getSorteio().getEstado());
+				versaoDoCalculo = versao;
+			}
+
+			final int posicao = velhaIADoCalculo.getJogada();
+
+			synchronized (this) {
+				if (versao == versaoDoCalculo) {
+					velhaIA.getSorteio().setEstado(velhaIADoCalculo.getSorteio().getSemente(),
+							velhaIADoCalculo.getSorteio().getEstado());
+				}
+			}
+			return posicao;
+		}
+	}
+
+	/**
+	 * Método que executa a jogada da maquina calculada por {@link #calcularJogadaDaMaquina()}.
+	 * Retorna 'false' se não era a vez da maquina ou se a posição não está livre.
+	 */
+	public synchronized boolean jogarMaquina(final int posicao) {
+		if (!isVezDaMaquina() || !realizaJogada(posicao, VelhaIA.STATUS_AGUARDE_SUA_VEZ)) {
+			return false;
+		}
+		velhaDominio.setSituacao(VelhaIA.STATUS_SUA_VEZ_JOGAR);
+		publicar();
+		return true;
+	}
+
+	/**
+	 * Método que verifica a situação do jogo, e retorna a situação atualizada.
+	 */
+	public synchronized String verificarSituacao() {
+		final String anterior = velhaDominio.getSituacao();
+		if (velhaIA.isEmpate()) {
+			velhaDominio.setSituacao(VelhaIA.STATUS_EMPATE);
+		} else if (velhaIA.isGanhador(VelhaIA.JOGADOR_X)) {
+			velhaDominio.setSituacao(VelhaIA.STATUS_VOCE_GANHOU);
+		} else if (velhaIA.isGanhador(VelhaIA.JOGADOR_O)) {
+			velhaDominio.setSituacao(VelhaIA.STATUS_VOCE_PERDEU);
+		}
+
+		if (iniciada && !finalizada && velhaIA.isFimDeJogo()) {
+			finalizada = true;
+			if (ouvinte != null) {
+				ouvinte.onFimDePartida(this);
+			}
+		}
+		if (!anterior.equals(velhaDominio.getSituacao())) {
+			publicar();
+		}
+		return velhaDominio.getSituacao();
+	}
+
+	/**
+	 * Método que publica o estado da partida no difusor, se houver.
+	 */
+	private void publicar() {
+		if (difusor != null) {
+			difusor.publicar(id, velhaIA.getCodigoDoTabuleiro(), velhaDominio.getSituacao(), jogadas,
+					quantidadeDeJogadas, velhaIA.isFimDeJogo());
+		}
+	}
+
+	/**
+	 * Método que realiza a jogada, se a posição estiver livre e a situação for a esperada.
+	 */
+	private boolean realizaJogada(final int posicao, final String situacaoEsperada) {
+		if (!iniciada
+				|| posicao < 0
+				|| posicao > 8
+				|| velhaIA.getPosicao(posicao) != VelhaIA.VAZIO
+				|| !situacaoEsperada.equals(velhaDominio.getSituacao())
+				|| velhaIA.isFimDeJogo()) {
+			return false;
+		}
+
+		velhaDominio.setId(velhaIA.getJogadorDaVez());
+		velhaIA.setPosicao(posicao, velhaDominio.getId());
+		jogadas |= (long) posicao << (4 * quantidadeDeJogadas);
+		quantidadeDeJogadas++;
+		versao++;
+		return true;
+	}
+
+	/**
+	 * Método que verifica se é a vez da maquina jogar.
+	 */
+	public synchronized boolean isVezDaMaquina() {
+		return iniciada
+				&& VelhaIA.STATUS_AGUARDE_SUA_VEZ.equals(velhaDominio.getSituacao())
+				&& !velhaIA.isFimDeJogo();
+	}
+
+	/**
+	 * Método que retorna o identificador da partida.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Método que retorna a semente dos sorteios da partida.
+	 */
+	public synchronized long getSemente() {
+		return semente;
+	}
+
+	/**
+	 * Método que mostra se a partida está iniciada ou não.
+	 */
+	public synchronized boolean isIniciada() {
+		return iniciada;
+	}
+
+	/**
+	 * Método que retorna a situação da partida.
+	 */
+	public synchronized String getSituacao() {
+		return velhaDominio.getSituacao();
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro.
+	 */
+	public synchronized char getPosicao(final int posicao) {
+		return velhaIA.getPosicao(posicao);
+	}
+
+	/**
+	 * Método que retorna o tabuleiro compactado em 18 bits:
+	 * as peças do jogador X nos bits 0 a 8 e as do jogador O nos bits 9 a 17.
+	 */
+	public synchronized int getCodigoDoTabuleiro() {
+		return velhaIA.getCodigoDoTabuleiro();
+	}
+
+	/**
+	 * Método que retorna as posições jogadas na partida, em ordem, 4 bits por jogada
+	 * (a jogada 'n' nos bits 4n a 4n+3).
+	 */
+	public synchronized long getJogadas() {
+		return jogadas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas da partida.
+	 */
+	public synchronized int getQuantidadeDeJogadas() {
+		return quantidadeDeJogadas;
+	}
+
+	/**
+	 * Método que retorna o ganhador da partida, ou 'vazio' se ninguém ganhou.
+	 */
+	public synchronized char getGanhador() {
+		return velhaIA.getGanhador();
+	}
+
+	/**
+	 * Método que preenche o objeto avisado quando a partida termina.
+	 */
+	public synchronized void setOuvinte(final OuvintePartida ouvinte) {
+		this.ouvinte = ouvinte;
+	}
+
+	/**
+	 * Método que preenche o difusor que publica os estados da partida para os espectadores,
+	 * e publica o estado atual.
+	 */
+	public synchronized void setDifusor(final DifusorDePartidas difusor) {
+		this.difusor = difusor;
+		if (iniciada) {
+			publicar();
+		}
+	}
+
+	/**
+	 * Método que verifica se o jogo acabou.
+	 */
+	public synchronized boolean isFimDeJogo() {
+		return velhaIA.isFimDeJogo();
+	}
+
+	/**
+	 * Método que retorna a posição ganhadora da partida,
+	 * ou retorna 'null' caso nenhum jogador tenha ganhado.
+	 */
+	public synchronized int[] getPosicoesGanhadoras() {
+		return velhaIA.getPosicoesGanhadoras();
+	}
+
+	/**
+	 * Método que retorna a dificudade da partida.
+	 */
+	public synchronized int getDificudade() {
+		return velhaIA.getDificudade();
+	}
+
+	/**
+	 * Método que preenche o modo usado pela maquina para escolher a jogada.
+	 */
+	public synchronized void setModoDeJogada(final ModoDeJogada modoDeJogada) {
+		velhaIA.setModoDeJogada(modoDeJogada);
+	}
+}
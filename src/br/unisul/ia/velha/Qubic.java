@@ -0,0 +1,716 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que implementa o Qubic, o Jogo da Velha em 3 dimensões: um cubo de 4 x 4 x 4
+ * posições, em que ganha quem completar 4 peças em uma das 76 linhas do cubo (linhas,
+ * colunas e diagonais de cada camada, as verticais entre as camadas e as diagonais que
+ * atravessam o cubo).
+ *
+ * A posição (camada, linha, coluna) é representada por '16 * camada + 4 * linha + coluna',
+ * e as peças de cada jogador ficam em um único 'long', com o bit 'n' na posição 'n'.
+ * As linhas ganhadoras são mascaras calculadas uma única vez, e as ameaças (linhas com 3
+ * peças de um jogador e nenhuma do oponente) são encontradas pela contagem de bits.
+ *
+ * A jogada é escolhida por uma busca alfa-beta com aprofundamento iterativo e
+ * {@link TabelaDeTransposicao}, limitada por profundidade e por tempo. A busca joga as
+ * vitórias imediatas, bloqueia sem gastar profundidade a única ameaça do oponente e
+ * reconhece como perdida a posição em que o oponente tem duas ameaças.
+ */
+public class Qubic {
+
+	/**
+	 * Quantidade de posições em cada direção do cubo.
+	 */
+	public static final int TAMANHO = 4;
+
+	/**
+	 * Quantidade de posições do cubo.
+	 */
+	public static final int POSICOES = TAMANHO * TAMANHO * TAMANHO;
+
+	/**
+	 * Pontuação de vitória, descontada da quantidade de jogadas até ela.
+	 */
+	private static final int VITORIA = 1_000_000;
+
+	/**
+	 * Pontuações acima desta são vitórias, e abaixo do negativo desta são derrotas.
+	 */
+	private static final int LIMITE_VITORIA = VITORIA - 1000;
+
+	/**
+	 * Pontuação maior que qualquer pontuação da busca.
+	 */
+	private static final int INFINITO = Integer.MAX_VALUE;
+
+	/**
+	 * Peso de uma linha com 'n' peças de um jogador e nenhuma do oponente.
+	 */
+	private static final int[] PESOS = { 0, 1, 8, 64, 0 };
+
+	/**
+	 * Mascaras das linhas ganhadoras.
+	 */
+	private static final long[] LINHAS = gerarLinhas();
+
+	/**
+	 * Mascaras das linhas ganhadoras que passam por cada posição.
+	 */
+	private static final long[][] LINHAS_DA_POSICAO = new long[POSICOES][];
+
+	/**
+	 * Semente das chaves Zobrist.
+	 */
+	private static final long SEMENTE = 0x0C0B_1C4A_5E3D_0064L;
+
+	/**
+	 * Chaves Zobrist de cada posição de cada jogador, e do jogador O na vez de jogar.
+	 */
+	private static final long[] CHAVES_X = new long[POSICOES];
+	private static final long[] CHAVES_O = new long[POSICOES];
+	private static final long CHAVE_VEZ_DO_O;
+
+	static {
+		for (int posicao = 0; posicao < POSICOES; posicao++) {
+			int quantidade = 0;
+			for (final long linha : LINHAS) {
+				if ((linha & (1L << posicao)) != 0) {
+					quantidade++;
+				}
+			}
+			LINHAS_DA_POSICAO[posicao] = new long[quantidade];
+			quantidade = 0;
+			for (final long linha : LINHAS) {
+				if ((linha & (1L << posicao)) != 0) {
+					LINHAS_DA_POSICAO[posicao][quantidade++] = linha;
+				}
+			}
+		}
+
+		final SorteioVelha sorteio = new SorteioVelha(SEMENTE);
+		for (int posicao = 0; posicao < POSICOES; posicao++) {
+			CHAVES_X[posicao] = sorteio.nextLong();
+			CHAVES_O[posicao] = sorteio.nextLong();
+		}
+		CHAVE_VEZ_DO_O = sorteio.nextLong();
+	}
+
+	/**
+	 * Peças do jogador X.
+	 */
+	private long bitsX;
+
+	/**
+	 * Peças do jogador O.
+	 */
+	private long bitsO;
+
+	/**
+	 * Jogador da rodada.
+	 */
+	private char jogadorDaVez = VelhaIA.JOGADOR_X;
+
+	/**
+	 * Chave Zobrist das peças, atualizada a cada jogada.
+	 */
+	private long chave;
+
+	/**
+	 * Tabela de transposição da busca.
+	 */
+	private TabelaDeTransposicao tabelaDeTransposicao = new TabelaDeTransposicao(32);
+
+	/**
+	 * Profundidade máxima da busca.
+	 */
+	private int profundidadeMaxima = POSICOES;
+
+	/**
+	 * Tempo máximo da busca, em milisegundos.
+	 */
+	private long tempoLimite = 1000;
+
+	/**
+	 * Jogadas e pontuações de cada nível da busca, alocadas uma única vez.
+	 */
+	private final int[][] jogadasDoNivel = new int[POSICOES + 1][POSICOES];
+	private final int[][] pontuacoesDoNivel = new int[POSICOES + 1][POSICOES];
+
+	/**
+	 * Instante, em nanosegundos, em que a busca atual deve terminar.
+	 */
+	private long prazo;
+
+	/**
+	 * Posições visitadas na última busca.
+	 */
+	private long nos;
+
+	/**
+	 * Maior profundidade completada na última busca.
+	 */
+	private int profundidadeAlcancada;
+
+	/**
+	 * Mostra se a busca atual foi interrompida pelo tempo.
+	 */
+	private boolean interrompida;
+
+	/**
+	 * Método que gera as mascaras das 76 linhas ganhadoras do cubo: as linhas que começam em
+	 * uma face do cubo e seguem em uma das 13 direções até a face oposta.
+	 */
+	private static long[] gerarLinhas() {
+		final long[] linhas = new long[76];
+		int quantidade = 0;
+		for (int direcaoZ = 0; direcaoZ <= 1; direcaoZ++) {
+			for (int direcaoY = -1; direcaoY <= 1; direcaoY++) {
+				for (int direcaoX = -1; direcaoX <= 1; direcaoX++) {
+
+					/**
+					 * Só uma das duas direções opostas, para não repetir as linhas.
+					 */
+					if (direcaoZ == 0 && (direcaoY < 0 || (direcaoY == 0 && direcaoX <= 0))) {
+						continue;
+					}
+
+					for (int posicao = 0; posicao < POSICOES; posicao++) {
+						final long linha = getLinha(posicao / 16, (posicao / 4) % 4, posicao % 4, direcaoZ, direcaoY,
+								direcaoX);
+						if (linha != 0) {
+							linhas[quantidade++] = linha;
+						}
+					}
+				}
+			}
+		}
+		return linhas;
+	}
+
+	/**
+	 * Método que retorna a mascara da linha que começa na posição e segue na direção,
+	 * ou 0 se ela não cabe no cubo ou não começa em uma face.
+	 */
+	private static long getLinha(final int camada, final int linha, final int coluna, final int direcaoZ,
+			final int direcaoY, final int direcaoX) {
+		if (isDentro(camada - direcaoZ, linha - direcaoY, coluna - direcaoX)) {
+			return 0;
+		}
+		long mascara = 0;
+		for (int passo = 0; passo < TAMANHO; passo++) {
+			final int z = camada + passo * direcaoZ;
+			final int y = linha + passo * direcaoY;
+			final int x = coluna + passo * direcaoX;
+			if (!isDentro(z, y, x)) {
+				return 0;
+			}
+			mascara |= 1L << (16 * z + 4 * y + x);
+		}
+		return mascara;
+	}
+
+	/**
+	 * Método que verifica se as coordenadas estão dentro do cubo.
+	 */
+	private static boolean isDentro(final int camada, final int linha, final int coluna) {
+		return camada >= 0 && camada < TAMANHO && linha >= 0 && linha < TAMANHO && coluna >= 0 && coluna < TAMANHO;
+	}
+
+	/**
+	 * Método que retorna a quantidade de linhas ganhadoras do cubo.
+	 */
+	public static int getQuantidadeDeLinhas() {
+		return LINHAS.length;
+	}
+
+	/**
+	 * Método que limpa o tabuleiro.
+	 */
+	public void limparTabuleiro() {
+		bitsX = 0;
+		bitsO = 0;
+		chave = 0;
+		jogadorDaVez = VelhaIA.JOGADOR_X;
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro.
+	 */
+	public char getPosicao(final int posicao) {
+		final long bit = 1L << posicao;
+		if ((bitsX & bit) != 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if ((bitsO & bit) != 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro, pela camada, linha e coluna.
+	 */
+	public char getPosicao(final int camada, final int linha, final int coluna) {
+		return getPosicao(16 * camada + 4 * linha + coluna);
+	}
+
+	/**
+	 * Método que preenche a posição do jogador no tabuleiro e passa a vez para o oponente.
+	 * Com 'vazio', desfaz a jogada da posição e devolve a vez para quem a fez.
+	 */
+	public void setPosicao(final int posicao, final char jogador) {
+		final long bit = 1L << posicao;
+		final char anterior = getPosicao(posicao);
+		if (anterior == VelhaIA.JOGADOR_X) {
+			bitsX &= ~bit;
+			chave ^= CHAVES_X[posicao];
+		} else if (anterior == VelhaIA.JOGADOR_O) {
+			bitsO &= ~bit;
+			chave ^= CHAVES_O[posicao];
+		}
+
+		if (jogador == VelhaIA.JOGADOR_X) {
+			bitsX |= bit;
+			chave ^= CHAVES_X[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_O;
+		} else if (jogador == VelhaIA.JOGADOR_O) {
+			bitsO |= bit;
+			chave ^= CHAVES_O[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_X;
+		} else if (anterior != VelhaIA.VAZIO) {
+			jogadorDaVez = anterior;
+		}
+	}
+
+	/**
+	 * Método que retorna a mascara das peças do jogador.
+	 */
+	public long getBits(final char jogador) {
+		return jogador == VelhaIA.JOGADOR_X ? bitsX : bitsO;
+	}
+
+	/**
+	 * Método que retorna o jogador da rodada.
+	 */
+	public char getJogadorDaVez() {
+		return jogadorDaVez;
+	}
+
+	/**
+	 * Método que retorna a mascara das posições livres que completam uma linha do jogador:
+	 * as linhas com 3 peças do jogador e nenhuma do oponente.
+	 */
+	public long getPosicoesDeAmeaca(final char jogador) {
+		return jogador == VelhaIA.JOGADOR_X ? getAmeacas(bitsX, bitsO) : getAmeacas(bitsO, bitsX);
+	}
+
+	/**
+	 * Método que retorna a mascara das posições que completam uma linha das peças,
+	 * nas linhas sem nenhuma peça do oponente.
+	 */
+	private static long getAmeacas(final long pecas, final long pecasDoOponente) {
+		long ameacas = 0;
+		for (final long linha : LINHAS) {
+			if ((linha & pecasDoOponente) == 0 && Long.bitCount(linha & pecas) == TAMANHO - 1) {
+				ameacas |= linha & ~pecas;
+			}
+		}
+		return ameacas;
+	}
+
+	/**
+	 * Método que retorna a linha completa das peças, ou 0 se não há.
+	 */
+	private static long getLinhaCompleta(final long pecas) {
+		for (final long linha : LINHAS) {
+			if ((linha & pecas) == linha) {
+				return linha;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Método que retorna o ganhador do jogo, ou 'vazio' se ainda não há.
+	 */
+	public char getGanhador() {
+		if (getLinhaCompleta(bitsX) != 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if (getLinhaCompleta(bitsO) != 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna as 4 posições da linha ganhadora, ou 'null' se ainda não há ganhador.
+	 */
+	public int[] getPosicoesGanhadoras() {
+		long linha = getLinhaCompleta(bitsX);
+		if (linha == 0) {
+			linha = getLinhaCompleta(bitsO);
+		}
+		if (linha == 0) {
+			return null;
+		}
+
+		final int[] posicoes = new int[TAMANHO];
+		for (int indice = 0; indice < TAMANHO; indice++) {
+			posicoes[indice] = Long.numberOfTrailingZeros(linha);
+			linha &= linha - 1;
+		}
+		return posicoes;
+	}
+
+	/**
+	 * Método que verifica se todas as posições estão preenchidas.
+	 */
+	public boolean isCheio() {
+		return (bitsX | bitsO) == -1L;
+	}
+
+	/**
+	 * Método que verifica se o jogo acabou, com ganhador ou com o tabuleiro cheio.
+	 */
+	public boolean isFimDeJogo() {
+		return isCheio() || getGanhador() != VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna a melhor jogada encontrada para o jogador da rodada,
+	 * ou -1 se o jogo já acabou.
+	 */
+	public int getJogada() {
+		if (isFimDeJogo()) {
+			return -1;
+		}
+
+		final long inicio = System.nanoTime();
+		prazo = inicio + tempoLimite * 1_000_000L;
+		nos = 0;
+		profundidadeAlcancada = 0;
+		interrompida = false;
+		tabelaDeTransposicao.novaBusca();
+
+		final boolean vezDoX = jogadorDaVez == VelhaIA.JOGADOR_X;
+		final long pecas = vezDoX ? bitsX : bitsO;
+		final long pecasDoOponente = vezDoX ? bitsO : bitsX;
+
+		/**
+		 * Vitória imediata, ou bloqueio da única ameaça do oponente.
+		 */
+		final long ameacas = getAmeacas(pecas, pecasDoOponente);
+		if (ameacas != 0) {
+			return Long.numberOfTrailingZeros(ameacas);
+		}
+		final long ameacasDoOponente = getAmeacas(pecasDoOponente, pecas);
+		if (Long.bitCount(ameacasDoOponente) == 1) {
+			return Long.numberOfTrailingZeros(ameacasDoOponente);
+		}
+
+		final int[] jogadas = jogadasDoNivel[0];
+		final int quantidade = gerarJogadas(jogadas, pontuacoesDoNivel[0], pecas, pecasDoOponente, -1);
+		int melhorJogada = jogadas[0];
+
+		for (int profundidade = 1; profundidade <= profundidadeMaxima; profundidade++) {
+			int alfa = -INFINITO;
+			int melhorDaIteracao = -1;
+
+			for (int indice = 0; indice < quantidade; indice++) {
+				final int jogada = jogadas[indice];
+				fazer(jogada, vezDoX);
+				final int pontuacao = -buscar(profundidade - 1, -INFINITO, -alfa, 1);
+				desfazer(jogada, vezDoX);
+
+				if (interrompida) {
+					break;
+				}
+				if (pontuacao > alfa) {
+					alfa = pontuacao;
+					melhorDaIteracao = indice;
+				}
+			}
+
+			if (interrompida || melhorDaIteracao < 0) {
+				break;
+			}
+
+			/**
+			 * A melhor jogada da iteração é a primeira a ser buscada na próxima.
+			 */
+			melhorJogada = jogadas[melhorDaIteracao];
+			System.arraycopy(jogadas, 0, jogadas, 1, melhorDaIteracao);
+			jogadas[0] = melhorJogada;
+			profundidadeAlcancada = profundidade;
+
+			if (Math.abs(alfa) > LIMITE_VITORIA || profundidade >= quantidade) {
+				break;
+			}
+		}
+
+		return melhorJogada;
+	}
+
+	/**
+	 * Método que faz a jogada na busca, sem verificar a posição.
+	 */
+	private void fazer(final int posicao, final boolean vezDoX) {
+		if (vezDoX) {
+			bitsX |= 1L << posicao;
+			chave ^= CHAVES_X[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_O;
+		} else {
+			bitsO |= 1L << posicao;
+			chave ^= CHAVES_O[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_X;
+		}
+	}
+
+	/**
+	 * Método que desfaz a jogada feita por {@link #fazer(int, boolean)}.
+	 */
+	private void desfazer(final int posicao, final boolean vezDoX) {
+		if (vezDoX) {
+			bitsX &= ~(1L << posicao);
+			chave ^= CHAVES_X[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_X;
+		} else {
+			bitsO &= ~(1L << posicao);
+			chave ^= CHAVES_O[posicao];
+			jogadorDaVez = VelhaIA.JOGADOR_O;
+		}
+	}
+
+	/**
+	 * Método que faz a busca alfa-beta (negamax) e retorna a pontuação do ponto de vista do
+	 * jogador da vez. O jogador que acabou de jogar nunca completou uma linha, porque as
+	 * vitórias imediatas são encontradas pelas ameaças antes de cada jogada.
+	 */
+	private int buscar(final int profundidade, int alfa, int beta, final int nivel) {
+		if ((++nos & 1023) == 0 && System.nanoTime() > prazo) {
+			interrompida = true;
+		}
+		if (interrompida) {
+			return 0;
+		}
+
+		final boolean vezDoX = jogadorDaVez == VelhaIA.JOGADOR_X;
+		final long pecas = vezDoX ? bitsX : bitsO;
+		final long pecasDoOponente = vezDoX ? bitsO : bitsX;
+		if ((pecas | pecasDoOponente) == -1L) {
+			return 0;
+		}
+
+		if (getAmeacas(pecas, pecasDoOponente) != 0) {
+			return VITORIA - (nivel + 1);
+		}
+		final long ameacasDoOponente = getAmeacas(pecasDoOponente, pecas);
+		final int quantidadeDeAmeacas = Long.bitCount(ameacasDoOponente);
+		if (quantidadeDeAmeacas >= 2) {
+			return -(VITORIA - (nivel + 2));
+		}
+
+		/**
+		 * O bloqueio da única ameaça do oponente é forçado, e não gasta profundidade.
+		 */
+		if (quantidadeDeAmeacas == 1) {
+			final int bloqueio = Long.numberOfTrailingZeros(ameacasDoOponente);
+			fazer(bloqueio, vezDoX);
+			final int pontuacao = -buscar(profundidade, -beta, -alfa, nivel + 1);
+			desfazer(bloqueio, vezDoX);
+			return pontuacao;
+		}
+
+		if (profundidade <= 0) {
+			return avaliar(pecas, pecasDoOponente);
+		}
+
+		final long chaveDaPosicao = vezDoX ? chave : chave ^ CHAVE_VEZ_DO_O;
+		final long dados = tabelaDeTransposicao.consultar(chaveDaPosicao);
+		int jogadaDaTabela = -1;
+		if (dados != TabelaDeTransposicao.NAO_ENCONTRADO) {
+			jogadaDaTabela = TabelaDeTransposicao.getJogada(dados);
+			if (TabelaDeTransposicao.getProfundidade(dados) >= profundidade) {
+				final int pontuacao = paraNivel(TabelaDeTransposicao.getPontuacao(dados), nivel);
+				final int tipo = TabelaDeTransposicao.getTipo(dados);
+				if (tipo == TabelaDeTransposicao.EXATO
+						|| (tipo == TabelaDeTransposicao.LIMITE_INFERIOR && pontuacao >= beta)
+						|| (tipo == TabelaDeTransposicao.LIMITE_SUPERIOR && pontuacao <= alfa)) {
+					return pontuacao;
+				}
+			}
+		}
+
+		final int[] jogadas = jogadasDoNivel[nivel];
+		final int quantidade = gerarJogadas(jogadas, pontuacoesDoNivel[nivel], pecas, pecasDoOponente, jogadaDaTabela);
+
+		final int alfaOriginal = alfa;
+		int melhor = -INFINITO;
+		int melhorJogada = -1;
+		for (int indice = 0; indice < quantidade; indice++) {
+			final int jogada = jogadas[indice];
+			fazer(jogada, vezDoX);
+			final int pontuacao = -buscar(profundidade - 1, -beta, -alfa, nivel + 1);
+			desfazer(jogada, vezDoX);
+
+			if (interrompida) {
+				return 0;
+			}
+			if (pontuacao > melhor) {
+				melhor = pontuacao;
+				melhorJogada = jogada;
+			}
+			if (pontuacao > alfa) {
+				alfa = pontuacao;
+			}
+			if (alfa >= beta) {
+				break;
+			}
+		}
+
+		final int tipo = melhor <= alfaOriginal ? TabelaDeTransposicao.LIMITE_SUPERIOR
+				: melhor >= beta ? TabelaDeTransposicao.LIMITE_INFERIOR : TabelaDeTransposicao.EXATO;
+		tabelaDeTransposicao.guardar(chaveDaPosicao, deNivel(melhor, nivel), tipo, profundidade, melhorJogada);
+		return melhor;
+	}
+
+	/**
+	 * Método que avalia o tabuleiro do ponto de vista do dono das peças: a soma dos
+	 * {@link #PESOS} das linhas de cada jogador sem nenhuma peça do oponente.
+	 */
+	private static int avaliar(final long pecas, final long pecasDoOponente) {
+		int avaliacao = 0;
+		for (final long linha : LINHAS) {
+			final long minhas = linha & pecas;
+			final long doOponente = linha & pecasDoOponente;
+			if (doOponente == 0) {
+				avaliacao += PESOS[Long.bitCount(minhas)];
+			} else if (minhas == 0) {
+				avaliacao -= PESOS[Long.bitCount(doOponente)];
+			}
+		}
+		return avaliacao;
+	}
+
+	/**
+	 * Método que preenche o vetor com as posições livres, ordenadas da melhor para a pior,
+	 * e retorna a quantidade. Primeiro a jogada da tabela de transposição, depois as que criam
+	 * ameaças, as que bloqueiam linhas do oponente e as que passam por mais linhas abertas.
+	 */
+	private static int gerarJogadas(final int[] jogadas, final int[] pontuacoes, final long pecas,
+			final long pecasDoOponente, final int jogadaDaTabela) {
+		int quantidade = 0;
+		for (long livres = ~(pecas | pecasDoOponente); livres != 0; livres &= livres - 1) {
+			final int posicao = Long.numberOfTrailingZeros(livres);
+			int pontuacao = posicao == jogadaDaTabela ? 1 << 20 : 0;
+			for (final long linha : LINHAS_DA_POSICAO[posicao]) {
+				final long minhas = linha & pecas;
+				final long doOponente = linha & pecasDoOponente;
+				if (doOponente == 0) {
+					pontuacao += 1 + PESOS[Long.bitCount(minhas) + 1];
+				} else if (minhas == 0) {
+					pontuacao += 1 + PESOS[Long.bitCount(doOponente)];
+				}
+			}
+
+			/**
+			 * Ordenação por inserção, do maior para o menor.
+			 */
+			int anterior = quantidade - 1;
+			while (anterior >= 0 && pontuacoes[anterior] < pontuacao) {
+				jogadas[anterior + 1] = jogadas[anterior];
+				pontuacoes[anterior + 1] = pontuacoes[anterior];
+				anterior--;
+			}
+			jogadas[anterior + 1] = posicao;
+			pontuacoes[anterior + 1] = pontuacao;
+			quantidade++;
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que converte uma pontuação de vitória do nível atual para a distancia da posição
+	 * guardada na tabela, que pode ser encontrada em outros níveis.
+	 */
+	private static int deNivel(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que converte uma pontuação de vitória guardada na tabela para o nível atual.
+	 */
+	private static int paraNivel(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que retorna a quantidade de posições visitadas na última busca.
+	 */
+	public long getNos() {
+		return nos;
+	}
+
+	/**
+	 * Método que retorna a maior profundidade completada na última busca.
+	 */
+	public int getProfundidadeAlcancada() {
+		return profundidadeAlcancada;
+	}
+
+	/**
+	 * Método que retorna a tabela de transposição usada na busca.
+	 */
+	public TabelaDeTransposicao getTabelaDeTransposicao() {
+		return tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que preenche a tabela de transposição usada na busca.
+	 * Uma tabela só deve ser compartilhada entre partidas de Qubic.
+	 */
+	public void setTabelaDeTransposicao(final TabelaDeTransposicao tabelaDeTransposicao) {
+		this.tabelaDeTransposicao = tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que retorna a profundidade máxima da busca.
+	 */
+	public int getProfundidadeMaxima() {
+		return profundidadeMaxima;
+	}
+
+	/**
+	 * Método que preenche a profundidade máxima da busca.
+	 */
+	public void setProfundidadeMaxima(final int profundidadeMaxima) {
+		this.profundidadeMaxima = Math.max(1, Math.min(profundidadeMaxima, POSICOES));
+	}
+
+	/**
+	 * Método que retorna o tempo máximo da busca, em milisegundos.
+	 */
+	public long getTempoLimite() {
+		return tempoLimite;
+	}
+
+	/**
+	 * Método que preenche o tempo máximo da busca, em milisegundos.
+	 */
+	public void setTempoLimite(final long tempoLimite) {
+		this.tempoLimite = tempoLimite;
+	}
+}
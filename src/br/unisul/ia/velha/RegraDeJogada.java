@@ -0,0 +1,68 @@
+package br.unisul.ia.velha;
+
+/**
+ * Regras que a {@link VelhaIA} pode usar para escolher uma jogada, na ordem da "Jogada Perfeita".
+ */
+public enum RegraDeJogada {
+
+	/**
+	 * Jogada consultada no {@link LivroDeAberturas}.
+	 */
+	LIVRO,
+
+	/**
+	 * Jogada consultada na {@link TabelaDeJogadas}.
+	 */
+	TABELA,
+
+	/**
+	 * Jogada escolhida pela {@link BuscaMonteCarlo}.
+	 */
+	MONTE_CARLO,
+
+	/**
+	 * Ganhar: completa uma linha com duas peças do jogador.
+	 */
+	VITORIA,
+
+	/**
+	 * Bloquear: completa uma linha com duas peças do oponente.
+	 */
+	BLOQUEIO,
+
+	/**
+	 * Abertura sorteada em um canto, com o tabuleiro vazio.
+	 */
+	CANTO_DE_ABERTURA,
+
+	/**
+	 * Triângulo: cria duas possibilidades de ganhar.
+	 */
+	TRIANGULO,
+
+	/**
+	 * Bloqueia o triângulo do oponente.
+	 */
+	BLOQUEIO_DE_TRIANGULO,
+
+	/**
+	 * Joga no centro.
+	 */
+	CENTRO,
+
+	/**
+	 * Joga em um canto vazio.
+	 */
+	CANTO,
+
+	/**
+	 * Joga em uma borda vazia.
+	 */
+	BORDA,
+
+	/**
+	 * Nenhuma regra encontrou jogada: o tabuleiro está cheio.
+	 */
+	NENHUMA
+
+}
@@ -0,0 +1,380 @@
+package br.unisul.ia.velha;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Solucionador que calcula o valor exato e a distancia até o fim de todas as posições
+ * alcançáveis a partir do tabuleiro vazio de um Jogo da Velha generalizado pequeno
+ * (ver {@link VelhaMNK}), e grava o resultado em uma {@link TabelaDeValores}.
+ *
+ * O cálculo é feito nível a nível, pela quantidade de peças no tabuleiro. Primeiro as posições
+ * de cada nível são geradas a partir das posições do nível anterior, e as posições finais (com
+ * uma linha completa ou com o tabuleiro cheio) recebem o seu valor. Depois, do último nível
+ * para o primeiro, cada posição recebe o valor calculado a partir das posições seguintes, que
+ * já são conhecidas. As posições de um nível são divididas entre as tarefas de um
+ * {@link ForkJoinPool}, nos dois sentidos.
+ *
+ * A tabela tem um byte para cada indice na base 3 do tabuleiro, por isso o tabuleiro
+ * pode ter no máximo {@value #MAXIMO_DE_POSICOES} posições.
+ *
+ * Uso: SolucionadorRetrogrado linhas colunas sequencia arquivo [threads]
+ */
+public class SolucionadorRetrogrado {
+
+	/**
+	 * Quantidade máxima de posições do tabuleiro (3 elevado a 16 bytes na tabela).
+	 */
+	public static final int MAXIMO_DE_POSICOES = 16;
+
+	/**
+	 * Quantidade de posições de um nível tratadas por uma tarefa, sem dividir.
+	 */
+	private static final int POSICOES_POR_TAREFA = 1 << 12;
+
+	/**
+	 * Marca temporária das posições alcançadas que ainda não têm valor.
+	 */
+	private static final byte ALCANCADA = TabelaDeValores.codificar(TabelaDeValores.NAO_ALCANCAVEL, 63);
+
+	/**
+	 * Acesso atômico aos bytes da tabela, para que só uma tarefa guarde cada posição alcançada.
+	 */
+	private static final VarHandle VALORES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+	/**
+	 * Dimensões do tabuleiro.
+	 */
+	private final int linhas;
+	private final int colunas;
+	private final int sequencia;
+	private final int posicoes;
+
+	/**
+	 * Mascaras das linhas ganhadoras que passam por cada posição.
+	 */
+	private final long[][] linhasDaPosicao;
+
+	/**
+	 * Potências de 3 de cada posição.
+	 */
+	private final int[] potencias;
+
+	/**
+	 * Pool que executa as tarefas.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Byte de cada indice do tabuleiro (ver {@link TabelaDeValores}).
+	 */
+	private byte[] valores;
+
+	/**
+	 * Quantidade de posições alcançáveis encontradas por nível.
+	 */
+	private final long[] posicoesPorNivel;
+
+	/**
+	 * Construtor da classe, com o pool especificado.
+	 */
+	public SolucionadorRetrogrado(final int linhas, final int colunas, final int sequencia, final ForkJoinPool pool) {
+		if (linhas < 1 || colunas < 1 || linhas * colunas > MAXIMO_DE_POSICOES) {
+			throw new IllegalArgumentException("Tabuleiro com mais de " + MAXIMO_DE_POSICOES + " posições: " + linhas
+					+ "x" + colunas);
+		}
+
+		this.linhas = linhas;
+		this.colunas = colunas;
+		this.sequencia = sequencia;
+		this.posicoes = linhas * colunas;
+		this.potencias = TabelaDeValores.gerarPotencias(posicoes);
+		this.pool = pool;
+		this.posicoesPorNivel = new long[posicoes + 1];
+
+		final int[][] linhasGanhadoras = VelhaMNK.gerarLinhas(linhas, colunas, sequencia);
+		final int[][] indicesDaPosicao = VelhaMNK.gerarLinhasDaPosicao(linhasGanhadoras, posicoes);
+		this.linhasDaPosicao = new long[posicoes][];
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			linhasDaPosicao[posicao] = new long[indicesDaPosicao[posicao].length];
+			for (int indice = 0; indice < indicesDaPosicao[posicao].length; indice++) {
+				for (final int posicaoDaLinha : linhasGanhadoras[indicesDaPosicao[posicao][indice]]) {
+					linhasDaPosicao[posicao][indice] |= 1L << posicaoDaLinha;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Método que calcula o valor de todas as posições alcançáveis e retorna a tabela.
+	 * Cada posição do nível é guardada com as peças de cada jogador em um 'long':
+	 * as do 'X' nos 32 bits mais altos e as do 'O' nos 32 mais baixos.
+	 */
+	public TabelaDeValores resolver() {
+		valores = new byte[TabelaDeValores.getQuantidadeDeIndices(posicoes)];
+		final long[][] niveis = new long[posicoes + 1][];
+
+		niveis[0] = new long[] { 0 };
+		valores[0] = ALCANCADA;
+		posicoesPorNivel[0] = 1;
+		for (int nivel = 0; nivel < posicoes; nivel++) {
+			niveis[nivel + 1] = pool.invoke(new GeracaoDoNivel(niveis[nivel], nivel, 0, niveis[nivel].length));
+		}
+
+		for (int nivel = posicoes - 1; nivel >= 0; nivel--) {
+			pool.invoke(new AvaliacaoDoNivel(niveis[nivel], nivel, 0, niveis[nivel].length));
+			niveis[nivel + 1] = null;
+		}
+
+		return new TabelaDeValores(linhas, colunas, sequencia, ByteBuffer.wrap(valores).asReadOnlyBuffer());
+	}
+
+	/**
+	 * Tarefa que gera as posições seguintes de um intervalo das posições de um nível, e
+	 * retorna as que ainda não acabaram. As posições seguintes já alcançadas por outra
+	 * posição do nível são ignoradas.
+	 */
+	private final class GeracaoDoNivel extends RecursiveTask<long[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient long[] nivel;
+		private final int numeroDoNivel;
+		private final int inicio;
+		private final int fim;
+
+		private GeracaoDoNivel(final long[] nivel, final int numeroDoNivel, final int inicio, final int fim) {
+			this.nivel = nivel;
+			this.numeroDoNivel = numeroDoNivel;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (fim - inicio > POSICOES_POR_TAREFA) {
+				final int meio = (inicio + fim) >>> 1;
+				final GeracaoDoNivel primeiraMetade = new GeracaoDoNivel(nivel, numeroDoNivel, inicio, meio);
+				primeiraMetade.fork();
+				final long[] segundaMetade = new GeracaoDoNivel(nivel, numeroDoNivel, meio, fim).compute();
+				final long[] primeira = primeiraMetade.join();
+
+				final long[] juntas = new long[primeira.length + segundaMetade.length];
+				System.arraycopy(primeira, 0, juntas, 0, primeira.length);
+				System.arraycopy(segundaMetade, 0, juntas, primeira.length, segundaMetade.length);
+				return juntas;
+			}
+
+			final boolean vezDoX = (numeroDoNivel & 1) == 0;
+			final int peca = vezDoX ? 1 : 2;
+			final long tabuleiroCheio = (1L << posicoes) - 1;
+			long[] seguintes = new long[Math.max(16, (fim - inicio) * 2)];
+			int quantidade = 0;
+			long alcancadas = 0;
+			long finais = 0;
+
+			for (int indiceNoNivel = inicio; indiceNoNivel < fim; indiceNoNivel++) {
+				final long bitsX = nivel[indiceNoNivel] >>> 32;
+				final long bitsO = nivel[indiceNoNivel] & 0xFFFFFFFFL;
+				final int indice = TabelaDeValores.getIndice(potencias, bitsX, bitsO);
+
+				for (long livres = tabuleiroCheio & ~(bitsX | bitsO); livres != 0; livres &= livres - 1) {
+					final int posicao = Long.numberOfTrailingZeros(livres);
+					final long bit = 1L << posicao;
+					final long novoX = vezDoX ? bitsX | bit : bitsX;
+					final long novoO = vezDoX ? bitsO : bitsO | bit;
+
+					/**
+					 * Posição final: quem acabou de jogar ganhou, ou o tabuleiro encheu.
+					 */
+					final byte codigo;
+					if (isLinhaCompleta(vezDoX ? novoX : novoO, posicao)) {
+						codigo = TabelaDeValores.codificar(TabelaDeValores.DERROTA, 0);
+					} else if ((novoX | novoO) == tabuleiroCheio) {
+						codigo = TabelaDeValores.codificar(TabelaDeValores.EMPATE, 0);
+					} else {
+						codigo = ALCANCADA;
+					}
+
+					final int indiceSeguinte = indice + peca * potencias[posicao];
+					if (!VALORES.compareAndSet(valores, indiceSeguinte, (byte) 0, codigo)) {
+						continue;
+					}
+					alcancadas++;
+					if (codigo != ALCANCADA) {
+						finais++;
+						continue;
+					}
+
+					if (quantidade == seguintes.length) {
+						final long[] maior = new long[quantidade * 2];
+						System.arraycopy(seguintes, 0, maior, 0, quantidade);
+						seguintes = maior;
+					}
+					seguintes[quantidade++] = novoX << 32 | novoO;
+				}
+			}
+
+			synchronized (posicoesPorNivel) {
+				posicoesPorNivel[numeroDoNivel + 1] += alcancadas;
+			}
+
+			final long[] resultado = new long[quantidade];
+			System.arraycopy(seguintes, 0, resultado, 0, quantidade);
+			return resultado;
+		}
+	}
+
+	/**
+	 * Tarefa que calcula o valor de um intervalo das posições de um nível, a partir dos
+	 * valores das posições seguintes, do nível de baixo.
+	 */
+	private final class AvaliacaoDoNivel extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient long[] nivel;
+		private final int numeroDoNivel;
+		private final int inicio;
+		private final int fim;
+
+		private AvaliacaoDoNivel(final long[] nivel, final int numeroDoNivel, final int inicio, final int fim) {
+			this.nivel = nivel;
+			this.numeroDoNivel = numeroDoNivel;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected void compute() {
+			if (fim - inicio > POSICOES_POR_TAREFA) {
+				final int meio = (inicio + fim) >>> 1;
+				invokeAll(new AvaliacaoDoNivel(nivel, numeroDoNivel, inicio, meio),
+						new AvaliacaoDoNivel(nivel, numeroDoNivel, meio, fim));
+				return;
+			}
+
+			final int peca = (numeroDoNivel & 1) == 0 ? 1 : 2;
+			final long tabuleiroCheio = (1L << posicoes) - 1;
+			for (int indiceNoNivel = inicio; indiceNoNivel < fim; indiceNoNivel++) {
+				final long bitsX = nivel[indiceNoNivel] >>> 32;
+				final long bitsO = nivel[indiceNoNivel] & 0xFFFFFFFFL;
+				final int indice = TabelaDeValores.getIndice(potencias, bitsX, bitsO);
+
+				/**
+				 * O valor de cada posição seguinte é para o oponente: o jogador da vez ganha se
+				 * alguma jogada deixa o oponente perdido, e perde se todas o deixam ganhando.
+				 */
+				boolean ganha = false;
+				boolean empata = false;
+				int menorDistanciaDaVitoria = Integer.MAX_VALUE;
+				int maiorDistanciaDaDerrota = 0;
+				for (long livres = tabuleiroCheio & ~(bitsX | bitsO); livres != 0; livres &= livres - 1) {
+					final byte seguinte = valores[indice + peca * potencias[Long.numberOfTrailingZeros(livres)]];
+					final int distancia = TabelaDeValores.getDistancia(seguinte);
+					switch (TabelaDeValores.getValor(seguinte)) {
+					case TabelaDeValores.DERROTA:
+						ganha = true;
+						menorDistanciaDaVitoria = Math.min(menorDistanciaDaVitoria, distancia);
+						break;
+					case TabelaDeValores.EMPATE:
+						empata = true;
+						break;
+					default:
+						maiorDistanciaDaDerrota = Math.max(maiorDistanciaDaDerrota, distancia);
+						break;
+					}
+				}
+
+				if (ganha) {
+					valores[indice] = TabelaDeValores.codificar(TabelaDeValores.VITORIA, menorDistanciaDaVitoria + 1);
+				} else if (empata) {
+					valores[indice] = TabelaDeValores.codificar(TabelaDeValores.EMPATE, posicoes - numeroDoNivel);
+				} else {
+					valores[indice] = TabelaDeValores.codificar(TabelaDeValores.DERROTA, maiorDistanciaDaDerrota + 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Método que verifica se as peças completam uma das linhas da posição.
+	 */
+	private boolean isLinhaCompleta(final long bits, final int posicao) {
+		for (final long linha : linhasDaPosicao[posicao]) {
+			if ((bits & linha) == linha) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Método que grava a tabela calculada por {@link #resolver()} no arquivo,
+	 * no formato lido por {@link TabelaDeValores#abrir(Path)}.
+	 */
+	public void gravar(final Path arquivo) throws IOException {
+		if (valores == null) {
+			throw new IllegalStateException("A tabela ainda não foi calculada");
+		}
+
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer cabecalho = ByteBuffer.allocate(TabelaDeValores.TAMANHO_DO_CABECALHO);
+			cabecalho.putInt(TabelaDeValores.MARCA).putInt(linhas).putInt(colunas).putInt(sequencia).flip();
+			final ByteBuffer corpo = ByteBuffer.wrap(valores);
+			while (cabecalho.hasRemaining() || corpo.hasRemaining()) {
+				canal.write(new ByteBuffer[] { cabecalho, corpo });
+			}
+		}
+	}
+
+	/**
+	 * Método que retorna a quantidade de posições alcançáveis com a quantidade de peças.
+	 */
+	public long getPosicoesAlcancaveis(final int pecas) {
+		return posicoesPorNivel[pecas];
+	}
+
+	/**
+	 * Método que calcula a tabela do tabuleiro, grava no arquivo e mostra o resumo.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 4) {
+			System.out.println("Uso: SolucionadorRetrogrado linhas colunas sequencia arquivo [threads]");
+			return;
+		}
+		final int linhas = Integer.parseInt(args[0]);
+		final int colunas = Integer.parseInt(args[1]);
+		final int sequencia = Integer.parseInt(args[2]);
+		final Path arquivo = Paths.get(args[3]);
+		final int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+		final long inicio = System.nanoTime();
+		final SolucionadorRetrogrado solucionador = new SolucionadorRetrogrado(linhas, colunas, sequencia,
+				new ForkJoinPool(threads));
+		final TabelaDeValores tabela = solucionador.resolver();
+		final long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+		solucionador.gravar(arquivo);
+
+		long total = 0;
+		for (int pecas = 0; pecas <= linhas * colunas; pecas++) {
+			System.out.printf("%2d peças: %d posições%n", pecas, solucionador.getPosicoesAlcancaveis(pecas));
+			total += solucionador.getPosicoesAlcancaveis(pecas);
+		}
+		final String[] nomes = { "não alcançável", "vitória do X", "empate", "vitória do O" };
+		System.out.printf("%dx%d, %d em linha: %s em %d jogadas%n", linhas, colunas, sequencia,
+				nomes[tabela.getValor(0)], tabela.getDistancia(0));
+		System.out.printf("%d posições em %d ms com %d threads, gravadas em %s%n", total, milisegundos, threads,
+				arquivo);
+	}
+}
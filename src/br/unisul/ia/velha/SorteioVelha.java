@@ -0,0 +1,127 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de números aleatórios usado pela {@link VelhaIA} para sortear as jogadas.
+ *
+ * Usa o algoritmo SplitMix64: a mesma semente gera sempre a mesma sequência, o que
+ * permite reproduzir uma partida jogada a jogada. O método {@link #dividir()} cria um
+ * gerador independente para outra thread, sem nenhum estado compartilhado.
+ * Uma instancia não deve ser usada por mais de uma thread ao mesmo tempo.
+ */
+public final class SorteioVelha {
+
+	/**
+	 * Incremento do estado a cada número gerado (parte fracionária da razão áurea).
+	 */
+	private static final long GAMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Constante misturada ao estado para derivar outro gerador (ver {@link #derivar(SorteioVelha, long)}).
+	 */
+	private static final long DERIVACAO = 0x632BE59BD9B4E019L;
+
+	/**
+	 * Semente usada para iniciar a sequência atual.
+	 */
+	private long semente;
+
+	/**
+	 * Estado atual do gerador.
+	 */
+	private long estado;
+
+	/**
+	 * Construtor da classe com uma semente sorteada.
+	 */
+	public SorteioVelha() {
+		this(ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Construtor da classe com a semente especificada.
+	 */
+	public SorteioVelha(final long semente) {
+		setSemente(semente);
+	}
+
+	/**
+	 * Método que reinicia a sequência a partir da semente especificada.
+	 */
+	public void setSemente(final long semente) {
+		this.semente = semente;
+		this.estado = semente;
+	}
+
+	/**
+	 * Método que retorna a semente da sequência atual.
+	 */
+	public long getSemente() {
+		return semente;
+	}
+
+	/**
+	 * Método que retorna o estado atual do gerador, para continuar a sequência em outro gerador.
+	 */
+	long getEstado() {
+		return estado;
+	}
+
+	/**
+	 * Método que continua a sequência a partir do estado de outro gerador, com a mesma semente.
+	 */
+	void setEstado(final long semente, final long estado) {
+		this.semente = semente;
+		this.estado = estado;
+	}
+
+	/**
+	 * Método que retorna o proximo número de 64 bits da sequência.
+	 */
+	public long nextLong() {
+		return misturar(estado += GAMA);
+	}
+
+	/**
+	 * Método que retorna um número entre 0 (inclusive) e o limite (exclusive).
+	 */
+	public int nextInt(final int limite) {
+		if (limite <= 0) {
+			throw new IllegalArgumentException("O limite deve ser positivo: " + limite);
+		}
+		return (int) (((nextLong() >>> 32) * limite) >>> 32);
+	}
+
+	/**
+	 * Método que retorna um valor lógico sorteado.
+	 */
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * Método que cria um novo gerador, independente deste, para ser usado em outra thread.
+	 */
+	public SorteioVelha dividir() {
+		return new SorteioVelha(nextLong());
+	}
+
+	/**
+	 * Método que reinicia o gerador especificado com uma sequência derivada do estado atual e
+	 * de um valor, sem avançar a sequência deste gerador. Com o mesmo estado e o mesmo valor,
+	 * a sequência derivada é a mesma; valores diferentes derivam sequências diferentes.
+	 */
+	void derivar(final SorteioVelha derivado, final long valor) {
+		derivado.setSemente(misturar(estado ^ DERIVACAO ^ misturar(valor + GAMA)));
+	}
+
+	/**
+	 * Função de mistura do SplitMix64.
+	 */
+	private static long misturar(long valor) {
+		valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+		valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+		return valor ^ (valor >>> 31);
+	}
+}
@@ -0,0 +1,722 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que implementa o Super Jogo da Velha ("ultimate tic-tac-toe"): um tabuleiro de 3 x 3
+ * subtabuleiros, cada um do tamanho do tabuleiro da {@link VelhaIA}.
+ *
+ * A posição jogada dentro do subtabuleiro escolhe o subtabuleiro da próxima jogada do oponente;
+ * se esse subtabuleiro já terminou, o oponente pode jogar em qualquer subtabuleiro em aberto.
+ * Quem completa uma linha em um subtabuleiro ganha o subtabuleiro, e quem ganha três
+ * subtabuleiros em linha ganha a partida. A partida empata quando todos os subtabuleiros
+ * terminam sem isso.
+ *
+ * Uma jogada é representada por '9 * subtabuleiro + posicao'. Cada subtabuleiro é guardado
+ * no código compactado de 18 bits do {@link TabuleiroBits}, e o tabuleiro de cima tem uma
+ * mascara de 9 bits com os subtabuleiros ganhos por cada jogador e outra com os empatados.
+ * As linhas ganhadoras são as mesmas do {@link TabuleiroBits}, nos subtabuleiros e no
+ * tabuleiro de cima.
+ *
+ * A jogada da maquina é escolhida por uma busca alfa-beta com aprofundamento iterativo e
+ * {@link TabelaDeTransposicao}, limitada por profundidade e por tempo (100 ms por padrão).
+ */
+public class SuperVelha {
+
+	/**
+	 * Quantidade de jogadas possíveis (9 subtabuleiros de 9 posições).
+	 */
+	public static final int POSICOES = 81;
+
+	/**
+	 * Valor de {@link #getProximoSubtabuleiro()} quando qualquer subtabuleiro em aberto pode ser jogado.
+	 */
+	public static final int QUALQUER_SUBTABULEIRO = -1;
+
+	/**
+	 * Pontuação de vitória, descontada da quantidade de jogadas até ela.
+	 */
+	private static final int VITORIA = 1_000_000;
+
+	/**
+	 * Pontuações acima desta são vitórias, e abaixo do negativo desta são derrotas.
+	 */
+	private static final int LIMITE_VITORIA = VITORIA - 1000;
+
+	/**
+	 * Pontuação maior que qualquer pontuação da busca.
+	 */
+	private static final int INFINITO = Integer.MAX_VALUE;
+
+	/**
+	 * Parte de cada milisegundo do tempo limite, em nanosegundos, reservada para as pausas
+	 * da JIT e do coletor de lixo.
+	 */
+	private static final long MARGEM_DO_TEMPO = 100_000L;
+
+	/**
+	 * Peso das linhas do tabuleiro de cima na avaliação, em relação às linhas dos subtabuleiros.
+	 */
+	private static final int PESO_DO_TABULEIRO_DE_CIMA = 24;
+
+	/**
+	 * Peso de uma linha com 'n' peças de um jogador e nenhuma do oponente.
+	 */
+	private static final int[] PESOS = { 0, 1, 4, 0 };
+
+	/**
+	 * Mostra, para cada mascara de 9 bits, se ela completa alguma linha.
+	 */
+	private static final boolean[] GANHA = new boolean[TabuleiroBits.TABULEIRO_CHEIO + 1];
+
+	/**
+	 * Potencial das peças de um jogador, pelo índice 'pecas | (bloqueios << 9)':
+	 * soma dos {@link #PESOS} das linhas sem nenhum bloqueio.
+	 */
+	private static final short[] POTENCIAL = new short[1 << 18];
+
+	/**
+	 * Semente das chaves Zobrist.
+	 */
+	private static final long SEMENTE = 0x5D9E_7E1A_0F0E_0081L;
+
+	/**
+	 * Chaves Zobrist de cada jogada de cada jogador, e de cada subtabuleiro obrigatório
+	 * (a primeira é a de qualquer subtabuleiro).
+	 */
+	private static final long[] CHAVES_X = new long[POSICOES];
+	private static final long[] CHAVES_O = new long[POSICOES];
+	private static final long[] CHAVES_DO_PROXIMO = new long[10];
+	private static final long CHAVE_VEZ_DO_O;
+
+	static {
+		for (int mascara = 0; mascara <= TabuleiroBits.TABULEIRO_CHEIO; mascara++) {
+			GANHA[mascara] = TabuleiroBits.isLinhaCompleta(mascara);
+		}
+
+		for (int indice = 0; indice < POTENCIAL.length; indice++) {
+			final int pecas = indice & TabuleiroBits.TABULEIRO_CHEIO;
+			final int bloqueios = indice >>> 9;
+			int potencial = 0;
+			for (final int linha : TabuleiroBits.LINHAS) {
+				if ((linha & bloqueios) == 0) {
+					potencial += PESOS[Integer.bitCount(linha & pecas)];
+				}
+			}
+			POTENCIAL[indice] = (short) potencial;
+		}
+
+		final SorteioVelha sorteio = new SorteioVelha(SEMENTE);
+		for (int jogada = 0; jogada < POSICOES; jogada++) {
+			CHAVES_X[jogada] = sorteio.nextLong();
+			CHAVES_O[jogada] = sorteio.nextLong();
+		}
+		for (int proximo = 0; proximo < CHAVES_DO_PROXIMO.length; proximo++) {
+			CHAVES_DO_PROXIMO[proximo] = sorteio.nextLong();
+		}
+		CHAVE_VEZ_DO_O = sorteio.nextLong();
+	}
+
+	/**
+	 * Subtabuleiros, no código compactado de 18 bits do {@link TabuleiroBits}.
+	 */
+	private final int[] subtabuleiros = new int[9];
+
+	/**
+	 * Subtabuleiros ganhos pelo jogador X, ganhos pelo jogador O e empatados.
+	 */
+	private int ganhosX;
+	private int ganhosO;
+	private int empatados;
+
+	/**
+	 * Subtabuleiro da próxima jogada, ou {@link #QUALQUER_SUBTABULEIRO}.
+	 */
+	private int proximo;
+
+	/**
+	 * Jogador da rodada.
+	 */
+	private char jogadorDaVez;
+
+	/**
+	 * Jogadas feitas e o subtabuleiro obrigatório antes de cada uma, para desfazê-las.
+	 */
+	private final int[] jogadas = new int[POSICOES];
+	private final int[] proximosAnteriores = new int[POSICOES];
+	private int quantidadeDeJogadas;
+
+	/**
+	 * Chave Zobrist das peças, atualizada a cada jogada.
+	 */
+	private long chave;
+
+	/**
+	 * Tabela de transposição da busca.
+	 */
+	private TabelaDeTransposicao tabelaDeTransposicao = new TabelaDeTransposicao(16);
+
+	/**
+	 * Profundidade máxima da busca.
+	 */
+	private int profundidadeMaxima = POSICOES;
+
+	/**
+	 * Tempo máximo da busca, em milisegundos.
+	 */
+	private long tempoLimite = 100;
+
+	/**
+	 * Jogadas e pontuações de cada nível da busca, alocadas uma única vez.
+	 */
+	private final int[][] jogadasDoNivel = new int[POSICOES + 1][POSICOES];
+	private final int[][] pontuacoesDoNivel = new int[POSICOES + 1][POSICOES];
+
+	/**
+	 * Instante, em nanosegundos, em que a busca atual deve terminar.
+	 */
+	private long prazo;
+
+	/**
+	 * Posições visitadas na última busca.
+	 */
+	private long nos;
+
+	/**
+	 * Maior profundidade completada na última busca.
+	 */
+	private int profundidadeAlcancada;
+
+	/**
+	 * Mostra se a busca atual foi interrompida pelo tempo.
+	 */
+	private boolean interrompida;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public SuperVelha() {
+		limparTabuleiro();
+	}
+
+	/**
+	 * Método que limpa o tabuleiro.
+	 */
+	public void limparTabuleiro() {
+		for (int subtabuleiro = 0; subtabuleiro < subtabuleiros.length; subtabuleiro++) {
+			subtabuleiros[subtabuleiro] = 0;
+		}
+		ganhosX = 0;
+		ganhosO = 0;
+		empatados = 0;
+		proximo = QUALQUER_SUBTABULEIRO;
+		jogadorDaVez = VelhaIA.JOGADOR_X;
+		quantidadeDeJogadas = 0;
+		chave = 0;
+	}
+
+	/**
+	 * Método que retorna o jogador da posição da jogada ('9 * subtabuleiro + posicao').
+	 */
+	public char getPosicao(final int jogada) {
+		final int codigo = subtabuleiros[jogada / 9];
+		final int bit = 1 << (jogada % 9);
+		if ((codigo & bit) != 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if ((codigo & (bit << 9)) != 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que retorna o subtabuleiro no código compactado de 18 bits do {@link TabuleiroBits}.
+	 */
+	public int getSubtabuleiro(final int subtabuleiro) {
+		return subtabuleiros[subtabuleiro];
+	}
+
+	/**
+	 * Método que retorna o tabuleiro de cima no código compactado de 18 bits: os subtabuleiros
+	 * ganhos pelo jogador X nos bits 0 a 8 e os ganhos pelo jogador O nos bits 9 a 17.
+	 */
+	public int getTabuleiroDeCima() {
+		return ganhosX | (ganhosO << 9);
+	}
+
+	/**
+	 * Método que retorna a mascara dos subtabuleiros que terminaram sem ganhador.
+	 */
+	public int getSubtabuleirosEmpatados() {
+		return empatados;
+	}
+
+	/**
+	 * Método que retorna o subtabuleiro da próxima jogada, ou {@link #QUALQUER_SUBTABULEIRO}.
+	 */
+	public int getProximoSubtabuleiro() {
+		return proximo;
+	}
+
+	/**
+	 * Método que retorna o jogador da rodada.
+	 */
+	public char getJogadorDaVez() {
+		return jogadorDaVez;
+	}
+
+	/**
+	 * Método que retorna o ganhador da partida, ou 'vazio' se ainda não há.
+	 */
+	public char getGanhador() {
+		if (GANHA[ganhosX]) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if (GANHA[ganhosO]) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que verifica se o jogo acabou, com ganhador ou com todos os subtabuleiros terminados.
+	 */
+	public boolean isFimDeJogo() {
+		return GANHA[ganhosX] || GANHA[ganhosO] || (ganhosX | ganhosO | empatados) == TabuleiroBits.TABULEIRO_CHEIO;
+	}
+
+	/**
+	 * Método que verifica se a jogada pode ser feita pelo jogador da vez.
+	 */
+	public boolean isJogadaValida(final int jogada) {
+		if (jogada < 0 || jogada >= POSICOES || isFimDeJogo()) {
+			return false;
+		}
+		final int subtabuleiro = jogada / 9;
+		return (proximo == QUALQUER_SUBTABULEIRO || proximo == subtabuleiro)
+				&& (getTerminados() & (1 << subtabuleiro)) == 0
+				&& getPosicao(jogada) == VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que faz a jogada para o jogador da vez e passa a vez para o oponente.
+	 * Retorna 'false', sem alterar o tabuleiro, se a jogada não é válida.
+	 */
+	public boolean jogar(final int jogada) {
+		if (!isJogadaValida(jogada)) {
+			return false;
+		}
+		fazer(jogada);
+		return true;
+	}
+
+	/**
+	 * Método que desfaz a última jogada.
+	 * Retorna 'false' se não há jogadas para desfazer.
+	 */
+	public boolean desfazer() {
+		if (quantidadeDeJogadas == 0) {
+			return false;
+		}
+		desfazer(jogadas[quantidadeDeJogadas - 1]);
+		return true;
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas feitas.
+	 */
+	public int getQuantidadeDeJogadas() {
+		return quantidadeDeJogadas;
+	}
+
+	/**
+	 * Método que preenche o vetor com as jogadas válidas e retorna a quantidade.
+	 */
+	public int getJogadasValidas(final int[] destino) {
+		if (isFimDeJogo()) {
+			return 0;
+		}
+		return gerarJogadas(destino);
+	}
+
+	/**
+	 * Método que faz a jogada, sem verificar se ela é válida.
+	 */
+	private void fazer(final int jogada) {
+		final int subtabuleiro = jogada / 9;
+		final int posicao = jogada - 9 * subtabuleiro;
+		final int bitDoSubtabuleiro = 1 << subtabuleiro;
+
+		proximosAnteriores[quantidadeDeJogadas] = proximo;
+		jogadas[quantidadeDeJogadas++] = jogada;
+
+		int codigo = subtabuleiros[subtabuleiro];
+		if (jogadorDaVez == VelhaIA.JOGADOR_X) {
+			codigo |= 1 << posicao;
+			chave ^= CHAVES_X[jogada];
+			if (GANHA[codigo & TabuleiroBits.TABULEIRO_CHEIO]) {
+				ganhosX |= bitDoSubtabuleiro;
+			}
+		} else {
+			codigo |= 1 << (posicao + 9);
+			chave ^= CHAVES_O[jogada];
+			if (GANHA[codigo >>> 9]) {
+				ganhosO |= bitDoSubtabuleiro;
+			}
+		}
+		subtabuleiros[subtabuleiro] = codigo;
+		if (((codigo | (codigo >>> 9)) & TabuleiroBits.TABULEIRO_CHEIO) == TabuleiroBits.TABULEIRO_CHEIO
+				&& ((ganhosX | ganhosO) & bitDoSubtabuleiro) == 0) {
+			empatados |= bitDoSubtabuleiro;
+		}
+
+		proximo = (getTerminados() & (1 << posicao)) == 0 ? posicao : QUALQUER_SUBTABULEIRO;
+		jogadorDaVez = VelhaIA.getOponente(jogadorDaVez);
+	}
+
+	/**
+	 * Método que desfaz a jogada, que deve ser a última feita.
+	 * Antes da jogada o subtabuleiro estava em aberto, assim ele volta a não ter resultado.
+	 */
+	private void desfazer(final int jogada) {
+		final int subtabuleiro = jogada / 9;
+		final int posicao = jogada - 9 * subtabuleiro;
+		final int semOSubtabuleiro = ~(1 << subtabuleiro);
+
+		quantidadeDeJogadas--;
+		proximo = proximosAnteriores[quantidadeDeJogadas];
+		jogadorDaVez = VelhaIA.getOponente(jogadorDaVez);
+
+		if (jogadorDaVez == VelhaIA.JOGADOR_X) {
+			subtabuleiros[subtabuleiro] &= ~(1 << posicao);
+			chave ^= CHAVES_X[jogada];
+		} else {
+			subtabuleiros[subtabuleiro] &= ~(1 << (posicao + 9));
+			chave ^= CHAVES_O[jogada];
+		}
+		ganhosX &= semOSubtabuleiro;
+		ganhosO &= semOSubtabuleiro;
+		empatados &= semOSubtabuleiro;
+	}
+
+	/**
+	 * Método que retorna a mascara dos subtabuleiros terminados, com ou sem ganhador.
+	 */
+	private int getTerminados() {
+		return ganhosX | ganhosO | empatados;
+	}
+
+	/**
+	 * Método que preenche o vetor com as jogadas dos subtabuleiros permitidos e retorna a quantidade.
+	 */
+	private int gerarJogadas(final int[] destino) {
+		final int permitidos = proximo == QUALQUER_SUBTABULEIRO
+				? ~getTerminados() & TabuleiroBits.TABULEIRO_CHEIO
+				: 1 << proximo;
+		int quantidade = 0;
+		for (int restantes = permitidos; restantes != 0; restantes &= restantes - 1) {
+			final int subtabuleiro = Integer.numberOfTrailingZeros(restantes);
+			final int codigo = subtabuleiros[subtabuleiro];
+			int livres = ~(codigo | (codigo >>> 9)) & TabuleiroBits.TABULEIRO_CHEIO;
+			for (; livres != 0; livres &= livres - 1) {
+				destino[quantidade++] = 9 * subtabuleiro + Integer.numberOfTrailingZeros(livres);
+			}
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que retorna a chave Zobrist da posição, com o subtabuleiro obrigatório e o jogador da vez.
+	 */
+	private long getChave() {
+		final long chaveDaPosicao = chave ^ CHAVES_DO_PROXIMO[proximo + 1];
+		return jogadorDaVez == VelhaIA.JOGADOR_O ? chaveDaPosicao ^ CHAVE_VEZ_DO_O : chaveDaPosicao;
+	}
+
+	/**
+	 * Método que avalia o tabuleiro do ponto de vista do jogador X: o potencial das linhas do
+	 * tabuleiro de cima, em que um subtabuleiro empatado bloqueia os dois jogadores, somado ao
+	 * potencial das linhas dos subtabuleiros em aberto.
+	 */
+	private int avaliar() {
+		int avaliacao = PESO_DO_TABULEIRO_DE_CIMA
+				* (POTENCIAL[ganhosX | ((ganhosO | empatados) << 9)] - POTENCIAL[ganhosO | ((ganhosX | empatados) << 9)]);
+
+		for (int restantes = ~getTerminados() & TabuleiroBits.TABULEIRO_CHEIO; restantes != 0; restantes &= restantes - 1) {
+			final int codigo = subtabuleiros[Integer.numberOfTrailingZeros(restantes)];
+			final int bitsX = codigo & TabuleiroBits.TABULEIRO_CHEIO;
+			final int bitsO = codigo >>> 9;
+			avaliacao += POTENCIAL[bitsX | (bitsO << 9)] - POTENCIAL[bitsO | (bitsX << 9)];
+		}
+		return avaliacao;
+	}
+
+	/**
+	 * Método que retorna a melhor jogada encontrada para o jogador da rodada,
+	 * ou -1 se o jogo já acabou.
+	 */
+	public int getJogada() {
+		if (isFimDeJogo()) {
+			return -1;
+		}
+
+		/**
+		 * Uma parte do tempo é reservada para as pausas da JIT e do coletor de lixo, e uma nova
+		 * iteração só começa se ainda resta metade do tempo, porque cada iteração demora mais
+		 * que todas as anteriores juntas.
+		 */
+		final long inicio = System.nanoTime();
+		prazo = inicio + tempoLimite * (1_000_000L - MARGEM_DO_TEMPO);
+		final long limiteDaIteracao = inicio + tempoLimite * 500_000L;
+		nos = 0;
+		profundidadeAlcancada = 0;
+		interrompida = false;
+		tabelaDeTransposicao.novaBusca();
+
+		final int[] jogadasDaRaiz = jogadasDoNivel[0];
+		final int quantidade = gerarJogadas(jogadasDaRaiz);
+		ordenarJogadas(jogadasDaRaiz, pontuacoesDoNivel[0], quantidade, -1);
+		int melhorJogada = jogadasDaRaiz[0];
+
+		for (int profundidade = 1; profundidade <= profundidadeMaxima; profundidade++) {
+			int alfa = -INFINITO;
+			int melhorDaIteracao = -1;
+
+			for (int indice = 0; indice < quantidade; indice++) {
+				final int jogada = jogadasDaRaiz[indice];
+				fazer(jogada);
+				final int pontuacao = -buscar(profundidade - 1, -INFINITO, -alfa, 1);
+				desfazer(jogada);
+
+				if (interrompida) {
+					break;
+				}
+				if (pontuacao > alfa) {
+					alfa = pontuacao;
+					melhorDaIteracao = indice;
+				}
+			}
+
+			if (interrompida || melhorDaIteracao < 0) {
+				break;
+			}
+
+			/**
+			 * A melhor jogada da iteração é a primeira a ser buscada na próxima.
+			 */
+			melhorJogada = jogadasDaRaiz[melhorDaIteracao];
+			System.arraycopy(jogadasDaRaiz, 0, jogadasDaRaiz, 1, melhorDaIteracao);
+			jogadasDaRaiz[0] = melhorJogada;
+			profundidadeAlcancada = profundidade;
+
+			if (Math.abs(alfa) > LIMITE_VITORIA || profundidade >= POSICOES - quantidadeDeJogadas
+					|| System.nanoTime() > limiteDaIteracao) {
+				break;
+			}
+		}
+
+		return melhorJogada;
+	}
+
+	/**
+	 * Método que faz a busca alfa-beta (negamax) e retorna a pontuação do ponto de vista do jogador da vez.
+	 */
+	private int buscar(final int profundidade, int alfa, int beta, final int nivel) {
+		if ((++nos & 1023) == 0 && System.nanoTime() > prazo) {
+			interrompida = true;
+		}
+		if (interrompida) {
+			return 0;
+		}
+
+		/**
+		 * Só o jogador que acabou de jogar pode ter completado uma linha no tabuleiro de cima.
+		 */
+		if (GANHA[ganhosX] || GANHA[ganhosO]) {
+			return -(VITORIA - nivel);
+		}
+		if (getTerminados() == TabuleiroBits.TABULEIRO_CHEIO) {
+			return 0;
+		}
+		if (profundidade <= 0) {
+			final int avaliacao = avaliar();
+			return jogadorDaVez == VelhaIA.JOGADOR_X ? avaliacao : -avaliacao;
+		}
+
+		final long chaveDaPosicao = getChave();
+		final long dados = tabelaDeTransposicao.consultar(chaveDaPosicao);
+		int jogadaDaTabela = -1;
+		if (dados != TabelaDeTransposicao.NAO_ENCONTRADO) {
+			jogadaDaTabela = TabelaDeTransposicao.getJogada(dados);
+			if (TabelaDeTransposicao.getProfundidade(dados) >= profundidade) {
+				final int pontuacao = paraNivel(TabelaDeTransposicao.getPontuacao(dados), nivel);
+				final int tipo = TabelaDeTransposicao.getTipo(dados);
+				if (tipo == TabelaDeTransposicao.EXATO
+						|| (tipo == TabelaDeTransposicao.LIMITE_INFERIOR && pontuacao >= beta)
+						|| (tipo == TabelaDeTransposicao.LIMITE_SUPERIOR && pontuacao <= alfa)) {
+					return pontuacao;
+				}
+			}
+		}
+
+		final int[] jogadasPossiveis = jogadasDoNivel[nivel];
+		final int quantidade = gerarJogadas(jogadasPossiveis);
+		ordenarJogadas(jogadasPossiveis, pontuacoesDoNivel[nivel], quantidade, jogadaDaTabela);
+
+		final int alfaOriginal = alfa;
+		int melhor = -INFINITO;
+		int melhorJogada = -1;
+		for (int indice = 0; indice < quantidade; indice++) {
+			final int jogada = jogadasPossiveis[indice];
+			fazer(jogada);
+			final int pontuacao = -buscar(profundidade - 1, -beta, -alfa, nivel + 1);
+			desfazer(jogada);
+
+			if (interrompida) {
+				return 0;
+			}
+			if (pontuacao > melhor) {
+				melhor = pontuacao;
+				melhorJogada = jogada;
+			}
+			if (pontuacao > alfa) {
+				alfa = pontuacao;
+			}
+			if (alfa >= beta) {
+				break;
+			}
+		}
+
+		final int tipo = melhor <= alfaOriginal ? TabelaDeTransposicao.LIMITE_SUPERIOR
+				: melhor >= beta ? TabelaDeTransposicao.LIMITE_INFERIOR : TabelaDeTransposicao.EXATO;
+		tabelaDeTransposicao.guardar(chaveDaPosicao, deNivel(melhor, nivel), tipo, profundidade, melhorJogada);
+		return melhor;
+	}
+
+	/**
+	 * Método que ordena as jogadas: primeiro a jogada da tabela de transposição, depois as que
+	 * ganham um subtabuleiro, e por último as que deixam o oponente escolher o subtabuleiro.
+	 */
+	private void ordenarJogadas(final int[] jogadasPossiveis, final int[] pontuacoes, final int quantidade,
+			final int jogadaDaTabela) {
+		for (int indice = 0; indice < quantidade; indice++) {
+			final int jogada = jogadasPossiveis[indice];
+			final int subtabuleiro = jogada / 9;
+			final int posicao = jogada - 9 * subtabuleiro;
+			final int codigo = subtabuleiros[subtabuleiro];
+			final int bitsDoJogador = jogadorDaVez == VelhaIA.JOGADOR_X ? codigo & TabuleiroBits.TABULEIRO_CHEIO
+					: codigo >>> 9;
+
+			int pontuacao = 0;
+			if (jogada == jogadaDaTabela) {
+				pontuacao += 1000;
+			}
+			if (GANHA[bitsDoJogador | (1 << posicao)]) {
+				pontuacao += 100;
+			}
+			if ((getTerminados() & (1 << posicao)) != 0) {
+				pontuacao -= 10;
+			}
+			pontuacoes[indice] = pontuacao;
+		}
+
+		/**
+		 * Ordenação por inserção, estável, do maior para o menor.
+		 */
+		for (int indice = 1; indice < quantidade; indice++) {
+			final int jogada = jogadasPossiveis[indice];
+			final int pontuacao = pontuacoes[indice];
+			int anterior = indice - 1;
+			while (anterior >= 0 && pontuacoes[anterior] < pontuacao) {
+				jogadasPossiveis[anterior + 1] = jogadasPossiveis[anterior];
+				pontuacoes[anterior + 1] = pontuacoes[anterior];
+				anterior--;
+			}
+			jogadasPossiveis[anterior + 1] = jogada;
+			pontuacoes[anterior + 1] = pontuacao;
+		}
+	}
+
+	/**
+	 * Método que converte uma pontuação de vitória do nível atual para a distancia da posição
+	 * guardada na tabela, que pode ser encontrada em outros níveis.
+	 */
+	private static int deNivel(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que converte uma pontuação de vitória guardada na tabela para o nível atual.
+	 */
+	private static int paraNivel(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que retorna a quantidade de posições visitadas na última busca.
+	 */
+	public long getNos() {
+		return nos;
+	}
+
+	/**
+	 * Método que retorna a maior profundidade completada na última busca.
+	 */
+	public int getProfundidadeAlcancada() {
+		return profundidadeAlcancada;
+	}
+
+	/**
+	 * Método que retorna a tabela de transposição usada na busca.
+	 */
+	public TabelaDeTransposicao getTabelaDeTransposicao() {
+		return tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que preenche a tabela de transposição usada na busca.
+	 * Uma tabela só deve ser compartilhada entre partidas do Super Jogo da Velha.
+	 */
+	public void setTabelaDeTransposicao(final TabelaDeTransposicao tabelaDeTransposicao) {
+		this.tabelaDeTransposicao = tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que retorna a profundidade máxima da busca.
+	 */
+	public int getProfundidadeMaxima() {
+		return profundidadeMaxima;
+	}
+
+	/**
+	 * Método que preenche a profundidade máxima da busca.
+	 */
+	public void setProfundidadeMaxima(final int profundidadeMaxima) {
+		this.profundidadeMaxima = Math.max(1, Math.min(profundidadeMaxima, POSICOES));
+	}
+
+	/**
+	 * Método que retorna o tempo máximo da busca, em milisegundos.
+	 */
+	public long getTempoLimite() {
+		return tempoLimite;
+	}
+
+	/**
+	 * Método que preenche o tempo máximo da busca, em milisegundos.
+	 */
+	public void setTempoLimite(final long tempoLimite) {
+		this.tempoLimite = tempoLimite;
+	}
+}
@@ -0,0 +1,195 @@
+package br.unisul.ia.velha;
+
+import java.util.Arrays;
+
+/**
+ * Classe com a tabela de jogadas perfeitas de todas as posições alcançáveis do
+ * Jogo da Velha, calculada uma única vez quando a classe é carregada.
+ *
+ * Cada posição é identificada pelo indice na base 3 do tabuleiro e pelo jogador da vez.
+ * Para cada uma delas são guardados o valor da posição, a mascara com as jogadas que
+ * alcançam esse valor e as mascaras das jogadas que levam à vitória, ao empate e à derrota,
+ * usadas para escolher jogadas piores nas dificudades mais baixas.
+ */
+public final class TabelaDeJogadas {
+
+	/**
+	 * Marca de posição que não é alcançável a partir do tabuleiro vazio.
+	 */
+	private static final byte NAO_CALCULADO = Byte.MIN_VALUE;
+
+	/**
+	 * Pontuação de cada posição para o jogador da vez.
+	 * Vitória vale (10 - peças no final), derrota vale o negativo e empate vale 0,
+	 * assim as vitórias mais rápidas e as derrotas mais lentas são preferidas.
+	 */
+	private static final byte[] PONTUACOES = new byte[2 * TabuleiroBits.TOTAL_DE_INDICES];
+
+	/**
+	 * Mascara de 9 bits com as jogadas ótimas de cada posição.
+	 */
+	private static final short[] JOGADAS_OTIMAS = new short[2 * TabuleiroBits.TOTAL_DE_INDICES];
+
+	/**
+	 * Mascaras de 9 bits com as jogadas de cada valor de cada posição: as que levam à vitória
+	 * nos bits 0 a 8, ao empate nos bits 9 a 17 e à derrota nos bits 18 a 26.
+	 */
+	private static final int[] JOGADAS_POR_VALOR = new int[2 * TabuleiroBits.TOTAL_DE_INDICES];
+
+	/**
+	 * Deslocamento da mascara das jogadas de cada valor (1, 0 e -1), pelo indice 1 - valor.
+	 */
+	private static final int[] DESLOCAMENTO_DO_VALOR = { 0, 9, 18 };
+
+	static {
+		Arrays.fill(PONTUACOES, NAO_CALCULADO);
+		calcular(0, 0, 0);
+		calcular(0, 0, 1);
+	}
+
+	/**
+	 * Construtor privado, a classe só possui métodos estáticos.
+	 */
+	private TabelaDeJogadas() {
+	}
+
+	/**
+	 * Método que calcula, por negamax, a pontuação da posição e de todas as posições seguintes.
+	 * O jogador da vez é 0 para 'X' e 1 para 'O'.
+	 */
+	private static int calcular(final int bitsX, final int bitsO, final int jogador) {
+		final int chave = getChave(TabuleiroBits.getIndice(bitsX, bitsO), jogador);
+		if (PONTUACOES[chave] != NAO_CALCULADO) {
+			return PONTUACOES[chave];
+		}
+
+		final int ocupadas = bitsX | bitsO;
+		final int pecasDoOponente = jogador == 0 ? bitsO : bitsX;
+		int melhorPontuacao;
+		int jogadasOtimas = 0;
+		int jogadasPorValor = 0;
+
+		if (TabuleiroBits.isLinhaCompleta(pecasDoOponente)) {
+			melhorPontuacao = -(10 - Integer.bitCount(ocupadas));
+		} else if (ocupadas == TabuleiroBits.TABULEIRO_CHEIO) {
+			melhorPontuacao = 0;
+		} else {
+			melhorPontuacao = Integer.MIN_VALUE;
+			for (int posicao = 0; posicao < 9; posicao++) {
+				final int bit = 1 << posicao;
+				if ((ocupadas & bit) != 0) {
+					continue;
+				}
+
+				final int pontuacao = jogador == 0
+						? -calcular(bitsX | bit, bitsO, 1)
+						: -calcular(bitsX, bitsO | bit, 0);
+
+				jogadasPorValor |= bit << DESLOCAMENTO_DO_VALOR[1 - Integer.signum(pontuacao)];
+				if (pontuacao > melhorPontuacao) {
+					melhorPontuacao = pontuacao;
+					jogadasOtimas = bit;
+				} else if (pontuacao == melhorPontuacao) {
+					jogadasOtimas |= bit;
+				}
+			}
+		}
+
+		PONTUACOES[chave] = (byte) melhorPontuacao;
+		JOGADAS_OTIMAS[chave] = (short) jogadasOtimas;
+		JOGADAS_POR_VALOR[chave] = jogadasPorValor;
+		return melhorPontuacao;
+	}
+
+	/**
+	 * Método que retorna a chave da tabela para o indice e o jogador da vez.
+	 */
+	private static int getChave(final int indice, final int jogador) {
+		return jogador * TabuleiroBits.TOTAL_DE_INDICES + indice;
+	}
+
+	/**
+	 * Método que retorna a chave da tabela para o tabuleiro e o jogador da vez.
+	 */
+	private static int getChave(final TabuleiroBits tabuleiro, final char jogador) {
+		return getChave(tabuleiro.getIndice(), jogador == VelhaIA.JOGADOR_X ? 0 : 1);
+	}
+
+	/**
+	 * Método que verifica se a posição é alcançável a partir do tabuleiro vazio.
+	 */
+	public static boolean isPosicaoConhecida(final TabuleiroBits tabuleiro, final char jogador) {
+		return PONTUACOES[getChave(tabuleiro, jogador)] != NAO_CALCULADO;
+	}
+
+	/**
+	 * Método que retorna o valor da posição para o jogador da vez:
+	 * 1 para vitória, 0 para empate e -1 para derrota com jogo perfeito dos dois lados.
+	 */
+	public static int getValor(final TabuleiroBits tabuleiro, final char jogador) {
+		return Integer.signum(PONTUACOES[getChave(tabuleiro, jogador)]);
+	}
+
+	/**
+	 * Método que retorna a mascara de 9 bits com as jogadas ótimas da posição.
+	 */
+	public static int getJogadasOtimas(final TabuleiroBits tabuleiro, final char jogador) {
+		return JOGADAS_OTIMAS[getChave(tabuleiro, jogador)];
+	}
+
+	/**
+	 * Método que retorna a mascara de 9 bits com as jogadas da posição que deixam o jogador
+	 * da vez com o valor especificado: 1 para vitória, 0 para empate e -1 para derrota.
+	 */
+	public static int getJogadas(final TabuleiroBits tabuleiro, final char jogador, final int valor) {
+		return (JOGADAS_POR_VALOR[getChave(tabuleiro, jogador)] >>> DESLOCAMENTO_DO_VALOR[1 - valor]) & 0x1FF;
+	}
+
+	/**
+	 * Método que retorna a jogada da tabela para o jogador da vez.
+	 * A vitória imediata é sempre aproveitada; nas demais jogadas, a dificudade
+	 * define a chance de errar, como a chance de pular o bloqueio na "Jogada Perfeita".
+	 * O erro não é uma jogada qualquer: é sorteada uma das melhores jogadas que não são
+	 * ótimas, primeiro as vitórias mais lentas, depois os empates e só então as derrotas.
+	 */
+	static int getJogada(final TabuleiroBits tabuleiro, final char jogador, final int dificudade, final SorteioVelha sorteio) {
+		final int chave = getChave(tabuleiro, jogador);
+		final int jogadasOtimas = JOGADAS_OTIMAS[chave];
+		if (jogadasOtimas == 0) {
+			return -1;
+		}
+
+		final int pecas = Integer.bitCount(tabuleiro.getOcupadas());
+		final boolean vitoriaImediata = PONTUACOES[chave] == 9 - pecas;
+
+		if (vitoriaImediata || sorteio.nextInt(10) >= dificudade) {
+			return sortearPosicao(jogadasOtimas, sorteio);
+		}
+		return sortearPosicao(getJogadasSubotimas(chave, jogadasOtimas), sorteio);
+	}
+
+	/**
+	 * Método que retorna as jogadas do melhor valor entre as que não são ótimas,
+	 * ou as jogadas ótimas se todas as jogadas livres são ótimas.
+	 */
+	private static int getJogadasSubotimas(final int chave, final int jogadasOtimas) {
+		final int jogadasPorValor = JOGADAS_POR_VALOR[chave];
+		for (final int deslocamento : DESLOCAMENTO_DO_VALOR) {
+			final int jogadas = (jogadasPorValor >>> deslocamento) & 0x1FF & ~jogadasOtimas;
+			if (jogadas != 0) {
+				return jogadas;
+			}
+		}
+		return jogadasOtimas;
+	}
+
+	/**
+	 * Método que sorteia uma das posições marcadas na mascara.
+	 */
+	private static int sortearPosicao(int mascara, final SorteioVelha sorteio) {
+		for (int sorteada = sorteio.nextInt(Integer.bitCount(mascara)); sorteada > 0; sorteada--) {
+			mascara &= mascara - 1;
+		}
+		return Integer.numberOfTrailingZeros(mascara);
+	}
+}
@@ -0,0 +1,263 @@
+package br.unisul.ia.velha;
+
+/**
+ * Tabela de transposição de tamanho fixo, guardada em vetores de tipos primitivos.
+ *
+ * Cada entrada ocupa dois 'long': a chave da posição (misturada com os dados) e os dados
+ * com a pontuação, o tipo da pontuação, a profundidade e a melhor jogada. As entradas são
+ * agrupadas em pares: a primeira só é substituída por buscas mais profundas ou de buscas
+ * mais novas, e a segunda é sempre substituída.
+ *
+ * Esta classe não é segura para várias threads; use {@link TabelaDeTransposicaoConcorrente}.
+ */
+public class TabelaDeTransposicao {
+
+	/**
+	 * Pontuação exata.
+	 */
+	public static final int EXATO = 0;
+
+	/**
+	 * A pontuação é no mínimo o valor guardado (a busca foi cortada pelo beta).
+	 */
+	public static final int LIMITE_INFERIOR = 1;
+
+	/**
+	 * A pontuação é no máximo o valor guardado (nenhuma jogada passou do alfa).
+	 */
+	public static final int LIMITE_SUPERIOR = 2;
+
+	/**
+	 * Retorno de uma consulta sem entrada para a chave.
+	 */
+	public static final long NAO_ENCONTRADO = 0;
+
+	/**
+	 * Bit que marca os dados de uma entrada válida.
+	 */
+	private static final long VALIDO = 1L << 63;
+
+	/**
+	 * Bytes ocupados por uma entrada.
+	 */
+	private static final int BYTES_POR_ENTRADA = 16;
+
+	/**
+	 * Mascara do indice do par de entradas de uma chave.
+	 */
+	private final int mascara;
+
+	/**
+	 * Chaves das entradas, misturadas com os dados por "ou exclusivo".
+	 */
+	private final long[] chaves;
+
+	/**
+	 * Dados das entradas.
+	 */
+	private final long[] dados;
+
+	/**
+	 * Idade da busca atual, para substituir as entradas de buscas antigas.
+	 */
+	private int idade;
+
+	/**
+	 * Contadores de consultas, acertos e gravações.
+	 */
+	private long consultas;
+	private long acertos;
+	private long gravacoes;
+
+	/**
+	 * Construtor da classe, com o tamanho máximo em megabytes.
+	 */
+	public TabelaDeTransposicao(final int megabytes) {
+		final long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+		final int entradas = Integer.highestOneBit((int) Math.min(bytes / BYTES_POR_ENTRADA, 1 << 30));
+		this.mascara = (entradas / 2) - 1;
+		this.chaves = criarVetor(entradas);
+		this.dados = criarVetor(entradas);
+	}
+
+	/**
+	 * Método que cria o vetor das chaves ou dos dados.
+	 * Retorna 'null' nas subclasses que guardam as entradas de outra forma.
+	 */
+	protected long[] criarVetor(final int entradas) {
+		return new long[entradas];
+	}
+
+	/**
+	 * Método que lê a chave da entrada.
+	 */
+	protected long lerChave(final int entrada) {
+		return chaves[entrada];
+	}
+
+	/**
+	 * Método que lê os dados da entrada.
+	 */
+	protected long lerDados(final int entrada) {
+		return dados[entrada];
+	}
+
+	/**
+	 * Método que grava a chave e os dados da entrada.
+	 */
+	protected void gravar(final int entrada, final long chave, final long dados) {
+		this.chaves[entrada] = chave;
+		this.dados[entrada] = dados;
+	}
+
+	/**
+	 * Método que soma os contadores de uma consulta.
+	 */
+	protected void contarConsulta(final boolean acerto) {
+		consultas++;
+		if (acerto) {
+			acertos++;
+		}
+	}
+
+	/**
+	 * Método que soma o contador de uma gravação.
+	 */
+	protected void contarGravacao() {
+		gravacoes++;
+	}
+
+	/**
+	 * Método que retorna a quantidade de entradas da tabela.
+	 */
+	public int getEntradas() {
+		return (mascara + 1) * 2;
+	}
+
+	/**
+	 * Método que inicia uma nova busca; as entradas das buscas anteriores passam a ser
+	 * substituídas primeiro.
+	 */
+	public void novaBusca() {
+		idade = (idade + 1) & 0x3F;
+	}
+
+	/**
+	 * Método que retorna os dados guardados para a chave, ou {@link #NAO_ENCONTRADO}.
+	 */
+	public long consultar(final long chave) {
+		final int primeira = getPrimeiraEntrada(chave);
+		for (int entrada = primeira; entrada < primeira + 2; entrada++) {
+			final long dadosDaEntrada = lerDados(entrada);
+			if (dadosDaEntrada != NAO_ENCONTRADO && (lerChave(entrada) ^ dadosDaEntrada) == chave) {
+				contarConsulta(true);
+				return dadosDaEntrada;
+			}
+		}
+		contarConsulta(false);
+		return NAO_ENCONTRADO;
+	}
+
+	/**
+	 * Método que guarda o resultado de uma busca.
+	 * A pontuação deve caber em 29 bits com sinal, e a jogada deve estar entre 0 e 65535,
+	 * ou ser -1 quando não há melhor jogada.
+	 */
+	public void guardar(final long chave, final int pontuacao, final int tipo, final int profundidade,
+			final int jogada) {
+		final long novosDados = VALIDO
+				| ((long) idade << 56)
+				| ((long) (profundidade & 0xFF) << 48)
+				| ((long) (tipo & 0x3) << 46)
+				| ((long) (jogada & 0xFFFF) << 30)
+				| ((long) (jogada < 0 ? 1 : 0) << 29)
+				| (pontuacao & 0x1FFFFFFFL);
+
+		final int primeira = getPrimeiraEntrada(chave);
+		final long dadosDaPrimeira = lerDados(primeira);
+		final boolean mesmaChave = dadosDaPrimeira != NAO_ENCONTRADO && (lerChave(primeira) ^ dadosDaPrimeira) == chave;
+
+		if (dadosDaPrimeira == NAO_ENCONTRADO
+				|| mesmaChave
+				|| getIdade(dadosDaPrimeira) != idade
+				|| getProfundidade(dadosDaPrimeira) <= profundidade) {
+			gravar(primeira, chave ^ novosDados, novosDados);
+		} else {
+			gravar(primeira + 1, chave ^ novosDados, novosDados);
+		}
+		contarGravacao();
+	}
+
+	/**
+	 * Método que retorna a primeira entrada do par da chave.
+	 */
+	private int getPrimeiraEntrada(final long chave) {
+		return ((int) (chave ^ (chave >>> 32)) & mascara) << 1;
+	}
+
+	/**
+	 * Método que retorna a pontuação dos dados.
+	 */
+	public static int getPontuacao(final long dados) {
+		return ((int) (dados << 3)) >> 3;
+	}
+
+	/**
+	 * Método que retorna o tipo da pontuação dos dados.
+	 */
+	public static int getTipo(final long dados) {
+		return (int) (dados >>> 46) & 0x3;
+	}
+
+	/**
+	 * Método que retorna a profundidade da busca dos dados.
+	 */
+	public static int getProfundidade(final long dados) {
+		return (int) (dados >>> 48) & 0xFF;
+	}
+
+	/**
+	 * Método que retorna a melhor jogada dos dados, ou -1 se não há.
+	 */
+	public static int getJogada(final long dados) {
+		if (((dados >>> 29) & 1) != 0) {
+			return -1;
+		}
+		return (int) (dados >>> 30) & 0xFFFF;
+	}
+
+	/**
+	 * Método que retorna a idade da busca dos dados.
+	 */
+	private static int getIdade(final long dados) {
+		return (int) (dados >>> 56) & 0x3F;
+	}
+
+	/**
+	 * Método que retorna a quantidade de consultas.
+	 */
+	public long getConsultas() {
+		return consultas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de consultas que encontraram a chave.
+	 */
+	public long getAcertos() {
+		return acertos;
+	}
+
+	/**
+	 * Método que retorna a quantidade de consultas que não encontraram a chave.
+	 */
+	public long getFalhas() {
+		return getConsultas() - getAcertos();
+	}
+
+	/**
+	 * Método que retorna a quantidade de gravações.
+	 */
+	public long getGravacoes() {
+		return gravacoes;
+	}
+}
@@ -0,0 +1,89 @@
+package br.unisul.ia.velha;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabela de transposição que pode ser compartilhada por várias threads, sem bloqueios.
+ *
+ * Cada entrada guarda a chave misturada com os dados por "ou exclusivo": se duas threads
+ * gravarem a mesma entrada ao mesmo tempo e a leitura misturar as duas gravações, a chave
+ * lida não confere e a entrada é tratada como não encontrada.
+ */
+public class TabelaDeTransposicaoConcorrente extends TabelaDeTransposicao {
+
+	/**
+	 * Chaves das entradas, misturadas com os dados.
+	 */
+	private final AtomicLongArray chaves;
+
+	/**
+	 * Dados das entradas.
+	 */
+	private final AtomicLongArray dados;
+
+	/**
+	 * Contadores de consultas, acertos e gravações.
+	 */
+	private final LongAdder consultas = new LongAdder();
+	private final LongAdder acertos = new LongAdder();
+	private final LongAdder gravacoes = new LongAdder();
+
+	/**
+	 * Construtor da classe, com o tamanho máximo em megabytes.
+	 */
+	public TabelaDeTransposicaoConcorrente(final int megabytes) {
+		super(megabytes);
+		chaves = new AtomicLongArray(getEntradas());
+		dados = new AtomicLongArray(getEntradas());
+	}
+
+	@Override
+	protected long[] criarVetor(final int entradas) {
+		return null;
+	}
+
+	@Override
+	protected long lerChave(final int entrada) {
+		return chaves.get(entrada);
+	}
+
+	@Override
+	protected long lerDados(final int entrada) {
+		return dados.get(entrada);
+	}
+
+	@Override
+	protected void gravar(final int entrada, final long chave, final long dados) {
+		this.dados.set(entrada, dados);
+		this.chaves.set(entrada, chave);
+	}
+
+	@Override
+	protected void contarConsulta(final boolean acerto) {
+		consultas.increment();
+		if (acerto) {
+			acertos.increment();
+		}
+	}
+
+	@Override
+	protected void contarGravacao() {
+		gravacoes.increment();
+	}
+
+	@Override
+	public long getConsultas() {
+		return consultas.sum();
+	}
+
+	@Override
+	public long getAcertos() {
+		return acertos.sum();
+	}
+
+	@Override
+	public long getGravacoes() {
+		return gravacoes.sum();
+	}
+}
@@ -0,0 +1,248 @@
+package br.unisul.ia.velha;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabela com o valor exato e a distancia até o fim de cada posição alcançável de um Jogo da
+ * Velha generalizado pequeno (ver {@link VelhaMNK}), gerada pelo {@link SolucionadorRetrogrado}
+ * e lida de um arquivo mapeado na memória.
+ *
+ * A posição é identificada pelo indice na base 3 do tabuleiro (cada posição vale 0 quando
+ * vazia, 1 para 'X' e 2 para 'O'), e o jogador da vez vem da quantidade de peças, porque o
+ * 'X' sempre começa. Cada posição ocupa um byte: os 2 bits mais baixos têm o valor para o
+ * jogador da vez ({@link #VITORIA}, {@link #EMPATE} ou {@link #DERROTA}, ou
+ * {@link #NAO_ALCANCAVEL}), e os 6 bits mais altos a quantidade de jogadas até o fim da
+ * partida com jogo perfeito: o ganhador termina o mais cedo possível e o perdedor adia o fim.
+ *
+ * O arquivo tem um cabeçalho de {@value #TAMANHO_DO_CABECALHO} bytes, com a marca e as
+ * dimensões do tabuleiro, seguido dos bytes das posições. Ele é mapeado só para leitura,
+ * assim as páginas são carregadas quando usadas e compartilhadas entre os processos.
+ */
+public final class TabelaDeValores {
+
+	/**
+	 * Valor de uma posição que não é alcançável a partir do tabuleiro vazio.
+	 */
+	public static final int NAO_ALCANCAVEL = 0;
+
+	/**
+	 * Valor de uma posição ganha pelo jogador da vez.
+	 */
+	public static final int VITORIA = 1;
+
+	/**
+	 * Valor de uma posição empatada.
+	 */
+	public static final int EMPATE = 2;
+
+	/**
+	 * Valor de uma posição perdida pelo jogador da vez.
+	 */
+	public static final int DERROTA = 3;
+
+	/**
+	 * Marca do inicio do arquivo ("VRET").
+	 */
+	static final int MARCA = 0x56524554;
+
+	/**
+	 * Tamanho do cabeçalho do arquivo: marca, linhas, colunas e sequencia.
+	 */
+	static final int TAMANHO_DO_CABECALHO = 16;
+
+	/**
+	 * Dimensões do tabuleiro.
+	 */
+	private final int linhas;
+	private final int colunas;
+	private final int sequencia;
+
+	/**
+	 * Valor de cada posição na base 3 de 0 até 3 elevado ao número de posições.
+	 */
+	private final int[] potencias;
+
+	/**
+	 * Bytes das posições, sem o cabeçalho.
+	 */
+	private final ByteBuffer valores;
+
+	/**
+	 * Construtor da classe, com os bytes das posições.
+	 */
+	TabelaDeValores(final int linhas, final int colunas, final int sequencia, final ByteBuffer valores) {
+		this.linhas = linhas;
+		this.colunas = colunas;
+		this.sequencia = sequencia;
+		this.potencias = gerarPotencias(linhas * colunas);
+		this.valores = valores;
+	}
+
+	/**
+	 * Método que mapeia o arquivo gerado pelo {@link SolucionadorRetrogrado}.
+	 */
+	public static TabelaDeValores abrir(final Path arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			final ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_DO_CABECALHO);
+			while (cabecalho.hasRemaining() && canal.read(cabecalho) > 0) {
+				// Lê o cabeçalho inteiro.
+			}
+			cabecalho.flip();
+			if (cabecalho.remaining() < TAMANHO_DO_CABECALHO || cabecalho.getInt() != MARCA) {
+				throw new IOException("Arquivo não é uma tabela de valores: " + arquivo);
+			}
+
+			final int linhas = cabecalho.getInt();
+			final int colunas = cabecalho.getInt();
+			final int sequencia = cabecalho.getInt();
+			if (linhas < 1 || colunas < 1 || linhas * colunas > SolucionadorRetrogrado.MAXIMO_DE_POSICOES) {
+				throw new IOException("Tabuleiro inválido na tabela de valores: " + linhas + "x" + colunas);
+			}
+
+			final long tamanho = getQuantidadeDeIndices(linhas * colunas);
+			if (canal.size() < TAMANHO_DO_CABECALHO + tamanho) {
+				throw new IOException("Tabela de valores incompleta: " + arquivo);
+			}
+			return new TabelaDeValores(linhas, colunas, sequencia,
+					canal.map(FileChannel.MapMode.READ_ONLY, TAMANHO_DO_CABECALHO, tamanho));
+		}
+	}
+
+	/**
+	 * Método que retorna as potências de 3 de cada posição do tabuleiro.
+	 */
+	static int[] gerarPotencias(final int posicoes) {
+		final int[] potencias = new int[posicoes];
+		int potencia = 1;
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			potencias[posicao] = potencia;
+			potencia *= 3;
+		}
+		return potencias;
+	}
+
+	/**
+	 * Método que retorna a quantidade de indices de um tabuleiro (3 elevado ao número de posições).
+	 */
+	static int getQuantidadeDeIndices(final int posicoes) {
+		int quantidade = 1;
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			quantidade *= 3;
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que junta o valor e a distancia em um byte da tabela.
+	 */
+	static byte codificar(final int valor, final int distancia) {
+		return (byte) (distancia << 2 | valor);
+	}
+
+	/**
+	 * Método que retorna o valor de um byte da tabela.
+	 */
+	static int getValor(final byte codigo) {
+		return codigo & 3;
+	}
+
+	/**
+	 * Método que retorna a distancia de um byte da tabela.
+	 */
+	static int getDistancia(final byte codigo) {
+		return (codigo & 0xFF) >>> 2;
+	}
+
+	/**
+	 * Método que retorna o indice na base 3 das peças de cada jogador,
+	 * com o bit 'n' na posição 'n'.
+	 */
+	public int getIndice(final long bitsX, final long bitsO) {
+		return getIndice(potencias, bitsX, bitsO);
+	}
+
+	/**
+	 * Método que retorna o indice na base 3 das peças de cada jogador, com as potências especificadas.
+	 */
+	static int getIndice(final int[] potencias, final long bitsX, final long bitsO) {
+		int indice = 0;
+		for (long restantes = bitsX; restantes != 0; restantes &= restantes - 1) {
+			indice += potencias[Long.numberOfTrailingZeros(restantes)];
+		}
+		for (long restantes = bitsO; restantes != 0; restantes &= restantes - 1) {
+			indice += 2 * potencias[Long.numberOfTrailingZeros(restantes)];
+		}
+		return indice;
+	}
+
+	/**
+	 * Método que retorna o valor da posição para o jogador da vez.
+	 */
+	public int getValor(final int indice) {
+		return getValor(valores.get(indice));
+	}
+
+	/**
+	 * Método que retorna a quantidade de jogadas até o fim da partida com jogo perfeito.
+	 */
+	public int getDistancia(final int indice) {
+		return getDistancia(valores.get(indice));
+	}
+
+	/**
+	 * Método que retorna a mascara com as jogadas ótimas do jogador da vez: as que mantêm
+	 * o valor da posição, ganhando o mais cedo ou perdendo o mais tarde possível.
+	 * Retorna 0 se a posição não é alcançável ou se a partida já acabou.
+	 */
+	public long getJogadasOtimas(final long bitsX, final long bitsO) {
+		final int indice = getIndice(bitsX, bitsO);
+		final byte codigo = valores.get(indice);
+		if (getValor(codigo) == NAO_ALCANCAVEL || getDistancia(codigo) == 0) {
+			return 0;
+		}
+
+		/**
+		 * O valor e a distancia que a jogada deixa para o oponente.
+		 */
+		final int valor = getValor(codigo);
+		final int valorDoOponente = valor == VITORIA ? DERROTA : valor == DERROTA ? VITORIA : EMPATE;
+		final int distanciaDoOponente = getDistancia(codigo) - 1;
+
+		final int peca = Long.bitCount(bitsX) > Long.bitCount(bitsO) ? 2 : 1;
+		final long livres = ~(bitsX | bitsO) & ((1L << potencias.length) - 1);
+		long jogadasOtimas = 0;
+		for (long restantes = livres; restantes != 0; restantes &= restantes - 1) {
+			final int posicao = Long.numberOfTrailingZeros(restantes);
+			final byte seguinte = valores.get(indice + peca * potencias[posicao]);
+			if (getValor(seguinte) == valorDoOponente && getDistancia(seguinte) == distanciaDoOponente) {
+				jogadasOtimas |= 1L << posicao;
+			}
+		}
+		return jogadasOtimas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de linhas do tabuleiro.
+	 */
+	public int getLinhas() {
+		return linhas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de colunas do tabuleiro.
+	 */
+	public int getColunas() {
+		return colunas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de peças em linha que ganha a partida.
+	 */
+	public int getSequencia() {
+		return sequencia;
+	}
+}
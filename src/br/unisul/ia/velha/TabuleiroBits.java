@@ -0,0 +1,326 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que representa o tabuleiro do Jogo da Velha com duas mascaras de 9 bits,
+ * uma para as peças do jogador X e outra para as peças do jogador O.
+ * O bit 'n' de cada mascara corresponde a posição 'n' do tabuleiro.
+ *
+ * Além das mascaras, o tabuleiro mantém a quantidade de peças de cada jogador em cada
+ * linha ganhadora, em campos de 2 bits de um único 'int' por jogador (a linha 'n' ocupa
+ * os bits 2n e 2n+1). Os contadores são atualizados com uma soma a cada jogada, e as
+ * consultas de ganhador e de ameaças são operações de bits sobre eles.
+ */
+public final class TabuleiroBits {
+
+	/**
+	 * Mascara com as 9 posições do tabuleiro preenchidas.
+	 */
+	public static final int TABULEIRO_CHEIO = 0x1FF;
+
+	/**
+	 * Mascaras das linhas ganhadoras, na mesma ordem dos trios ganhadores da {@link VelhaIA}.
+	 */
+	static final int[] LINHAS = { 0x007, 0x038, 0x1C0, 0x049, 0x092, 0x124, 0x111, 0x054 };
+
+	/**
+	 * Quantidade de indices na base 3 (3^9), um para cada combinação de 'X', 'O' e vazio.
+	 */
+	public static final int TOTAL_DE_INDICES = 19683;
+
+	/**
+	 * Valor na base 3 de cada mascara de 9 bits, com o digito 1 em cada posição marcada.
+	 */
+	private static final int[] BASE_3 = new int[TABULEIRO_CHEIO + 1];
+
+	/**
+	 * Valor somado aos contadores das linhas quando uma peça é colocada em cada posição:
+	 * 1 no campo de cada linha que passa pela posição.
+	 */
+	private static final int[] INCREMENTOS = new int[9];
+
+	/**
+	 * Mascara com o bit menos significativo do campo de cada linha nos contadores.
+	 */
+	private static final int BITS_DAS_LINHAS = 0x5555;
+
+	static {
+		for (int linha = 0; linha < LINHAS.length; linha++) {
+			for (int posicao = 0; posicao < 9; posicao++) {
+				if ((LINHAS[linha] & (1 << posicao)) != 0) {
+					INCREMENTOS[posicao] += 1 << (2 * linha);
+				}
+			}
+		}
+
+		for (int mascara = 1; mascara <= TABULEIRO_CHEIO; mascara++) {
+			final int posicao = Integer.numberOfTrailingZeros(mascara);
+			int potencia = 1;
+			for (int expoente = 0; expoente < posicao; expoente++) {
+				potencia *= 3;
+			}
+			BASE_3[mascara] = BASE_3[mascara & (mascara - 1)] + potencia;
+		}
+	}
+
+	/**
+	 * Peças do jogador X.
+	 */
+	private int bitsX;
+
+	/**
+	 * Peças do jogador O.
+	 */
+	private int bitsO;
+
+	/**
+	 * Peças do jogador X em cada linha ganhadora.
+	 */
+	private int linhasX;
+
+	/**
+	 * Peças do jogador O em cada linha ganhadora.
+	 */
+	private int linhasO;
+
+	/**
+	 * Método que verifica se a mascara de peças de um jogador completa alguma linha.
+	 */
+	public static boolean isLinhaCompleta(final int bits) {
+		for (int linha = 0; linha < LINHAS.length; linha++) {
+			if ((bits & LINHAS[linha]) == LINHAS[linha]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Método que retorna o indice na base 3 das peças especificadas.
+	 * Cada posição vale 0 quando vazia, 1 para 'X' e 2 para 'O'.
+	 */
+	public static int getIndice(final int bitsX, final int bitsO) {
+		return BASE_3[bitsX] + 2 * BASE_3[bitsO];
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro.
+	 */
+	public char getPosicao(final int posicao) {
+		final int bit = 1 << posicao;
+		if ((bitsX & bit) != 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if ((bitsO & bit) != 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que preenche a posição do jogador no tabuleiro.
+	 * Qualquer valor diferente de 'X' ou 'O' esvazia a posição.
+	 */
+	public void setPosicao(final int posicao, final char jogador) {
+		final int bit = 1 << posicao;
+		if ((bitsX & bit) != 0) {
+			bitsX &= ~bit;
+			linhasX -= INCREMENTOS[posicao];
+		} else if ((bitsO & bit) != 0) {
+			bitsO &= ~bit;
+			linhasO -= INCREMENTOS[posicao];
+		}
+
+		if (jogador == VelhaIA.JOGADOR_X) {
+			bitsX |= bit;
+			linhasX += INCREMENTOS[posicao];
+		} else if (jogador == VelhaIA.JOGADOR_O) {
+			bitsO |= bit;
+			linhasO += INCREMENTOS[posicao];
+		}
+	}
+
+	/**
+	 * Método que limpa o tabuleiro.
+	 */
+	public void limpar() {
+		bitsX = 0;
+		bitsO = 0;
+		linhasX = 0;
+		linhasO = 0;
+	}
+
+	/**
+	 * Método que retorna as linhas completas dos contadores, com um bit no campo de cada linha.
+	 */
+	private static int getLinhasCompletas(final int linhas) {
+		return linhas & (linhas >>> 1) & BITS_DAS_LINHAS;
+	}
+
+	/**
+	 * Método que retorna as posições vazias que completam uma linha do jogador:
+	 * linhas com duas peças do jogador e nenhuma do oponente.
+	 */
+	public int getPosicoesDeAmeaca(final char jogador) {
+		final int proprias = jogador == VelhaIA.JOGADOR_X ? linhasX : linhasO;
+		final int doOponente = jogador == VelhaIA.JOGADOR_X ? linhasO : linhasX;
+		int ameacas = (proprias >>> 1) & ~proprias & ~(doOponente | (doOponente >>> 1)) & BITS_DAS_LINHAS;
+
+		int posicoes = 0;
+		while (ameacas != 0) {
+			posicoes |= LINHAS[Integer.numberOfTrailingZeros(ameacas) >>> 1];
+			ameacas &= ameacas - 1;
+		}
+		return posicoes & ~(bitsX | bitsO);
+	}
+
+	/**
+	 * Método que retorna as peças do jogador X.
+	 */
+	public int getBitsX() {
+		return bitsX;
+	}
+
+	/**
+	 * Método que retorna as peças do jogador O.
+	 */
+	public int getBitsO() {
+		return bitsO;
+	}
+
+	/**
+	 * Método que retorna o tabuleiro compactado em 18 bits:
+	 * as peças do jogador X nos bits 0 a 8 e as do jogador O nos bits 9 a 17.
+	 */
+	public int getCodigo() {
+		return bitsX | (bitsO << 9);
+	}
+
+	/**
+	 * Método que preenche o tabuleiro a partir do código compactado em 18 bits
+	 * (ver {@link #getCodigo()}). Uma posição marcada para os dois jogadores fica com o 'X'.
+	 */
+	public void setCodigo(final int codigo) {
+		bitsX = codigo & TABULEIRO_CHEIO;
+		bitsO = (codigo >>> 9) & TABULEIRO_CHEIO & ~bitsX;
+		linhasX = getLinhas(bitsX);
+		linhasO = getLinhas(bitsO);
+	}
+
+	/**
+	 * Método que converte o texto do tabuleiro, com 'X', 'O' e '-' (ou ' ') em cada posição,
+	 * para o código compactado em 18 bits (ver {@link #getCodigo()}).
+	 * Retorna -1 se o texto não é um tabuleiro.
+	 */
+	public static int getCodigo(final String texto) {
+		if (texto == null || texto.length() != 9) {
+			return -1;
+		}
+		int codigo = 0;
+		for (int posicao = 0; posicao < 9; posicao++) {
+			final char peca = Character.toUpperCase(texto.charAt(posicao));
+			if (peca == VelhaIA.JOGADOR_X) {
+				codigo |= 1 << posicao;
+			} else if (peca == VelhaIA.JOGADOR_O) {
+				codigo |= 1 << (posicao + 9);
+			} else if (peca != '-' && peca != VelhaIA.VAZIO) {
+				return -1;
+			}
+		}
+		return codigo;
+	}
+
+	/**
+	 * Método que converte o código compactado em 18 bits para o texto do tabuleiro,
+	 * com 'X', 'O' e '-' (vazia) em cada posição.
+	 */
+	public static String getTexto(final int codigo) {
+		final char[] texto = new char[9];
+		for (int posicao = 0; posicao < 9; posicao++) {
+			if ((codigo & (1 << posicao)) != 0) {
+				texto[posicao] = VelhaIA.JOGADOR_X;
+			} else if ((codigo & (1 << (posicao + 9))) != 0) {
+				texto[posicao] = VelhaIA.JOGADOR_O;
+			} else {
+				texto[posicao] = '-';
+			}
+		}
+		return new String(texto);
+	}
+
+	/**
+	 * Método que soma os contadores das linhas de todas as peças da mascara.
+	 */
+	private static int getLinhas(final int bits) {
+		int linhas = 0;
+		for (int restantes = bits; restantes != 0; restantes &= restantes - 1) {
+			linhas += INCREMENTOS[Integer.numberOfTrailingZeros(restantes)];
+		}
+		return linhas;
+	}
+
+	/**
+	 * Método que retorna o indice na base 3 do tabuleiro.
+	 */
+	public int getIndice() {
+		return getIndice(bitsX, bitsO);
+	}
+
+	/**
+	 * Método que retorna as peças do jogador especificado.
+	 */
+	public int getBits(final char jogador) {
+		return jogador == VelhaIA.JOGADOR_X ? bitsX : bitsO;
+	}
+
+	/**
+	 * Método que retorna as posições ocupadas do tabuleiro.
+	 */
+	public int getOcupadas() {
+		return bitsX | bitsO;
+	}
+
+	/**
+	 * Método que verifica se o tabuleiro está completo.
+	 */
+	public boolean isCheio() {
+		return (bitsX | bitsO) == TABULEIRO_CHEIO;
+	}
+
+	/**
+	 * Método que verifica se o tabuleiro está vazio.
+	 */
+	public boolean isVazio() {
+		return (bitsX | bitsO) == 0;
+	}
+
+	/**
+	 * Método que verifica se todas as posições da mascara estão vazias.
+	 */
+	public boolean isVazio(final int mascara) {
+		return ((bitsX | bitsO) & mascara) == 0;
+	}
+
+	/**
+	 * Método que retorna o indice da linha ganhadora,
+	 * ou retorna -1 caso nenhum jogador tenha ganhado.
+	 * Quando existe mais de uma linha completa, retorna a última.
+	 */
+	public int getLinhaGanhadora() {
+		final int completas = getLinhasCompletas(linhasX) | getLinhasCompletas(linhasO);
+		if (completas == 0) {
+			return -1;
+		}
+		return (31 - Integer.numberOfLeadingZeros(completas)) >>> 1;
+	}
+
+	/**
+	 * Método que retorna o ganhador da partida.
+	 */
+	public char getGanhador() {
+		final int linha = getLinhaGanhadora();
+		if (linha < 0) {
+			return VelhaIA.VAZIO;
+		}
+		return (getLinhasCompletas(linhasX) & (1 << (2 * linha))) != 0 ? VelhaIA.JOGADOR_X : VelhaIA.JOGADOR_O;
+	}
+}
@@ -1,8 +1,6 @@
 package br.unisul.ia.velha;
 
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Classe que implementa a logica do Jogo da Velha.
@@ -24,11 +22,6 @@ public class VelhaIA {
 	 */
 	public static final char VAZIO = ' ';
 
-	/**
-	 * Constante que representa o jogador da rodada.
-	 */
-	public static char JOGADOR_DA_VEZ = JOGADOR_X;
-
 	/**
 	 * Aguarde a vez de jogar.
 	 */
@@ -54,6 +47,13 @@ public class VelhaIA {
 	 */
 	public static final String STATUS_EMPATE = "empate";
 
+	/**
+	 * Quantidade de árvores da busca de Monte Carlo. É fixa, e não um por processador, para
+	 * que a mesma semente repita a mesma jogada em qualquer computador, como na reprodução
+	 * das partidas registradas, e para que a força de cada dificudade não dependa dele.
+	 */
+	private static final int ARVORES_MONTE_CARLO = 4;
+
 	/**
 	 * Posições possíveis para ganhar a partida.
 	 */
@@ -63,13 +63,66 @@ public class VelhaIA {
 	/**
 	 * Tabuleiro com 9 posições.
 	 */
-	private char[] tabuleiro = new char[9];
+	private final TabuleiroBits tabuleiro = new TabuleiroBits();
+
+	/**
+	 * Jogador da rodada.
+	 */
+	private char jogadorDaVez = JOGADOR_X;
 
 	/**
 	 * Dificudade da partida.
 	 */
 	private int dificudade;
 
+	/**
+	 * Modo usado para escolher a proxima jogada.
+	 */
+	private ModoDeJogada modoDeJogada = ModoDeJogada.REGRAS;
+
+	/**
+	 * Gerador dos sorteios das jogadas.
+	 */
+	private SorteioVelha sorteio = new SorteioVelha();
+
+	/**
+	 * Busca usada no modo {@link ModoDeJogada#MONTE_CARLO}, criada na primeira jogada nesse modo.
+	 */
+	private BuscaMonteCarlo buscaMonteCarlo;
+
+	/**
+	 * Livro consultado antes das regras, ou 'null' sem livro.
+	 * Fica com o {@link LivroDeAberturas#getPadrao() livro padrão} até que outro seja escolhido.
+	 */
+	private LivroDeAberturas livro;
+
+	/**
+	 * Mostra se o livro já foi escolhido, para que o livro padrão só seja aberto na primeira jogada.
+	 */
+	private boolean livroEscolhido;
+
+	/**
+	 * Gerador dos sorteios do livro, derivado do gerador das jogadas e do tabuleiro a cada
+	 * consulta, sem avançar o gerador das jogadas, assim o livro não altera os sorteios das regras.
+	 */
+	private final SorteioVelha sorteioDoLivro = new SorteioVelha(0);
+
+	/**
+	 * Regra usada na última jogada escolhida.
+	 */
+	private RegraDeJogada regra = RegraDeJogada.NENHUMA;
+
+	/**
+	 * Jogadas possíveis da escolha da melhor jogada, reaproveitadas entre as jogadas.
+	 */
+	private final int[] jogadasPossiveis = new int[4];
+
+	/**
+	 * Boas jogadas da escolha da melhor jogada, com repetições: cada uma das 4 jogadas
+	 * possíveis pode formar os 2 padrões de dupla em até 4 trios.
+	 */
+	private final int[] boasJogadas = new int[32];
+
 	/**
 	 * Construtor da classe.
 	 */
@@ -98,7 +151,24 @@ public class VelhaIA {
 	 * Método que retorna a posição da jogada no tabuleiro.
 	 */
 	public char getPosicao(final int posicao) {
-		return tabuleiro[posicao];
+		return tabuleiro.getPosicao(posicao);
+	}
+
+	/**
+	 * Método que retorna o tabuleiro compactado em 18 bits:
+	 * as peças do jogador X nos bits 0 a 8 e as do jogador O nos bits 9 a 17.
+	 */
+	public int getCodigoDoTabuleiro() {
+		return tabuleiro.getCodigo();
+	}
+
+	/**
+	 * Método que preenche o tabuleiro inteiro a partir do código compactado em 18 bits
+	 * e do jogador da rodada, sem precisar repetir as jogadas.
+	 */
+	public void setTabuleiro(final int codigo, final char jogadorDaVez) {
+		tabuleiro.setCodigo(codigo);
+		this.jogadorDaVez = jogadorDaVez == JOGADOR_O ? JOGADOR_O : JOGADOR_X;
 	}
 
 	/**
@@ -106,26 +176,31 @@ public class VelhaIA {
 	 */
 	public void setPosicao(final int pos, final char jogador) {
 		if (jogador == JOGADOR_O || jogador == JOGADOR_X) {
-			tabuleiro[pos] = jogador;
+			tabuleiro.setPosicao(pos, jogador);
 		}
 		alteraJogadorDaVez(jogador);
 	}
 
+	/**
+	 * Método que retorna o jogador da rodada.
+	 */
+	public char getJogadorDaVez() {
+		return jogadorDaVez;
+	}
+
 	/**
 	 * Método que altera o jogador da rodada.
 	 */
-	private void alteraJogadorDaVez(final char jogadorDaVez) {
-		JOGADOR_DA_VEZ = jogadorDaVez == JOGADOR_X ? JOGADOR_O : JOGADOR_X;
+	private void alteraJogadorDaVez(final char jogador) {
+		jogadorDaVez = jogador == JOGADOR_X ? JOGADOR_O : JOGADOR_X;
 	}
 
 	/**
 	 * Método que limpa o tabuleiro, preenchendo com 'vazio' os espaços.
 	 */
 	public void limparTabuleiro() {
-		JOGADOR_DA_VEZ = JOGADOR_X;
-		for (int pos = 0; pos < tabuleiro.length; pos++) {
-			tabuleiro[pos] = VAZIO;
-		}
+		jogadorDaVez = JOGADOR_X;
+		tabuleiro.limpar();
 	}
 
 	/**
@@ -135,20 +210,14 @@ public class VelhaIA {
 	 * se o jogador O ganhou.
 	 */
 	public boolean isFimDeJogo() {
-		return (isCheio() || isGanhador(JOGADOR_X) || isGanhador(JOGADOR_O));
+		return (isCheio() || tabuleiro.getLinhaGanhadora() >= 0);
 	}
 
 	/**
 	 * Método que retorna o ganhador da partida.
 	 */
 	public char getGanhador() {
-		int posicoesGanhadoras[] = getPosicoesGanhadoras();
-
-		if (posicoesGanhadoras == null || posicoesGanhadoras.length < 3) {
-			return VAZIO;
-		} else {
-			return tabuleiro[posicoesGanhadoras[0]];
-		}
+		return tabuleiro.getGanhador();
 	}
 
 	/**
@@ -156,48 +225,34 @@ public class VelhaIA {
 	 * ou retorna 'null' caso nenhum jogador tenha ganhado. 
 	 */
 	public int[] getPosicoesGanhadoras() {
-		int posicaoGanhadoras[] = null;
-		int posicao[] = new int[3];
-		char jogada[] = new char[3];
-
-		for (int indice = 0; indice < TRIOS_GANHADORES.length; indice++) {
-			for (int ponto = 0; ponto < 3; ponto++) {
-				posicao[ponto] = TRIOS_GANHADORES[indice][ponto];
-				jogada[ponto] = tabuleiro[posicao[ponto]];
-			}
+		final int linha = tabuleiro.getLinhaGanhadora();
 
-			if (jogada[0] != VAZIO && jogada[0] == jogada[1] && jogada[1] == jogada[2]) {
-				posicaoGanhadoras = new int[3];
-				for (int ponto = 0; ponto < 3; ponto++) {
-					posicaoGanhadoras[ponto] = posicao[ponto];
-				}
-			}
+		if (linha < 0) {
+			return null;
 		}
-		return posicaoGanhadoras;
+		return TRIOS_GANHADORES[linha].clone();
 	}
 
 	/**
 	 * Método que verifica se o jogador ganhou.
 	 */
 	public boolean isGanhador(final char jogador) {
-		if (VAZIO == getGanhador()) {
-			return false;
-		}
-		return getGanhador() == jogador;
+		final char ganhador = tabuleiro.getGanhador();
+		return ganhador != VAZIO && ganhador == jogador;
 	}
 	
 	/**
 	 * Método que verifica se houve um empate.
 	 */
 	public boolean isEmpate() {
-		return isCheio() && getGanhador() == VAZIO;
+		return isCheio() && tabuleiro.getLinhaGanhadora() < 0;
 	}
 
 	/**
 	 * Método que verifica se o tabuleiro está vazio.
 	 */
 	public boolean isVazio() {
-		return isVazioEntre(0, tabuleiro.length - 1);
+		return tabuleiro.isVazio();
 	}
 
 	/**
@@ -206,14 +261,47 @@ public class VelhaIA {
 	 * descrita em 'http://pt.wikipedia.org/wiki/Jogo_da_velha#Jogada_perfeita'.
 	 */
 	public int getJogada() {
+		final long inicio = System.nanoTime();
+		final int jogada = escolherJogada();
+		MetricasJogada.getInstancia().registrar(regra, System.nanoTime() - inicio);
+		return jogada;
+	}
+
+	/**
+	 * Método que escolhe a proxima jogada pelas regras da "Jogada Perfeita",
+	 * guardando a regra usada.
+	 */
+	private int escolherJogada() {
 		int jogada = -1;
 
+		final LivroDeAberturas livroDaJogada = getLivro();
+		if (livroDaJogada != null) {
+			sorteio.derivar(sorteioDoLivro, tabuleiro.getCodigo());
+			jogada = livroDaJogada.getJogada(tabuleiro, jogadorDaVez, getDificudade(), sorteioDoLivro);
+			if (jogada >= 0) {
+				regra = RegraDeJogada.LIVRO;
+				return jogada;
+			}
+		}
+
+		if (modoDeJogada == ModoDeJogada.TABELA && TabelaDeJogadas.isPosicaoConhecida(tabuleiro, jogadorDaVez)) {
+			regra = RegraDeJogada.TABELA;
+			return TabelaDeJogadas.getJogada(tabuleiro, jogadorDaVez, getDificudade(), sorteio);
+		}
+
+		if (modoDeJogada == ModoDeJogada.MONTE_CARLO) {
+			regra = RegraDeJogada.MONTE_CARLO;
+			return getBuscaMonteCarlo().buscar(tabuleiro.getBitsX(), tabuleiro.getBitsO(), jogadorDaVez,
+					BuscaMonteCarlo.getPlayouts(getDificudade()), sorteio);
+		}
+
 		/**
 		 *  Jogada Perfeita: primeiro passo. 
 		 *  Ganhar: Se você tem duas peças numa linha, ponha a terceira.
 		 */
-		jogada = getJogadaAtaque(JOGADOR_DA_VEZ);
+		jogada = getJogadaAtaque(jogadorDaVez);
 		if (jogada >= 0) { 
+			regra = RegraDeJogada.VITORIA;
 			return jogada;
 		}
 
@@ -221,11 +309,14 @@ public class VelhaIA {
 		 * Jogada Perfeita: segundo passo.
 		 * Bloquear: Se o oponente tiver duas peças em linha, ponha a terceira para bloqueá-lo. 
 		 */
-		if (new Random().nextInt(10) >= getDificudade()) {
-			jogada = getJogadaDefesa(JOGADOR_DA_VEZ);
+		if (sorteio.nextInt(10) >= getDificudade()) {
+			jogada = getJogadaDefesa(jogadorDaVez);
 			if (jogada >= 0) {
+				regra = RegraDeJogada.BLOQUEIO;
 				return jogada;
 			}
+		} else if (getJogadaDefesa(jogadorDaVez) >= 0) {
+			MetricasJogada.getInstancia().registrarBloqueioIgnorado();
 		}
 
 		/** Jogada Perfeita: terceiro passo.
@@ -234,15 +325,17 @@ public class VelhaIA {
 		 * Obs: para que a 'IA' começe sempre pelos cantos, deixando o jogo chato, foi
 		 * adicionado a condição abaixo.
 		 */
-		if (isVazio() && new Random().nextBoolean()) {
-			jogada = getJogadaCanto(JOGADOR_DA_VEZ);
+		if (isVazio() && sorteio.nextBoolean()) {
+			jogada = getJogadaCanto(jogadorDaVez);
 			if (jogada >= 0) {
+				regra = RegraDeJogada.CANTO_DE_ABERTURA;
 				return jogada;
 			}
 		}
 		
-		jogada = getJogadaAtaqueTriangulo(JOGADOR_DA_VEZ);
+		jogada = getJogadaAtaqueTriangulo(jogadorDaVez);
 		if (jogada >= 0) { 
+			regra = RegraDeJogada.TRIANGULO;
 			return jogada;
 		}
 
@@ -251,34 +344,42 @@ public class VelhaIA {
 		 *     Opção 1: Crie 2 peças em linha para forçar o oponente a se defender, contanto que não resulte nele criando um triângulo ou vencendo. Por exemplo, se 'X' tem dois cantos opostos do tabuleiro e 'O' tem o centro, 'O' não pode jogar num canto (Jogar no canto nesse cenário criaria um triângulo em que 'X' vence).
          *     Opção 2: Se existe uma configuração em que o oponente pode formar um triângulo, bloqueiem-no.
 		 */
-		if (new Random().nextInt(10) >= getDificudade()) {
-			jogada = getJogadaDefesaTriangulo(JOGADOR_DA_VEZ);
-			if (jogada >= 0)
+		if (sorteio.nextInt(10) >= getDificudade()) {
+			jogada = getJogadaDefesaTriangulo(jogadorDaVez);
+			if (jogada >= 0) {
+				regra = RegraDeJogada.BLOQUEIO_DE_TRIANGULO;
 				return jogada;
+			}
 		}
 
 		/** Jogada Perfeita: quinto passo.
 		 *	Centro: Jogue no centro. 
 		 */
-		if (tabuleiro[4] == VAZIO) {
+		if (tabuleiro.getPosicao(4) == VAZIO) {
 			jogada = 4;
+			regra = RegraDeJogada.CENTRO;
 			return jogada;
 		}
 
 		/** Jogada Perfeita: sexto passo
 		 *  Canto vazio: jogue num canto vazio. 
 		 */
-		jogada = getJogadaCanto(JOGADOR_DA_VEZ);
-		if (jogada >= 0)
+		jogada = getJogadaCanto(jogadorDaVez);
+		if (jogada >= 0) {
+			regra = RegraDeJogada.CANTO;
 			return jogada;
+		}
 
 		/** 
 		 * Última opção: jogar nas bordas.
 		 */
-		jogada = getJogadaBorda(JOGADOR_DA_VEZ);
-		if (jogada >= 0)
+		jogada = getJogadaBorda(jogadorDaVez);
+		if (jogada >= 0) {
+			regra = RegraDeJogada.BORDA;
 			return jogada;
+		}
 
+		regra = RegraDeJogada.NENHUMA;
 		return -1;
 	}
 
@@ -296,28 +397,18 @@ public class VelhaIA {
 			inicio = 0;
 		}
 
-		if (fim >= tabuleiro.length) {
-			fim = tabuleiro.length - 1;
+		if (fim >= 9) {
+			fim = 8;
 		}
 
-		for (int posicao = inicio; posicao <= fim; posicao++) {
-			if (tabuleiro[posicao] != VAZIO) {
-				return false;
-			}
-		}
-
-		return true;
+		return tabuleiro.isVazio(((1 << (fim + 1)) - 1) & ~((1 << inicio) - 1));
 	}
 
 	/**
 	 * Método que verifica se o tabuleiro está completo.
 	 */
 	public boolean isCheio() {
-		for (int posicao = 0; posicao < tabuleiro.length; posicao++) {
-			if (tabuleiro[posicao] == VAZIO)
-				return false;
-		}
-		return true;
+		return tabuleiro.isCheio();
 	}
 
 	/**
@@ -326,18 +417,10 @@ public class VelhaIA {
 	 * jogador ganhe o jogo.
 	 */
 	private int getJogadaAtaque(final char jogador) {
+		final int posicoes = tabuleiro.getPosicoesDeAmeaca(jogador);
 
-		List<Integer> jogadasPossiveis = new ArrayList<Integer>();
-		for (int posicao = 0; posicao < 9; posicao++) {
-			if (tabuleiro[posicao] == VAZIO) {
-				jogadasPossiveis.add(posicao);
-			}
-		}
-
-		List<Integer> boasJogadas = getMelhoresJogadas(jogadasPossiveis, new char[] { VAZIO, jogador, jogador });
-
-		if (boasJogadas.size() > 0) {
-			return boasJogadas.get(0);
+		if (posicoes != 0) {
+			return Integer.numberOfTrailingZeros(posicoes);
 		}
 
 		return -1;
@@ -381,7 +464,7 @@ public class VelhaIA {
 			}
 		}
 		
-		if (tabuleiro[4] == jogador) {
+		if (tabuleiro.getPosicao(4) == jogador) {
 
 			if (isJogarNaPosicao2(jogador)) {
 				return 2;
@@ -407,67 +490,67 @@ public class VelhaIA {
 	 * Método que retorna a opção de jogar na posição 0 
 	 */
 	private boolean isJogarNaPosicao0(final char jogador) {
-		return tabuleiro[0] == VAZIO 
-				&& tabuleiro[1] == getOponente(jogador) 
-				&& tabuleiro[2] == VAZIO
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[5] == VAZIO 
-				&& tabuleiro[6] == getOponente(jogador)
-				&& tabuleiro[7] == VAZIO 
-				&& tabuleiro[8] == VAZIO;
+		return tabuleiro.getPosicao(0) == VAZIO 
+				&& tabuleiro.getPosicao(1) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(2) == VAZIO
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(5) == VAZIO 
+				&& tabuleiro.getPosicao(6) == getOponente(jogador)
+				&& tabuleiro.getPosicao(7) == VAZIO 
+				&& tabuleiro.getPosicao(8) == VAZIO;
 	}
 
 	/**
 	 * Método que retorna a opção de jogar na posição 6 
 	 */
 	private boolean isJogarNaPosicao6(final char jogador) {
-		return tabuleiro[0] == VAZIO 
-				&& tabuleiro[1] == VAZIO 
-				&& tabuleiro[2] == VAZIO
-				&& tabuleiro[3] == getOponente(jogador) 
-				&& tabuleiro[5] == VAZIO 
-				&& tabuleiro[6] == VAZIO
-				&& tabuleiro[7] == VAZIO 
-				&& tabuleiro[8] == getOponente(jogador);
+		return tabuleiro.getPosicao(0) == VAZIO 
+				&& tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(2) == VAZIO
+				&& tabuleiro.getPosicao(3) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(5) == VAZIO 
+				&& tabuleiro.getPosicao(6) == VAZIO
+				&& tabuleiro.getPosicao(7) == VAZIO 
+				&& tabuleiro.getPosicao(8) == getOponente(jogador);
 	}
 
 	/**
 	 * Método que retorna a opção de jogar na posição 8 
 	 */
 	private boolean isJogarNaPosicao8(final char jogador) {
-		return tabuleiro[0] == VAZIO 
-				&& tabuleiro[1] == VAZIO 
-				&& tabuleiro[2] == getOponente(jogador)
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[5] == VAZIO 
-				&& tabuleiro[6] == VAZIO
-				&& tabuleiro[7] == getOponente(jogador) 
-				&& tabuleiro[8] == VAZIO;
+		return tabuleiro.getPosicao(0) == VAZIO 
+				&& tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(2) == getOponente(jogador)
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(5) == VAZIO 
+				&& tabuleiro.getPosicao(6) == VAZIO
+				&& tabuleiro.getPosicao(7) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(8) == VAZIO;
 	}
 
 	/**
 	 * Método que retorna a opção de jogar na posição 2 
 	 */
 	private boolean isJogarNaPosicao2(final char jogador) {
-		return tabuleiro[0] == getOponente(jogador) 
-				&& tabuleiro[1] == VAZIO 
-				&& tabuleiro[2] == VAZIO
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[5] == getOponente(jogador) 
-				&& tabuleiro[6] == VAZIO
-				&& tabuleiro[7] == VAZIO 
-				&& tabuleiro[8] == VAZIO;
+		return tabuleiro.getPosicao(0) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(2) == VAZIO
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(5) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(6) == VAZIO
+				&& tabuleiro.getPosicao(7) == VAZIO 
+				&& tabuleiro.getPosicao(8) == VAZIO;
 	}
 	/**
 	 * Método que verifica se o jogador está no centro
 	 * e as se as bordas do tabuleiro estão vazias.
 	 */
 	private boolean isJogadorNoCentroEBordasVazias(final char jogador) {
-		return tabuleiro[4] == jogador 
-				&& tabuleiro[0] == VAZIO 
-				&& tabuleiro[2] == VAZIO 
-				&& tabuleiro[6] == VAZIO
-				&& tabuleiro[8] == VAZIO;
+		return tabuleiro.getPosicao(4) == jogador 
+				&& tabuleiro.getPosicao(0) == VAZIO 
+				&& tabuleiro.getPosicao(2) == VAZIO 
+				&& tabuleiro.getPosicao(6) == VAZIO
+				&& tabuleiro.getPosicao(8) == VAZIO;
 	}
 
 	/**
@@ -475,10 +558,10 @@ public class VelhaIA {
 	 * Se as bordas estiverem vazias 
 	 */
 	private boolean isJogarNaPosicao0ParaBordasVazias(final char jogador) {
-		return tabuleiro[1] == getOponente(jogador) 
-				&& tabuleiro[3] == getOponente(jogador) 
-				&& tabuleiro[5] == VAZIO
-				&& tabuleiro[7] == VAZIO;
+		return tabuleiro.getPosicao(1) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(3) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(5) == VAZIO
+				&& tabuleiro.getPosicao(7) == VAZIO;
 	}
 
 	/**
@@ -486,10 +569,10 @@ public class VelhaIA {
 	 * Se as bordas estiverem vazias 
 	 */
 	private boolean isJogarNaPosicao6ParaBordasVazias(final char jogador) {
-		return tabuleiro[1] == VAZIO 
-				&& tabuleiro[3] == getOponente(jogador) 
-				&& tabuleiro[5] == VAZIO
-				&& tabuleiro[7] == getOponente(jogador);
+		return tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(3) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(5) == VAZIO
+				&& tabuleiro.getPosicao(7) == getOponente(jogador);
 	}
 
 	/**
@@ -497,10 +580,10 @@ public class VelhaIA {
 	 * Se as bordas estiverem vazias 
 	 */
 	private boolean isJogarNaPosicao8ParaBordasVazias(final char jogador) {
-		return tabuleiro[1] == VAZIO 
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[5] == getOponente(jogador)
-				&& tabuleiro[7] == getOponente(jogador);
+		return tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(5) == getOponente(jogador)
+				&& tabuleiro.getPosicao(7) == getOponente(jogador);
 	}
 
 	/**
@@ -508,34 +591,34 @@ public class VelhaIA {
 	 * Se as bordas estiverem vazias 
 	 */
 	private boolean isJogarNaPosicao2ParaBordasVazias(final char jogador) {
-		return tabuleiro[1] == getOponente(jogador) 
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[5] == getOponente(jogador)
-				&& tabuleiro[7] == VAZIO;
+		return tabuleiro.getPosicao(1) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(5) == getOponente(jogador)
+				&& tabuleiro.getPosicao(7) == VAZIO;
 	}
 
 	/**
 	 * Método que retorna a opção de jogar nas bordas.
 	 */
 	private boolean isJogarNaBorda(final char jogador) {
-		return (tabuleiro[0] == getOponente(jogador) 
-				&& tabuleiro[1] == VAZIO 
-				&& tabuleiro[2] == VAZIO
-				&& tabuleiro[3] == VAZIO 
-				&& tabuleiro[4] == jogador 
-				&& tabuleiro[5] == VAZIO 
-				&& tabuleiro[6] == VAZIO
-				&& tabuleiro[7] == VAZIO 
-				&& tabuleiro[8] == getOponente(jogador))
-				|| (tabuleiro[0] == VAZIO 
-					&& tabuleiro[1] == VAZIO 
-					&& tabuleiro[2] == getOponente(jogador) 
-					&& tabuleiro[3] == VAZIO
-					&& tabuleiro[4] == jogador 
-					&& tabuleiro[5] == VAZIO 
-					&& tabuleiro[6] == getOponente(jogador)
-					&& tabuleiro[7] == VAZIO 
-					&& tabuleiro[8] == VAZIO);
+		return (tabuleiro.getPosicao(0) == getOponente(jogador) 
+				&& tabuleiro.getPosicao(1) == VAZIO 
+				&& tabuleiro.getPosicao(2) == VAZIO
+				&& tabuleiro.getPosicao(3) == VAZIO 
+				&& tabuleiro.getPosicao(4) == jogador 
+				&& tabuleiro.getPosicao(5) == VAZIO 
+				&& tabuleiro.getPosicao(6) == VAZIO
+				&& tabuleiro.getPosicao(7) == VAZIO 
+				&& tabuleiro.getPosicao(8) == getOponente(jogador))
+				|| (tabuleiro.getPosicao(0) == VAZIO 
+					&& tabuleiro.getPosicao(1) == VAZIO 
+					&& tabuleiro.getPosicao(2) == getOponente(jogador) 
+					&& tabuleiro.getPosicao(3) == VAZIO
+					&& tabuleiro.getPosicao(4) == jogador 
+					&& tabuleiro.getPosicao(5) == VAZIO 
+					&& tabuleiro.getPosicao(6) == getOponente(jogador)
+					&& tabuleiro.getPosicao(7) == VAZIO 
+					&& tabuleiro.getPosicao(8) == VAZIO);
 	}
 
 	/**
@@ -544,35 +627,35 @@ public class VelhaIA {
 	 * possibilidades simultaneas de completar uma linha e ganhar o jogo.
 	 */
 	private int getJogadaAtaqueTriangulo(final char jogador) {
-		if (tabuleiro[4] != getOponente(jogador) 
-				|| tabuleiro[1] != VAZIO 
-				|| tabuleiro[3] != VAZIO
-				|| tabuleiro[5] != VAZIO 
-				|| tabuleiro[7] != VAZIO) {
+		if (tabuleiro.getPosicao(4) != getOponente(jogador) 
+				|| tabuleiro.getPosicao(1) != VAZIO 
+				|| tabuleiro.getPosicao(3) != VAZIO
+				|| tabuleiro.getPosicao(5) != VAZIO 
+				|| tabuleiro.getPosicao(7) != VAZIO) {
 			return -1;
 		}
 
-		if (tabuleiro[0] == jogador 
+		if (tabuleiro.getPosicao(0) == jogador 
 				&& isVazioEntre(1, 2) 
 				&& isVazioEntre(6, 8)) {
 			return 8;
 		}
 
 		if (isVazioEntre(0, 1) 
-				&& tabuleiro[2] == jogador 
+				&& tabuleiro.getPosicao(2) == jogador 
 				&& isVazioEntre(6, 8)) {
 			return 6;
 		}
 
 		if (isVazioEntre(0, 2) 
-				&& tabuleiro[6] == jogador 
+				&& tabuleiro.getPosicao(6) == jogador 
 				&& isVazioEntre(7, 8)) {
 			return 2;
 		}
 
 		if (isVazioEntre(0, 2) 
 				&& isVazioEntre(6, 7) 
-				&& tabuleiro[8] == jogador) {
+				&& tabuleiro.getPosicao(8) == jogador) {
 			return 0;
 		}
 		
@@ -583,65 +666,52 @@ public class VelhaIA {
 	 * Método que retorna uma possível jogada no canto para o jogador especificado.
 	 */
 	private int getJogadaCanto(final char jogador) {
-		final List<Integer> jogadasPossiveis = new ArrayList<Integer>();
-
-		if (tabuleiro[0] == VAZIO) {
-			jogadasPossiveis.add(0);
-		}
-		
-		if (tabuleiro[2] == VAZIO) {
-			jogadasPossiveis.add(2);
-		}
-		
-		if (tabuleiro[6] == VAZIO) {
-			jogadasPossiveis.add(6);
-		}
-		
-		if (tabuleiro[8] == VAZIO) {
-			jogadasPossiveis.add(8);
-		}
-
-		return escolherMelhorJogada(jogador, jogadasPossiveis);
+		return escolherMelhorJogada(jogador, getJogadasVazias(0, 2, 6, 8));
 	}
 
 	/**
 	 * Método que retorna uma possível jogada na borda para o jogador especificado.
 	 */
 	private int getJogadaBorda(final char jogador) {
-		final List<Integer> jogadasPossiveis = new ArrayList<Integer>();
+		return escolherMelhorJogada(jogador, getJogadasVazias(1, 3, 5, 7));
+	}
 
-		if (tabuleiro[1] == VAZIO) {
-			jogadasPossiveis.add(1);
+	/**
+	 * Método que guarda em 'jogadasPossiveis' as posições vazias, na ordem especificada,
+	 * e retorna a quantidade.
+	 */
+	private int getJogadasVazias(final int posicao1, final int posicao2, final int posicao3, final int posicao4) {
+		int quantidade = 0;
+
+		if (tabuleiro.getPosicao(posicao1) == VAZIO) {
+			jogadasPossiveis[quantidade++] = posicao1;
 		}
-		
-		if (tabuleiro[3] == VAZIO) {
-			jogadasPossiveis.add(3);
+
+		if (tabuleiro.getPosicao(posicao2) == VAZIO) {
+			jogadasPossiveis[quantidade++] = posicao2;
 		}
-		
-		if (tabuleiro[5] == VAZIO) {
-			jogadasPossiveis.add(5);
+
+		if (tabuleiro.getPosicao(posicao3) == VAZIO) {
+			jogadasPossiveis[quantidade++] = posicao3;
 		}
-		
-		if (tabuleiro[7] == VAZIO) {
-			jogadasPossiveis.add(7);
+
+		if (tabuleiro.getPosicao(posicao4) == VAZIO) {
+			jogadasPossiveis[quantidade++] = posicao4;
 		}
 
-		return escolherMelhorJogada(jogador, jogadasPossiveis);
+		return quantidade;
 	}
 
 	/**
-	 * Método que retorna uma lista com as melhores jogadas de ataque dentre um conjunto
-	 * especificado de jogadas.
+	 * Método que acrescenta em 'boasJogadas', a partir da quantidade especificada, as melhores
+	 * jogadas de ataque dentre as jogadas possíveis, e retorna a nova quantidade.
+	 * Uma jogada é acrescentada uma vez para cada trio em que ela forma o padrão.
 	 */
-	private List<Integer> getMelhoresJogadas(final List<Integer> jogadasPossiveis, final char[] padrao) {
+	private int adicionarMelhoresJogadas(final int quantidadeDePossiveis, final char padrao1, final char padrao2,
+			final char padrao3, int quantidade) {
 
-		final List<Integer> melhoresJogadas = new ArrayList<Integer>();
-
-		if (padrao.length < 3) {
-			return melhoresJogadas;
-		}
-
-		for (Integer jogada : jogadasPossiveis) {
+		for (int indice = 0; indice < quantidadeDePossiveis; indice++) {
+			final int jogada = jogadasPossiveis[indice];
 
 			for (int posicao = 0; posicao < TRIOS_GANHADORES.length; posicao++) {
 
@@ -652,75 +722,82 @@ public class VelhaIA {
 						int ponto2 = (ponto1 == 2) ? 0 : (ponto1 + 1);
 						int ponto3 = (ponto2 == 2) ? 0 : (ponto2 + 1);
 
-						if (tabuleiro[TRIOS_GANHADORES[posicao][ponto1]] == padrao[0] 
-								&& tabuleiro[TRIOS_GANHADORES[posicao][ponto2]] == padrao[1]
-								&& tabuleiro[TRIOS_GANHADORES[posicao][ponto3]] == padrao[2]) {
+						if (tabuleiro.getPosicao(TRIOS_GANHADORES[posicao][ponto1]) == padrao1 
+								&& tabuleiro.getPosicao(TRIOS_GANHADORES[posicao][ponto2]) == padrao2
+								&& tabuleiro.getPosicao(TRIOS_GANHADORES[posicao][ponto3]) == padrao3) {
 
-							melhoresJogadas.add(TRIOS_GANHADORES[posicao][ponto1]);
+							boasJogadas[quantidade++] = jogada;
 						}
 					}
 				}
 			}
 		}
 		
-		return melhoresJogadas;
+		return quantidade;
 	}
 
 	/**
-	 * Método que seleciona dentre um conjunto de jogadas de ataque qual é a melhor. Caso
+	 * Método que seleciona dentre as jogadas possíveis qual é a melhor. Caso
 	 * nao haja uma melhor, sorteia uma.
 	 */
-	private int escolherMelhorJogada(final char jogador, final List<Integer> jogadasPossiveis) {
+	private int escolherMelhorJogada(final char jogador, final int quantidadeDePossiveis) {
 
 		/**
 		 *  Nenhuma jogada possível 
 		 */
-		if (jogadasPossiveis.size() < 1) {
+		if (quantidadeDePossiveis < 1) {
 			return -1;
 		}
 
 		/** 
 		 * Só uma jogada possível 
 		 */
-		if (jogadasPossiveis.size() == 1) {
-			return jogadasPossiveis.get(0);
+		if (quantidadeDePossiveis == 1) {
+			return jogadasPossiveis[0];
 		}
 
 		/**
 		 *  Mais de uma jogada possível. 
 		 *  Verifica quais delas tem chance para formar um trio no futuro.
 		 */
-		List<Integer> boasJogadas = new ArrayList<Integer>();
+		int quantidade = 0;
 
 		/**
 		 *  Jogadas para formar uma dupla [2] 
 		 */
-		boasJogadas.addAll(getMelhoresJogadas(jogadasPossiveis, new char[] { VAZIO, VAZIO, jogador }));
-		boasJogadas.addAll(getMelhoresJogadas(jogadasPossiveis, new char[] { VAZIO, jogador, VAZIO }));
+		quantidade = adicionarMelhoresJogadas(quantidadeDePossiveis, VAZIO, VAZIO, jogador, quantidade);
+		quantidade = adicionarMelhoresJogadas(quantidadeDePossiveis, VAZIO, jogador, VAZIO, quantidade);
 
 		/**
 		 *  Se há jogadas, sorteia uma 
 		 */
-		if (boasJogadas.size() > 0) {
-			return boasJogadas.get(new Random().nextInt(boasJogadas.size()));
+		if (quantidade > 0) {
+			return boasJogadas[sorteio.nextInt(quantidade)];
 		}
 
 		/**
 		 *  Jogadas para iniciar um novo trio [1] 
 		 */
-		boasJogadas = getMelhoresJogadas(jogadasPossiveis, new char[] { VAZIO, VAZIO, VAZIO });
+		quantidade = adicionarMelhoresJogadas(quantidadeDePossiveis, VAZIO, VAZIO, VAZIO, 0);
 
 		/**
 		 *  Se há jogadas, sorteia uma 
 		 */
-		if (boasJogadas.size() > 0) {
-			return boasJogadas.get(new Random().nextInt(boasJogadas.size()));
+		if (quantidade > 0) {
+			return boasJogadas[sorteio.nextInt(quantidade)];
 		}
 
 		/**
 		 *  Se não há boas jogadas, sorteia qualquer uma das possíveis 
 		 */
-		return jogadasPossiveis.get(new Random().nextInt(jogadasPossiveis.size()));
+		return jogadasPossiveis[sorteio.nextInt(quantidadeDePossiveis)];
+	}
+
+	/**
+	 * Método que retorna a regra usada na última jogada escolhida por {@link #getJogada()}.
+	 */
+	public RegraDeJogada getRegra() {
+		return regra;
 	}
 
 	/**
@@ -736,4 +813,79 @@ public class VelhaIA {
 	public void setDificudade(int dificudade) {
 		this.dificudade = dificudade;
 	}
+
+	/**
+	 * Método que retorna o modo usado para escolher a proxima jogada.
+	 */
+	public ModoDeJogada getModoDeJogada() {
+		return modoDeJogada;
+	}
+
+	/**
+	 * Método que preenche o modo usado para escolher a proxima jogada.
+	 */
+	public void setModoDeJogada(final ModoDeJogada modoDeJogada) {
+		this.modoDeJogada = modoDeJogada;
+	}
+
+	/**
+	 * Método que retorna a busca usada no modo {@link ModoDeJogada#MONTE_CARLO}.
+	 */
+	public BuscaMonteCarlo getBuscaMonteCarlo() {
+		if (buscaMonteCarlo == null) {
+			buscaMonteCarlo = new BuscaMonteCarlo(3, 3, 3, ARVORES_MONTE_CARLO, ForkJoinPool.commonPool());
+		}
+		return buscaMonteCarlo;
+	}
+
+	/**
+	 * Método que preenche a busca usada no modo {@link ModoDeJogada#MONTE_CARLO}, por exemplo
+	 * para compartilhar as árvores entre várias instancias usadas pela mesma thread ou para
+	 * limitar a busca por tempo.
+	 */
+	public void setBuscaMonteCarlo(final BuscaMonteCarlo buscaMonteCarlo) {
+		this.buscaMonteCarlo = buscaMonteCarlo;
+	}
+
+	/**
+	 * Método que retorna o livro consultado antes das regras, ou 'null' sem livro.
+	 */
+	public LivroDeAberturas getLivro() {
+		if (!livroEscolhido) {
+			livro = LivroDeAberturas.getPadrao();
+			livroEscolhido = true;
+		}
+		return livro;
+	}
+
+	/**
+	 * Método que preenche o livro consultado antes das regras, ou 'null' para jogar só pelas regras.
+	 */
+	public void setLivro(final LivroDeAberturas livro) {
+		this.livro = livro;
+		this.livroEscolhido = true;
+	}
+
+	/**
+	 * Método que retorna o gerador dos sorteios das jogadas.
+	 */
+	public SorteioVelha getSorteio() {
+		return sorteio;
+	}
+
+	/**
+	 * Método que preenche o gerador dos sorteios das jogadas.
+	 */
+	public void setSorteio(final SorteioVelha sorteio) {
+		this.sorteio = sorteio;
+	}
+
+	/**
+	 * Método que reinicia os sorteios a partir da semente especificada.
+	 * Com a mesma semente, a mesma dificudade e as mesmas jogadas do oponente,
+	 * a maquina repete as mesmas jogadas.
+	 */
+	public void setSemente(final long semente) {
+		sorteio.setSemente(semente);
+	}
 }
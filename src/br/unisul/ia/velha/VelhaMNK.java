@@ -0,0 +1,817 @@
+package br.unisul.ia.velha;
+
+/**
+ * Classe que implementa um Jogo da Velha generalizado: tabuleiro de 'linhas' x 'colunas',
+ * ganha quem completar 'sequencia' peças em linha, na horizontal, vertical ou diagonal.
+ * Com 3 x 3 e sequencia 3 é o Jogo da Velha tradicional; com 15 x 15 e sequencia 5 é o gomoku.
+ *
+ * As linhas ganhadoras são geradas no construtor. A jogada é escolhida por uma busca
+ * alfa-beta com aprofundamento iterativo, limitada por profundidade e por tempo, e com
+ * ordenação das jogadas pela quantidade de peças nas linhas de cada posição.
+ * Nos tabuleiros grandes só são consideradas as posições próximas das peças já jogadas.
+ *
+ * Opcionalmente a busca usa uma {@link TabelaDeTransposicao}, com a chave Zobrist canônica
+ * entre as simetrias do tabuleiro, para não repetir posições já avaliadas.
+ *
+ * Nos tabuleiros de até 64 posições, a jogada também pode ser escolhida por uma
+ * {@link BuscaMonteCarlo}, que usa todo o tempo limite.
+ */
+public class VelhaMNK {
+
+	/**
+	 * Pontuação de vitória, descontada da quantidade de jogadas até ela.
+	 */
+	private static final int VITORIA = 100_000_000;
+
+	/**
+	 * Pontuações acima desta são vitórias, e abaixo do negativo desta são derrotas.
+	 */
+	private static final int LIMITE_VITORIA = VITORIA - 65536;
+
+	/**
+	 * Pontuação maior que qualquer pontuação da busca.
+	 */
+	private static final int INFINITO = Integer.MAX_VALUE;
+
+	/**
+	 * Distancia máxima de uma peça já jogada para a posição ser considerada na busca.
+	 */
+	private static final int DISTANCIA_VIZINHOS = 2;
+
+	/**
+	 * Quantidade de posições a partir da qual só as melhores jogadas são buscadas em cada nível.
+	 */
+	private static final int POSICOES_PARA_LIMITAR_JOGADAS = 25;
+
+	/**
+	 * Quantidade máxima de jogadas buscadas em cada nível nos tabuleiros grandes.
+	 */
+	private static final int JOGADAS_POR_NIVEL = 12;
+
+	/**
+	 * Quantidade de linhas do tabuleiro.
+	 */
+	private final int linhas;
+
+	/**
+	 * Quantidade de colunas do tabuleiro.
+	 */
+	private final int colunas;
+
+	/**
+	 * Quantidade de peças em linha para ganhar a partida.
+	 */
+	private final int sequencia;
+
+	/**
+	 * Posições de cada linha ganhadora.
+	 */
+	private final int[][] linhasGanhadoras;
+
+	/**
+	 * Linhas ganhadoras que passam por cada posição.
+	 */
+	private final int[][] linhasDaPosicao;
+
+	/**
+	 * Peso de uma linha ganhadora com 'n' peças de um jogador e nenhuma do oponente.
+	 */
+	private final int[] pesos;
+
+	/**
+	 * Tabuleiro, com o jogador de cada posição.
+	 */
+	private final char[] tabuleiro;
+
+	/**
+	 * Peças do jogador X em cada linha ganhadora.
+	 */
+	private final int[] pecasX;
+
+	/**
+	 * Peças do jogador O em cada linha ganhadora.
+	 */
+	private final int[] pecasO;
+
+	/**
+	 * Quantidade de peças jogadas a até {@link #DISTANCIA_VIZINHOS} de cada posição.
+	 */
+	private final int[] vizinhos;
+
+	/**
+	 * Avaliação do tabuleiro do ponto de vista do jogador X, atualizada a cada jogada.
+	 */
+	private int avaliacao;
+
+	/**
+	 * Linhas completas do jogador X.
+	 */
+	private int linhasCompletasX;
+
+	/**
+	 * Linhas completas do jogador O.
+	 */
+	private int linhasCompletasO;
+
+	/**
+	 * Quantidade de peças no tabuleiro.
+	 */
+	private int pecas;
+
+	/**
+	 * Jogador da rodada.
+	 */
+	private char jogadorDaVez = VelhaIA.JOGADOR_X;
+
+	/**
+	 * Chave Zobrist do tabuleiro, atualizada a cada jogada.
+	 */
+	private final ChaveZobrist chaveZobrist;
+
+	/**
+	 * Tabela de transposição usada na busca, ou 'null' para buscar sem ela.
+	 */
+	private TabelaDeTransposicao tabelaDeTransposicao;
+
+	/**
+	 * Busca de Monte Carlo usada no lugar da busca alfa-beta, ou 'null'.
+	 */
+	private BuscaMonteCarlo buscaMonteCarlo;
+
+	/**
+	 * Gerador dos sorteios da busca de Monte Carlo.
+	 */
+	private final SorteioVelha sorteio = new SorteioVelha();
+
+	/**
+	 * Profundidade máxima da busca.
+	 */
+	private int profundidadeMaxima;
+
+	/**
+	 * Tempo máximo da busca, em milisegundos.
+	 */
+	private long tempoLimite = 1000;
+
+	/**
+	 * Jogadas e pontuações de cada nível da busca, alocadas uma única vez.
+	 */
+	private final int[][] jogadasDoNivel;
+	private final int[][] pontuacoesDoNivel;
+
+	/**
+	 * Instante, em nanosegundos, em que a busca atual deve terminar.
+	 */
+	private long prazo;
+
+	/**
+	 * Posições visitadas na última busca.
+	 */
+	private long nos;
+
+	/**
+	 * Mostra se a busca atual foi interrompida pelo tempo.
+	 */
+	private boolean interrompida;
+
+	/**
+	 * Construtor da classe.
+	 */
+	public VelhaMNK(final int linhas, final int colunas, final int sequencia) {
+		if (linhas < 1 || colunas < 1 || sequencia < 1 || (sequencia > linhas && sequencia > colunas)) {
+			throw new IllegalArgumentException("Tabuleiro inválido: " + linhas + "x" + colunas + ", sequencia " + sequencia);
+		}
+
+		this.linhas = linhas;
+		this.colunas = colunas;
+		this.sequencia = sequencia;
+		this.linhasGanhadoras = gerarLinhas(linhas, colunas, sequencia);
+		this.linhasDaPosicao = gerarLinhasDaPosicao(linhasGanhadoras, linhas * colunas);
+		this.pesos = new int[sequencia + 1];
+		for (int quantidade = 1; quantidade <= sequencia; quantidade++) {
+			pesos[quantidade] = quantidade == 1 ? 1 : Math.min(pesos[quantidade - 1] * 8, 1 << 24);
+		}
+
+		final int posicoes = linhas * colunas;
+		this.tabuleiro = new char[posicoes];
+		this.pecasX = new int[linhasGanhadoras.length];
+		this.pecasO = new int[linhasGanhadoras.length];
+		this.vizinhos = new int[posicoes];
+		this.jogadasDoNivel = new int[posicoes + 1][posicoes];
+		this.pontuacoesDoNivel = new int[posicoes + 1][posicoes];
+		this.profundidadeMaxima = posicoes;
+		this.chaveZobrist = new ChaveZobrist(linhas, colunas);
+
+		limparTabuleiro();
+	}
+
+	/**
+	 * Método que gera as posições de todas as linhas ganhadoras do tabuleiro.
+	 * A posição (linha, coluna) é representada por 'linha * colunas + coluna'.
+	 */
+	public static int[][] gerarLinhas(final int linhas, final int colunas, final int sequencia) {
+		final int[][] direcoes = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		int quantidade = 0;
+		int[][] linhasGanhadoras = new int[linhas * colunas * direcoes.length][];
+
+		for (int linha = 0; linha < linhas; linha++) {
+			for (int coluna = 0; coluna < colunas; coluna++) {
+				for (final int[] direcao : direcoes) {
+					final int linhaFinal = linha + direcao[0] * (sequencia - 1);
+					final int colunaFinal = coluna + direcao[1] * (sequencia - 1);
+					if (linhaFinal < 0 || linhaFinal >= linhas || colunaFinal < 0 || colunaFinal >= colunas) {
+						continue;
+					}
+
+					final int[] posicoes = new int[sequencia];
+					for (int passo = 0; passo < sequencia; passo++) {
+						posicoes[passo] = (linha + direcao[0] * passo) * colunas + coluna + direcao[1] * passo;
+					}
+					linhasGanhadoras[quantidade++] = posicoes;
+				}
+			}
+		}
+
+		final int[][] resultado = new int[quantidade][];
+		System.arraycopy(linhasGanhadoras, 0, resultado, 0, quantidade);
+		return resultado;
+	}
+
+	/**
+	 * Método que gera, para cada posição, os indices das linhas ganhadoras que passam por ela.
+	 */
+	static int[][] gerarLinhasDaPosicao(final int[][] linhasGanhadoras, final int posicoes) {
+		final int[] quantidades = new int[posicoes];
+		for (final int[] linha : linhasGanhadoras) {
+			for (final int posicao : linha) {
+				quantidades[posicao]++;
+			}
+		}
+
+		final int[][] linhasDaPosicao = new int[posicoes][];
+		for (int posicao = 0; posicao < posicoes; posicao++) {
+			linhasDaPosicao[posicao] = new int[quantidades[posicao]];
+			quantidades[posicao] = 0;
+		}
+		for (int indice = 0; indice < linhasGanhadoras.length; indice++) {
+			for (final int posicao : linhasGanhadoras[indice]) {
+				linhasDaPosicao[posicao][quantidades[posicao]++] = indice;
+			}
+		}
+		return linhasDaPosicao;
+	}
+
+	/**
+	 * Método que limpa o tabuleiro.
+	 */
+	public void limparTabuleiro() {
+		for (int posicao = 0; posicao < tabuleiro.length; posicao++) {
+			tabuleiro[posicao] = VelhaIA.VAZIO;
+			vizinhos[posicao] = 0;
+		}
+		for (int linha = 0; linha < linhasGanhadoras.length; linha++) {
+			pecasX[linha] = 0;
+			pecasO[linha] = 0;
+		}
+		avaliacao = 0;
+		linhasCompletasX = 0;
+		linhasCompletasO = 0;
+		pecas = 0;
+		jogadorDaVez = VelhaIA.JOGADOR_X;
+		chaveZobrist.limpar();
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro.
+	 */
+	public char getPosicao(final int posicao) {
+		return tabuleiro[posicao];
+	}
+
+	/**
+	 * Método que retorna a posição da jogada no tabuleiro, pela linha e coluna.
+	 */
+	public char getPosicao(final int linha, final int coluna) {
+		return tabuleiro[linha * colunas + coluna];
+	}
+
+	/**
+	 * Método que preenche a posição do jogador no tabuleiro e passa a vez para o oponente.
+	 * Com 'vazio', desfaz a jogada da posição e devolve a vez para quem a fez.
+	 */
+	public void setPosicao(final int posicao, final char jogador) {
+		final char anterior = tabuleiro[posicao];
+		if (anterior != VelhaIA.VAZIO) {
+			remover(posicao, anterior);
+		}
+
+		if (jogador == VelhaIA.JOGADOR_X || jogador == VelhaIA.JOGADOR_O) {
+			colocar(posicao, jogador);
+			jogadorDaVez = VelhaIA.getOponente(jogador);
+		} else if (anterior != VelhaIA.VAZIO) {
+			jogadorDaVez = anterior;
+		}
+	}
+
+	/**
+	 * Método que coloca a peça do jogador e atualiza as linhas e a avaliação.
+	 */
+	private void colocar(final int posicao, final char jogador) {
+		tabuleiro[posicao] = jogador;
+		pecas++;
+		final int[] proprias = jogador == VelhaIA.JOGADOR_X ? pecasX : pecasO;
+		for (final int linha : linhasDaPosicao[posicao]) {
+			avaliacao -= getAvaliacaoDaLinha(linha);
+			proprias[linha]++;
+			avaliacao += getAvaliacaoDaLinha(linha);
+			if (proprias[linha] == sequencia) {
+				if (jogador == VelhaIA.JOGADOR_X) {
+					linhasCompletasX++;
+				} else {
+					linhasCompletasO++;
+				}
+			}
+		}
+		atualizarVizinhos(posicao, 1);
+		chaveZobrist.alternar(posicao, jogador);
+	}
+
+	/**
+	 * Método que remove a peça do jogador e atualiza as linhas e a avaliação.
+	 */
+	private void remover(final int posicao, final char jogador) {
+		tabuleiro[posicao] = VelhaIA.VAZIO;
+		pecas--;
+		final int[] proprias = jogador == VelhaIA.JOGADOR_X ? pecasX : pecasO;
+		for (final int linha : linhasDaPosicao[posicao]) {
+			if (proprias[linha] == sequencia) {
+				if (jogador == VelhaIA.JOGADOR_X) {
+					linhasCompletasX--;
+				} else {
+					linhasCompletasO--;
+				}
+			}
+			avaliacao -= getAvaliacaoDaLinha(linha);
+			proprias[linha]--;
+			avaliacao += getAvaliacaoDaLinha(linha);
+		}
+		atualizarVizinhos(posicao, -1);
+		chaveZobrist.alternar(posicao, jogador);
+	}
+
+	/**
+	 * Método que soma a variação na quantidade de vizinhos das posições próximas.
+	 */
+	private void atualizarVizinhos(final int posicao, final int variacao) {
+		final int linha = posicao / colunas;
+		final int coluna = posicao % colunas;
+		for (int l = Math.max(0, linha - DISTANCIA_VIZINHOS); l <= Math.min(linhas - 1, linha + DISTANCIA_VIZINHOS); l++) {
+			for (int c = Math.max(0, coluna - DISTANCIA_VIZINHOS); c <= Math.min(colunas - 1, coluna + DISTANCIA_VIZINHOS); c++) {
+				vizinhos[l * colunas + c] += variacao;
+			}
+		}
+	}
+
+	/**
+	 * Método que retorna a avaliação de uma linha do ponto de vista do jogador X.
+	 * Linhas com peças dos dois jogadores não valem nada.
+	 */
+	private int getAvaliacaoDaLinha(final int linha) {
+		if (pecasO[linha] == 0) {
+			return pesos[pecasX[linha]];
+		}
+		if (pecasX[linha] == 0) {
+			return -pesos[pecasO[linha]];
+		}
+		return 0;
+	}
+
+	/**
+	 * Método que retorna o ganhador da partida.
+	 */
+	public char getGanhador() {
+		if (linhasCompletasX > 0) {
+			return VelhaIA.JOGADOR_X;
+		}
+		if (linhasCompletasO > 0) {
+			return VelhaIA.JOGADOR_O;
+		}
+		return VelhaIA.VAZIO;
+	}
+
+	/**
+	 * Método que verifica se o tabuleiro está completo.
+	 */
+	public boolean isCheio() {
+		return pecas == tabuleiro.length;
+	}
+
+	/**
+	 * Método que verifica se o jogo acabou.
+	 */
+	public boolean isFimDeJogo() {
+		return isCheio() || linhasCompletasX > 0 || linhasCompletasO > 0;
+	}
+
+	/**
+	 * Método que retorna a melhor jogada encontrada para o jogador da rodada,
+	 * ou -1 se o jogo já acabou.
+	 */
+	public int getJogada() {
+		if (isFimDeJogo()) {
+			return -1;
+		}
+
+		if (buscaMonteCarlo != null) {
+			return getJogadaMonteCarlo();
+		}
+
+		prazo = System.nanoTime() + tempoLimite * 1_000_000L;
+		nos = 0;
+		interrompida = false;
+		if (tabelaDeTransposicao != null) {
+			tabelaDeTransposicao.novaBusca();
+		}
+
+		final int[] jogadas = jogadasDoNivel[0];
+		final int[] pontuacoes = pontuacoesDoNivel[0];
+		final int quantidade = limitarJogadas(gerarJogadas(jogadas, pontuacoes, jogadorDaVez));
+		int melhorJogada = jogadas[0];
+
+		for (int profundidade = 1; profundidade <= profundidadeMaxima; profundidade++) {
+			int alfa = -INFINITO;
+			int melhorDaIteracao = -1;
+
+			for (int indice = 0; indice < quantidade; indice++) {
+				final int jogada = jogadas[indice];
+				final char jogador = jogadorDaVez;
+				setPosicao(jogada, jogador);
+				final int pontuacao = -buscar(profundidade - 1, -INFINITO, -alfa, 1, VelhaIA.getOponente(jogador));
+				setPosicao(jogada, VelhaIA.VAZIO);
+
+				if (interrompida) {
+					break;
+				}
+				if (pontuacao > alfa) {
+					alfa = pontuacao;
+					melhorDaIteracao = indice;
+				}
+			}
+
+			if (interrompida || melhorDaIteracao < 0) {
+				break;
+			}
+
+			/**
+			 * A melhor jogada da iteração é a primeira a ser buscada na próxima.
+			 */
+			melhorJogada = jogadas[melhorDaIteracao];
+			System.arraycopy(jogadas, 0, jogadas, 1, melhorDaIteracao);
+			jogadas[0] = melhorJogada;
+
+			if (Math.abs(alfa) > LIMITE_VITORIA || profundidade >= tabuleiro.length - pecas) {
+				break;
+			}
+		}
+
+		return melhorJogada;
+	}
+
+	/**
+	 * Método que escolhe a jogada pela busca de Monte Carlo, com todo o tempo limite.
+	 * Sem tempo limite, a busca faz {@link BuscaMonteCarlo#PLAYOUTS_MAXIMOS} playouts.
+	 */
+	private int getJogadaMonteCarlo() {
+		long bitsX = 0;
+		long bitsO = 0;
+		for (int posicao = 0; posicao < tabuleiro.length; posicao++) {
+			if (tabuleiro[posicao] == VelhaIA.JOGADOR_X) {
+				bitsX |= 1L << posicao;
+			} else if (tabuleiro[posicao] == VelhaIA.JOGADOR_O) {
+				bitsO |= 1L << posicao;
+			}
+		}
+		buscaMonteCarlo.setTempoLimite(tempoLimite);
+		final int playouts = tempoLimite > 0 ? Integer.MAX_VALUE : BuscaMonteCarlo.PLAYOUTS_MAXIMOS;
+		final int jogada = buscaMonteCarlo.buscar(bitsX, bitsO, jogadorDaVez, playouts, sorteio);
+		nos = buscaMonteCarlo.getPlayoutsFeitos();
+		return jogada;
+	}
+
+	/**
+	 * Método que faz a busca alfa-beta (negamax) e retorna a pontuação do ponto de vista do jogador.
+	 */
+	private int buscar(final int profundidade, int alfa, int beta, final int nivel, final char jogador) {
+		if ((++nos & 1023) == 0 && System.nanoTime() > prazo) {
+			interrompida = true;
+		}
+		if (linhasCompletasX > 0 || linhasCompletasO > 0) {
+			return -(VITORIA - nivel);
+		}
+		if (isCheio()) {
+			return 0;
+		}
+		if (profundidade == 0) {
+			return jogador == VelhaIA.JOGADOR_X ? avaliacao : -avaliacao;
+		}
+		if (interrompida) {
+			return 0;
+		}
+
+		final int alfaOriginal = alfa;
+		long chave = 0;
+		int simetria = 0;
+		int jogadaDaTabela = -1;
+
+		if (tabelaDeTransposicao != null) {
+			chave = chaveZobrist.getChaveCanonica(jogador);
+			simetria = chaveZobrist.getSimetriaCanonica();
+
+			final long dados = tabelaDeTransposicao.consultar(chave);
+			if (dados != TabelaDeTransposicao.NAO_ENCONTRADO) {
+				final int jogadaCanonica = TabelaDeTransposicao.getJogada(dados);
+				if (jogadaCanonica >= 0) {
+					jogadaDaTabela = chaveZobrist.deSimetria(simetria, jogadaCanonica);
+				}
+
+				if (TabelaDeTransposicao.getProfundidade(dados) >= profundidade) {
+					final int pontuacao = lerPontuacaoDaTabela(TabelaDeTransposicao.getPontuacao(dados), nivel);
+					final int tipo = TabelaDeTransposicao.getTipo(dados);
+					if (tipo == TabelaDeTransposicao.EXATO) {
+						return pontuacao;
+					}
+					if (tipo == TabelaDeTransposicao.LIMITE_INFERIOR) {
+						alfa = Math.max(alfa, pontuacao);
+					} else {
+						beta = Math.min(beta, pontuacao);
+					}
+					if (alfa >= beta) {
+						return pontuacao;
+					}
+				}
+			}
+		}
+
+		final int[] jogadas = jogadasDoNivel[nivel];
+		int quantidade = gerarJogadas(jogadas, pontuacoesDoNivel[nivel], jogador);
+		trazerParaFrente(jogadas, quantidade, jogadaDaTabela);
+		quantidade = limitarJogadas(quantidade);
+
+		int melhorPontuacao = -INFINITO;
+		int melhorJogada = -1;
+
+		for (int indice = 0; indice < quantidade; indice++) {
+			final int jogada = jogadas[indice];
+			setPosicao(jogada, jogador);
+			final int pontuacao = -buscar(profundidade - 1, -beta, -alfa, nivel + 1, VelhaIA.getOponente(jogador));
+			setPosicao(jogada, VelhaIA.VAZIO);
+
+			if (pontuacao > melhorPontuacao) {
+				melhorPontuacao = pontuacao;
+				melhorJogada = jogada;
+			}
+			if (pontuacao > alfa) {
+				alfa = pontuacao;
+			}
+			if (alfa >= beta) {
+				break;
+			}
+		}
+
+		if (tabelaDeTransposicao != null && !interrompida) {
+			final int tipo = melhorPontuacao <= alfaOriginal ? TabelaDeTransposicao.LIMITE_SUPERIOR
+					: melhorPontuacao >= beta ? TabelaDeTransposicao.LIMITE_INFERIOR
+					: TabelaDeTransposicao.EXATO;
+			tabelaDeTransposicao.guardar(chave, gravarPontuacaoNaTabela(melhorPontuacao, nivel), tipo, profundidade,
+					chaveZobrist.paraSimetria(simetria, melhorJogada));
+		}
+		return melhorPontuacao;
+	}
+
+	/**
+	 * Método que converte a pontuação da busca para a tabela de transposição: as vitórias
+	 * e derrotas passam a contar as jogadas a partir desta posição, e não da raiz.
+	 */
+	private static int gravarPontuacaoNaTabela(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que converte a pontuação da tabela de transposição para a busca.
+	 */
+	private static int lerPontuacaoDaTabela(final int pontuacao, final int nivel) {
+		if (pontuacao > LIMITE_VITORIA) {
+			return pontuacao - nivel;
+		}
+		if (pontuacao < -LIMITE_VITORIA) {
+			return pontuacao + nivel;
+		}
+		return pontuacao;
+	}
+
+	/**
+	 * Método que move a jogada para a primeira posição da lista, mantendo a ordem das demais.
+	 */
+	private static void trazerParaFrente(final int[] jogadas, final int quantidade, final int jogada) {
+		if (jogada < 0) {
+			return;
+		}
+		for (int indice = 0; indice < quantidade; indice++) {
+			if (jogadas[indice] == jogada) {
+				System.arraycopy(jogadas, 0, jogadas, 1, indice);
+				jogadas[0] = jogada;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Método que preenche as jogadas possíveis, ordenadas das mais promissoras para as menos,
+	 * e retorna a quantidade.
+	 */
+	private int gerarJogadas(final int[] jogadas, final int[] pontuacoes, final char jogador) {
+		final int[] proprias = jogador == VelhaIA.JOGADOR_X ? pecasX : pecasO;
+		final int[] doOponente = jogador == VelhaIA.JOGADOR_X ? pecasO : pecasX;
+		final boolean somenteVizinhos = pecas > 0 && hasPosicaoVaziaComVizinhos();
+		int quantidade = 0;
+
+		for (int posicao = 0; posicao < tabuleiro.length; posicao++) {
+			if (tabuleiro[posicao] != VelhaIA.VAZIO || (somenteVizinhos && vizinhos[posicao] == 0)) {
+				continue;
+			}
+
+			/**
+			 * A jogada vale pelo que ela constrói nas próprias linhas e pelo que bloqueia
+			 * nas linhas do oponente; posições no centro desempatam.
+			 */
+			int pontuacao = getProximidadeDoCentro(posicao);
+			for (final int linha : linhasDaPosicao[posicao]) {
+				if (doOponente[linha] == 0) {
+					pontuacao += pesos[proprias[linha] + 1] * 2;
+				}
+				if (proprias[linha] == 0) {
+					pontuacao += pesos[doOponente[linha] + 1];
+				}
+			}
+
+			/**
+			 * Insere ordenado, da maior pontuação para a menor.
+			 */
+			int indice = quantidade++;
+			while (indice > 0 && pontuacoes[indice - 1] < pontuacao) {
+				jogadas[indice] = jogadas[indice - 1];
+				pontuacoes[indice] = pontuacoes[indice - 1];
+				indice--;
+			}
+			jogadas[indice] = posicao;
+			pontuacoes[indice] = pontuacao;
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que retorna quantas jogadas devem ser buscadas: nos tabuleiros grandes
+	 * só as melhores.
+	 */
+	private int limitarJogadas(final int quantidade) {
+		if (tabuleiro.length > POSICOES_PARA_LIMITAR_JOGADAS && quantidade > JOGADAS_POR_NIVEL) {
+			return JOGADAS_POR_NIVEL;
+		}
+		return quantidade;
+	}
+
+	/**
+	 * Método que verifica se existe alguma posição vazia perto das peças já jogadas.
+	 */
+	private boolean hasPosicaoVaziaComVizinhos() {
+		for (int posicao = 0; posicao < tabuleiro.length; posicao++) {
+			if (tabuleiro[posicao] == VelhaIA.VAZIO && vizinhos[posicao] > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Método que retorna quanto a posição está próxima do centro do tabuleiro.
+	 */
+	private int getProximidadeDoCentro(final int posicao) {
+		final int distanciaLinha = Math.abs(2 * (posicao / colunas) - (linhas - 1));
+		final int distanciaColuna = Math.abs(2 * (posicao % colunas) - (colunas - 1));
+		return linhas + colunas - Math.max(distanciaLinha, distanciaColuna);
+	}
+
+	/**
+	 * Método que retorna as posições de uma linha ganhadora completa,
+	 * ou retorna 'null' caso nenhum jogador tenha ganhado.
+	 */
+	public int[] getPosicoesGanhadoras() {
+		for (int linha = 0; linha < linhasGanhadoras.length; linha++) {
+			if (pecasX[linha] == sequencia || pecasO[linha] == sequencia) {
+				return linhasGanhadoras[linha].clone();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Método que retorna o jogador da rodada.
+	 */
+	public char getJogadorDaVez() {
+		return jogadorDaVez;
+	}
+
+	/**
+	 * Método que retorna a quantidade de linhas do tabuleiro.
+	 */
+	public int getLinhas() {
+		return linhas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de colunas do tabuleiro.
+	 */
+	public int getColunas() {
+		return colunas;
+	}
+
+	/**
+	 * Método que retorna a quantidade de peças em linha para ganhar a partida.
+	 */
+	public int getSequencia() {
+		return sequencia;
+	}
+
+	/**
+	 * Método que retorna a quantidade de posições visitadas na última busca
+	 * (de playouts, na busca de Monte Carlo).
+	 */
+	public long getNos() {
+		return nos;
+	}
+
+	/**
+	 * Método que retorna a tabela de transposição usada na busca.
+	 */
+	public TabelaDeTransposicao getTabelaDeTransposicao() {
+		return tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que preenche a tabela de transposição usada na busca, ou 'null' para buscar sem ela.
+	 * Uma tabela só deve ser compartilhada entre jogos com o mesmo tamanho de tabuleiro.
+	 */
+	public void setTabelaDeTransposicao(final TabelaDeTransposicao tabelaDeTransposicao) {
+		this.tabelaDeTransposicao = tabelaDeTransposicao;
+	}
+
+	/**
+	 * Método que retorna a busca de Monte Carlo usada no lugar da busca alfa-beta, ou 'null'.
+	 */
+	public BuscaMonteCarlo getBuscaMonteCarlo() {
+		return buscaMonteCarlo;
+	}
+
+	/**
+	 * Método que passa a escolher as jogadas pela busca de Monte Carlo, criada para o tamanho
+	 * deste tabuleiro, ou volta para a busca alfa-beta com 'false'.
+	 * A busca de Monte Carlo só aceita tabuleiros de até 64 posições.
+	 */
+	public void setMonteCarlo(final boolean monteCarlo) {
+		this.buscaMonteCarlo = monteCarlo ? new BuscaMonteCarlo(linhas, colunas, sequencia) : null;
+	}
+
+	/**
+	 * Método que retorna a profundidade máxima da busca.
+	 */
+	public int getProfundidadeMaxima() {
+		return profundidadeMaxima;
+	}
+
+	/**
+	 * Método que preenche a profundidade máxima da busca.
+	 */
+	public void setProfundidadeMaxima(final int profundidadeMaxima) {
+		this.profundidadeMaxima = Math.max(1, Math.min(profundidadeMaxima, tabuleiro.length));
+	}
+
+	/**
+	 * Método que retorna o tempo máximo da busca, em milisegundos.
+	 */
+	public long getTempoLimite() {
+		return tempoLimite;
+	}
+
+	/**
+	 * Método que preenche o tempo máximo da busca, em milisegundos.
+	 */
+	public void setTempoLimite(final long tempoLimite) {
+		this.tempoLimite = tempoLimite;
+	}
+}
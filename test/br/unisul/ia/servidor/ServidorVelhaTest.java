@@ -0,0 +1,47 @@
+package br.unisul.ia.servidor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testes do {@link ServidorVelha}.
+ */
+class ServidorVelhaTest {
+
+	/**
+	 * Mais pedidos de uma vez do que cabem respostas no buffer de saída da conexão: todos os
+	 * pedidos devem ser respondidos, sem o cliente precisar enviar mais nada.
+	 */
+	@Test
+	void respondeTodosOsPedidosEnviadosDeUmaVez() throws Exception {
+		final int pedidos = 4 * (ServidorVelha.TAMANHO_DO_BUFFER / ProtocoloVelha.TAMANHO_DA_RESPOSTA) + 1;
+
+		try (ServidorVelha servidor = new ServidorVelha(new InetSocketAddress("127.0.0.1", 0), 1)) {
+			servidor.iniciar();
+			try (Socket socket = new Socket("127.0.0.1", servidor.getPorta())) {
+				socket.setSoTimeout(5000);
+
+				final byte[] pedido = new byte[pedidos * ProtocoloVelha.TAMANHO_DO_PEDIDO];
+				for (int indice = 0; indice < pedidos; indice++) {
+					pedido[indice * ProtocoloVelha.TAMANHO_DO_PEDIDO] = ProtocoloVelha.NOVA_PARTIDA;
+					pedido[indice * ProtocoloVelha.TAMANHO_DO_PEDIDO + 1] = (byte) (indice % 3);
+				}
+				final OutputStream saida = socket.getOutputStream();
+				saida.write(pedido);
+				saida.flush();
+
+				final byte[] respostas = new byte[pedidos * ProtocoloVelha.TAMANHO_DA_RESPOSTA];
+				new DataInputStream(socket.getInputStream()).readFully(respostas);
+				for (int indice = 0; indice < pedidos; indice++) {
+					assertEquals(ProtocoloVelha.SUA_VEZ_JOGAR, respostas[indice * ProtocoloVelha.TAMANHO_DA_RESPOSTA]);
+				}
+			}
+		}
+	}
+}
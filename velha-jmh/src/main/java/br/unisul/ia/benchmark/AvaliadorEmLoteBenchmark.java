@@ -0,0 +1,61 @@
+package br.unisul.ia.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.unisul.ia.velha.AvaliadorEmLote;
+import br.unisul.ia.velha.ModoDeJogada;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Benchmark do {@link AvaliadorEmLote} sobre um lote com as posições fixas repetidas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class AvaliadorEmLoteBenchmark {
+
+	/**
+	 * Quantidade de tabuleiros do lote.
+	 */
+	private static final int TABULEIROS_DO_LOTE = 1024;
+
+	@Param({ "10", "5", "0" })
+	public int dificudade;
+
+	private final AvaliadorEmLote avaliador = new AvaliadorEmLote();
+	private final int[] codigos = new int[TABULEIROS_DO_LOTE];
+	private final int[] jogadas = new int[TABULEIROS_DO_LOTE];
+
+	@Setup
+	public void preparar() {
+		final PosicaoDoBenchmark[] posicoes = PosicaoDoBenchmark.values();
+		for (int indice = 0; indice < codigos.length; indice++) {
+			codigos[indice] = posicoes[indice % posicoes.length].criarVelhaIA(0, ModoDeJogada.REGRAS)
+					.getCodigoDoTabuleiro();
+		}
+	}
+
+	/**
+	 * Mede a avaliação do lote inteiro.
+	 */
+	@Benchmark
+	public int[] avaliarLote() {
+		avaliador.avaliar(codigos, VelhaIA.JOGADOR_X, dificudade, 1L, jogadas);
+		return jogadas;
+	}
+}
@@ -0,0 +1,55 @@
+package br.unisul.ia.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.unisul.ia.velha.ModoDeJogada;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Benchmark das consultas da situação do tabuleiro da {@link VelhaIA} sobre as posições fixas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+@State(Scope.Thread)
+public class ConsultasBenchmark {
+
+	@Param
+	public PosicaoDoBenchmark posicao;
+
+	private VelhaIA velhaIA;
+
+	@Setup
+	public void preparar() {
+		velhaIA = posicao.criarVelhaIA(0, ModoDeJogada.REGRAS);
+	}
+
+	@Benchmark
+	public int[] getPosicoesGanhadoras() {
+		return velhaIA.getPosicoesGanhadoras();
+	}
+
+	@Benchmark
+	public boolean isFimDeJogo() {
+		return velhaIA.isFimDeJogo();
+	}
+
+	@Benchmark
+	public boolean isEmpate() {
+		return velhaIA.isEmpate();
+	}
+}
@@ -0,0 +1,52 @@
+package br.unisul.ia.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks JMH com o profiler de GC, que mostra a memória alocada por operação
+ * (gc.alloc.rate.norm), e salva os resultados em JSON para comparar versões diferentes.
+ * Equivale a "-prof gc -rf json -rff velha-jmh.json"; as demais opções do JMH são aceitas, e
+ * o formato e o arquivo do resultado podem ser trocados com -rf e -rff.
+ *
+ * Uso: java -jar velha-jmh/target/benchmarks.jar [opções do JMH] [filtro]
+ */
+public class ExecutarBenchmarks {
+
+	/**
+	 * Arquivo padrão dos resultados.
+	 */
+	private static final String ARQUIVO_PADRAO = "velha-jmh.json";
+
+	/**
+	 * Método que inicia os benchmarks.
+	 */
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+		final CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+		if (linhaDeComando.shouldHelp() || linhaDeComando.shouldList() || linhaDeComando.shouldListProfilers()
+				|| linhaDeComando.shouldListResultFormats() || linhaDeComando.shouldListWithParams()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		final ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linhaDeComando);
+		if (linhaDeComando.getProfilers().isEmpty()) {
+			opcoes.addProfiler(GCProfiler.class);
+		}
+		if (!linhaDeComando.getResultFormat().hasValue()) {
+			opcoes.resultFormat(ResultFormatType.JSON);
+		}
+		if (!linhaDeComando.getResult().hasValue()) {
+			opcoes.result(ARQUIVO_PADRAO);
+		}
+		new Runner(opcoes.build()).run();
+	}
+}
@@ -0,0 +1,49 @@
+package br.unisul.ia.benchmark;
+
+import br.unisul.ia.velha.ModoDeJogada;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Posições fixas usadas nos benchmarks, com as jogadas feitas a partir do tabuleiro vazio.
+ */
+public enum PosicaoDoBenchmark {
+
+	/**
+	 * Tabuleiro vazio.
+	 */
+	VAZIO(),
+
+	/**
+	 * Meio de jogo.
+	 */
+	MEIO_DE_JOGO(4, 0, 1),
+
+	/**
+	 * Final de jogo, com duas posições livres.
+	 */
+	FINAL_DE_JOGO(0, 4, 8, 2, 1, 7, 3),
+
+	/**
+	 * Triangulo: o 'X' nos cantos opostos e o 'O' no centro.
+	 */
+	TRIANGULO(0, 4, 8);
+
+	private final int[] jogadas;
+
+	PosicaoDoBenchmark(final int... jogadas) {
+		this.jogadas = jogadas;
+	}
+
+	/**
+	 * Método que cria a {@link VelhaIA} com a posição, a dificudade e o modo de jogada.
+	 */
+	public VelhaIA criarVelhaIA(final int dificudade, final ModoDeJogada modo) {
+		final VelhaIA velhaIA = new VelhaIA();
+		velhaIA.setDificudade(dificudade);
+		velhaIA.setModoDeJogada(modo);
+		for (final int jogada : jogadas) {
+			velhaIA.setPosicao(jogada, velhaIA.getJogadorDaVez());
+		}
+		return velhaIA;
+	}
+}
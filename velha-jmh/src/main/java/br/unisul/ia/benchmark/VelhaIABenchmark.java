@@ -0,0 +1,97 @@
+package br.unisul.ia.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.unisul.ia.velha.ModoDeJogada;
+import br.unisul.ia.velha.VelhaIA;
+
+/**
+ * Benchmark da escolha da jogada da {@link VelhaIA}, em cada modo de jogada e em cada
+ * dificudade (10 = fácil, 5 = médio, 0 = difícil): uma jogada sobre as posições fixas e uma
+ * partida completa, maquina contra maquina, a partir do tabuleiro vazio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(2)
+public class VelhaIABenchmark {
+
+	/**
+	 * Estado da jogada sobre uma posição fixa.
+	 */
+	@State(Scope.Thread)
+	public static class Jogada {
+
+		@Param
+		public ModoDeJogada modo;
+
+		@Param({ "10", "5", "0" })
+		public int dificudade;
+
+		@Param
+		public PosicaoDoBenchmark posicao;
+
+		VelhaIA velhaIA;
+
+		@Setup
+		public void preparar() {
+			velhaIA = posicao.criarVelhaIA(dificudade, modo);
+		}
+	}
+
+	/**
+	 * Estado da partida completa.
+	 */
+	@State(Scope.Thread)
+	public static class Partida {
+
+		@Param
+		public ModoDeJogada modo;
+
+		@Param({ "10", "5", "0" })
+		public int dificudade;
+
+		VelhaIA velhaIA;
+
+		@Setup
+		public void preparar() {
+			velhaIA = PosicaoDoBenchmark.VAZIO.criarVelhaIA(dificudade, modo);
+		}
+	}
+
+	/**
+	 * Mede a escolha de uma jogada.
+	 */
+	@Benchmark
+	public int getJogada(final Jogada estado) {
+		return estado.velhaIA.getJogada();
+	}
+
+	/**
+	 * Mede uma partida completa a partir do tabuleiro vazio, e retorna a quantidade de jogadas.
+	 */
+	@Benchmark
+	public int partidaCompleta(final Partida estado) {
+		final VelhaIA velhaIA = estado.velhaIA;
+		velhaIA.limparTabuleiro();
+		int jogadas = 0;
+		while (!velhaIA.isFimDeJogo()) {
+			velhaIA.setPosicao(velhaIA.getJogada(), velhaIA.getJogadorDaVez());
+			jogadas++;
+		}
+		return jogadas;
+	}
+}